@@ -0,0 +1,86 @@
+package com.smartcms.smartcontent;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcommon.model.ContentType;
+import com.smartcms.smartcommon.model.MediaReference;
+import com.smartcms.smartcommon.model.MediaType;
+import com.smartcms.smartcommon.model.MetaData;
+import com.smartcms.smartcommon.model.OrgDetails;
+import com.smartcms.smartcommon.model.UserDetails;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic content for benchmarks: HTML bodies of English-like words, sized in bytes, from a fixed seed.
+ */
+public final class ContentFixtures {
+
+    private static final String[] WORDS = {
+            "content", "publish", "article", "review", "draft", "editor", "media", "image", "video", "search",
+            "the", "a", "of", "and", "to", "in", "is", "for", "on", "with", "as", "by", "this", "that", "from",
+            "organization", "workflow", "schedule", "version", "rollback", "metadata", "canonical", "audience",
+            "performance", "latency", "throughput", "résumé", "café", "naïve", "über", "straße"
+    };
+
+    private ContentFixtures() {
+    }
+
+    /**
+     * @param bodyBytes Approximate UTF-8 size of the body
+     */
+    public static Content content(String id, int bodyBytes, long seed) {
+        Random random = new Random(seed);
+        return Content.builder()
+                .id(id)
+                .title(sentence(random, 8))
+                .slug("benchmark-" + id)
+                .description(sentence(random, 30))
+                .body(body(random, bodyBytes))
+                .tags(List.of("benchmark", WORDS[random.nextInt(WORDS.length)], WORDS[random.nextInt(WORDS.length)]))
+                .contentType(ContentType.ARTICLE)
+                .meta(new MetaData(sentence(random, 6), sentence(random, 20), List.of("cms", "benchmark"),
+                        "https://example.com/content/" + id))
+                .mediaReferences(List.of(
+                        new MediaReference("m-" + id + "-1", "https://cdn.example.com/" + id + "/1.jpg", MediaType.IMAGE, false, true),
+                        new MediaReference("m-" + id + "-2", "https://cdn.example.com/" + id + "/2.mp4", MediaType.VIDEO, false, false)))
+                .status(ContentStatus.PUBLISHED)
+                .version(7)
+                .createdAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .updatedAt(Instant.parse("2024-06-01T12:00:00Z"))
+                .author(new UserDetails("author-1"))
+                .lastUpdatedBy(new UserDetails("editor-1"))
+                .orgDetails(new OrgDetails("org-1"))
+                .build();
+    }
+
+    /**
+     * A title-like sentence of {@code words} words, with punctuation and accents.
+     */
+    public static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(random.nextInt(10) == 0 ? ", " : " ");
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.append('!').toString();
+    }
+
+    private static String body(Random random, int bytes) {
+        StringBuilder body = new StringBuilder(bytes + 64);
+        List<String> paragraph = new ArrayList<>();
+        while (body.length() < bytes) {
+            paragraph.clear();
+            for (int i = 0; i < 5; i++) {
+                paragraph.add(sentence(random, 12));
+            }
+            body.append("<p>").append(String.join(" ", paragraph)).append("</p>\n");
+        }
+        return body.toString();
+    }
+}
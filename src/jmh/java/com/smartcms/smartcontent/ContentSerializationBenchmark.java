@@ -0,0 +1,45 @@
+package com.smartcms.smartcontent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcms.smartcommon.model.Content;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@link Content} as done for API responses, for bodies from 1 KB to 1 MB.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentSerializationBenchmark {
+
+    @Param({"1024", "16384", "131072", "1048576"})
+    private int bodyBytes;
+
+    // Configured like the application's ObjectMapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private Content content;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        content = ContentFixtures.content("c1", bodyBytes, 1);
+        json = objectMapper.writeValueAsBytes(content);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(content);
+    }
+
+    @Benchmark
+    public Content deserialize() throws IOException {
+        return objectMapper.readValue(json, Content.class);
+    }
+}
@@ -0,0 +1,76 @@
+package com.smartcms.smartcontent.service;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcontent.ContentFixtures;
+import com.smartcms.smartcontent.dto.ContentRequest;
+import com.smartcms.smartcontent.dto.ContentUpdateRequest;
+import com.smartcms.smartcontent.model.RollbackField;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of the request checks and field copies that {@link ContentServiceImpl} makes through
+ * {@link ContentChanges}, for bodies from 1 KB to 1 MB.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentServiceBenchmark {
+
+    @Param({"1024", "16384", "131072", "1048576"})
+    private int bodyBytes;
+
+    private final Set<RollbackField> allFields = EnumSet.allOf(RollbackField.class);
+    private Content existing;
+    private Content snapshot;
+    private ContentRequest createRequest;
+    private ContentUpdateRequest updateRequest;
+
+    @Setup
+    public void setUp() {
+        existing = ContentFixtures.content("c1", bodyBytes, 1);
+        snapshot = ContentFixtures.content("c1", bodyBytes, 2);
+        createRequest = ContentRequest.builder()
+                .title(existing.getTitle())
+                .description(existing.getDescription())
+                .body(existing.getBody())
+                .tags(existing.getTags())
+                .contentType(existing.getContentType())
+                .meta(existing.getMeta())
+                .mediaReferences(existing.getMediaReferences())
+                .build();
+        // A same-length edit at the end of the body, so comparing it scans the whole body
+        String body = existing.getBody();
+        updateRequest = ContentUpdateRequest.builder()
+                .title(existing.getTitle())
+                .description(existing.getDescription())
+                .body(body.substring(0, body.length() - 8) + "edited!\n")
+                .tags(existing.getTags())
+                .meta(existing.getMeta())
+                .mediaReferences(existing.getMediaReferences())
+                .build();
+    }
+
+    @Benchmark
+    public String generateSummary() {
+        return ContentChanges.summarize(updateRequest, existing);
+    }
+
+    @Benchmark
+    public ContentRequest validateRequest() {
+        ContentChanges.validate(createRequest);
+        return createRequest;
+    }
+
+    @Benchmark
+    public Content applyRollbackFields() {
+        ContentChanges.applyRollback(existing, snapshot, allFields);
+        return existing;
+    }
+}
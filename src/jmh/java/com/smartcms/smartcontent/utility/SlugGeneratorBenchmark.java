@@ -0,0 +1,35 @@
+package com.smartcms.smartcontent.utility;
+
+import com.smartcms.smartcontent.ContentFixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a title into a slug, for titles of 4 to 64 words with punctuation and accents.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SlugGeneratorBenchmark {
+
+    @Param({"4", "12", "64"})
+    private int titleWords;
+
+    private final SlugGenerator slugGenerator = new SlugGenerator();
+    private String title;
+
+    @Setup
+    public void setUp() {
+        title = ContentFixtures.sentence(new Random(42), titleWords);
+    }
+
+    @Benchmark
+    public String generateSlug() {
+        return slugGenerator.generateSlug(title);
+    }
+}
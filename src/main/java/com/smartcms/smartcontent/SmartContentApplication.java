@@ -1,9 +1,12 @@
 package com.smartcms.smartcontent;
 
+import com.smartcms.smartcontent.config.ContentRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(ContentRuntimeHints.class)
 public class SmartContentApplication {
     public static void main(String[] args) {
         SpringApplication.run(SmartContentApplication.class, args);
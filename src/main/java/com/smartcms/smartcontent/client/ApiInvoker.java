@@ -1,8 +1,12 @@
 package com.smartcms.smartcontent.client;
 
 import com.smartcms.smartcontent.exception.ApiException;
+import com.smartcms.smartcontent.resilience.ResilientExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.http.*;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -10,22 +14,50 @@ import org.springframework.web.client.RestClient;
 import org.springframework.web.client.support.RestClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
 import java.time.Duration;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.Supplier;
 
 @RequiredArgsConstructor
 @Slf4j
-public class ApiInvoker {
+public class ApiInvoker implements DisposableBean {
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration DEFAULT_SLOW_CALL_THRESHOLD = Duration.ofSeconds(1);
+
     private final RestClient restClient;
     private final HttpServiceProxyFactory proxyFactory;
     private final ExecutorService executorService;
+    private final boolean ownsExecutor;
+    private final Duration timeout;
+    private final ResilientExecutor resilience;
+    private final OutboundCallMetrics callMetrics;
 
+    /**
+     * @param baseUrl           Base URL of the downstream service
+     * @param timeout           Default deadline for parallel fetches (5 seconds if not set)
+     * @param executorService   Executor for parallel work; when not set, the invoker creates and
+     *                          owns a virtual-thread-per-task executor that is closed on {@link #destroy()}
+     * @param resilience        Optional circuit breaker, bulkhead and retry guarding {@link #execute}
+     * @param name              Downstream name used to tag call metrics (the base URL host if not set)
+     * @param meterRegistry     Registry for call metrics (the global registry if not set)
+     * @param slowCallThreshold Calls taking at least this long are logged with their request ID (1 second if not set)
+     */
     @Builder
-    public ApiInvoker(String baseUrl, Duration timeout) {
-        this.executorService = Executors.newFixedThreadPool(10); // Configurable thread pool size
+    public ApiInvoker(String baseUrl, Duration timeout, ExecutorService executorService, ResilientExecutor resilience,
+                      String name, MeterRegistry meterRegistry, Duration slowCallThreshold) {
+        this.ownsExecutor = executorService == null;
+        this.executorService = ownsExecutor ? newVirtualThreadExecutor() : executorService;
+        this.timeout = timeout != null ? timeout : DEFAULT_TIMEOUT;
+        this.resilience = resilience;
+        this.callMetrics = new OutboundCallMetrics(
+                name != null ? name : String.valueOf(URI.create(baseUrl).getHost()),
+                meterRegistry != null ? meterRegistry : Metrics.globalRegistry,
+                slowCallThreshold != null ? slowCallThreshold : DEFAULT_SLOW_CALL_THRESHOLD);
         this.restClient = RestClient.builder()
                 .baseUrl(baseUrl)
                 .defaultStatusHandler(HttpStatusCode::isError, (req, res) -> {
@@ -34,35 +66,111 @@ public class ApiInvoker {
                     throw new ApiException("API call failed", res.getStatusCode(), errorBody);
                 })
                 .requestInterceptor((request, body, execution) -> {
-                    request.getHeaders().add("X-SmartCMS-Request-ID", UUID.randomUUID().toString());
+                    request.getHeaders().add(OutboundCallMetrics.REQUEST_ID_HEADER, UUID.randomUUID().toString());
                     return execution.execute(request, body);
                 })
+                .requestInterceptor(callMetrics)
                 .build();
         this.proxyFactory = HttpServiceProxyFactory.builderFor(
                         RestClientAdapter.create(restClient))
                 .build();
     }
 
+    public static ExecutorService newVirtualThreadExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("api-invoker-", 0).factory());
+    }
+
     /**
-     * Java 17 compatible parallel execution using CompletableFuture
+     * Runs both tasks in parallel, failing fast if either fails or the default timeout elapses
      */
+    @SuppressWarnings("unchecked")
     public <T, U> Pair<T, U> fetchParallel(Supplier<T> task1, Supplier<U> task2) {
-        CompletableFuture<T> future1 = CompletableFuture.supplyAsync(task1, executorService);
-        CompletableFuture<U> future2 = CompletableFuture.supplyAsync(task2, executorService);
+        List<Supplier<Object>> tasks = List.of(task1::get, task2::get);
+        FanOutResult<Object> result = fanOut(tasks, timeout, FanOutMode.FAIL_FAST);
+        return Pair.of((T) result.getResults().get(0), (U) result.getResults().get(1));
+    }
+
+    /**
+     * Runs all tasks in parallel under a single overall deadline.
+     * Tasks still running when the deadline passes, or after the first failure in
+     * {@link FanOutMode#FAIL_FAST} mode, are cancelled and their threads interrupted.
+     * @param tasks    Tasks to run; results are returned in the same order
+     * @param deadline Overall time allowed for all tasks
+     * @param mode     Whether to fail on the first error or collect whatever completed
+     * @return Index-aligned results, with failures keyed by task index
+     */
+    public <T> FanOutResult<T> fanOut(@NonNull List<? extends Supplier<? extends T>> tasks,
+                                      @NonNull Duration deadline, @NonNull FanOutMode mode) {
+        CompletionService<T> completionService = new ExecutorCompletionService<>(executorService);
+        Map<Future<T>, Integer> indexByFuture = new IdentityHashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Supplier<? extends T> task = tasks.get(i);
+            indexByFuture.put(completionService.submit(task::get), i);
+        }
+
+        List<T> results = new ArrayList<>(Collections.nCopies(tasks.size(), null));
+        Map<Integer, Throwable> failures = new TreeMap<>();
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
 
         try {
-            return Pair.of(
-                    future1.get(5, TimeUnit.SECONDS), // Configurable timeout
-                    future2.get(5, TimeUnit.SECONDS)
-            );
+            for (int done = 0; done < tasks.size(); done++) {
+                Future<T> future = completionService.poll(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (future == null) {
+                    if (mode == FanOutMode.FAIL_FAST) {
+                        throw new ApiException("Parallel fetch timed out", HttpStatus.REQUEST_TIMEOUT);
+                    }
+                    break;
+                }
+                int index = indexByFuture.remove(future);
+                try {
+                    results.set(index, future.get());
+                } catch (ExecutionException e) {
+                    if (mode == FanOutMode.FAIL_FAST) {
+                        throw new ApiException("Parallel fetch failed: " + e.getCause().getMessage(),
+                                HttpStatus.INTERNAL_SERVER_ERROR);
+                    }
+                    failures.put(index, e.getCause());
+                }
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new ApiException("Parallel fetch interrupted", HttpStatus.INTERNAL_SERVER_ERROR);
-        } catch (TimeoutException e) {
-            throw new ApiException("Parallel fetch timed out", HttpStatus.REQUEST_TIMEOUT);
-        } catch (ExecutionException e) {
-            throw new ApiException("Parallel fetch failed: " + e.getCause().getMessage(),
-                    HttpStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            // Anything left is a straggler: past the deadline or no longer needed after a failure
+            indexByFuture.keySet().forEach(future -> future.cancel(true));
+        }
+
+        indexByFuture.values().forEach(index ->
+                failures.put(index, new TimeoutException("Task " + index + " did not finish within " + deadline)));
+        if (!failures.isEmpty()) {
+            log.warn("Parallel fetch completed with {} of {} tasks failed or timed out", failures.size(), tasks.size());
+        }
+        return new FanOutResult<>(Collections.unmodifiableList(results), Collections.unmodifiableMap(failures));
+    }
+
+    @Override
+    public void destroy() {
+        if (ownsExecutor) {
+            executorService.shutdownNow();
+        }
+    }
+
+    public enum FanOutMode {
+        /** Cancel the remaining tasks and throw as soon as one task fails or the deadline passes. */
+        FAIL_FAST,
+        /** Keep whatever completed by the deadline and report the rest as failures. */
+        COLLECT_PARTIAL
+    }
+
+    @Value
+    public static class FanOutResult<T> {
+        /** Results in task order; null where the task failed or did not finish. */
+        List<T> results;
+        /** Failures keyed by task index. */
+        Map<Integer, Throwable> failures;
+
+        public boolean isComplete() {
+            return failures.isEmpty();
         }
     }
 
@@ -82,12 +190,13 @@ public class ApiInvoker {
             MultiValueMap<String, String> headers = new LinkedMultiValueMap<>();
             request.getHeaders().forEach(headers::add);
 
-            return restClient.method(request.getMethod())
+            Supplier<T> call = () -> restClient.method(request.getMethod())
                     .uri(request.getPath())
                     .headers(httpHeaders -> httpHeaders.addAll(headers))
                     .body(request.getBody())
                     .retrieve()
                     .body(responseType);
+            return resilience != null ? resilience.execute(call, isIdempotent(request.getMethod())) : call.get();
         } catch (ApiException e) {
             log.error("API Error ({}): {} - {}", e.getStatus(), request.getPath(), e.getMessage());
             throw e;
@@ -98,8 +207,41 @@ public class ApiInvoker {
         }
     }
 
+    private static boolean isIdempotent(HttpMethod method) {
+        return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method)
+                || HttpMethod.PUT.equals(method) || HttpMethod.DELETE.equals(method);
+    }
+
+    /**
+     * Creates a client for the given {@code @HttpExchange} interface.
+     * Its calls are recorded under the URI templates declared on the interface methods.
+     */
     public <T> T createClient(@NonNull Class<T> serviceType) {
-        return proxyFactory.createClient(serviceType);
+        T target = proxyFactory.createClient(serviceType);
+        Map<Method, String> templates = new HashMap<>();
+        for (Method method : serviceType.getMethods()) {
+            String template = OutboundCallMetrics.uriTemplate(serviceType, method);
+            if (template != null) {
+                templates.put(method, template);
+            }
+        }
+        Object client = Proxy.newProxyInstance(serviceType.getClassLoader(), new Class<?>[]{serviceType},
+                (proxy, method, args) -> {
+                    String template = templates.get(method);
+                    if (template == null) {
+                        return invoke(target, method, args);
+                    }
+                    return callMetrics.withUriTemplate(template, () -> invoke(target, method, args));
+                });
+        return serviceType.cast(client);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
     }
 
     @Value
@@ -0,0 +1,46 @@
+package com.smartcms.smartcontent.client;
+
+import com.smartcms.smartcontent.exception.ApiException;
+import org.springframework.http.HttpStatusCode;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Helpers shared by the non-blocking client methods built on the JDK {@link HttpClient}.
+ */
+final class AsyncHttpSupport {
+
+    private AsyncHttpSupport() {
+    }
+
+    /**
+     * Sends the request asynchronously and fails the future with an {@link ApiException} for non-2xx responses.
+     * Cancelling (or otherwise completing) the returned future early aborts the underlying exchange.
+     */
+    static CompletableFuture<HttpResponse<String>> send(HttpClient httpClient, HttpRequest request, String operation) {
+        CompletableFuture<HttpResponse<String>> exchange =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        return propagateCancellation(exchange, exchange.thenApply(response -> {
+            if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                throw new ApiException(operation + " failed", HttpStatusCode.valueOf(response.statusCode()), response.body());
+            }
+            return response;
+        }));
+    }
+
+    /**
+     * CompletableFuture cancellation does not flow upstream; this cancels {@code source}
+     * whenever {@code derived} completes before it (cancelled by the caller or timed out).
+     */
+    static <T> CompletableFuture<T> propagateCancellation(CompletableFuture<?> source, CompletableFuture<T> derived) {
+        derived.whenComplete((value, error) -> {
+            if (!source.isDone()) {
+                source.cancel(true);
+            }
+        });
+        return derived;
+    }
+}
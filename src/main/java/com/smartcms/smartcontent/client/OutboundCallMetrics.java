@@ -0,0 +1,152 @@
+package com.smartcms.smartcontent.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StringUtils;
+import org.springframework.web.service.annotation.HttpExchange;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Records latency, in-flight requests and response status classes for every outbound call made
+ * through an {@link ApiInvoker}, tagged by downstream, HTTP method and URI template.
+ * <p>
+ * Proxy clients register the template declared on their {@code @HttpExchange} methods for the
+ * duration of each call. Other requests fall back to the concrete path with ID-like segments
+ * collapsed to {@code {id}}, which keeps the tag cardinality bounded.
+ */
+@Slf4j
+class OutboundCallMetrics implements ClientHttpRequestInterceptor {
+
+    static final String REQUEST_ID_HEADER = "X-SmartCMS-Request-ID";
+    static final String CALLS_METRIC = "smartcontent.downstream.calls";
+    static final String INFLIGHT_METRIC = "smartcontent.downstream.inflight";
+    static final String RESPONSES_METRIC = "smartcontent.downstream.responses";
+
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "\\d+|[0-9a-fA-F]{24}|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}"
+                    + "|(?=[A-Za-z_-]*\\d)[A-Za-z0-9_-]{16,}");
+
+    private static final ThreadLocal<String> CURRENT_URI_TEMPLATE = new ThreadLocal<>();
+
+    private final String downstream;
+    private final MeterRegistry meterRegistry;
+    private final Duration slowCallThreshold;
+    private final ConcurrentMap<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    OutboundCallMetrics(String downstream, MeterRegistry meterRegistry, Duration slowCallThreshold) {
+        this.downstream = downstream;
+        this.meterRegistry = meterRegistry;
+        this.slowCallThreshold = slowCallThreshold;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String template = CURRENT_URI_TEMPLATE.get();
+        String uri = template != null ? template : normalize(request.getURI().getPath());
+        String method = request.getMethod().name();
+        AtomicInteger active = inFlight(method, uri);
+
+        String status = "IO_ERROR";
+        active.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            status = String.valueOf(response.getStatusCode().value());
+            return response;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            active.decrementAndGet();
+            record(method, uri, status, elapsed);
+            if (elapsed >= slowCallThreshold.toNanos()) {
+                log.warn("Slow call to {}: {} {} returned {} in {} ms (request id {})", downstream, method,
+                        request.getURI().getPath(), status, Duration.ofNanos(elapsed).toMillis(),
+                        request.getHeaders().getFirst(REQUEST_ID_HEADER));
+            }
+        }
+    }
+
+    private void record(String method, String uri, String status, long elapsedNanos) {
+        Tags tags = Tags.of("downstream", downstream, "method", method, "uri", uri);
+        Timer.builder(CALLS_METRIC)
+                .description("Latency of outbound calls to downstream services")
+                .tags(tags.and("status", status))
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(elapsedNanos));
+        meterRegistry.counter(RESPONSES_METRIC, tags.and("status_class", statusClass(status))).increment();
+    }
+
+    private AtomicInteger inFlight(String method, String uri) {
+        return inFlight.computeIfAbsent(method + " " + uri, key -> meterRegistry.gauge(INFLIGHT_METRIC,
+                Tags.of("downstream", downstream, "method", method, "uri", uri), new AtomicInteger()));
+    }
+
+    /**
+     * Runs a proxy call with the given URI template attached to the requests it makes.
+     */
+    Object withUriTemplate(String template, ProxyCall call) throws Throwable {
+        String previous = CURRENT_URI_TEMPLATE.get();
+        CURRENT_URI_TEMPLATE.set(template);
+        try {
+            return call.invoke();
+        } finally {
+            if (previous == null) {
+                CURRENT_URI_TEMPLATE.remove();
+            } else {
+                CURRENT_URI_TEMPLATE.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return The URI template declared on the method and its interface, or null if there is none
+     */
+    static String uriTemplate(Class<?> serviceType, Method method) {
+        HttpExchange methodExchange = AnnotatedElementUtils.findMergedAnnotation(method, HttpExchange.class);
+        if (methodExchange == null) {
+            return null;
+        }
+        HttpExchange typeExchange = AnnotatedElementUtils.findMergedAnnotation(serviceType, HttpExchange.class);
+        String prefix = typeExchange != null ? typeExchange.url() : "";
+        String template = prefix + methodExchange.url();
+        return StringUtils.hasText(template) ? template : "/";
+    }
+
+    static String normalize(String path) {
+        if (!StringUtils.hasText(path)) {
+            return "/";
+        }
+        String[] segments = path.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            if (ID_SEGMENT.matcher(segments[i]).matches()) {
+                segments[i] = "{id}";
+            }
+        }
+        return String.join("/", segments);
+    }
+
+    private static String statusClass(String status) {
+        return Character.isDigit(status.charAt(0)) ? status.charAt(0) + "xx" : "io_error";
+    }
+
+    @FunctionalInterface
+    interface ProxyCall {
+        Object invoke() throws Throwable;
+    }
+}
@@ -1,31 +1,60 @@
 package com.smartcms.smartcontent.client;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcms.smartcontent.config.HttpClientProperties;
 import com.smartcms.smartcontent.dto.SlugRequest;
+import com.smartcms.smartcontent.resilience.ResilientExecutor;
 import io.micrometer.common.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
 public class SmartAIClient {
 
+    static final String AI_UNAVAILABLE_SLUG = "ai-service-is-not-available";
+
     @Value("${smartai.api.url}")
     private String smartAIBaseUrl;
 
+    // SmartAI slug generation stays switched off until the service is rolled out
+    @Value("${smartai.enabled:false}")
+    private boolean enabled;
+
     private final RestTemplate restTemplate;
+    private final ResilientExecutor resilience;
+    private final HttpClient asyncHttpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration defaultDeadline;
 
-    public SmartAIClient(RestTemplate restTemplate) {
+    public SmartAIClient(@Qualifier("aiRestTemplate") RestTemplate restTemplate,
+                         @Qualifier("aiResilience") ResilientExecutor resilience,
+                         @Qualifier("aiAsyncHttpClient") HttpClient asyncHttpClient,
+                         ObjectMapper objectMapper,
+                         @Qualifier("aiHttpClientProperties") HttpClientProperties httpClientProperties) {
         this.restTemplate = restTemplate;
+        this.resilience = resilience;
+        this.asyncHttpClient = asyncHttpClient;
+        this.objectMapper = objectMapper;
+        this.defaultDeadline = httpClientProperties.getReadTimeout();
     }
 
     public String generateSlug(String input) {
 
-        if (StringUtils.isNotEmpty(input))
-            return "ai-service-is-not-available";
+        if (!enabled && StringUtils.isNotEmpty(input))
+            return AI_UNAVAILABLE_SLUG;
         String url = smartAIBaseUrl + "/api/smartai/generate-slug";
 
         // Set headers
@@ -37,7 +66,9 @@ public class SmartAIClient {
 
         try {
             // Make the API call
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, requestEntity, String.class);
+            // Slug generation has no side effects, so it is retried like a read
+            ResponseEntity<String> response = resilience.execute(
+                    () -> restTemplate.exchange(url, HttpMethod.POST, requestEntity, String.class), true);
 
             // Check for successful response
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
@@ -51,4 +82,38 @@ public class SmartAIClient {
             throw new RuntimeException("Error calling SmartAI API", e);
         }
     }
+
+    /**
+     * Non-blocking variant of {@link #generateSlug(String)} using the default read timeout as deadline.
+     */
+    public CompletableFuture<String> generateSlugAsync(String input) {
+        return generateSlugAsync(input, defaultDeadline);
+    }
+
+    /**
+     * Generates a slug without blocking the calling thread.
+     * @param input    The description or content to use for slug generation
+     * @param deadline Maximum time to wait for the response of each attempt
+     * @return A future holding the slug; cancelling it aborts the request in flight
+     */
+    public CompletableFuture<String> generateSlugAsync(String input, Duration deadline) {
+        if (!enabled && StringUtils.isNotEmpty(input)) {
+            return CompletableFuture.completedFuture(AI_UNAVAILABLE_SLUG);
+        }
+
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(smartAIBaseUrl + "/api/smartai/generate-slug"))
+                    .timeout(deadline)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(new SlugRequest(input))))
+                    .build();
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<HttpResponse<String>> response = resilience.executeAsync(
+                () -> AsyncHttpSupport.send(asyncHttpClient, request, "Slug generation"), true);
+        return AsyncHttpSupport.propagateCancellation(response, response.thenApply(HttpResponse::body));
+    }
 }
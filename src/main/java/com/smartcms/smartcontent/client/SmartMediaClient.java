@@ -1,13 +1,23 @@
 package com.smartcms.smartcontent.client;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcms.smartcontent.config.HttpClientProperties;
+import com.smartcms.smartcontent.resilience.ResilientExecutor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -17,9 +27,21 @@ public class SmartMediaClient {
     private String smartMediaBaseUrl;
 
     private final RestTemplate restTemplate;
-
-    public SmartMediaClient(RestTemplate restTemplate) {
+    private final ResilientExecutor resilience;
+    private final HttpClient asyncHttpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration defaultDeadline;
+
+    public SmartMediaClient(@Qualifier("mediaRestTemplate") RestTemplate restTemplate,
+                            @Qualifier("mediaResilience") ResilientExecutor resilience,
+                            @Qualifier("mediaAsyncHttpClient") HttpClient asyncHttpClient,
+                            ObjectMapper objectMapper,
+                            @Qualifier("mediaHttpClientProperties") HttpClientProperties httpClientProperties) {
         this.restTemplate = restTemplate;
+        this.resilience = resilience;
+        this.asyncHttpClient = asyncHttpClient;
+        this.objectMapper = objectMapper;
+        this.defaultDeadline = httpClientProperties.getReadTimeout();
     }
 
     /**
@@ -37,12 +59,12 @@ public class SmartMediaClient {
         HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
 
         try {
-            ResponseEntity<Void> response = restTemplate.exchange(
+            ResponseEntity<Void> response = resilience.execute(() -> restTemplate.exchange(
                     url,
                     HttpMethod.DELETE,
                     requestEntity,
                     Void.class
-            );
+            ), true);
 
             if (!response.getStatusCode().is2xxSuccessful()) {
                 log.error("Failed to delete media {}. Status: {}", mediaId, response.getStatusCode());
@@ -66,12 +88,13 @@ public class SmartMediaClient {
         HttpEntity<List<String>> requestEntity = new HttpEntity<>(mediaIds, headers);
 
         try {
-            ResponseEntity<Void> response = restTemplate.exchange(
+            // Deleting the same IDs twice is harmless, so the bulk delete is safe to retry
+            ResponseEntity<Void> response = resilience.execute(() -> restTemplate.exchange(
                     url,
                     HttpMethod.POST,
                     requestEntity,
                     Void.class
-            );
+            ), true);
 
             if (!response.getStatusCode().is2xxSuccessful()) {
                 log.error("Failed to bulk delete media. Status: {}", response.getStatusCode());
@@ -82,4 +105,52 @@ public class SmartMediaClient {
             throw new RuntimeException("Error calling SmartMedia API", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Deletes a media file by ID without blocking the calling thread.
+     * Cancelling the returned future aborts the request in flight.
+     */
+    public CompletableFuture<Void> deleteMediaAsync(String mediaId, Duration deadline) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(smartMediaBaseUrl)
+                .path("/api/media/{mediaId}")
+                .buildAndExpand(mediaId)
+                .toUri();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(deadline)
+                .DELETE()
+                .build();
+        return sendAsync(request, "Media deletion");
+    }
+
+    /**
+     * Non-blocking variant of {@link #bulkDeleteMedia(List)} using the default read timeout as deadline.
+     */
+    public CompletableFuture<Void> bulkDeleteMediaAsync(List<String> mediaIds) {
+        return bulkDeleteMediaAsync(mediaIds, defaultDeadline);
+    }
+
+    /**
+     * Bulk deletes media files by IDs without blocking the calling thread.
+     * Cancelling the returned future aborts the request in flight.
+     */
+    public CompletableFuture<Void> bulkDeleteMediaAsync(List<String> mediaIds, Duration deadline) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(smartMediaBaseUrl + "/api/media/bulk-delete"))
+                    .timeout(deadline)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(mediaIds)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return sendAsync(request, "Bulk media deletion");
+    }
+
+    private CompletableFuture<Void> sendAsync(HttpRequest request, String operation) {
+        // Media deletes are idempotent, so they are always safe to retry
+        CompletableFuture<?> response = resilience.executeAsync(
+                () -> AsyncHttpSupport.send(asyncHttpClient, request, operation), true);
+        return AsyncHttpSupport.propagateCancellation(response, response.thenApply(ignored -> null));
+    }
+}
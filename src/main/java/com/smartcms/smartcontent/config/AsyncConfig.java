@@ -0,0 +1,47 @@
+package com.smartcms.smartcontent.config;
+
+import com.smartcms.smartcontent.client.ApiInvoker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Executor for blocking downstream calls fanned out by {@link ApiInvoker} and for the async HTTP clients.
+     * Follows the same thread mode as Tomcat and the scheduler ({@code spring.threads.virtual.enabled}):
+     * one virtual thread per task, or a bounded platform pool when virtual threads are disabled.
+     * Pass it to ApiInvoker builders so the threads are shut down with the application context.
+     */
+    @Bean(name = "downstreamExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService downstreamExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${smartcontent.downstream.platform-pool-size:64}") int platformPoolSize) {
+        return virtualThreads
+                ? ApiInvoker.newVirtualThreadExecutor()
+                : Executors.newFixedThreadPool(platformPoolSize);
+    }
+
+    /**
+     * Executor for background work triggered by content writes, such as recomputing related content.
+     * The work is CPU-bound and allocates per org, so it runs on a few platform threads behind a bounded queue.
+     * When the queue is full, the writing thread runs the task itself, which slows bulk imports down
+     * instead of piling up work.
+     */
+    @Bean(name = "contentEventExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService contentEventExecutor(
+            @Value("${smartcontent.content-events.threads:2}") int threads,
+            @Value("${smartcontent.content-events.queue-capacity:1000}") int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("content-event-", 0).daemon().factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
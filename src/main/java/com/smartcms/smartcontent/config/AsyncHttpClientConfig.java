@@ -0,0 +1,36 @@
+package com.smartcms.smartcontent.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * JDK HttpClient instances backing the non-blocking client methods. Connect timeouts come from the
+ * same per-downstream settings as the pooled RestTemplates; read deadlines are set per request.
+ */
+@Configuration
+public class AsyncHttpClientConfig {
+
+    @Bean
+    public HttpClient mediaAsyncHttpClient(@Qualifier("mediaHttpClientProperties") HttpClientProperties properties,
+                                           @Qualifier("downstreamExecutor") ExecutorService executor) {
+        return asyncHttpClient(properties, executor);
+    }
+
+    @Bean
+    public HttpClient aiAsyncHttpClient(@Qualifier("aiHttpClientProperties") HttpClientProperties properties,
+                                        @Qualifier("downstreamExecutor") ExecutorService executor) {
+        return asyncHttpClient(properties, executor);
+    }
+
+    static HttpClient asyncHttpClient(HttpClientProperties properties, ExecutorService executor) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .executor(executor)
+                .build();
+    }
+}
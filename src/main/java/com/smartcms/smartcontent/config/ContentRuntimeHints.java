@@ -0,0 +1,93 @@
+package com.smartcms.smartcontent.config;
+
+import com.smartcms.smartcommon.model.AIInsights;
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcommon.model.ContentType;
+import com.smartcms.smartcommon.model.MediaReference;
+import com.smartcms.smartcommon.model.MediaType;
+import com.smartcms.smartcommon.model.MetaData;
+import com.smartcms.smartcommon.model.OrgDetails;
+import com.smartcms.smartcommon.model.UserDetails;
+import com.smartcms.smartcontent.dto.ContentBatchResponse;
+import com.smartcms.smartcontent.dto.ContentRequest;
+import com.smartcms.smartcontent.dto.ContentStatusUpdateRequest;
+import com.smartcms.smartcontent.dto.ContentUpdateRequest;
+import com.smartcms.smartcontent.dto.ContentVersionDto;
+import com.smartcms.smartcontent.dto.RelatedContentRequest;
+import com.smartcms.smartcontent.dto.SlugRequest;
+import com.smartcms.smartcontent.dto.SlugValidationResponse;
+import com.smartcms.smartcontent.model.ContentHistory;
+import com.smartcms.smartcontent.model.ContentStatusAudit;
+import com.smartcms.smartcontent.model.ContentTombstone;
+import com.smartcms.smartcontent.model.MediaDeletionOutbox;
+import com.smartcms.smartcontent.model.PaginatedResponse;
+import com.smartcms.smartcontent.model.RelatedContent;
+import com.smartcms.smartcontent.model.RollbackField;
+import com.smartcms.smartcontent.profiling.ProfilingSummary;
+import com.smartcms.smartcontent.repository.ContentHistoryRepository;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import com.smartcms.smartcontent.repository.ContentStatusAuditRepository;
+import com.smartcms.smartcontent.repository.ContentTombstoneRepository;
+import com.smartcms.smartcontent.repository.MediaDeletionOutboxRepository;
+import com.smartcms.smartcontent.repository.RelatedContentRepository;
+import com.smartcms.smartcontent.search.TagCount;
+import com.smartcms.smartcontent.search.TagMatch;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.interceptor.TransactionalProxy;
+
+import java.util.List;
+
+/**
+ * Reflection and proxy hints for the native image ({@code ./gradlew nativeCompile -Pnative}), for the uses that
+ * AOT processing of the application context cannot see: JSON written with the {@code ObjectMapper} directly
+ * (published content cache, export, async clients), sparse fieldsets read through reflection, and the
+ * repository proxies with the method metrics advice.
+ */
+public class ContentRuntimeHints implements RuntimeHintsRegistrar {
+
+    /**
+     * Read and written as JSON by the controllers, the RestTemplate and HttpClient clients and the cache.
+     * Property types are registered along with them, but listed here too so that none depends on another.
+     */
+    static final List<Class<?>> JSON_TYPES = List.of(
+            Content.class, AIInsights.class, MediaReference.class, MetaData.class, OrgDetails.class,
+            UserDetails.class, ContentStatus.class, ContentType.class, MediaType.class,
+            ContentBatchResponse.class, ContentRequest.class, ContentStatusUpdateRequest.class,
+            ContentUpdateRequest.class, ContentVersionDto.class, RelatedContentRequest.class, SlugRequest.class,
+            SlugValidationResponse.class,
+            ContentHistory.class, ContentStatusAudit.class, PaginatedResponse.class, RelatedContent.class,
+            RollbackField.class, TagCount.class, TagMatch.class, ProfilingSummary.class,
+            ProfilingSummary.Entry.class);
+
+    /** Documents and the types embedded in them, mapped field by field by Spring Data MongoDB. */
+    static final List<Class<?>> DOCUMENTS = List.of(
+            Content.class, ContentHistory.class, ContentStatusAudit.class, ContentTombstone.class,
+            MediaDeletionOutbox.class, RelatedContent.class, RelatedContent.Link.class, RelatedContent.Neighbor.class,
+            AIInsights.class, MediaReference.class, MetaData.class, OrgDetails.class, UserDetails.class);
+
+    static final List<Class<?>> REPOSITORIES = List.of(
+            ContentRepository.class, ContentHistoryRepository.class, ContentStatusAuditRepository.class,
+            ContentTombstoneRepository.class, MediaDeletionOutboxRepository.class, RelatedContentRepository.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                JSON_TYPES.toArray(Class<?>[]::new));
+        // ContentFields also lists the declared fields of Content and reads them through its getters
+        DOCUMENTS.forEach(document -> hints.reflection().registerType(document,
+                MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS));
+        // Derived queries are parsed from the interface methods; MongoMetricsConfig advises the proxies
+        REPOSITORIES.forEach(repository -> {
+            hints.reflection().registerType(repository, MemberCategory.INTROSPECT_PUBLIC_METHODS);
+            hints.proxies().registerJdkProxy(
+                    AopProxyUtils.completeJdkProxyInterfaces(repository, Repository.class, TransactionalProxy.class));
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.smartcms.smartcontent.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeout settings for one downstream service.
+ * Bound separately for each downstream (e.g. {@code smartmedia.http}, {@code smartai.http}).
+ */
+@Data
+public class HttpClientProperties {
+
+    /** Time allowed to establish the TCP connection. */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /** Maximum time to wait for response data once the request has been sent. */
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    /** Maximum time to wait for a free connection from the pool. */
+    private Duration requestTimeout = Duration.ofSeconds(1);
+
+    /** How long an idle connection is kept alive when the server does not say otherwise. */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /** Idle connections older than this are evicted from the pool. */
+    private Duration idleEviction = Duration.ofSeconds(60);
+
+    private int maxConnections = 50;
+    private int maxConnectionsPerRoute = 20;
+}
@@ -0,0 +1,56 @@
+package com.smartcms.smartcontent.config;
+
+import com.mongodb.client.MongoClient;
+import com.smartcms.smartcontent.repository.MongoCommandMetrics;
+import com.smartcms.smartcontent.repository.MongoCommandProperties;
+import com.smartcms.smartcontent.repository.SlowQueryExplainer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+@Configuration
+public class MongoMetricsConfig {
+
+    @Bean
+    @ConfigurationProperties("smartcontent.mongo.commands")
+    public MongoCommandProperties mongoCommandProperties() {
+        return new MongoCommandProperties();
+    }
+
+    @Bean
+    public MongoCommandMetrics mongoCommandMetrics(MongoCommandProperties properties, MeterRegistry meterRegistry,
+                                                   ObjectProvider<MongoClient> mongoClient) {
+        SlowQueryExplainer explainer = properties.getExplain().isEnabled()
+                ? new SlowQueryExplainer(mongoClient::getObject, properties.getExplain(), meterRegistry)
+                : null;
+        return new MongoCommandMetrics(meterRegistry, properties, explainer);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandMetricsCustomizer(MongoCommandMetrics metrics) {
+        return settings -> settings.addCommandListener(metrics);
+    }
+
+    /**
+     * Wraps every Spring Data repository so that its commands are tagged with the calling repository method.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryMethodTagger() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repository) -> proxyFactory.addAdvice(MongoCommandMetrics
+                                    .repositoryMethodInterceptor(repository.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.smartcms.smartcontent.config;
+
+import com.smartcms.smartcontent.profiling.ProfilingEndpoint;
+import com.smartcms.smartcontent.profiling.ProfilingProperties;
+import com.smartcms.smartcontent.profiling.ProfilingSummaryRecorder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ProfilingConfig {
+
+    @Bean
+    @ConfigurationProperties("smartcontent.profiling")
+    public ProfilingProperties profilingProperties() {
+        return new ProfilingProperties();
+    }
+
+    /**
+     * Only runs where the endpoint can serve its summary, so that instances and tests without it pay no sampling.
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnAvailableEndpoint(endpoint = ProfilingEndpoint.class)
+    @ConditionalOnProperty(value = "smartcontent.profiling.summary.enabled", matchIfMissing = true)
+    public ProfilingSummaryRecorder profilingSummaryRecorder(ProfilingProperties properties) {
+        return new ProfilingSummaryRecorder(properties.getSummary());
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint(endpoint = ProfilingEndpoint.class)
+    public ProfilingEndpoint profilingEndpoint(ProfilingProperties properties,
+                                               ObjectProvider<ProfilingSummaryRecorder> summaryRecorder) {
+        return new ProfilingEndpoint(properties, summaryRecorder.getIfAvailable());
+    }
+}
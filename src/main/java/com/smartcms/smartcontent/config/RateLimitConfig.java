@@ -0,0 +1,41 @@
+package com.smartcms.smartcontent.config;
+
+import com.smartcms.smartcontent.ratelimit.OrgRateLimiter;
+import com.smartcms.smartcontent.ratelimit.RateLimitInterceptor;
+import com.smartcms.smartcontent.ratelimit.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<OrgRateLimiter> rateLimiter;
+
+    public RateLimitConfig(ObjectProvider<OrgRateLimiter> rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Bean
+    @ConfigurationProperties("smartcontent.rate-limit")
+    public RateLimitProperties rateLimitProperties() {
+        return new RateLimitProperties();
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "smartcontent.rate-limit.enabled", matchIfMissing = true)
+    public OrgRateLimiter orgRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        return new OrgRateLimiter(properties, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        rateLimiter.ifAvailable(limiter ->
+                registry.addInterceptor(new RateLimitInterceptor(limiter)).addPathPatterns("/api/**"));
+    }
+}
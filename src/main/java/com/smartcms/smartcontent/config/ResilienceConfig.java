@@ -0,0 +1,37 @@
+package com.smartcms.smartcontent.config;
+
+import com.smartcms.smartcontent.resilience.ResilienceProperties;
+import com.smartcms.smartcontent.resilience.ResilientExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    @ConfigurationProperties("smartmedia.resilience")
+    public ResilienceProperties mediaResilienceProperties() {
+        return new ResilienceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("smartai.resilience")
+    public ResilienceProperties aiResilienceProperties() {
+        return new ResilienceProperties();
+    }
+
+    @Bean
+    public ResilientExecutor mediaResilience(@Qualifier("mediaResilienceProperties") ResilienceProperties properties,
+                                             MeterRegistry meterRegistry) {
+        return new ResilientExecutor("smartmedia", properties, meterRegistry);
+    }
+
+    @Bean
+    public ResilientExecutor aiResilience(@Qualifier("aiResilienceProperties") ResilienceProperties properties,
+                                          MeterRegistry meterRegistry) {
+        return new ResilientExecutor("smartai", properties, meterRegistry);
+    }
+}
@@ -1,14 +1,92 @@
 package com.smartcms.smartcontent.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pooled, keep-alive HTTP client per downstream so that timeouts and connection limits
+ * can be tuned independently. Pool metrics are bound to Micrometer per client, and request
+ * latency is recorded as {@code http.client.requests} by the Boot-provided RestTemplateBuilder.
+ */
 @Configuration
 public class RestTemplateConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @ConfigurationProperties("smartmedia.http")
+    public HttpClientProperties mediaHttpClientProperties() {
+        return new HttpClientProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("smartai.http")
+    public HttpClientProperties aiHttpClientProperties() {
+        return new HttpClientProperties();
+    }
+
+    @Bean
+    public CloseableHttpClient mediaHttpClient(@Qualifier("mediaHttpClientProperties") HttpClientProperties properties,
+                                               MeterRegistry meterRegistry) {
+        return pooledHttpClient("smartmedia", properties, meterRegistry);
+    }
+
+    @Bean
+    public CloseableHttpClient aiHttpClient(@Qualifier("aiHttpClientProperties") HttpClientProperties properties,
+                                            MeterRegistry meterRegistry) {
+        return pooledHttpClient("smartai", properties, meterRegistry);
+    }
+
+    @Bean
+    public RestTemplate mediaRestTemplate(RestTemplateBuilder builder,
+                                          @Qualifier("mediaHttpClient") CloseableHttpClient httpClient) {
+        return builder.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient)).build();
+    }
+
+    @Bean
+    public RestTemplate aiRestTemplate(RestTemplateBuilder builder,
+                                       @Qualifier("aiHttpClient") CloseableHttpClient httpClient) {
+        return builder.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient)).build();
+    }
+
+    static CloseableHttpClient pooledHttpClient(String name, HttpClientProperties properties, MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, name).bindTo(meterRegistry);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(properties.getRequestTimeout()))
+                .setResponseTimeout(Timeout.of(properties.getReadTimeout()))
+                .setDefaultKeepAlive(properties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleEviction()))
+                .build();
     }
 }
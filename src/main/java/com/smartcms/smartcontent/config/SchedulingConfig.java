@@ -0,0 +1,41 @@
+package com.smartcms.smartcontent.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskSchedulerBuilder;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the {@code @Scheduled} jobs: the scheduled-publish and expired-content purge jobs in
+ * {@code ContentServiceImpl} and the media deletion outbox drainer.
+ * <p>
+ * Declaring a scheduler turns off Spring Boot's default one, so both are declared here and follow
+ * {@code spring.threads.virtual.enabled} and {@code spring.task.scheduling.*} like the default does.
+ * The outbox drainer runs on its own scheduler so that a slow drain never delays content jobs, or the other way round.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Default scheduler, picked by name for every {@code @Scheduled} method without an explicit scheduler.
+     */
+    @Bean(name = "taskScheduler")
+    public TaskScheduler taskScheduler(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                       SimpleAsyncTaskSchedulerBuilder simpleBuilder,
+                                       ThreadPoolTaskSchedulerBuilder poolBuilder) {
+        return virtualThreads ? simpleBuilder.build() : poolBuilder.build();
+    }
+
+    @Bean(name = "mediaOutboxScheduler")
+    public TaskScheduler mediaOutboxScheduler(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                              SimpleAsyncTaskSchedulerBuilder simpleBuilder,
+                                              ThreadPoolTaskSchedulerBuilder poolBuilder) {
+        return virtualThreads
+                ? simpleBuilder.threadNamePrefix("media-outbox-").build()
+                : poolBuilder.poolSize(1).threadNamePrefix("media-outbox-").build();
+    }
+}
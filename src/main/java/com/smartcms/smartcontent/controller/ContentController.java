@@ -2,12 +2,23 @@ package com.smartcms.smartcontent.controller;
 
 import com.smartcms.smartcommon.model.Content;
 import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcommon.model.ContentType;
 import com.smartcms.smartcontent.dto.*;
 
 import com.smartcms.smartcontent.model.ContentStatusAudit;
 import com.smartcms.smartcontent.model.PaginatedResponse;
 import com.smartcms.smartcontent.model.RollbackField;
+import com.smartcms.smartcontent.ratelimit.EndpointClass;
+import com.smartcms.smartcontent.ratelimit.RateLimited;
+import com.smartcms.smartcontent.search.TagCount;
+import com.smartcms.smartcontent.search.TagMatch;
+import com.smartcms.smartcontent.service.ContentExportService;
+import com.smartcms.smartcontent.service.ContentSearchService;
 import com.smartcms.smartcontent.service.ContentServiceImpl;
+import com.smartcms.smartcontent.service.RelatedContentService;
+import com.smartcms.smartcontent.utility.ContentETags;
+import com.smartcms.smartcontent.utility.ContentFields;
+import com.smartcms.smartcontent.utility.PublishedContentCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -15,12 +26,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Future;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @RestController
@@ -29,7 +44,13 @@ import java.util.Set;
 @Tag(name = "Content Management", description = "APIs for managing content lifecycle")
 public class ContentController {
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
     private final ContentServiceImpl contentServiceImpl;
+    private final ContentExportService contentExportService;
+    private final PublishedContentCache publishedContentCache;
+    private final ContentSearchService contentSearchService;
+    private final RelatedContentService relatedContentService;
 
     @Operation(summary = "Create new content", description = "Creates a new content item with the provided details")
     @ApiResponses({
@@ -52,15 +73,69 @@ public class ContentController {
     @Operation(summary = "Get content by ID", description = "Retrieves content details including versions and metadata")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Content found"),
+            @ApiResponse(responseCode = "304", description = "Content not modified since the given ETag"),
             @ApiResponse(responseCode = "404", description = "Content not found")
     })
     @GetMapping("/{contentId}")
-    public ResponseEntity<Content> getContentById(@PathVariable String contentId) {
+    public ResponseEntity<?> getContentById(
+            @PathVariable String contentId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        // A version-only lookup answers revalidations and validates cached bytes without loading the document;
+        // without either, it would only add a round trip, so the document is loaded once and gives the ETag
+        if (ifNoneMatch != null || publishedContentCache.contains(contentId)) {
+            String eTag = contentServiceImpl.getContentETag(contentId);
+            if (ContentETags.matchesIfNoneMatch(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            PublishedContentCache.Entry cached = publishedContentCache.get(contentId, eTag);
+            if (cached != null) {
+                return cachedResponse(cached, acceptEncoding);
+            }
+        }
         Content content = contentServiceImpl.getContentById(contentId);
-        return ResponseEntity.ok(content);
+        PublishedContentCache.Entry cached = publishedContentCache.putIfPublished(content);
+        if (cached == null) {
+            return ResponseEntity.ok().eTag(ContentETags.of(content)).body(content);
+        }
+        return cachedResponse(cached, acceptEncoding);
     }
 
-    @Operation(summary = "List content by organization", description = "Retrieves paginated list of content for an organization")
+    @Operation(summary = "Get selected content fields by ID",
+            description = "Reads and returns only the comma-separated fields given in 'fields', e.g. fields=title,slug,status")
+    @GetMapping(value = "/{contentId}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getContentFieldsById(
+            @PathVariable String contentId,
+            @RequestParam String fields) {
+
+        Set<String> fieldSet = ContentFields.parse(fields);
+        Content content = contentServiceImpl.getContentById(contentId, fieldSet);
+        return ResponseEntity.ok(ContentFields.select(content, fieldSet));
+    }
+
+    @Operation(summary = "Get multiple content items by ID",
+            description = "Resolves comma-separated IDs (100 by default) with one query, in request order; unknown IDs are listed in 'missing'. "
+                    + "Items never include the body, which only single-item reads return")
+    @GetMapping("/batch")
+    @RateLimited(EndpointClass.BULK)
+    public ResponseEntity<ContentBatchResponse<?>> getContentByIds(
+            @RequestParam List<String> ids,
+            @RequestParam(required = false) String fields) {
+
+        if (fields == null) {
+            return ResponseEntity.ok(contentServiceImpl.getContentByIds(ids, null));
+        }
+        Set<String> fieldSet = ContentFields.parseForList(fields);
+        ContentBatchResponse<Content> batch = contentServiceImpl.getContentByIds(ids, fieldSet);
+        List<Map<String, Object>> items = batch.getItems().stream()
+                .map(item -> ContentFields.select(item, fieldSet))
+                .toList();
+        return ResponseEntity.ok(new ContentBatchResponse<>(items, batch.getMissing()));
+    }
+
+    @Operation(summary = "List content by organization",
+            description = "Retrieves paginated list of content for an organization, without bodies")
     @GetMapping("/org")
     public ResponseEntity<PaginatedResponse<Content>> listOrgContent(
             @RequestHeader("X-Org-Id") String orgId,
@@ -72,22 +147,62 @@ public class ContentController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "List selected content fields by organization",
+            description = "Like /org, but reads and returns only the comma-separated fields given in 'fields'")
+    @GetMapping(value = "/org", params = "fields")
+    public ResponseEntity<PaginatedResponse<Map<String, Object>>> listOrgContentFields(
+            @RequestHeader("X-Org-Id") String orgId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam String fields) {
+
+        Set<String> fieldSet = ContentFields.parseForList(fields);
+        PaginatedResponse<Content> response = contentServiceImpl.getOrgContent(orgId, page, size, sortBy, fieldSet);
+        return ResponseEntity.ok(selectFields(response, fieldSet));
+    }
+
+    @Operation(summary = "Export organization content",
+            description = "Streams all content of an organization as newline-delimited JSON from a single cursor")
+    @GetMapping(value = "/export", produces = NDJSON_VALUE)
+    @RateLimited(value = EndpointClass.BULK, streaming = true)
+    public ResponseEntity<StreamingResponseBody> exportOrgContent(
+            @RequestHeader("X-Org-Id") String orgId,
+            @RequestParam(required = false) ContentStatus status,
+            @RequestParam(required = false) Instant updatedAfter,
+            @RequestParam(required = false) Instant updatedBefore,
+            @RequestParam(required = false) String fields) {
+
+        Set<String> fieldSet = fields != null ? ContentFields.parse(fields) : null;
+        contentExportService.validateExport(orgId, updatedAfter, updatedBefore);
+        StreamingResponseBody body = out ->
+                contentExportService.exportOrgContent(orgId, status, updatedAfter, updatedBefore, fieldSet, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .body(body);
+    }
+
     // Content Modification
     @Operation(summary = "Update content", description = "Updates content details (title, description, body, etc.)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Content updated"),
+            @ApiResponse(responseCode = "412", description = "Content changed since the ETag given in If-Match")
+    })
     @PatchMapping("/{contentId}")
     public ResponseEntity<Content> updateContent(
             @PathVariable String contentId,
             @RequestBody @Valid ContentUpdateRequest request,
-            @RequestHeader("X-User-Id") String updatedBy) {
+            @RequestHeader("X-User-Id") String updatedBy,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         if (request == null) {
             throw new IllegalArgumentException("Request body is required");
         }
-        Content updatedContent = contentServiceImpl.updateContent(contentId, request, updatedBy);
-        return ResponseEntity.ok(updatedContent);
+        Content updatedContent = contentServiceImpl.updateContent(contentId, request, updatedBy, ifMatch);
+        return ResponseEntity.ok().eTag(ContentETags.of(updatedContent)).body(updatedContent);
     }
 
-    @Operation(summary = "Get content by status", description = "Retrieves paginated list of content by status")
+    @Operation(summary = "Get content by status", description = "Retrieves paginated list of content by status, without bodies")
     @GetMapping("/status")
     public ResponseEntity<PaginatedResponse<Content>> listContentByStatus(
             @RequestHeader("X-Org-Id") String orgId,
@@ -99,6 +214,21 @@ public class ContentController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Get selected content fields by status",
+            description = "Like /status, but reads and returns only the comma-separated fields given in 'fields'")
+    @GetMapping(value = "/status", params = "fields")
+    public ResponseEntity<PaginatedResponse<Map<String, Object>>> listContentFieldsByStatus(
+            @RequestHeader("X-Org-Id") String orgId,
+            @RequestParam ContentStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam String fields) {
+
+        Set<String> fieldSet = ContentFields.parseForList(fields);
+        PaginatedResponse<Content> response = contentServiceImpl.getContentByStatus(orgId, status, page, size, fieldSet);
+        return ResponseEntity.ok(selectFields(response, fieldSet));
+    }
+
     @Operation(summary = "Update content status", description = "Change status between DRAFT, PUBLISHED, or ARCHIVED")
     @PatchMapping("/{contentId}/status")
     @ApiResponses({
@@ -164,7 +294,7 @@ public class ContentController {
         return ResponseEntity.ok(versions);
     }
 
-    @Operation(summary = "List bin content", description = "Retrieves paginated list of content in recycle bin")
+    @Operation(summary = "List bin content", description = "Retrieves paginated list of content in recycle bin, without bodies")
     @GetMapping("/bin")
     public ResponseEntity<PaginatedResponse<Content>> listBinContent(
             @RequestHeader("X-Org-Id") String orgId,
@@ -174,6 +304,20 @@ public class ContentController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "List selected bin content fields",
+            description = "Like /bin, but reads and returns only the comma-separated fields given in 'fields'")
+    @GetMapping(value = "/bin", params = "fields")
+    public ResponseEntity<PaginatedResponse<Map<String, Object>>> listBinContentFields(
+            @RequestHeader("X-Org-Id") String orgId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam String fields) {
+
+        Set<String> fieldSet = ContentFields.parseForList(fields);
+        PaginatedResponse<Content> response = contentServiceImpl.getBinContent(orgId, page, size, fieldSet);
+        return ResponseEntity.ok(selectFields(response, fieldSet));
+    }
+
     // Content Recycle Bin
     @Operation(summary = "Move content to bin", description = "Soft-deletes content (moves to recycle bin)")
     @DeleteMapping("/{contentId}")
@@ -241,31 +385,109 @@ public class ContentController {
     }
 
     // Content Relationships
-//    @Operation(summary = "Link related content", description = "Creates relationship between content items")
-//    @PostMapping("/{contentId}/related")
-//    public ResponseEntity<Void> addRelatedContent(
-//            @PathVariable String contentId,
-//            @RequestBody @Valid RelatedContentRequest request,
-//            @RequestHeader("X-User-Id") String linkedBy) {
-//        // Implementation
-//    }
-//
-//    @Operation(summary = "List related content", description = "Retrieves content related to specified item")
-//    @GetMapping("/{contentId}/related")
-//    public ResponseEntity<List<Content>> getRelatedContent(
-//            @PathVariable String contentId) {
-//        // Implementation
-//    }
+    @Operation(summary = "Link related content", description = "Creates relationship between content items")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Content linked"),
+            @ApiResponse(responseCode = "204", description = "Content was already linked"),
+            @ApiResponse(responseCode = "404", description = "Content not found")
+    })
+    @PostMapping("/{contentId}/related")
+    public ResponseEntity<Void> addRelatedContent(
+            @PathVariable String contentId,
+            @RequestBody @Valid RelatedContentRequest request,
+            @RequestHeader("X-User-Id") String linkedBy) {
+        boolean created = relatedContentService.addRelatedContent(contentId, request, linkedBy);
+        return created ? ResponseEntity.status(HttpStatus.CREATED).build() : ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "List related content",
+            description = "Retrieves content linked to the specified item, followed by the most similar content, without bodies")
+    @GetMapping("/{contentId}/related")
+    public ResponseEntity<List<Content>> getRelatedContent(
+            @PathVariable String contentId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(relatedContentService.getRelatedContent(contentId, limit));
+    }
 
     // Content Search
-//    @Operation(summary = "Search content", description = "Full-text search across content with filters")
-//    @GetMapping("/search")
-//    public ResponseEntity<PaginatedResponse<Content>> searchContent(
-//            @RequestParam String query,
-//            @RequestParam(required = false) String contentType,
-//            @RequestParam(required = false) String status,
-//            @RequestParam(defaultValue = "0") int page,
-//            @RequestParam(defaultValue = "20") int size) {
-//        // Implementation
-//    }
+    @Operation(summary = "Search content",
+            description = "Full-text search across title, description, body and tags, ranked by relevance. "
+                    + "Matches content containing every query term; content in the bin is excluded unless status=DELETED. "
+                    + "Results are returned without bodies")
+    @GetMapping("/search")
+    public ResponseEntity<PaginatedResponse<Content>> searchContent(
+            @RequestHeader("X-Org-Id") String orgId,
+            @RequestParam String query,
+            @RequestParam(required = false) ContentType contentType,
+            @RequestParam(required = false) ContentStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        return ResponseEntity.ok(contentSearchService.searchContent(orgId, query, contentType, status, page, size));
+    }
+
+    @Operation(summary = "List content by tags",
+            description = "Lists content carrying all (match=ALL) or any (match=ANY) of the comma-separated tags, newest first")
+    @GetMapping("/tags")
+    public ResponseEntity<PaginatedResponse<Content>> listContentByTags(
+            @RequestHeader("X-Org-Id") String orgId,
+            @RequestParam List<String> tags,
+            @RequestParam(defaultValue = "ALL") TagMatch match,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        return ResponseEntity.ok(contentSearchService.getContentByTags(orgId, tags, match, page, size));
+    }
+
+    @Operation(summary = "Top tags", description = "Lists the organization's most used tags with content counts")
+    @GetMapping("/tags/top")
+    public ResponseEntity<List<TagCount>> getTopTags(
+            @RequestHeader("X-Org-Id") String orgId,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        return ResponseEntity.ok(contentSearchService.getTopTags(orgId, limit));
+    }
+
+    @Operation(summary = "Autocomplete tags", description = "Suggests the organization's most used tags starting with a prefix")
+    @GetMapping("/tags/suggest")
+    public ResponseEntity<List<TagCount>> suggestTags(
+            @RequestHeader("X-Org-Id") String orgId,
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(contentSearchService.suggestTags(orgId, prefix, limit));
+    }
+
+    @Operation(summary = "Rebuild search index", description = "Rebuilds the organization's search index from the database")
+    @PostMapping("/search/reindex")
+    @RateLimited(EndpointClass.BULK)
+    public ResponseEntity<Map<String, Long>> reindexContent(@RequestHeader("X-Org-Id") String orgId) {
+        return ResponseEntity.ok(Map.of("indexed", contentSearchService.reindex(orgId)));
+    }
+
+    private static PaginatedResponse<Map<String, Object>> selectFields(PaginatedResponse<Content> response,
+                                                                       Set<String> fields) {
+        List<Map<String, Object>> content = response.getContent().stream()
+                .map(item -> ContentFields.select(item, fields))
+                .toList();
+        return new PaginatedResponse<>(content, response.getCurrentPage(), response.getPageSize(),
+                response.getTotalElements(), response.getTotalPages(), response.isLast());
+    }
+
+    /**
+     * Writes cached JSON bytes as-is, gzipped when the client accepts it.
+     */
+    private static ResponseEntity<byte[]> cachedResponse(PublishedContentCache.Entry cached, String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(cached.getETag())
+                .contentType(MediaType.APPLICATION_JSON);
+        if (cached.getGzip() == null) {
+            return response.body(cached.getJson());
+        }
+        response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (PublishedContentCache.acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.getGzip());
+        }
+        return response.body(cached.getJson());
+    }
 }
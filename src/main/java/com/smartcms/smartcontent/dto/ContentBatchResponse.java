@@ -0,0 +1,19 @@
+package com.smartcms.smartcontent.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@Builder
+public class ContentBatchResponse<T> {
+    /** Found items, in the order their IDs were requested. */
+    private List<T> items;
+    /** Requested IDs that did not match any content. */
+    private List<String> missing;
+}
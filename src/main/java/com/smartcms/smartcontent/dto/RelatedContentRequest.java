@@ -0,0 +1,17 @@
+package com.smartcms.smartcontent.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatedContentRequest {
+
+    @NotBlank
+    private String relatedContentId;
+}
@@ -0,0 +1,13 @@
+package com.smartcms.smartcontent.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a downstream call is rejected locally by an open circuit breaker or a full bulkhead.
+ */
+public class CallNotPermittedException extends ApiException {
+
+    public CallNotPermittedException(String message) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
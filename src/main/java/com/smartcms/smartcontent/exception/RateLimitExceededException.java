@@ -0,0 +1,19 @@
+package com.smartcms.smartcontent.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when an org has used up its request rate, or its requests queued too long while the service was saturated.
+ */
+@Getter
+public class RateLimitExceededException extends ApiException {
+
+    /** Seconds the client should wait before retrying. */
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
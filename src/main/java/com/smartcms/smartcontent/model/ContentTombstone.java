@@ -0,0 +1,26 @@
+package com.smartcms.smartcontent.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Record of a permanently deleted content item, kept for a while so that other instances can drop it
+ * from their search indexes.
+ */
+@Document(collection = "content_tombstones")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContentTombstone {
+
+    /** The deleted content's id. */
+    @Id
+    private String id;
+
+    private Instant deletedAt;
+}
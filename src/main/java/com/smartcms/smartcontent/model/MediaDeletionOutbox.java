@@ -0,0 +1,35 @@
+package com.smartcms.smartcontent.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+@Document(collection = "media_deletion_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaDeletionOutbox {
+
+    public enum Status {
+        PENDING,
+        POISON
+    }
+
+    @Id
+    private String id;
+
+    private String contentId;
+    private List<String> mediaIds;
+
+    private Status status;
+    private int attempts;
+    private Instant nextAttemptAt;
+    private String lastError;
+
+    private Instant createdAt;
+}
@@ -0,0 +1,53 @@
+package com.smartcms.smartcontent.model;
+
+import com.smartcms.smartcommon.model.UserDetails;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Related content of one content item: links added by users and the precomputed most similar items.
+ */
+@Document(collection = "related_content")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RelatedContent {
+
+    /** The content ID these relations belong to. */
+    @Id
+    private String id;
+
+    private String orgId;
+
+    /** Links added by users, in the order they were added. */
+    private List<Link> manual;
+
+    /** Most similar content, best match first. */
+    private List<Neighbor> computed;
+    private Instant computedAt;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Link {
+        private String contentId;
+        private UserDetails linkedBy;
+        private Instant linkedAt;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Neighbor {
+        private String contentId;
+        private double score;
+    }
+}
@@ -0,0 +1,62 @@
+package com.smartcms.smartcontent.profiling;
+
+import jdk.jfr.Configuration;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Event settings of an on-demand recording: the JDK's low-overhead {@code default} configuration,
+ * with the events of the chosen profile sampled more often or at lower thresholds.
+ */
+public enum JfrProfile {
+
+    /** Method samples every 10 ms, for Java and native code. */
+    CPU(Map.of(
+            "jdk.ExecutionSample#period", "10 ms",
+            "jdk.NativeMethodSample#period", "20 ms")),
+    /** Allocation samples with stack traces, and objects surviving in the old generation. */
+    ALLOCATION(Map.of(
+            "jdk.ObjectAllocationSample#throttle", "300/s",
+            "jdk.OldObjectSample#enabled", "true",
+            "jdk.OldObjectSample#stackTrace", "true")),
+    /** Monitor contention, parking and virtual thread pinning over 1 ms. */
+    LOCKS(Map.of(
+            "jdk.JavaMonitorEnter#threshold", "1 ms",
+            "jdk.JavaMonitorWait#threshold", "1 ms",
+            "jdk.ThreadPark#threshold", "1 ms",
+            "jdk.VirtualThreadPinned#threshold", "1 ms"));
+
+    private final Map<String, String> overrides;
+
+    JfrProfile(Map<String, String> overrides) {
+        this.overrides = overrides;
+    }
+
+    /**
+     * @return The profile with the given name, in any case, or null if there is none
+     */
+    public static JfrProfile of(String name) {
+        for (JfrProfile profile : values()) {
+            if (profile.name().equalsIgnoreCase(name)) {
+                return profile;
+            }
+        }
+        return null;
+    }
+
+    public Map<String, String> settings() {
+        Map<String, String> settings;
+        try {
+            settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("JDK Flight Recorder default configuration is unavailable", e);
+        }
+        overrides.keySet().forEach(setting ->
+                settings.put(setting.substring(0, setting.indexOf('#')) + "#enabled", "true"));
+        settings.putAll(overrides);
+        return settings;
+    }
+}
@@ -0,0 +1,123 @@
+package com.smartcms.smartcontent.profiling;
+
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@code /actuator/profiling}: GET returns the always-on {@link ProfilingSummary}; POST with a
+ * {@code profile} (cpu, allocation, locks) and optional {@code duration} records that long with
+ * JDK Flight Recorder and returns the {@code .jfr} file.
+ * <p>
+ * Disabled by default: enable with {@code management.endpoint.profiling.enabled} and expose it through
+ * {@code management.endpoints.web.exposure.include}, like any other sensitive actuator endpoint.
+ */
+@Slf4j
+@WebEndpoint(id = "profiling", enableByDefault = false)
+public class ProfilingEndpoint {
+
+    private static final int DEFAULT_TOP = 20;
+
+    private final ProfilingProperties properties;
+    private final ProfilingSummaryRecorder summaryRecorder;
+    private final AtomicBoolean recording = new AtomicBoolean();
+
+    /**
+     * @param summaryRecorder The always-on recorder, or null if the summary is disabled
+     */
+    public ProfilingEndpoint(ProfilingProperties properties, ProfilingSummaryRecorder summaryRecorder) {
+        this.properties = properties;
+        this.summaryRecorder = summaryRecorder;
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<ProfilingSummary> summary(@Nullable Integer top) {
+        if (summaryRecorder == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(summaryRecorder.summary(top != null && top > 0 ? top : DEFAULT_TOP));
+    }
+
+    @WriteOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> record(String profile, @Nullable Duration duration)
+            throws IOException, InterruptedException {
+        JfrProfile jfrProfile = JfrProfile.of(profile);
+        Duration length = duration != null ? duration : properties.getDefaultDuration();
+        if (jfrProfile == null || length.isNegative() || length.isZero()
+                || length.compareTo(properties.getMaxDuration()) > 0) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        // Recordings overlap in what they capture and each adds overhead, so only one runs at a time
+        if (!recording.compareAndSet(false, true)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+        try {
+            return new WebEndpointResponse<>(new TemporaryFileResource(recordToFile(jfrProfile, length)));
+        } finally {
+            recording.set(false);
+        }
+    }
+
+    private Path recordToFile(JfrProfile profile, Duration length) throws IOException, InterruptedException {
+        String name = "smartcontent-" + profile.name().toLowerCase(Locale.ROOT);
+        Path file = Files.createTempFile(name + "-", ".jfr");
+        try (Recording jfr = new Recording(profile.settings())) {
+            jfr.setName(name);
+            log.info("Starting {} recording for {}", name, length);
+            jfr.start();
+            Thread.sleep(length);
+            jfr.stop();
+            jfr.dump(file);
+            log.info("Finished {} recording: {} bytes", name, Files.size(file));
+            return file;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes the recording once it has been sent.
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        private TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            // Forces the response to be written from getInputStream, so the file is deleted afterwards
+            return false;
+        }
+    }
+}
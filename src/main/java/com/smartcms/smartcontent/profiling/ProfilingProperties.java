@@ -0,0 +1,31 @@
+package com.smartcms.smartcontent.profiling;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * JDK Flight Recorder profiling ({@code smartcontent.profiling}).
+ */
+@Data
+public class ProfilingProperties {
+
+    /** Length of an on-demand recording when none is requested. */
+    private Duration defaultDuration = Duration.ofSeconds(30);
+    /** Longest on-demand recording allowed; the request is held open while recording. */
+    private Duration maxDuration = Duration.ofMinutes(5);
+
+    private Summary summary = new Summary();
+
+    @Data
+    public static class Summary {
+        /** Keep a low-overhead recording running for the profiling summary. */
+        private boolean enabled = true;
+        /** How far back the summary reaches, rounded up to whole minutes. */
+        private Duration window = Duration.ofMinutes(5);
+        /** Interval between method samples of each running thread. */
+        private Duration samplePeriod = Duration.ofMillis(20);
+        /** Maximum allocation samples per second, as a JFR throttle. */
+        private String allocationThrottle = "100/s";
+    }
+}
@@ -0,0 +1,23 @@
+package com.smartcms.smartcontent.profiling;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Hottest methods and largest allocation sites since {@code since}.
+ * @param methodSamples  Method samples taken, across all threads
+ * @param allocatedBytes Bytes allocated, as estimated from the allocation samples
+ */
+public record ProfilingSummary(Instant since,
+                               long methodSamples,
+                               List<Entry> hotMethods,
+                               long allocatedBytes,
+                               List<Entry> allocationSites) {
+
+    /**
+     * @param value   Samples of a method, or bytes allocated at a site
+     * @param percent Share of all samples or bytes
+     */
+    public record Entry(String name, long value, double percent) {
+    }
+}
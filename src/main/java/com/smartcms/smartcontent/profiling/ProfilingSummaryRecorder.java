@@ -0,0 +1,176 @@
+package com.smartcms.smartcontent.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Streams method and allocation samples from an always-on JDK Flight Recorder recording and keeps
+ * per-minute counts of the hottest methods and the largest allocation sites for the summary window.
+ * <p>
+ * Hot methods are the top frames of the samples, i.e. where threads spent their own time. Allocation sites
+ * are the first frames outside the JDK, weighted by the bytes each sample stands for.
+ */
+@Slf4j
+public class ProfilingSummaryRecorder implements AutoCloseable {
+
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    private static final List<String> JDK_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+
+    private final ProfilingProperties.Summary properties;
+    private final long windowMinutes;
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Counts of the most recent minutes, oldest first. */
+    private final ArrayDeque<Minute> minutes = new ArrayDeque<>();
+    private RecordingStream stream;
+
+    public ProfilingSummaryRecorder(ProfilingProperties.Summary properties) {
+        this.properties = properties;
+        this.windowMinutes = Math.max(1, (properties.getWindow().toSeconds() + 59) / 60);
+    }
+
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(EXECUTION_SAMPLE).withPeriod(properties.getSamplePeriod()).withStackTrace();
+        stream.enable(ALLOCATION_SAMPLE).with("throttle", properties.getAllocationThrottle()).withStackTrace();
+        // Events are aggregated as they arrive; the stream itself only needs to keep the latest chunks
+        stream.setMaxAge(Duration.ofMinutes(1));
+        stream.onEvent(EXECUTION_SAMPLE, this::onExecutionSample);
+        stream.onEvent(ALLOCATION_SAMPLE, this::onAllocationSample);
+        stream.startAsync();
+        log.info("Profiling summary recording started (window: {} min, sample period: {})",
+                windowMinutes, properties.getSamplePeriod());
+    }
+
+    @Override
+    public void close() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * @param top Number of methods and allocation sites to return
+     */
+    public ProfilingSummary summary(int top) {
+        long since = TimeUnit.SECONDS.toMinutes(Instant.now().getEpochSecond()) - windowMinutes + 1;
+        Map<String, Long> methodSamples = new HashMap<>();
+        Map<String, Long> allocatedBytes = new HashMap<>();
+        lock.lock();
+        try {
+            for (Minute minute : minutes) {
+                if (minute.epochMinute >= since) {
+                    minute.methodSamples.forEach((method, count) -> methodSamples.merge(method, count, Long::sum));
+                    minute.allocatedBytes.forEach((site, bytes) -> allocatedBytes.merge(site, bytes, Long::sum));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return new ProfilingSummary(Instant.ofEpochSecond(TimeUnit.MINUTES.toSeconds(since)),
+                total(methodSamples), top(methodSamples, top), total(allocatedBytes), top(allocatedBytes, top));
+    }
+
+    private void onExecutionSample(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+        add(event.getStartTime(), false, methodName(stackTrace.getFrames().get(0)), 1);
+    }
+
+    private void onAllocationSample(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+        RecordedFrame site = stackTrace.getFrames().stream()
+                .filter(frame -> frame.isJavaFrame() && !isJdk(frame))
+                .findFirst()
+                .orElse(stackTrace.getFrames().get(0));
+        add(event.getStartTime(), true, event.getClass("objectClass").getName() + " in " + methodName(site),
+                event.getLong("weight"));
+    }
+
+    private void add(Instant time, boolean allocation, String key, long amount) {
+        long epochMinute = TimeUnit.SECONDS.toMinutes(time.getEpochSecond());
+        lock.lock();
+        try {
+            Minute minute = minuteOf(epochMinute);
+            if (minute != null) {
+                (allocation ? minute.allocatedBytes : minute.methodSamples).merge(key, amount, Long::sum);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Counts of the given minute, or null if it is already outside the window
+     */
+    private Minute minuteOf(long epochMinute) {
+        Minute latest = minutes.peekLast();
+        if (latest == null || epochMinute > latest.epochMinute) {
+            Minute minute = new Minute(epochMinute);
+            minutes.addLast(minute);
+            while (minutes.peekFirst().epochMinute <= epochMinute - windowMinutes) {
+                minutes.removeFirst();
+            }
+            return minute;
+        }
+        // Events arrive in batches, so a few may belong to an earlier minute
+        for (var iterator = minutes.descendingIterator(); iterator.hasNext(); ) {
+            Minute minute = iterator.next();
+            if (minute.epochMinute == epochMinute) {
+                return minute;
+            }
+        }
+        return null;
+    }
+
+    private static List<ProfilingSummary.Entry> top(Map<String, Long> counts, int top) {
+        long total = total(counts);
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(top)
+                .map(entry -> new ProfilingSummary.Entry(entry.getKey(), entry.getValue(),
+                        Math.round(entry.getValue() * 1000.0 / total) / 10.0))
+                .toList();
+    }
+
+    private static long total(Map<String, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static String methodName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static boolean isJdk(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return JDK_PACKAGES.stream().anyMatch(type::startsWith);
+    }
+
+    private static final class Minute {
+        private final long epochMinute;
+        private final Map<String, Long> methodSamples = new HashMap<>();
+        private final Map<String, Long> allocatedBytes = new HashMap<>();
+
+        private Minute(long epochMinute) {
+            this.epochMinute = epochMinute;
+        }
+    }
+}
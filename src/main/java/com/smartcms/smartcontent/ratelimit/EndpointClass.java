@@ -0,0 +1,13 @@
+package com.smartcms.smartcontent.ratelimit;
+
+/**
+ * Groups endpoints that share a rate limit.
+ */
+public enum EndpointClass {
+    /** Single-item and paginated reads; the default for GET and HEAD. */
+    READ,
+    /** Creates, updates and deletes; the default for other methods. */
+    WRITE,
+    /** Exports, multi-gets and reindexing, marked with {@link RateLimited}. */
+    BULK
+}
@@ -0,0 +1,125 @@
+package com.smartcms.smartcontent.ratelimit;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps the number of requests handled at once. When every slot is taken, waiting requests are admitted
+ * in start-time fair queuing order: each org's requests are spaced {@code 1 / weight} apart in virtual time,
+ * so a busy org cannot starve the others and an org with weight 2 gets about twice the share of one with weight 1.
+ */
+final class FairAdmission {
+
+    private final int maxConcurrent;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> waiting = new PriorityQueue<>(
+            Comparator.comparingDouble(Waiter::start).thenComparingLong(Waiter::sequence));
+    /** Virtual finish time of each org's last queued request; cleared whenever the queue drains. */
+    private final Map<String, Double> lastFinish = new HashMap<>();
+    private double virtualTime;
+    private long sequence;
+    private int inFlight;
+
+    FairAdmission(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Takes a slot, queuing for up to {@code maxWaitNanos} if none is free.
+     * @return true if a slot was taken and must be returned with {@link #release()}
+     */
+    boolean acquire(String orgId, int weight, long maxWaitNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < maxConcurrent && waiting.isEmpty()) {
+                inFlight++;
+                return true;
+            }
+            if (maxWaitNanos <= 0) {
+                return false;
+            }
+            double start = Math.max(virtualTime, lastFinish.getOrDefault(orgId, 0.0));
+            lastFinish.put(orgId, start + 1.0 / Math.max(1, weight));
+            Waiter waiter = new Waiter(start, sequence++, lock.newCondition());
+            waiting.add(waiter);
+
+            long remaining = maxWaitNanos;
+            try {
+                while (!waiter.admitted && remaining > 0) {
+                    remaining = waiter.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.admitted) {
+                    handOver();
+                } else {
+                    waiting.remove(waiter);
+                }
+                throw e;
+            }
+            if (!waiter.admitted) {
+                waiting.remove(waiter);
+            }
+            return waiter.admitted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release() {
+        lock.lock();
+        try {
+            handOver();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getInFlight() {
+        return inFlight;
+    }
+
+    int getQueued() {
+        return waiting.size();
+    }
+
+    /**
+     * Passes a finished request's slot to the next waiter, or frees it if none are waiting.
+     */
+    private void handOver() {
+        Waiter next = waiting.poll();
+        if (next == null) {
+            inFlight--;
+            lastFinish.clear();
+            virtualTime = 0;
+            return;
+        }
+        virtualTime = next.start;
+        next.admitted = true;
+        next.condition.signal();
+    }
+
+    private static final class Waiter {
+        private final double start;
+        private final long sequence;
+        private final Condition condition;
+        private boolean admitted;
+
+        private Waiter(double start, long sequence, Condition condition) {
+            this.start = start;
+            this.sequence = sequence;
+            this.condition = condition;
+        }
+
+        private double start() {
+            return start;
+        }
+
+        private long sequence() {
+            return sequence;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.smartcms.smartcontent.ratelimit;
+
+import com.smartcms.smartcontent.exception.ApiException;
+import com.smartcms.smartcontent.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Admits requests per org: first against the org's token bucket for the endpoint class, then through
+ * {@link FairAdmission} so that, when the service is saturated, orgs share it by weight rather than by volume.
+ * Callers without an org get buckets of their own, keyed by {@link #userKey(String) user} or
+ * {@link #addressKey(String) address}, and queue as one anonymous org.
+ * Streamed responses are admitted against a separate, smaller pool ({@link #acquireStream}) so that long exports
+ * cannot hold the slots that ordinary requests need.
+ * <p>
+ * Buckets left full are dropped every {@code idle-sweep-interval}; when {@code max-tracked-orgs} buckets are still
+ * in use, new callers share one set of default buckets until the next sweep.
+ * <p>
+ * Metrics:
+ * <ul>
+ *     <li>{@code smartcontent.ratelimit.requests} - tagged with {@code org}, {@code class} and
+ *     {@code outcome} (admitted, throttled, overloaded). Orgs are tagged by ID up to {@code metrics-max-orgs}
+ *     plus the configured ones, others as {@code other}; callers without an org as {@code user} or {@code ip}</li>
+ *     <li>{@code smartcontent.ratelimit.inflight} - requests being handled</li>
+ *     <li>{@code smartcontent.ratelimit.queued} - requests waiting for admission</li>
+ *     <li>{@code smartcontent.ratelimit.streams} - streamed responses in progress</li>
+ * </ul>
+ */
+@Slf4j
+public class OrgRateLimiter {
+
+    private static final String ANONYMOUS = "none";
+    private static final String USER_PREFIX = "user:";
+    private static final String ADDRESS_PREFIX = "ip:";
+    private static final String OTHER_ORGS = "other";
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final FairAdmission admission;
+    private final long maxWaitNanos;
+    /** Buckets of each org, indexed by endpoint class ordinal; null where the class is unlimited. */
+    private final Map<String, TokenBucket[]> buckets = new ConcurrentHashMap<>();
+    /** Shared by new callers while {@code max-tracked-orgs} buckets are in use. */
+    private final TokenBucket[] overflowBuckets;
+    private final long idleSweepNanos;
+    private final AtomicLong nextSweep;
+    /** Orgs given their own {@code org} tag value. */
+    private final Set<String> taggedOrgs = ConcurrentHashMap.newKeySet();
+    private final int maxConcurrentStreams;
+    private final Semaphore streams;
+
+    public OrgRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    OrgRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        this.admission = new FairAdmission(properties.getAdmission().getMaxConcurrentRequests());
+        this.maxWaitNanos = properties.getAdmission().getMaxWait().toNanos();
+        this.overflowBuckets = newBuckets(OTHER_ORGS);
+        this.idleSweepNanos = properties.getIdleSweepInterval().toNanos();
+        this.nextSweep = new AtomicLong(nanoClock.getAsLong() + idleSweepNanos);
+        this.maxConcurrentStreams = properties.getAdmission().getMaxConcurrentStreams();
+        this.streams = new Semaphore(maxConcurrentStreams);
+
+        Gauge.builder("smartcontent.ratelimit.inflight", admission, FairAdmission::getInFlight).register(meterRegistry);
+        Gauge.builder("smartcontent.ratelimit.queued", admission, FairAdmission::getQueued).register(meterRegistry);
+        Gauge.builder("smartcontent.ratelimit.streams", streams,
+                permits -> maxConcurrentStreams - permits.availablePermits()).register(meterRegistry);
+    }
+
+    /**
+     * Rate limit key of a caller identified only by user ID.
+     */
+    public static String userKey(String userId) {
+        return USER_PREFIX + userId;
+    }
+
+    /**
+     * Rate limit key of a caller identified only by network address.
+     */
+    public static String addressKey(String address) {
+        return ADDRESS_PREFIX + address;
+    }
+
+    /**
+     * Admits a request, waiting for a free slot if the service is saturated.
+     * An admitted request must be finished with {@link #release()}.
+     * @param clientKey The requesting org, a {@link #userKey(String)} or {@link #addressKey(String)},
+     *                  or null to skip the buckets
+     * @throws RateLimitExceededException if the caller is over its rate, or no slot became free in time
+     */
+    public void acquire(String clientKey, EndpointClass endpointClass) {
+        String key = checkRate(clientKey, endpointClass);
+        String org = isOrg(key) ? key : ANONYMOUS;
+
+        boolean admitted;
+        try {
+            admitted = admission.acquire(org, properties.getWeights().getOrDefault(org, 1), maxWaitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while waiting for admission", HttpStatus.SERVICE_UNAVAILABLE, e);
+        }
+        if (!admitted) {
+            count(key, endpointClass, "overloaded");
+            throw new RateLimitExceededException("Too many requests in progress", toRetryAfter(maxWaitNanos));
+        }
+        count(key, endpointClass, "admitted");
+    }
+
+    public void release() {
+        admission.release();
+    }
+
+    /**
+     * Admits a request whose response is streamed, without queuing. Streams do not take a slot from the
+     * concurrent request pool, only one of {@code admission.max-concurrent-streams}, and must be finished
+     * with {@link #releaseStream()}.
+     * @throws RateLimitExceededException if the caller is over its rate, or every stream slot is taken
+     */
+    public void acquireStream(String clientKey, EndpointClass endpointClass) {
+        String key = checkRate(clientKey, endpointClass);
+        if (!streams.tryAcquire()) {
+            count(key, endpointClass, "overloaded");
+            throw new RateLimitExceededException("Too many streamed responses in progress",
+                    toRetryAfter(maxWaitNanos));
+        }
+        count(key, endpointClass, "admitted");
+    }
+
+    public void releaseStream() {
+        streams.release();
+    }
+
+    /**
+     * Takes a token from the caller's bucket for the endpoint class.
+     * @return The caller's key, {@link #ANONYMOUS} if it has none
+     */
+    private String checkRate(String clientKey, EndpointClass endpointClass) {
+        if (clientKey == null || clientKey.isBlank()) {
+            return ANONYMOUS;
+        }
+        TokenBucket bucket = bucketsOf(clientKey)[endpointClass.ordinal()];
+        long waitNanos = bucket == null ? 0 : bucket.tryAcquire(nanoClock.getAsLong());
+        if (waitNanos > 0) {
+            count(clientKey, endpointClass, "throttled");
+            throw new RateLimitExceededException("Rate limit exceeded for "
+                    + endpointClass.name().toLowerCase(Locale.ROOT) + " requests", toRetryAfter(waitNanos));
+        }
+        return clientKey;
+    }
+
+    private TokenBucket[] bucketsOf(String clientKey) {
+        TokenBucket[] orgBuckets = buckets.get(clientKey);
+        if (orgBuckets != null) {
+            return orgBuckets;
+        }
+        long now = nanoClock.getAsLong();
+        long sweepAt = nextSweep.get();
+        if (now - sweepAt >= 0 && nextSweep.compareAndSet(sweepAt, now + idleSweepNanos)) {
+            // A full bucket is the same as a new one, so idle callers can be dropped without losing state
+            buckets.values().removeIf(candidate -> isFull(candidate, now));
+            log.debug("Rate limiter tracks {} callers after dropping idle ones", buckets.size());
+        }
+        if (buckets.size() >= properties.getMaxTrackedOrgs()) {
+            return overflowBuckets;
+        }
+        return buckets.computeIfAbsent(clientKey, this::newBuckets);
+    }
+
+    private TokenBucket[] newBuckets(String orgId) {
+        Map<EndpointClass, RateLimitProperties.Limit> overrides = properties.getOrgs().getOrDefault(orgId, Map.of());
+        long now = nanoClock.getAsLong();
+        TokenBucket[] orgBuckets = new TokenBucket[EndpointClass.values().length];
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            RateLimitProperties.Limit limit = overrides.getOrDefault(endpointClass, properties.getDefaults().get(endpointClass));
+            if (limit != null && limit.getPermitsPerSecond() > 0) {
+                orgBuckets[endpointClass.ordinal()] = new TokenBucket(limit, now);
+            }
+        }
+        return orgBuckets;
+    }
+
+    private static boolean isFull(TokenBucket[] orgBuckets, long now) {
+        for (TokenBucket bucket : orgBuckets) {
+            if (bucket != null && !bucket.isFull(now)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void count(String clientKey, EndpointClass endpointClass, String outcome) {
+        meterRegistry.counter("smartcontent.ratelimit.requests", "org", orgTag(clientKey),
+                "class", endpointClass.name().toLowerCase(Locale.ROOT), "outcome", outcome).increment();
+    }
+
+    private String orgTag(String clientKey) {
+        if (clientKey.startsWith(USER_PREFIX)) {
+            return "user";
+        }
+        if (clientKey.startsWith(ADDRESS_PREFIX)) {
+            return "ip";
+        }
+        if (ANONYMOUS.equals(clientKey) || taggedOrgs.contains(clientKey)
+                || properties.getOrgs().containsKey(clientKey) || properties.getWeights().containsKey(clientKey)) {
+            return clientKey;
+        }
+        // Racing callers may overshoot the cap by a few, which is harmless
+        if (taggedOrgs.size() < properties.getMetricsMaxOrgs() && taggedOrgs.add(clientKey)) {
+            return clientKey;
+        }
+        return OTHER_ORGS;
+    }
+
+    private static boolean isOrg(String clientKey) {
+        return !clientKey.startsWith(USER_PREFIX) && !clientKey.startsWith(ADDRESS_PREFIX);
+    }
+
+    private static long toRetryAfter(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
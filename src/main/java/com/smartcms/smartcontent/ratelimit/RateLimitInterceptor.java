@@ -0,0 +1,78 @@
+package com.smartcms.smartcontent.ratelimit;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies the {@link OrgRateLimiter} to controller requests, keyed by the {@code X-Org-Id} header, else by the
+ * {@code X-User-Id} header or the client address, so that endpoints which take only a user are limited too.
+ * The admission slot is held until the response is complete, including the async part of streamed responses;
+ * handlers marked {@link RateLimited#streaming()} hold a stream slot instead.
+ */
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    static final String ORG_HEADER = "X-Org-Id";
+    static final String USER_HEADER = "X-User-Id";
+    private static final String ADMITTED = RateLimitInterceptor.class.getName() + ".admitted";
+    private static final String STREAMING = RateLimitInterceptor.class.getName() + ".streaming";
+
+    private final OrgRateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async and error dispatches belong to a request that was already admitted
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        RateLimited rateLimited = method.getMethodAnnotation(RateLimited.class);
+        if (rateLimited != null && rateLimited.streaming()) {
+            rateLimiter.acquireStream(clientKey(request), endpointClass(request, method));
+            request.setAttribute(STREAMING, Boolean.TRUE);
+        } else {
+            rateLimiter.acquire(clientKey(request), endpointClass(request, method));
+            request.setAttribute(ADMITTED, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ADMITTED) != null) {
+            request.removeAttribute(ADMITTED);
+            rateLimiter.release();
+        }
+        if (request.getAttribute(STREAMING) != null) {
+            request.removeAttribute(STREAMING);
+            rateLimiter.releaseStream();
+        }
+    }
+
+    static String clientKey(HttpServletRequest request) {
+        String orgId = request.getHeader(ORG_HEADER);
+        if (orgId != null && !orgId.isBlank()) {
+            return orgId;
+        }
+        String userId = request.getHeader(USER_HEADER);
+        if (userId != null && !userId.isBlank()) {
+            return OrgRateLimiter.userKey(userId);
+        }
+        return OrgRateLimiter.addressKey(request.getRemoteAddr());
+    }
+
+    static EndpointClass endpointClass(HttpServletRequest request, HandlerMethod method) {
+        RateLimited rateLimited = method.getMethodAnnotation(RateLimited.class);
+        if (rateLimited != null) {
+            return rateLimited.value();
+        }
+        String httpMethod = request.getMethod();
+        return HttpMethod.GET.matches(httpMethod) || HttpMethod.HEAD.matches(httpMethod)
+                ? EndpointClass.READ
+                : EndpointClass.WRITE;
+    }
+}
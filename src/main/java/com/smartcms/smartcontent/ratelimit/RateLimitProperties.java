@@ -0,0 +1,62 @@
+package com.smartcms.smartcontent.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-org request limits ({@code smartcontent.rate-limit}).
+ */
+@Data
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Limits of orgs without an override. */
+    private Map<EndpointClass, Limit> defaults = new EnumMap<>(Map.of(
+            EndpointClass.READ, new Limit(100, 200),
+            EndpointClass.WRITE, new Limit(20, 40),
+            EndpointClass.BULK, new Limit(1, 5)));
+
+    /** Overrides by org ID, then endpoint class; classes not listed use the defaults. */
+    private Map<String, Map<EndpointClass, Limit>> orgs = new HashMap<>();
+
+    /** Share of capacity, by org ID, when requests queue for admission; orgs not listed have weight 1. */
+    private Map<String, Integer> weights = new HashMap<>();
+
+    private Admission admission = new Admission();
+
+    /** Callers tracked at once; further callers share the default buckets until idle ones are dropped. */
+    private int maxTrackedOrgs = 10_000;
+
+    /** How often callers whose buckets are full are forgotten. */
+    private Duration idleSweepInterval = Duration.ofMinutes(1);
+
+    /** Orgs tagged by ID in metrics, besides those configured under orgs or weights; the rest are tagged other. */
+    private int metricsMaxOrgs = 100;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        /** Sustained rate; 0 disables the limit. */
+        private double permitsPerSecond;
+        /** Requests that may be made at once after a quiet period. */
+        private int burst;
+    }
+
+    @Data
+    public static class Admission {
+        /** Requests handled at once; further requests queue, served in weighted fair order. */
+        private int maxConcurrentRequests = 100;
+        /** How long a request may queue before being rejected. */
+        private Duration maxWait = Duration.ofSeconds(2);
+        /** Streamed responses, such as exports, in progress at once; they do not take request slots. */
+        private int maxConcurrentStreams = 4;
+    }
+}
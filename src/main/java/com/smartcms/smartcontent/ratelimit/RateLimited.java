@@ -0,0 +1,22 @@
+package com.smartcms.smartcontent.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a handler method in an endpoint class other than the one implied by its HTTP method.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    EndpointClass value();
+
+    /**
+     * Whether the response is streamed after the handler returns. Streams are admitted against their own
+     * limit instead of holding a request slot for as long as they run.
+     */
+    boolean streaming() default false;
+}
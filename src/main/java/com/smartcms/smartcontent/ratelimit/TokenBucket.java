@@ -0,0 +1,42 @@
+package com.smartcms.smartcontent.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as the time at which it will be full again (the generic cell rate algorithm),
+ * so taking a token is a single compare-and-set.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    /** When the bucket is full again; at or before now means it is full. */
+    private final AtomicLong fullAt;
+
+    TokenBucket(RateLimitProperties.Limit limit, long nowNanos) {
+        this.intervalNanos = (long) (1_000_000_000L / limit.getPermitsPerSecond());
+        this.capacityNanos = intervalNanos * Math.max(1, limit.getBurst());
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token if one is available.
+     * @return 0 if a token was taken, otherwise how long until one is available, in nanoseconds
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current - nowNanos, 0) + intervalNanos;
+            if (next > capacityNanos) {
+                return next - capacityNanos;
+            }
+            if (fullAt.compareAndSet(current, nowNanos + next)) {
+                return 0;
+            }
+        }
+    }
+
+    boolean isFull(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,74 @@
+package com.smartcms.smartcontent.repository;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcontent.model.ContentHistory;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertCallback;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves large bodies of content and of history snapshots to the {@link ContentBodyStore} as they are written,
+ * and reads them back into the entity when the query included the body reference. List and batch queries leave the
+ * reference out, so only single-item reads load bodies from the store.
+ * Saves see the entity after these callbacks, so search indexing and related content still get the body.
+ */
+final class ContentBodyCallbacks {
+
+    private ContentBodyCallbacks() {
+    }
+
+    @Component
+    @RequiredArgsConstructor
+    static class ContentCallback implements BeforeSaveCallback<Content>, AfterConvertCallback<Content> {
+
+        private final ContentBodyStore contentBodyStore;
+
+        @Override
+        public Content onBeforeSave(Content entity, Document document, String collection) {
+            contentBodyStore.externalize(document);
+            return entity;
+        }
+
+        @Override
+        public Content onAfterConvert(Content entity, Document document, String collection) {
+            resolve(contentBodyStore, entity, document);
+            return entity;
+        }
+    }
+
+    @Component
+    @RequiredArgsConstructor
+    static class HistoryCallback implements BeforeSaveCallback<ContentHistory>, AfterConvertCallback<ContentHistory> {
+
+        private static final String SNAPSHOT = "contentSnapshot";
+
+        private final ContentBodyStore contentBodyStore;
+
+        @Override
+        public ContentHistory onBeforeSave(ContentHistory entity, Document document, String collection) {
+            if (document.get(SNAPSHOT) instanceof Document snapshot) {
+                contentBodyStore.externalize(snapshot);
+            }
+            return entity;
+        }
+
+        @Override
+        public ContentHistory onAfterConvert(ContentHistory entity, Document document, String collection) {
+            if (entity.getContentSnapshot() != null && document.get(SNAPSHOT) instanceof Document snapshot) {
+                resolve(contentBodyStore, entity.getContentSnapshot(), snapshot);
+            }
+            return entity;
+        }
+    }
+
+    private static void resolve(ContentBodyStore contentBodyStore, Content content, Document document) {
+        if (content.getBody() == null) {
+            String body = contentBodyStore.resolve(document);
+            if (body != null) {
+                content.setBody(body);
+            }
+        }
+    }
+}
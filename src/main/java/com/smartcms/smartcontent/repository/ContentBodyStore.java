@@ -0,0 +1,264 @@
+package com.smartcms.smartcontent.repository;
+
+import com.mongodb.MongoGridFSException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcontent.model.ContentHistory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Storage tier for large content bodies. Bodies of at least {@code smartcontent.body-storage.threshold} are kept in
+ * a GridFS bucket instead of inline, so that listing content and history does not read them. Files are named by the
+ * SHA-256 hash of the body, which the document keeps in {@link #BODY_REF} in place of {@code body}: a body shared by
+ * the content and its history snapshots is stored once.
+ * <p>
+ * Bodies are swapped in and out by {@link ContentBodyCallbacks} as documents are written and read. A query that
+ * leaves out {@link #BODY_REF} reads externalized bodies as null, so list and batch queries leave out both
+ * {@code body} and {@link #BODY_REF}: only single-item reads, and the export and search rebuild that need every body,
+ * load them.
+ * <p>
+ * A body is no longer needed once no content or history snapshot references it, e.g. after its content is purged or
+ * its body is overwritten and no snapshot kept it. Such files are deleted by {@link #sweep()}, a mark-and-sweep by
+ * hash: files stored or reused within {@code smartcontent.body-storage.min-age} are kept, so a document being
+ * written is never left pointing at a deleted body. The sweep reads files in batches and looks their hashes up
+ * through sparse indexes on the references, so it never scans the content or history collections.
+ * <p>
+ * Every instance sweeps unless {@code smartcontent.body-storage.sweep-enabled} is false. Overlapping sweeps are
+ * harmless: each file is deleted only if it is still unused, so at worst two instances look up the same batch.
+ */
+@Slf4j
+@Component
+public class ContentBodyStore {
+
+    public static final String BODY = "body";
+    public static final String BODY_REF = "bodyRef";
+    /** When a stored body was last reused by a write; files not reused carry only their upload date. */
+    private static final String REFERENCED_AT = "metadata.referencedAt";
+    private static final String SNAPSHOT_BODY_REF = "contentSnapshot." + BODY_REF;
+    private static final int SWEEP_BATCH_SIZE = 1000;
+
+    private final MongoDatabaseFactory databaseFactory;
+    private final MongoMappingContext mappingContext;
+    private final String bucketName;
+    private final boolean enabled;
+    private final long threshold;
+    private final Duration minAge;
+    private final boolean sweepEnabled;
+    private final Counter stored;
+    private final Counter deduplicated;
+    private final Counter loaded;
+    private final Counter deleted;
+
+    public ContentBodyStore(MongoDatabaseFactory databaseFactory,
+                            MongoMappingContext mappingContext,
+                            MeterRegistry meterRegistry,
+                            @Value("${smartcontent.body-storage.bucket:content_bodies}") String bucketName,
+                            @Value("${smartcontent.body-storage.enabled:true}") boolean enabled,
+                            @Value("${smartcontent.body-storage.threshold:256KB}") DataSize threshold,
+                            @Value("${smartcontent.body-storage.min-age:1h}") Duration minAge,
+                            @Value("${smartcontent.body-storage.sweep-enabled:true}") boolean sweepEnabled) {
+        this.databaseFactory = databaseFactory;
+        this.mappingContext = mappingContext;
+        this.bucketName = bucketName;
+        this.enabled = enabled;
+        this.threshold = threshold.toBytes();
+        this.minAge = minAge;
+        this.sweepEnabled = sweepEnabled;
+        this.stored = meterRegistry.counter("smartcontent.body.writes", "outcome", "stored");
+        this.deduplicated = meterRegistry.counter("smartcontent.body.writes", "outcome", "deduplicated");
+        this.loaded = meterRegistry.counter("smartcontent.body.reads");
+        this.deleted = meterRegistry.counter("smartcontent.body.deletes");
+    }
+
+    /**
+     * Moves the body of a document about to be written to the bucket if it is at least the threshold in size.
+     */
+    public void externalize(Document document) {
+        if (!enabled || !(document.get(BODY) instanceof String body) || body.length() * 3L < threshold) {
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < threshold) {
+            return;
+        }
+        document.remove(BODY);
+        document.put(BODY_REF, store(bytes));
+    }
+
+    /**
+     * @return The externalized body of a document that was read, or null if its body is inline or was not read
+     */
+    public String resolve(Document document) {
+        return document.get(BODY_REF) instanceof String ref ? load(ref) : null;
+    }
+
+    /**
+     * @return The reference to the stored body: its SHA-256 hash
+     */
+    String store(byte[] body) {
+        String ref = HexFormat.of().formatHex(sha256(body));
+        MongoDatabase database = databaseFactory.getMongoDatabase();
+        // Marking the file reused keeps the sweep from deleting it before the document that references it is written
+        if (database.getCollection(bucketName + ".files")
+                .updateMany(Filters.eq("filename", ref), Updates.set(REFERENCED_AT, new Date()))
+                .getMatchedCount() > 0) {
+            deduplicated.increment();
+            return ref;
+        }
+        // Concurrent writes of a new body may both upload it; the copies are identical and either is read
+        bucket(database).uploadFromStream(ref, new ByteArrayInputStream(body));
+        stored.increment();
+        log.debug("Stored content body {} ({} bytes)", ref, body.length);
+        return ref;
+    }
+
+    String load(String ref) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try {
+            bucket(databaseFactory.getMongoDatabase()).downloadToStream(ref, body);
+            loaded.increment();
+            return body.toString(StandardCharsets.UTF_8);
+        } catch (MongoGridFSException e) {
+            throw new IllegalStateException("Content body " + ref + " is missing from " + bucketName, e);
+        }
+    }
+
+    /**
+     * Creates the sparse indexes through which the sweep finds the documents referencing a body; only documents with
+     * an externalized body are indexed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        try {
+            MongoDatabase database = databaseFactory.getMongoDatabase();
+            IndexOptions sparse = new IndexOptions().sparse(true);
+            database.getCollection(collectionOf(Content.class)).createIndex(Indexes.ascending(BODY_REF), sparse);
+            database.getCollection(collectionOf(ContentHistory.class))
+                    .createIndex(Indexes.ascending(SNAPSHOT_BODY_REF), sparse);
+        } catch (RuntimeException e) {
+            log.warn("Failed to create the content body reference indexes", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${smartcontent.body-storage.sweep-interval-ms:3600000}",
+            initialDelayString = "${smartcontent.body-storage.sweep-interval-ms:3600000}")
+    public void sweep() {
+        if (!sweepEnabled) {
+            return;
+        }
+        try {
+            deleteUnreferenced(Instant.now().minus(minAge));
+        } catch (RuntimeException e) {
+            log.warn("Failed to delete unreferenced content bodies", e);
+        }
+    }
+
+    /**
+     * Deletes the stored bodies that no content or history snapshot references, among those neither stored nor
+     * reused since {@code cutoff}.
+     * @return Number of bodies deleted
+     */
+    public int deleteUnreferenced(Instant cutoff) {
+        Date before = Date.from(cutoff);
+        MongoDatabase database = databaseFactory.getMongoDatabase();
+        Bson unused = Filters.and(Filters.lt("uploadDate", before),
+                Filters.or(Filters.exists(REFERENCED_AT, false), Filters.lt(REFERENCED_AT, before)));
+
+        int count = 0;
+        List<GridFSFile> batch = new ArrayList<>(SWEEP_BATCH_SIZE);
+        try (MongoCursor<GridFSFile> files = bucket(database).find(unused).batchSize(SWEEP_BATCH_SIZE).iterator()) {
+            while (files.hasNext()) {
+                batch.add(files.next());
+                if (batch.size() == SWEEP_BATCH_SIZE || !files.hasNext()) {
+                    count += deleteUnreferenced(database, batch, unused);
+                    batch.clear();
+                }
+            }
+        }
+        deleted.increment(count);
+        if (count > 0) {
+            log.info("Deleted {} unreferenced content bodies", count);
+        }
+        return count;
+    }
+
+    private int deleteUnreferenced(MongoDatabase database, List<GridFSFile> files, Bson unused) {
+        // Looked up after the cutoff is fixed: a document written since then references a file stored or reused since
+        List<String> refs = files.stream().map(GridFSFile::getFilename).distinct().toList();
+        Set<String> referenced = new HashSet<>();
+        addReferenced(database.getCollection(collectionOf(Content.class)), BODY_REF, refs, referenced);
+        addReferenced(database.getCollection(collectionOf(ContentHistory.class)), SNAPSHOT_BODY_REF, refs, referenced);
+
+        int count = 0;
+        for (GridFSFile file : files) {
+            // Deleting the file entry only if it is still unused, so that a write reusing it meanwhile keeps it
+            if (!referenced.contains(file.getFilename())
+                    && database.getCollection(bucketName + ".files")
+                    .deleteOne(Filters.and(Filters.eq("_id", file.getId()), unused)).getDeletedCount() > 0) {
+                database.getCollection(bucketName + ".chunks").deleteMany(Filters.eq("files_id", file.getId()));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void addReferenced(MongoCollection<Document> collection, String field, List<String> refs,
+                                      Set<String> referenced) {
+        List<String> path = List.of(field.split("\\."));
+        collection.find(Filters.in(field, refs))
+                .projection(Projections.fields(Projections.include(field), Projections.excludeId()))
+                .forEach(document -> referenced.add(document.getEmbedded(path, String.class)));
+    }
+
+    private String collectionOf(Class<?> type) {
+        return mappingContext.getRequiredPersistentEntity(type).getCollection();
+    }
+
+    private GridFSBucket bucket(MongoDatabase database) {
+        return GridFSBuckets.create(database, bucketName);
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.smartcms.smartcontent.repository;
 
 import com.smartcms.smartcontent.model.ContentHistory;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,6 +10,11 @@ import java.util.Optional;
 
 @Repository
 public interface ContentHistoryRepository extends MongoRepository<ContentHistory, String> {
+    /**
+     * Lists the versions of a content item without the snapshot bodies.
+     */
+    @Query(fields = "{ 'contentSnapshot.body': 0, 'contentSnapshot.bodyRef': 0 }")
     List<ContentHistory> findByContentSnapshotId(String contentId);
+
     Optional<ContentHistory> findByContentSnapshotIdAndContentSnapshotVersion(String contentId, int version);
 }
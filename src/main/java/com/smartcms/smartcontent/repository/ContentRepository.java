@@ -7,38 +7,76 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ContentRepository extends MongoRepository<Content, String> {
+public interface ContentRepository extends MongoRepository<Content, String>, ContentRepositoryCustom {
 
 //    List<Content> findByTagsContaining(String tag);
 //
 //    List<Content> findByAuthor(String userId);
 
+    /**
+     * Items to purge, without their body.
+     */
+    @Query(value = "{ 'status': ?0, 'deletedAt': { $lt: ?1 } }", fields = "{ 'body': 0, 'bodyRef': 0 }")
     List<Content> findByStatusAndDeletedAtBefore(ContentStatus contentStatus, Instant expirationTime);
 
-    @Query("{ 'status': ?0, 'scheduledPublishAt': { $gte: ?1, $lte: ?2 } }")
+    /**
+     * Items due for publishing, without their body.
+     */
+    @Query(value = "{ 'status': ?0, 'scheduledPublishAt': { $gte: ?1, $lte: ?2 } }", fields = "{ 'body': 0, 'bodyRef': 0 }")
     List<Content> findByStatusAndScheduledPublishAtBetween(ContentStatus status, Instant startTime, Instant endTime);
 
-    @Query("{ 'status': ?0, 'scheduledPublishAt': { $lt: ?1 } }")
+    /**
+     * Items missed by earlier publishing runs, without their body.
+     */
+    @Query(value = "{ 'status': ?0, 'scheduledPublishAt': { $lt: ?1 } }", fields = "{ 'body': 0, 'bodyRef': 0 }")
     List<Content> findByStatusAndScheduledPublishAtBefore(ContentStatus status, Instant cutoffTime);
 
     @Query("{ '_id': ?0, 'status': ?1 }")
     Optional<Content> findByIdAndStatus(String id, ContentStatus contentStatus);
 
-    @Query("{ 'orgDetails.orgId': ?0, 'status': ?1 }")
+    /**
+     * Pages are read without bodies, inline or kept in the {@link ContentBodyStore}: the body is null on every item.
+     */
+    @Query(value = "{ 'orgDetails.orgId': ?0, 'status': ?1 }", fields = "{ 'body': 0, 'bodyRef': 0 }")
     Page<Content> findByOrgIdAndStatus(String orgId, ContentStatus status, Pageable pageable);
 
-    @Query("{ 'orgDetails.orgId': ?0, 'status': { $ne: ?1 } }")
+    /**
+     * Pages are read without bodies, inline or kept in the {@link ContentBodyStore}: the body is null on every item.
+     */
+    @Query(value = "{ 'orgDetails.orgId': ?0, 'status': { $ne: ?1 } }", fields = "{ 'body': 0, 'bodyRef': 0 }")
     Page<Content> findByOrgIdAndStatusNot(String orgId, ContentStatus status, Pageable pageable);
 
     boolean existsBySlugAndOrgDetails_OrgIdAndStatus(String slug, String orgId, ContentStatus status);
 
     boolean existsBySlugAndOrgDetails_OrgIdAndStatusAndIdNot(String slug, String orgId, ContentStatus status, String contentId);
 
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ '_id': 1 }")
+    List<Content> findIdsByIdIn(Collection<String> ids);
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'version': 1, 'updatedAt': 1 }")
+    Optional<Content> findVersionById(String id);
+
+    @Query("{ '_id': ?0, 'slug': ?1 }")
+    @Update("{ '$set': { 'slug': ?2, 'updatedAt': ?3 } }")
+    long updateSlugIfUnchanged(String id, String expectedSlug, String newSlug, Instant updatedAt);
+
+    /**
+     * Moves the given content from one status to another in a single command, skipping items whose status changed.
+     * Like any update by query, it fires no save events, so callers reindex the updated items for search themselves.
+     * @return Number of items updated
+     */
+    @Query("{ '_id': { $in: ?0 }, 'status': ?1 }")
+    @Update("{ '$set': { 'status': ?2, 'updatedAt': ?3 } }")
+    long updateStatusIfUnchanged(Collection<String> ids, ContentStatus expectedStatus, ContentStatus newStatus,
+                                 Instant updatedAt);
+
 }
\ No newline at end of file
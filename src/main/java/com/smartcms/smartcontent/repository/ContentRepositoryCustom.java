@@ -0,0 +1,40 @@
+package com.smartcms.smartcontent.repository;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Content queries that read only the requested fields from MongoDB.
+ * Fields that are not requested are left null on the returned objects.
+ */
+public interface ContentRepositoryCustom {
+
+    Optional<Content> findProjectedById(String id, Set<String> fields);
+
+    List<Content> findProjectedByIdIn(Collection<String> ids, Set<String> fields);
+
+    Page<Content> findProjectedByOrgIdAndStatus(String orgId, ContentStatus status, Pageable pageable, Set<String> fields);
+
+    Page<Content> findProjectedByOrgIdAndStatusNot(String orgId, ContentStatus status, Pageable pageable, Set<String> fields);
+
+    /**
+     * Streams an org's content from a single cursor in _id order, fetching {@code batchSize} documents at a time.
+     * Null filters are ignored and null fields read the full document. The stream must be closed to release the cursor.
+     */
+    Stream<Content> streamByOrgId(String orgId, ContentStatus status, Instant updatedAfter, Instant updatedBefore,
+                                  Set<String> fields, int batchSize);
+
+    /**
+     * @return The IDs of all orgs that own content
+     */
+    List<String> findOrgIds();
+}
@@ -0,0 +1,94 @@
+package com.smartcms.smartcontent.repository;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class ContentRepositoryCustomImpl implements ContentRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Content> findProjectedById(String id, Set<String> fields) {
+        Query query = project(Query.query(Criteria.where("id").is(id)), fields);
+        return Optional.ofNullable(mongoTemplate.findOne(query, Content.class));
+    }
+
+    @Override
+    public List<Content> findProjectedByIdIn(Collection<String> ids, Set<String> fields) {
+        return mongoTemplate.find(project(Query.query(Criteria.where("id").in(ids)), fields), Content.class);
+    }
+
+    @Override
+    public Page<Content> findProjectedByOrgIdAndStatus(String orgId, ContentStatus status, Pageable pageable,
+                                                       Set<String> fields) {
+        return findPage(Criteria.where("orgDetails.orgId").is(orgId).and("status").is(status), pageable, fields);
+    }
+
+    @Override
+    public Page<Content> findProjectedByOrgIdAndStatusNot(String orgId, ContentStatus status, Pageable pageable,
+                                                          Set<String> fields) {
+        return findPage(Criteria.where("orgDetails.orgId").is(orgId).and("status").ne(status), pageable, fields);
+    }
+
+    @Override
+    public Stream<Content> streamByOrgId(String orgId, ContentStatus status, Instant updatedAfter, Instant updatedBefore,
+                                         Set<String> fields, int batchSize) {
+        Criteria criteria = Criteria.where("orgDetails.orgId").is(orgId);
+        if (status != null) {
+            criteria.and("status").is(status);
+        }
+        if (updatedAfter != null || updatedBefore != null) {
+            Criteria updatedAt = criteria.and("updatedAt");
+            if (updatedAfter != null) {
+                updatedAt.gte(updatedAfter);
+            }
+            if (updatedBefore != null) {
+                updatedAt.lt(updatedBefore);
+            }
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by("id"))
+                .cursorBatchSize(batchSize);
+        if (fields != null) {
+            project(query, fields);
+        }
+        return mongoTemplate.stream(query, Content.class);
+    }
+
+    @Override
+    public List<String> findOrgIds() {
+        return mongoTemplate.findDistinct(new Query(), "orgDetails.orgId", Content.class, String.class);
+    }
+
+    private Page<Content> findPage(Criteria criteria, Pageable pageable, Set<String> fields) {
+        Query query = project(Query.query(criteria).with(pageable), fields);
+        List<Content> content = mongoTemplate.find(query, Content.class);
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> mongoTemplate.count(Query.query(criteria), Content.class));
+    }
+
+    private static Query project(Query query, Set<String> fields) {
+        // Property names are mapped to document field names (e.g. id -> _id) by the query mapper
+        fields.forEach(field -> query.fields().include(field));
+        if (fields.contains(ContentBodyStore.BODY)) {
+            query.fields().include(ContentBodyStore.BODY_REF);
+        }
+        return query;
+    }
+}
@@ -0,0 +1,16 @@
+package com.smartcms.smartcontent.repository;
+
+import com.smartcms.smartcontent.model.ContentTombstone;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ContentTombstoneRepository extends MongoRepository<ContentTombstone, String> {
+
+    List<ContentTombstone> findByDeletedAtGreaterThanEqual(Instant since);
+
+    long deleteByDeletedAtBefore(Instant cutoff);
+}
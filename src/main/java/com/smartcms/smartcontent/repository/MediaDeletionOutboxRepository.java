@@ -0,0 +1,17 @@
+package com.smartcms.smartcontent.repository;
+
+import com.smartcms.smartcontent.model.MediaDeletionOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface MediaDeletionOutboxRepository extends MongoRepository<MediaDeletionOutbox, String> {
+
+    List<MediaDeletionOutbox> findByStatusAndNextAttemptAtLessThanEqual(MediaDeletionOutbox.Status status, Instant now, Pageable pageable);
+
+    long countByStatus(MediaDeletionOutbox.Status status);
+}
@@ -0,0 +1,228 @@
+package com.smartcms.smartcontent.repository;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency and returned or affected documents of every MongoDB command, tagged by command,
+ * collection and the repository method that issued it, and logs commands slower than a threshold
+ * together with their filter shape (the filter with every value replaced by {@code ?}).
+ * <p>
+ * Repository methods are known for commands issued on the calling thread while a repository proxy
+ * wrapped by {@link #repositoryMethodInterceptor} is executing; other commands, such as cursor reads
+ * after a stream was returned, are tagged {@value #NO_REPOSITORY}.
+ */
+@Slf4j
+public class MongoCommandMetrics implements CommandListener {
+
+    static final String COMMANDS_METRIC = "smartcontent.mongo.commands";
+    static final String DOCUMENTS_METRIC = "smartcontent.mongo.documents";
+    static final String NO_REPOSITORY = "none";
+
+    private static final Set<String> LOGICAL_OPERATORS = Set.of("$and", "$or", "$nor");
+    private static final BsonString PLACEHOLDER = new BsonString("?");
+    private static final ThreadLocal<String> CURRENT_REPOSITORY_METHOD = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final SlowQueryExplainer explainer;
+    private final ConcurrentMap<Integer, StartedCommand> started = new ConcurrentHashMap<>();
+
+    /**
+     * @param explainer Explains slow reads, or null to skip explaining
+     */
+    public MongoCommandMetrics(MeterRegistry meterRegistry, MongoCommandProperties properties, SlowQueryExplainer explainer) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+        this.explainer = explainer;
+    }
+
+    /**
+     * Tags the commands issued during a repository call with {@code Repository.method}; nested calls keep
+     * the outermost method.
+     */
+    public static MethodInterceptor repositoryMethodInterceptor(String repository) {
+        return invocation -> {
+            if (CURRENT_REPOSITORY_METHOD.get() != null) {
+                return invocation.proceed();
+            }
+            CURRENT_REPOSITORY_METHOD.set(repository + "." + invocation.getMethod().getName());
+            try {
+                return invocation.proceed();
+            } finally {
+                CURRENT_REPOSITORY_METHOD.remove();
+            }
+        };
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        // The command document is only valid during this callback
+        String command = event.getCommandName();
+        BsonDocument body = event.getCommand();
+        String repositoryMethod = CURRENT_REPOSITORY_METHOD.get();
+        started.put(event.getRequestId(), new StartedCommand(
+                collection(command, body),
+                repositoryMethod != null ? repositoryMethod : NO_REPOSITORY,
+                event.getDatabaseName(),
+                filterShape(command, body),
+                explainer != null && explainer.canExplain(command) ? body.clone() : null));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        StartedCommand command = started.remove(event.getRequestId());
+        if (command != null) {
+            long documents = documentCount(event.getCommandName(), event.getResponse());
+            record(event.getCommandName(), command, "success", event.getElapsedTime(TimeUnit.NANOSECONDS), documents);
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        StartedCommand command = started.remove(event.getRequestId());
+        if (command != null) {
+            record(event.getCommandName(), command, "failed", event.getElapsedTime(TimeUnit.NANOSECONDS), -1);
+        }
+    }
+
+    private void record(String commandName, StartedCommand command, String status, long elapsedNanos, long documents) {
+        Tags tags = Tags.of("command", commandName, "collection", command.collection(),
+                "repository", command.repositoryMethod());
+        Timer.builder(COMMANDS_METRIC)
+                .description("Latency of MongoDB commands")
+                .tags(tags.and("status", status))
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(elapsedNanos));
+        if (documents >= 0) {
+            DistributionSummary.builder(DOCUMENTS_METRIC)
+                    .description("Documents returned or affected by MongoDB commands")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(documents);
+        }
+
+        if (elapsedNanos >= slowThresholdNanos) {
+            log.warn("Slow MongoDB {} on {} from {}: {} in {} ms, {} documents, filter {}", commandName,
+                    command.collection(), command.repositoryMethod(), status,
+                    Duration.ofNanos(elapsedNanos).toMillis(), documents,
+                    command.filterShape() != null ? command.filterShape().toJson() : "-");
+            if (command.explainable() != null) {
+                explainer.explain(command.database(), command.explainable(), command.collection(),
+                        command.repositoryMethod(), command.filterShape());
+            }
+        }
+    }
+
+    /**
+     * @return The collection a command targets; {@code getMore} names it separately from its cursor
+     */
+    public static String collection(String command, BsonDocument body) {
+        BsonValue target = "getMore".equals(command) ? body.get("collection") : body.get(command);
+        return target != null && target.isString() ? target.asString().getValue() : NO_REPOSITORY;
+    }
+
+    /**
+     * @return The shape of the command's filter (for aggregations, of its pipeline), or null if it has none
+     */
+    static BsonDocument filterShape(String command, BsonDocument body) {
+        BsonValue shape = switch (command) {
+            case "find" -> shape(body.get("filter"));
+            case "count", "distinct", "findAndModify" -> shape(body.get("query"));
+            case "update" -> shape(firstStatementFilter(body.get("updates")));
+            case "delete" -> shape(firstStatementFilter(body.get("deletes")));
+            case "aggregate" -> {
+                BsonValue pipeline = body.get("pipeline");
+                if (pipeline == null || !pipeline.isArray()) {
+                    yield null;
+                }
+                BsonArray stages = new BsonArray();
+                for (BsonValue stage : pipeline.asArray()) {
+                    stages.add(stage.isDocument() && stage.asDocument().containsKey("$match")
+                            ? new BsonDocument("$match", shape(stage.asDocument().get("$match")))
+                            : new BsonDocument(stage.isDocument() ? stage.asDocument().getFirstKey() : "?", PLACEHOLDER));
+                }
+                yield new BsonDocument("pipeline", stages);
+            }
+            default -> null;
+        };
+        return shape != null && shape.isDocument() ? shape.asDocument() : null;
+    }
+
+    /**
+     * Replaces every value in a filter with {@code ?}, keeping field names and operators.
+     */
+    static BsonValue shape(BsonValue filter) {
+        if (filter == null) {
+            return null;
+        }
+        if (!filter.isDocument()) {
+            return PLACEHOLDER;
+        }
+        BsonDocument shape = new BsonDocument();
+        filter.asDocument().forEach((key, value) -> {
+            if (LOGICAL_OPERATORS.contains(key) && value.isArray()) {
+                BsonArray clauses = new BsonArray();
+                value.asArray().forEach(clause -> clauses.add(shape(clause)));
+                shape.put(key, clauses);
+            } else {
+                shape.put(key, shape(value));
+            }
+        });
+        return shape;
+    }
+
+    /**
+     * @return Documents returned by a read, or affected by a write; -1 if the command reports neither
+     */
+    static long documentCount(String command, BsonDocument response) {
+        return switch (command) {
+            case "find", "aggregate" -> batchSize(response, "firstBatch");
+            case "getMore" -> batchSize(response, "nextBatch");
+            case "count", "insert", "update", "delete" -> response.containsKey("n") ? response.getNumber("n").longValue() : -1;
+            case "distinct" -> response.containsKey("values") ? response.getArray("values").size() : -1;
+            case "findAndModify" -> response.containsKey("value") && !response.get("value").isNull() ? 1 : 0;
+            default -> -1;
+        };
+    }
+
+    private static long batchSize(BsonDocument response, String batch) {
+        BsonValue cursor = response.get("cursor");
+        if (cursor == null || !cursor.isDocument() || !cursor.asDocument().containsKey(batch)) {
+            return -1;
+        }
+        return cursor.asDocument().getArray(batch).size();
+    }
+
+    private static BsonValue firstStatementFilter(BsonValue statements) {
+        if (statements == null || !statements.isArray() || statements.asArray().isEmpty()) {
+            return null;
+        }
+        BsonValue first = statements.asArray().get(0);
+        return first.isDocument() ? first.asDocument().get("q") : null;
+    }
+
+    private record StartedCommand(String collection, String repositoryMethod, String database,
+                                  BsonDocument filterShape, BsonDocument explainable) {
+    }
+}
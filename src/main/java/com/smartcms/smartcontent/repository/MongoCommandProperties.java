@@ -0,0 +1,25 @@
+package com.smartcms.smartcontent.repository;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * MongoDB command metrics and slow query detection ({@code smartcontent.mongo.commands}).
+ */
+@Data
+public class MongoCommandProperties {
+
+    /** Commands taking at least this long are logged with their filter shape. */
+    private Duration slowThreshold = Duration.ofMillis(100);
+
+    private Explain explain = new Explain();
+
+    @Data
+    public static class Explain {
+        /** Explain slow reads and report collection scans and in-memory sorts. */
+        private boolean enabled = false;
+        /** Share of slow reads to explain, from 0 to 1. */
+        private double sampleRate = 0.1;
+    }
+}
@@ -0,0 +1,9 @@
+package com.smartcms.smartcontent.repository;
+
+import com.smartcms.smartcontent.model.RelatedContent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RelatedContentRepository extends MongoRepository<RelatedContent, String>, RelatedContentRepositoryCustom {
+}
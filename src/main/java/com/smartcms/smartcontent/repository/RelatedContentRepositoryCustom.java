@@ -0,0 +1,34 @@
+package com.smartcms.smartcontent.repository;
+
+import com.smartcms.smartcontent.model.RelatedContent;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * In-place updates of related content, so concurrent recomputations and manual links don't overwrite each other.
+ */
+public interface RelatedContentRepositoryCustom {
+
+    /**
+     * Replaces the computed neighbors of a content item, creating its record if needed.
+     */
+    void saveComputed(String contentId, String orgId, List<RelatedContent.Neighbor> neighbors, Instant computedAt);
+
+    /**
+     * Adds (or re-scores) {@code contentId} in the existing records of each of its neighbors, with the
+     * neighbor's score, keeping only the {@code maxNeighbors} best in each. Sent as one bulk write.
+     */
+    void offerToNeighbors(String contentId, List<RelatedContent.Neighbor> neighbors, int maxNeighbors);
+
+    /**
+     * Removes a neighbor from the records of the given content items.
+     */
+    void removeNeighbor(Collection<String> contentIds, String neighborId);
+
+    /**
+     * Appends a manual link unless the item is already linked, creating the record if needed.
+     */
+    void addManualLink(String contentId, String orgId, RelatedContent.Link link);
+}
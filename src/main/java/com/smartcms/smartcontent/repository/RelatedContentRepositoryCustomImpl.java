@@ -0,0 +1,68 @@
+package com.smartcms.smartcontent.repository;
+
+import com.smartcms.smartcontent.model.RelatedContent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class RelatedContentRepositoryCustomImpl implements RelatedContentRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void saveComputed(String contentId, String orgId, List<RelatedContent.Neighbor> neighbors, Instant computedAt) {
+        Update update = new Update()
+                .set("orgId", orgId)
+                .set("computed", neighbors)
+                .set("computedAt", computedAt);
+        mongoTemplate.upsert(byId(contentId), update, RelatedContent.class);
+    }
+
+    @Override
+    public void offerToNeighbors(String contentId, List<RelatedContent.Neighbor> neighbors, int maxNeighbors) {
+        if (neighbors.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, RelatedContent.class);
+        Update pull = new Update().pull("computed", Query.query(Criteria.where("contentId").is(contentId)));
+        for (RelatedContent.Neighbor neighbor : neighbors) {
+            // A field can't be pulled from and pushed to in one update
+            Update push = new Update();
+            push.push("computed")
+                    .sort(Sort.by(Sort.Direction.DESC, "score"))
+                    .slice(maxNeighbors)
+                    .each(new RelatedContent.Neighbor(contentId, neighbor.getScore()));
+            bulk.updateOne(byId(neighbor.getContentId()), pull);
+            bulk.updateOne(byId(neighbor.getContentId()), push);
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public void removeNeighbor(Collection<String> contentIds, String neighborId) {
+        mongoTemplate.updateMulti(Query.query(Criteria.where("id").in(contentIds)),
+                new Update().pull("computed", Query.query(Criteria.where("contentId").is(neighborId))),
+                RelatedContent.class);
+    }
+
+    @Override
+    public void addManualLink(String contentId, String orgId, RelatedContent.Link link) {
+        mongoTemplate.upsert(byId(contentId), new Update().setOnInsert("orgId", orgId), RelatedContent.class);
+        Query notLinked = Query.query(Criteria.where("id").is(contentId)
+                .and("manual.contentId").ne(link.getContentId()));
+        mongoTemplate.updateFirst(notLinked, new Update().push("manual", link), RelatedContent.class);
+    }
+
+    private static Query byId(String contentId) {
+        return Query.query(Criteria.where("id").is(contentId));
+    }
+}
@@ -0,0 +1,112 @@
+package com.smartcms.smartcontent.repository;
+
+import com.mongodb.client.MongoClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Explains a sample of slow reads in the background and reports plans that scan the whole collection
+ * ({@code COLLSCAN}) or sort in memory ({@code SORT}), counted in {@code smartcontent.mongo.plan.issues}
+ * tagged with {@code collection}, {@code repository} and {@code stage}.
+ */
+@Slf4j
+public class SlowQueryExplainer {
+
+    private static final Set<String> EXPLAINABLE_COMMANDS = Set.of("find", "aggregate", "count", "distinct");
+    private static final Set<String> FLAGGED_STAGES = Set.of("COLLSCAN", "SORT");
+    /** Session, transaction and read concern fields the driver adds, which explain rejects on the inner command. */
+    private static final Set<String> SESSION_FIELDS = Set.of(
+            "lsid", "txnNumber", "autocommit", "startTransaction", "readConcern");
+    /** Explains running at once; when slow queries pile up, further samples are dropped. */
+    private static final int MAX_CONCURRENT_EXPLAINS = 2;
+
+    private final Supplier<MongoClient> mongoClient;
+    private final double sampleRate;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore running = new Semaphore(MAX_CONCURRENT_EXPLAINS);
+
+    /**
+     * @param mongoClient Resolved lazily, as the client is built with the listener that uses this explainer
+     */
+    public SlowQueryExplainer(Supplier<MongoClient> mongoClient, MongoCommandProperties.Explain properties,
+                              MeterRegistry meterRegistry) {
+        this.mongoClient = mongoClient;
+        this.sampleRate = properties.getSampleRate();
+        this.meterRegistry = meterRegistry;
+    }
+
+    boolean canExplain(String command) {
+        return EXPLAINABLE_COMMANDS.contains(command);
+    }
+
+    /**
+     * Explains a sample of the given commands on a virtual thread.
+     * @param command The command as sent, including driver-added fields
+     */
+    void explain(String database, BsonDocument command, String collection, String repositoryMethod, BsonDocument filterShape) {
+        if (ThreadLocalRandom.current().nextDouble() >= sampleRate || !running.tryAcquire()) {
+            return;
+        }
+        Thread.ofVirtual().name("mongo-explain").start(() -> {
+            try {
+                Set<String> stages = explainStages(database, command);
+                stages.retainAll(FLAGGED_STAGES);
+                for (String stage : stages) {
+                    meterRegistry.counter("smartcontent.mongo.plan.issues", "collection", collection,
+                            "repository", repositoryMethod, "stage", stage).increment();
+                }
+                if (!stages.isEmpty()) {
+                    log.warn("Slow query on {} from {} uses {}: filter {}", collection, repositoryMethod, stages,
+                            filterShape != null ? filterShape.toJson() : "-");
+                }
+            } catch (RuntimeException e) {
+                log.debug("Could not explain slow query on {}", collection, e);
+            } finally {
+                running.release();
+            }
+        });
+    }
+
+    private Set<String> explainStages(String database, BsonDocument command) {
+        BsonDocument inner = new BsonDocument();
+        command.forEach((key, value) -> {
+            if (!key.startsWith("$") && !SESSION_FIELDS.contains(key)) {
+                inner.put(key, value);
+            }
+        });
+        Document plan = mongoClient.get().getDatabase(database).runCommand(
+                new BsonDocument("explain", inner).append("verbosity", new BsonString("queryPlanner")));
+        Set<String> stages = new TreeSet<>();
+        collectStages(plan, stages);
+        return stages;
+    }
+
+    /**
+     * Collects every {@code stage} of the winning plans in an explain output, which nests them under
+     * various keys depending on the command, server version and query engine.
+     */
+    static void collectStages(Object node, Set<String> stages) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            document.forEach((key, value) -> {
+                if (!"rejectedPlans".equals(key)) {
+                    collectStages(value, stages);
+                }
+            });
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+}
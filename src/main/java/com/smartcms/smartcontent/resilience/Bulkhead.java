@@ -0,0 +1,51 @@
+package com.smartcms.smartcontent.resilience;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Semaphore bulkhead limiting the number of concurrent calls to one downstream,
+ * so a slow dependency cannot tie up every request thread.
+ */
+public class Bulkhead {
+
+    @Getter
+    private final String name;
+    @Getter
+    private final int maxConcurrentCalls;
+    private final Duration maxWait;
+    private final Semaphore permits;
+
+    public Bulkhead(String name, ResilienceProperties.Bulkhead properties) {
+        this.name = name;
+        this.maxConcurrentCalls = properties.getMaxConcurrentCalls();
+        this.maxWait = properties.getMaxWait();
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    /**
+     * Waits up to the configured max wait for a permit.
+     * @return true if a permit was acquired and must be released with {@link #release()}
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        return permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Takes a permit only if one is free right now; used on non-blocking paths.
+     */
+    public boolean tryAcquireNow() {
+        return permits.tryAcquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,212 @@
+package com.smartcms.smartcontent.resilience;
+
+import lombok.Getter;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based sliding-window circuit breaker.
+ * Opens when the failure rate over the last {@code windowSize} calls reaches the threshold,
+ * rejects calls while open, and lets a limited number of trial calls through once the open
+ * duration has elapsed (half-open). All trial calls must succeed for the breaker to close again.
+ * <p>
+ * Each admitted call holds a {@link Permit} of the breaker's generation at admission, which changes with every
+ * state transition. Outcomes of calls admitted before the last transition are ignored, so that a slow call
+ * admitted while closed can neither count as a trial nor close the breaker again.
+ * <p>
+ * State is guarded by a {@link ReentrantLock} so that virtual threads contending for the breaker
+ * on every downstream call do not pin their carrier threads.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    @Getter
+    private final String name;
+    private final int minimumCalls;
+    private final float failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(String name, ResilienceProperties.CircuitBreaker properties) {
+        this(name, properties, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, ResilienceProperties.CircuitBreaker properties, LongSupplier clock) {
+        this.name = name;
+        this.window = new boolean[properties.getWindowSize()];
+        this.minimumCalls = Math.min(properties.getMinimumCalls(), properties.getWindowSize());
+        this.failureRateThreshold = properties.getFailureRateThreshold();
+        this.openDurationNanos = properties.getOpenDuration().toNanos();
+        this.halfOpenCalls = properties.getHalfOpenCalls();
+        this.clock = clock;
+    }
+
+    /**
+     * @return The permit of a call that may proceed, or null if it is rejected; the caller must then report exactly
+     * one of {@link Permit#onSuccess()}, {@link Permit#onFailure()} or {@link Permit#onIgnored()}
+     */
+    public Permit tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (clock.getAsLong() - openedAt < openDurationNanos) {
+                    return null;
+                }
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenInFlight >= halfOpenCalls) {
+                    return null;
+                }
+                halfOpenInFlight++;
+            }
+            return new Permit(generation);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            if (state == State.OPEN && clock.getAsLong() - openedAt >= openDurationNanos) {
+                return State.HALF_OPEN;
+            }
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public float getFailureRate() {
+        lock.lock();
+        try {
+            return windowCount == 0 ? 0f : windowFailures * 100f / windowCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSuccess(long permitGeneration) {
+        lock.lock();
+        try {
+            if (permitGeneration != generation) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                halfOpenInFlight--;
+                if (++halfOpenSuccesses >= halfOpenCalls) {
+                    transitionTo(State.CLOSED);
+                }
+                return;
+            }
+            record(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onFailure(long permitGeneration) {
+        lock.lock();
+        try {
+            if (permitGeneration != generation) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                transitionTo(State.OPEN);
+                return;
+            }
+            record(true);
+            if (windowCount >= minimumCalls && windowFailures * 100f / windowCount >= failureRateThreshold) {
+                transitionTo(State.OPEN);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onIgnored(long permitGeneration) {
+        lock.lock();
+        try {
+            if (permitGeneration == generation && state == State.HALF_OPEN) {
+                halfOpenInFlight--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void transitionTo(State newState) {
+        state = newState;
+        generation++;
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+        if (newState == State.OPEN) {
+            openedAt = clock.getAsLong();
+        }
+        if (newState == State.CLOSED) {
+            windowIndex = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+    }
+
+    /**
+     * Admission of one call, reported back exactly once.
+     */
+    public final class Permit {
+
+        private final long generation;
+
+        private Permit(long generation) {
+            this.generation = generation;
+        }
+
+        public void onSuccess() {
+            CircuitBreaker.this.onSuccess(generation);
+        }
+
+        public void onFailure() {
+            CircuitBreaker.this.onFailure(generation);
+        }
+
+        /**
+         * Releases the permit without recording an outcome, e.g. when the call was rejected further down.
+         */
+        public void onIgnored() {
+            CircuitBreaker.this.onIgnored(generation);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.smartcms.smartcontent.resilience;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker, bulkhead and retry settings for one downstream service.
+ * Bound separately for each downstream (e.g. {@code smartmedia.resilience}, {@code smartai.resilience}).
+ */
+@Data
+public class ResilienceProperties {
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Bulkhead bulkhead = new Bulkhead();
+    private Retry retry = new Retry();
+
+    @Data
+    public static class CircuitBreaker {
+        /** Number of most recent calls used to compute the failure rate. */
+        private int windowSize = 20;
+        /** Calls required in the window before the breaker may open. */
+        private int minimumCalls = 10;
+        /** Failure rate, in percent, at which the breaker opens. */
+        private float failureRateThreshold = 50;
+        /** How long the breaker stays open before allowing trial calls. */
+        private Duration openDuration = Duration.ofSeconds(30);
+        /** Number of trial calls allowed while half-open. */
+        private int halfOpenCalls = 3;
+    }
+
+    @Data
+    public static class Bulkhead {
+        private int maxConcurrentCalls = 20;
+        /** How long a caller may wait for a free slot before being rejected. */
+        private Duration maxWait = Duration.ZERO;
+    }
+
+    @Data
+    public static class Retry {
+        /** Total attempts for idempotent calls, including the first one. */
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private double multiplier = 2.0;
+        private Duration maxBackoff = Duration.ofSeconds(2);
+    }
+}
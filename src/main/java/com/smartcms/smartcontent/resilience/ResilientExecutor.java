@@ -0,0 +1,232 @@
+package com.smartcms.smartcontent.resilience;
+
+import com.smartcms.smartcontent.exception.ApiException;
+import com.smartcms.smartcontent.exception.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Guards calls to one downstream with retry (idempotent calls only), a circuit breaker and a bulkhead,
+ * applied in that order from the outside in.
+ * <p>
+ * Metrics, tagged with {@code downstream}:
+ * <ul>
+ *     <li>{@code smartcontent.resilience.circuitbreaker.state} - 0 closed, 1 open, 2 half-open</li>
+ *     <li>{@code smartcontent.resilience.circuitbreaker.failure.rate} - failure rate in the current window</li>
+ *     <li>{@code smartcontent.resilience.bulkhead.available} - free bulkhead slots</li>
+ *     <li>{@code smartcontent.resilience.rejections} - calls rejected locally, tagged with {@code reason}</li>
+ *     <li>{@code smartcontent.resilience.retries} - retry attempts</li>
+ * </ul>
+ */
+@Slf4j
+public class ResilientExecutor {
+
+    @Getter
+    private final String name;
+    @Getter
+    private final CircuitBreaker circuitBreaker;
+    @Getter
+    private final Bulkhead bulkhead;
+    private final RetryPolicy retryPolicy;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadRejections;
+    private final Counter retries;
+
+    public ResilientExecutor(String name, ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.circuitBreaker = new CircuitBreaker(name, properties.getCircuitBreaker());
+        this.bulkhead = new Bulkhead(name, properties.getBulkhead());
+        this.retryPolicy = new RetryPolicy(properties.getRetry());
+
+        Gauge.builder("smartcontent.resilience.circuitbreaker.state", circuitBreaker, cb -> cb.getState().ordinal())
+                .tag("downstream", name)
+                .register(meterRegistry);
+        Gauge.builder("smartcontent.resilience.circuitbreaker.failure.rate", circuitBreaker, CircuitBreaker::getFailureRate)
+                .tag("downstream", name)
+                .register(meterRegistry);
+        Gauge.builder("smartcontent.resilience.bulkhead.available", bulkhead, Bulkhead::getAvailablePermits)
+                .tag("downstream", name)
+                .register(meterRegistry);
+        this.circuitOpenRejections = meterRegistry.counter("smartcontent.resilience.rejections",
+                "downstream", name, "reason", "circuit_open");
+        this.bulkheadRejections = meterRegistry.counter("smartcontent.resilience.rejections",
+                "downstream", name, "reason", "bulkhead_full");
+        this.retries = meterRegistry.counter("smartcontent.resilience.retries", "downstream", name);
+    }
+
+    /**
+     * Executes the call under the circuit breaker and bulkhead, retrying with jittered
+     * exponential backoff if the call is idempotent and failed with a retryable error.
+     * @throws CallNotPermittedException if the call was rejected locally
+     */
+    public <T> T execute(Supplier<T> call, boolean idempotent) {
+        int maxAttempts = idempotent ? retryPolicy.getMaxAttempts() : 1;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return executeOnce(call);
+            } catch (CallNotPermittedException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !isDownstreamFailure(e)) {
+                    throw e;
+                }
+                Duration backoff = retryPolicy.backoff(attempt);
+                log.debug("Retrying {} call (attempt {} of {}) in {} ms: {}",
+                        name, attempt + 1, maxAttempts, backoff.toMillis(), e.getMessage());
+                retries.increment();
+                sleep(backoff);
+            }
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #execute}. The bulkhead never waits, and retries are scheduled
+     * after the backoff instead of sleeping. Completing or cancelling the returned future cancels
+     * the attempt in flight, so callers can enforce their own deadlines.
+     */
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> call, boolean idempotent) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(call, 1, idempotent ? retryPolicy.getMaxAttempts() : 1, result);
+        return result;
+    }
+
+    private <T> void attemptAsync(Supplier<CompletableFuture<T>> call, int attempt, int maxAttempts,
+                                  CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return;
+        }
+        CompletableFuture<T> inFlight;
+        try {
+            inFlight = executeOnceAsync(call);
+        } catch (CallNotPermittedException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        result.whenComplete((value, error) -> inFlight.cancel(true));
+        inFlight.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            if (attempt >= maxAttempts || !isDownstreamFailure(cause) || cause instanceof CancellationException) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            Duration backoff = retryPolicy.backoff(attempt);
+            log.debug("Retrying {} call (attempt {} of {}) in {} ms: {}",
+                    name, attempt + 1, maxAttempts, backoff.toMillis(), cause.getMessage());
+            retries.increment();
+            CompletableFuture.delayedExecutor(backoff.toNanos(), TimeUnit.NANOSECONDS)
+                    .execute(() -> attemptAsync(call, attempt + 1, maxAttempts, result));
+        });
+    }
+
+    private <T> CompletableFuture<T> executeOnceAsync(Supplier<CompletableFuture<T>> call) {
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (permit == null) {
+            circuitOpenRejections.increment();
+            throw new CallNotPermittedException("Circuit breaker for " + name + " is open");
+        }
+        if (!bulkhead.tryAcquireNow()) {
+            permit.onIgnored();
+            bulkheadRejections.increment();
+            throw new CallNotPermittedException("Bulkhead for " + name + " is full");
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((value, error) -> {
+            bulkhead.release();
+            Throwable cause = error == null ? null : unwrap(error);
+            if (cause == null) {
+                permit.onSuccess();
+            } else if (cause instanceof CancellationException) {
+                permit.onIgnored();
+            } else if (isDownstreamFailure(cause)) {
+                permit.onFailure();
+            } else {
+                permit.onSuccess();
+            }
+        });
+        return future;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Client errors (4xx) mean the request itself is wrong; they neither trip the breaker nor get retried.
+     */
+    public static boolean isDownstreamFailure(Throwable error) {
+        if (error instanceof HttpClientErrorException) {
+            return false;
+        }
+        if (error instanceof ApiException apiException && apiException.getStatus() != null) {
+            return !apiException.getStatus().is4xxClientError();
+        }
+        return true;
+    }
+
+    private <T> T executeOnce(Supplier<T> call) {
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (permit == null) {
+            circuitOpenRejections.increment();
+            throw new CallNotPermittedException("Circuit breaker for " + name + " is open");
+        }
+
+        boolean permitted;
+        try {
+            permitted = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permit.onIgnored();
+            throw new CallNotPermittedException("Interrupted waiting for " + name + " bulkhead");
+        }
+        if (!permitted) {
+            permit.onIgnored();
+            bulkheadRejections.increment();
+            throw new CallNotPermittedException("Bulkhead for " + name + " is full");
+        }
+
+        try {
+            T result = call.get();
+            permit.onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (isDownstreamFailure(e)) {
+                permit.onFailure();
+            } else {
+                permit.onSuccess();
+            }
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private static void sleep(Duration backoff) {
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CallNotPermittedException("Interrupted during retry backoff");
+        }
+    }
+}
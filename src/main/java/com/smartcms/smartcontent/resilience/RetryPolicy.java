@@ -0,0 +1,40 @@
+package com.smartcms.smartcontent.resilience;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter: the delay before retry {@code n} is drawn uniformly
+ * from {@code [0, min(maxBackoff, initialBackoff * multiplier^(n-1))]}.
+ * Only used for idempotent calls.
+ */
+public class RetryPolicy {
+
+    @Getter
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final double multiplier;
+    private final long maxBackoffNanos;
+
+    public RetryPolicy(ResilienceProperties.Retry properties) {
+        this.maxAttempts = Math.max(1, properties.getMaxAttempts());
+        this.initialBackoffNanos = properties.getInitialBackoff().toNanos();
+        this.multiplier = properties.getMultiplier();
+        this.maxBackoffNanos = properties.getMaxBackoff().toNanos();
+    }
+
+    /**
+     * @param retry The 1-based retry number (1 for the first retry)
+     * @return The jittered delay to wait before that retry
+     */
+    public Duration backoff(int retry) {
+        return Duration.ofNanos(ThreadLocalRandom.current().nextLong(backoffCeiling(retry) + 1));
+    }
+
+    long backoffCeiling(int retry) {
+        double ceiling = initialBackoffNanos * Math.pow(multiplier, retry - 1);
+        return (long) Math.min(maxBackoffNanos, ceiling);
+    }
+}
@@ -0,0 +1,296 @@
+package com.smartcms.smartcontent.search;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcommon.model.ContentType;
+import com.smartcms.smartcontent.model.ContentTombstone;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import com.smartcms.smartcontent.repository.ContentTombstoneRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * In-process full-text index over content title, description, body and tags, with one inverted index per org.
+ * Also maintains per-org tag facets (tag counts and a postings list per tag).
+ * <p>
+ * Kept current by {@link ContentSearchIndexer} on every content save and delete made through this instance,
+ * and rebuilt from MongoDB at startup or on demand. Writes made through other instances are caught up by a
+ * periodic poll: each org's content updated since the last poll is re-indexed, and content permanently deleted
+ * since then is removed using the {@link ContentTombstone}s that the deleting instance left. Polls reach back
+ * {@code catch-up-overlap} before the previous one, to cover writes still in flight and clock skew between
+ * instances. Orgs that are new to the instance are rebuilt.
+ * <p>
+ * Other instances' writes therefore show up within about one poll interval, so callers should re-read hits
+ * from MongoDB rather than trust the index for document contents.
+ */
+@Slf4j
+@Component
+public class ContentSearchIndex {
+
+    /** Fields read from MongoDB when rebuilding. */
+    static final Set<String> INDEXED_FIELDS = Set.of("id", "title", "description", "body", "tags",
+            "contentType", "status", "orgDetails");
+
+    private final ContentRepository contentRepository;
+    private final ContentTombstoneRepository tombstoneRepository;
+    private final int batchSize;
+    private final boolean rebuildOnStartup;
+    private final boolean catchUpEnabled;
+    private final Duration catchUpOverlap;
+    private final Duration tombstoneRetention;
+    private final Timer queryTimer;
+    private final ConcurrentMap<String, OrgSearchIndex> orgs = new ConcurrentHashMap<>();
+    /** Per org, the time up to which the index has read the org's writes. */
+    private final ConcurrentMap<String, Instant> caughtUpTo = new ConcurrentHashMap<>();
+    /** Serializes full rebuilds and catch-up polls, so an org is never rebuilt by both at once. */
+    private final ReentrantLock catchUpLock = new ReentrantLock();
+    private volatile Instant tombstonesCaughtUpTo = Instant.now();
+
+    public ContentSearchIndex(ContentRepository contentRepository,
+                              ContentTombstoneRepository tombstoneRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${smartcontent.search.rebuild-batch-size:1000}") int batchSize,
+                              @Value("${smartcontent.search.rebuild-on-startup:true}") boolean rebuildOnStartup,
+                              @Value("${smartcontent.search.catch-up-enabled:true}") boolean catchUpEnabled,
+                              @Value("${smartcontent.search.catch-up-overlap:5s}") Duration catchUpOverlap,
+                              @Value("${smartcontent.search.tombstone-retention:1d}") Duration tombstoneRetention) {
+        this.contentRepository = contentRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.batchSize = batchSize;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.catchUpEnabled = catchUpEnabled;
+        this.catchUpOverlap = catchUpOverlap;
+        this.tombstoneRetention = tombstoneRetention;
+        this.queryTimer = Timer.builder("smartcontent.search.query")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        meterRegistry.gauge("smartcontent.search.documents", orgs,
+                indexes -> indexes.values().stream().mapToInt(OrgSearchIndex::size).sum());
+    }
+
+    /**
+     * Indexes a content item, replacing any previously indexed version.
+     */
+    public void index(Content content) {
+        if (content.getId() == null || content.getOrgDetails() == null || content.getOrgDetails().getOrgId() == null) {
+            return;
+        }
+        orgs.computeIfAbsent(content.getOrgDetails().getOrgId(), orgId -> new OrgSearchIndex()).upsert(content);
+    }
+
+    /**
+     * Re-reads and indexes content changed by a query-based update, which raises no save events.
+     */
+    public void reindex(Collection<String> contentIds) {
+        if (!contentIds.isEmpty()) {
+            contentRepository.findProjectedByIdIn(contentIds, INDEXED_FIELDS).forEach(this::index);
+        }
+    }
+
+    public void remove(String contentId) {
+        // Deletes carry only the id; there are few orgs per instance, so ask each index
+        orgs.values().forEach(index -> index.remove(contentId));
+    }
+
+    /**
+     * Finds the org's content containing every term of {@code query}, best match first.
+     * @param type   Only match this content type (if not null)
+     * @param status Only match this status; when null, content in the bin is excluded
+     */
+    public SearchHits search(String orgId, String query, ContentType type, ContentStatus status, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>();
+        SearchTokenizer.tokenize(query, terms::add);
+        OrgSearchIndex index = orgs.get(orgId);
+        if (terms.isEmpty() || index == null) {
+            return SearchHits.empty();
+        }
+        return queryTimer.record(() -> index.search(terms, type, status, offset, limit));
+    }
+
+    /**
+     * @return Up to {@code limit} of the org's content items most similar to {@code content}, best match first
+     */
+    public List<SimilarContent> similar(String orgId, Content content, int limit) {
+        OrgSearchIndex index = orgs.get(orgId);
+        return index == null ? List.of() : index.similar(content, limit);
+    }
+
+    /**
+     * @return The org's most used tags, by number of content items outside the bin
+     */
+    public List<TagCount> topTags(String orgId, int limit) {
+        OrgSearchIndex index = orgs.get(orgId);
+        return index == null ? List.of() : index.topTags(limit);
+    }
+
+    /**
+     * @return The org's most used tags starting with {@code prefix}, ignoring case
+     */
+    public List<TagCount> suggestTags(String orgId, String prefix, int limit) {
+        OrgSearchIndex index = orgs.get(orgId);
+        return index == null ? List.of() : index.suggestTags(OrgSearchIndex.normalizeTag(prefix), limit);
+    }
+
+    /**
+     * Finds the org's content outside the bin tagged with all ({@code matchAll}) or any of {@code tags},
+     * ignoring case, most recently written first.
+     */
+    public SearchHits findByTags(String orgId, Collection<String> tags, boolean matchAll, int offset, int limit) {
+        Set<String> normalized = new LinkedHashSet<>();
+        tags.forEach(tag -> normalized.add(OrgSearchIndex.normalizeTag(tag)));
+        normalized.remove("");
+        OrgSearchIndex index = orgs.get(orgId);
+        if (normalized.isEmpty() || index == null) {
+            return SearchHits.empty();
+        }
+        return index.findByTags(normalized, matchAll, offset, limit);
+    }
+
+    /**
+     * Rebuilds the org's index from MongoDB. Searches keep using the current index until the rebuilt one
+     * replaces it, and writes made in the meantime are replayed onto the rebuilt index.
+     * @return The number of indexed content items
+     */
+    public long rebuild(String orgId) {
+        long start = System.nanoTime();
+        OrgSearchIndex current = orgs.computeIfAbsent(orgId, id -> new OrgSearchIndex());
+        OrgSearchIndex rebuilt = new OrgSearchIndex();
+        // Writes from here on are either streamed below or caught up by the next poll
+        Instant previous = caughtUpTo.put(orgId, Instant.now());
+        current.startRecording();
+        long indexed = 0;
+        try (Stream<Content> contents = contentRepository.streamByOrgId(orgId, null, null, null, INDEXED_FIELDS, batchSize)) {
+            for (Content content : (Iterable<Content>) contents::iterator) {
+                rebuilt.upsert(content);
+                indexed++;
+            }
+        } catch (RuntimeException e) {
+            current.stopRecording();
+            if (previous != null) {
+                caughtUpTo.put(orgId, previous);
+            } else {
+                caughtUpTo.remove(orgId);
+            }
+            throw e;
+        }
+        current.handOver(rebuilt, () -> orgs.put(orgId, rebuilt));
+        log.info("Rebuilt search index for org {} with {} content items in {} ms",
+                orgId, indexed, (System.nanoTime() - start) / 1_000_000);
+        return indexed;
+    }
+
+    public void rebuildAll() {
+        catchUpLock.lock();
+        try {
+            rebuildAllLocked();
+        } finally {
+            catchUpLock.unlock();
+        }
+    }
+
+    /**
+     * Applies the writes made through other instances since the previous poll: re-indexes content updated since
+     * then, org by org, and removes content deleted since then. Skipped while a rebuild or another poll runs.
+     */
+    @Scheduled(initialDelayString = "${smartcontent.search.catch-up-interval-ms:10000}",
+            fixedDelayString = "${smartcontent.search.catch-up-interval-ms:10000}")
+    public void catchUp() {
+        if (!catchUpEnabled || !catchUpLock.tryLock()) {
+            return;
+        }
+        try {
+            Instant tombstonesSince = tombstonesCaughtUpTo;
+            if (tombstonesSince.isBefore(Instant.now().minus(tombstoneRetention))) {
+                // Tombstones may have been pruned before this instance read them
+                log.warn("Search index fell behind by more than the tombstone retention; rebuilding");
+                rebuildAllLocked();
+                return;
+            }
+            for (String orgId : contentRepository.findOrgIds()) {
+                try {
+                    Instant since = caughtUpTo.get(orgId);
+                    if (since == null) {
+                        rebuild(orgId);
+                    } else {
+                        catchUp(orgId, since);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Failed to catch up search index for org {}", orgId, e);
+                }
+            }
+            removeDeleted(tombstonesSince);
+        } finally {
+            catchUpLock.unlock();
+        }
+    }
+
+    /**
+     * Drops tombstones older than the retention; instances that fall further behind rebuild instead.
+     */
+    @Scheduled(fixedDelayString = "${smartcontent.search.tombstone-prune-interval-ms:3600000}")
+    public void pruneTombstones() {
+        long pruned = tombstoneRepository.deleteByDeletedAtBefore(Instant.now().minus(tombstoneRetention));
+        if (pruned > 0) {
+            log.debug("Pruned {} content tombstones", pruned);
+        }
+    }
+
+    private void rebuildAllLocked() {
+        tombstonesCaughtUpTo = Instant.now();
+        for (String orgId : contentRepository.findOrgIds()) {
+            try {
+                rebuild(orgId);
+            } catch (RuntimeException e) {
+                log.error("Failed to rebuild search index for org {}", orgId, e);
+            }
+        }
+    }
+
+    private void catchUp(String orgId, Instant since) {
+        Instant now = Instant.now();
+        long indexed = 0;
+        try (Stream<Content> contents = contentRepository.streamByOrgId(orgId, null, since.minus(catchUpOverlap), null,
+                INDEXED_FIELDS, batchSize)) {
+            for (Content content : (Iterable<Content>) contents::iterator) {
+                index(content);
+                indexed++;
+            }
+        }
+        caughtUpTo.put(orgId, now);
+        if (indexed > 0) {
+            log.debug("Caught up search index for org {} with {} content items", orgId, indexed);
+        }
+    }
+
+    private void removeDeleted(Instant since) {
+        Instant now = Instant.now();
+        List<ContentTombstone> tombstones = tombstoneRepository.findByDeletedAtGreaterThanEqual(since.minus(catchUpOverlap));
+        tombstones.forEach(tombstone -> remove(tombstone.getId()));
+        tombstonesCaughtUpTo = now;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            // Don't hold up startup; each org becomes searchable once its rebuild completes
+            Thread.ofVirtual().name("search-index-rebuild").start(this::rebuildAll);
+        }
+    }
+}
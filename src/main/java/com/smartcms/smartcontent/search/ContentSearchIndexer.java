@@ -0,0 +1,56 @@
+package com.smartcms.smartcontent.search;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcontent.model.ContentTombstone;
+import com.smartcms.smartcontent.repository.ContentTombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Applies every content save and delete to the {@link ContentSearchIndex} as it happens, and leaves a
+ * {@link ContentTombstone} for each delete so that other instances remove it from their indexes too.
+ * Query-based updates do not raise these events: the ones that change indexed fields, like the bulk status update
+ * of scheduled publishing, {@link ContentSearchIndex#reindex reindex} the content themselves.
+ * Runs before other content listeners, which may read the index.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ContentSearchIndexer extends AbstractMongoEventListener<Content> {
+
+    private final ContentSearchIndex contentSearchIndex;
+    private final ContentTombstoneRepository tombstoneRepository;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Content> event) {
+        contentSearchIndex.index(event.getSource());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Content> event) {
+        // The id query is mapped before the event, so the id is usually an ObjectId
+        Object id = event.getSource().get("_id");
+        if (id instanceof String || id instanceof ObjectId) {
+            String contentId = id.toString();
+            contentSearchIndex.remove(contentId);
+            try {
+                tombstoneRepository.save(new ContentTombstone(contentId, Instant.now()));
+            } catch (RuntimeException e) {
+                log.warn("Failed to record the deletion of content {}; other instances find it until their next rebuild",
+                        contentId, e);
+            }
+        } else {
+            log.warn("Content deleted by query; search index is stale until the next rebuild");
+        }
+    }
+}
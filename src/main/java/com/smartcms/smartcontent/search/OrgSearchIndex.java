@@ -0,0 +1,629 @@
+package com.smartcms.smartcontent.search;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcommon.model.ContentType;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Inverted index over one org's content, ranked with BM25.
+ * <p>
+ * Every indexed version of a content item gets a new document number; updates and removals only mark the
+ * previous number dead, and dead postings are dropped by compaction once they outnumber live documents.
+ * Each posting packs the document number (upper 24 bits) and the field-weighted term frequency (lower
+ * 8 bits) into one int, so postings lists stay sorted by document number and cost 4 bytes per entry.
+ * <p>
+ * Tags are also kept as exact (case-insensitive) facets: a postings list per tag plus a count of the
+ * live content outside the bin carrying it, so tag listings never scan documents.
+ */
+final class OrgSearchIndex {
+
+    private static final int MAX_DOCS = 1 << 24;
+    private static final int TF_BITS = 8;
+    private static final int MAX_TF = (1 << TF_BITS) - 1;
+    private static final int MIN_COMPACT_DOCS = 1024;
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int TEXT_WEIGHT = 1;
+
+    private static final double TEXT_SIMILARITY_WEIGHT = 0.7;
+    private static final double TAG_SIMILARITY_WEIGHT = 0.3;
+    /** Terms in more than this share of documents carry too little signal to be worth scanning for similarity. */
+    private static final int MAX_SIMILARITY_DF_DIVISOR = 20;
+    private static final int MIN_SIMILARITY_DF_LIMIT = 1000;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final byte NONE = -1;
+
+    /**
+     * Per-thread score arrays for {@link #similar}, sized to the largest org seen and left zeroed after each use,
+     * so a recompute costs work proportional to its candidates rather than an allocation per document.
+     */
+    private static final ThreadLocal<SimilarityScratch> SIMILARITY_SCRATCH = ThreadLocal.withInitial(SimilarityScratch::new);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> docsByContentId = new HashMap<>();
+    private final NavigableMap<String, Tag> tags = new TreeMap<>();
+    private final BitSet live = new BitSet();
+    private String[] contentIds = new String[64];
+    private byte[] statuses = new byte[64];
+    private byte[] types = new byte[64];
+    private int[] lengths = new int[64];
+    private String[][] docTags = new String[64][];
+    private int docCount;
+    private int liveCount;
+    private long liveLength;
+
+    /** Writes recorded while a replacement index is built, replayed onto it at hand-over. */
+    private List<Consumer<OrgSearchIndex>> pending;
+    /** Set once a rebuilt index has replaced this one; late writers are forwarded to it. */
+    private OrgSearchIndex successor;
+
+    /**
+     * Indexes (or re-indexes) a content item.
+     */
+    void upsert(Content content) {
+        Map<String, Integer> terms = terms(content);
+        OrgSearchIndex target;
+        lock.writeLock().lock();
+        try {
+            target = successor;
+            if (target == null) {
+                if (pending != null) {
+                    pending.add(index -> index.upsert(content));
+                }
+                removeLocked(content.getId());
+                addLocked(content, terms);
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        target.upsert(content);
+    }
+
+    void remove(String contentId) {
+        OrgSearchIndex target;
+        lock.writeLock().lock();
+        try {
+            target = successor;
+            if (target == null) {
+                if (pending != null) {
+                    pending.add(index -> index.remove(contentId));
+                }
+                removeLocked(contentId);
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        target.remove(contentId);
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starts recording writes so they can be replayed onto a rebuilt index.
+     */
+    void startRecording() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void stopRecording() {
+        lock.writeLock().lock();
+        try {
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replays writes recorded since {@link #startRecording()} onto {@code rebuilt} and retires this index.
+     * {@code swap} runs while this index is still locked, so no write can slip in between.
+     */
+    void handOver(OrgSearchIndex rebuilt, Runnable swap) {
+        lock.writeLock().lock();
+        try {
+            pending.forEach(write -> write.accept(rebuilt));
+            pending = null;
+            successor = rebuilt;
+            swap.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds live documents containing every query term, best BM25 score first.
+     * @param status Only match this status; when null, binned ({@link ContentStatus#DELETED}) content is excluded
+     */
+    SearchHits search(Set<String> queryTerms, ContentType type, ContentStatus status, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[queryTerms.size()];
+            int i = 0;
+            for (String term : queryTerms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    return SearchHits.empty();
+                }
+                lists[i++] = list;
+            }
+            // Drive the intersection from the rarest term
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+            float[] idf = new float[lists.length];
+            for (int t = 0; t < lists.length; t++) {
+                // Document frequencies include dead postings until the next compaction
+                idf[t] = (float) Math.log(1 + (liveCount - lists[t].size + 0.5) / (lists[t].size + 0.5));
+            }
+            float averageLength = liveCount == 0 ? 1 : (float) liveLength / liveCount;
+            byte statusFilter = status != null ? (byte) status.ordinal() : NONE;
+            byte typeFilter = type != null ? (byte) type.ordinal() : NONE;
+            byte deleted = (byte) ContentStatus.DELETED.ordinal();
+
+            int wanted = offset + limit;
+            PriorityQueue<long[]> top = new PriorityQueue<>(Math.max(1, Math.min(wanted, 1024)),
+                    Comparator.<long[]>comparingDouble(hit -> Double.longBitsToDouble(hit[0])).thenComparingLong(hit -> hit[1]));
+            int[] cursors = new int[lists.length];
+            long total = 0;
+
+            Postings lead = lists[0];
+            candidates:
+            for (int p = 0; p < lead.size; p++) {
+                int doc = lead.entries[p] >>> TF_BITS;
+                if (!live.get(doc)
+                        || (statusFilter != NONE ? statuses[doc] != statusFilter : statuses[doc] == deleted)
+                        || (typeFilter != NONE && types[doc] != typeFilter)) {
+                    continue;
+                }
+                float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                int tf = lead.entries[p] & MAX_TF;
+                float score = idf[0] * tf * (K1 + 1) / (tf + norm);
+                for (int t = 1; t < lists.length; t++) {
+                    int position = lists[t].seek(doc, cursors[t]);
+                    cursors[t] = position;
+                    if (position == lists[t].size || lists[t].entries[position] >>> TF_BITS != doc) {
+                        continue candidates;
+                    }
+                    tf = lists[t].entries[position] & MAX_TF;
+                    score += idf[t] * tf * (K1 + 1) / (tf + norm);
+                }
+                total++;
+                if (top.size() < wanted) {
+                    top.add(new long[]{Double.doubleToLongBits(score), doc});
+                } else if (wanted > 0 && score > Double.longBitsToDouble(top.peek()[0])) {
+                    top.poll();
+                    top.add(new long[]{Double.doubleToLongBits(score), doc});
+                }
+            }
+
+            List<String> ranked = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ranked.add(contentIds[(int) top.poll()[1]]);
+            }
+            Collections.reverse(ranked);
+            return new SearchHits(total, offset >= ranked.size() ? List.of() : ranked.subList(offset, ranked.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the live content outside the bin most similar to {@code content}: cosine similarity of TF-IDF
+     * weighted title, description and tag terms, blended with the Jaccard overlap of the exact tags.
+     * Candidates are weighted by their indexed term frequencies, which also count body text.
+     */
+    List<SimilarContent> similar(Content content, int limit) {
+        Map<String, Integer> queryTerms = similarityTerms(content);
+        Set<String> queryTags = new HashSet<>();
+        if (content.getTags() != null) {
+            content.getTags().stream().filter(Objects::nonNull).map(OrgSearchIndex::normalizeTag)
+                    .filter(tag -> !tag.isEmpty()).forEach(queryTags::add);
+        }
+
+        lock.readLock().lock();
+        try {
+            Integer self = docsByContentId.get(content.getId());
+            byte deleted = (byte) ContentStatus.DELETED.ordinal();
+            SimilarityScratch scratch = SIMILARITY_SCRATCH.get().ensureCapacity(docCount);
+            float[] textScores = scratch.textScores;
+            int[] sharedTags = scratch.sharedTags;
+            BitSet candidates = scratch.candidates;
+            int maxDf = Math.max(MIN_SIMILARITY_DF_LIMIT, liveCount / MAX_SIMILARITY_DF_DIVISOR);
+
+            double queryNorm = 0;
+            for (Map.Entry<String, Integer> term : queryTerms.entrySet()) {
+                Postings list = postings.get(term.getKey());
+                if (list == null || list.size > maxDf) {
+                    continue;
+                }
+                float idf = (float) Math.log(1 + (double) Math.max(liveCount, 1) / list.size);
+                float queryWeight = term.getValue() * idf;
+                queryNorm += queryWeight * queryWeight;
+                for (int p = 0; p < list.size; p++) {
+                    int doc = list.entries[p] >>> TF_BITS;
+                    textScores[doc] += queryWeight * (list.entries[p] & MAX_TF) * idf;
+                    candidates.set(doc);
+                }
+            }
+            for (String name : queryTags) {
+                Tag tag = tags.get(name);
+                if (tag == null) {
+                    continue;
+                }
+                for (int p = 0; p < tag.postings.size; p++) {
+                    int doc = tag.postings.entries[p] >>> TF_BITS;
+                    sharedTags[doc]++;
+                    candidates.set(doc);
+                }
+            }
+            // Scale text scores into [0, 1] relative to the best candidate, so they blend with tag overlap
+            double bestText = 0;
+            for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                if (isCandidate(doc, self)) {
+                    bestText = Math.max(bestText, textScore(textScores[doc], queryNorm, doc));
+                }
+            }
+            PriorityQueue<SimilarContent> top = new PriorityQueue<>(Comparator.comparingDouble(SimilarContent::score));
+            for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                if (!isCandidate(doc, self) || statuses[doc] == deleted) {
+                    continue;
+                }
+                double text = bestText > 0 ? textScore(textScores[doc], queryNorm, doc) / bestText : 0;
+                int union = queryTags.size() + docTags[doc].length - sharedTags[doc];
+                double tagOverlap = union > 0 ? (double) sharedTags[doc] / union : 0;
+                double score = TEXT_SIMILARITY_WEIGHT * text + TAG_SIMILARITY_WEIGHT * tagOverlap;
+                if (top.size() < limit) {
+                    top.add(new SimilarContent(contentIds[doc], score));
+                } else if (limit > 0 && score > top.peek().score()) {
+                    top.poll();
+                    top.add(new SimilarContent(contentIds[doc], score));
+                }
+            }
+            List<SimilarContent> ranked = new ArrayList<>(top);
+            ranked.sort(Comparator.comparingDouble(SimilarContent::score).reversed());
+            return ranked;
+        } finally {
+            SIMILARITY_SCRATCH.get().clear();
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isCandidate(int doc, Integer self) {
+        return live.get(doc) && (self == null || doc != self);
+    }
+
+    private double textScore(float dotProduct, double queryNorm, int doc) {
+        // Document vectors are not stored; the square root of the weighted length stands in for their norm
+        return queryNorm == 0 || lengths[doc] == 0 ? 0 : dotProduct / (Math.sqrt(queryNorm) * Math.sqrt(lengths[doc]));
+    }
+
+    /**
+     * @return The most used tags, by count of live content outside the bin
+     */
+    List<TagCount> topTags(int limit) {
+        lock.readLock().lock();
+        try {
+            return rankTags(tags, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The most used tags starting with {@code prefix} (already normalized)
+     */
+    List<TagCount> suggestTags(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return rankTags(tags.subMap(prefix, true, prefix + Character.MAX_VALUE, false), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds live content outside the bin tagged with all ({@code matchAll}) or any of the given normalized tags,
+     * most recently indexed first.
+     */
+    SearchHits findByTags(Set<String> tagNames, boolean matchAll, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = null;
+            for (String name : tagNames) {
+                Tag tag = tags.get(name);
+                if (tag == null) {
+                    if (matchAll) {
+                        return SearchHits.empty();
+                    }
+                    continue;
+                }
+                BitSet docs = new BitSet(docCount);
+                for (int p = 0; p < tag.postings.size; p++) {
+                    docs.set(tag.postings.entries[p] >>> TF_BITS);
+                }
+                if (matches == null) {
+                    matches = docs;
+                } else if (matchAll) {
+                    matches.and(docs);
+                } else {
+                    matches.or(docs);
+                }
+            }
+            if (matches == null) {
+                return SearchHits.empty();
+            }
+            matches.and(live);
+            byte deleted = (byte) ContentStatus.DELETED.ordinal();
+            for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+                if (statuses[doc] == deleted) {
+                    matches.clear(doc);
+                }
+            }
+
+            List<String> page = new ArrayList<>(limit);
+            int skipped = 0;
+            for (int doc = matches.previousSetBit(docCount - 1); doc >= 0 && page.size() < limit;
+                 doc = matches.previousSetBit(doc - 1)) {
+                if (skipped++ >= offset) {
+                    page.add(contentIds[doc]);
+                }
+            }
+            return new SearchHits(matches.cardinality(), page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normalizes a tag for facet lookups: trimmed and lower-cased.
+     */
+    static String normalizeTag(String tag) {
+        return tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<TagCount> rankTags(Map<String, Tag> candidates, int limit) {
+        Comparator<TagCount> byCount = Comparator.comparingInt(TagCount::count).reversed().thenComparing(TagCount::tag);
+        PriorityQueue<TagCount> top = new PriorityQueue<>(byCount.reversed());
+        for (Map.Entry<String, Tag> entry : candidates.entrySet()) {
+            int count = entry.getValue().count;
+            if (count == 0) {
+                continue;
+            }
+            top.add(new TagCount(entry.getKey(), count));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<TagCount> ranked = new ArrayList<>(top);
+        ranked.sort(byCount);
+        return ranked;
+    }
+
+    private void addLocked(Content content, Map<String, Integer> terms) {
+        if (docCount == MAX_DOCS) {
+            compactLocked();
+            if (docCount == MAX_DOCS) {
+                throw new IllegalStateException("Search index is full");
+            }
+        }
+        int doc = docCount++;
+        ensureCapacity(docCount);
+        contentIds[doc] = content.getId();
+        statuses[doc] = content.getStatus() != null ? (byte) content.getStatus().ordinal() : NONE;
+        types[doc] = content.getContentType() != null ? (byte) content.getContentType().ordinal() : NONE;
+
+        int length = 0;
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            int tf = Math.min(term.getValue(), MAX_TF);
+            postings.computeIfAbsent(term.getKey(), key -> new Postings()).add(doc << TF_BITS | tf);
+            length += term.getValue();
+        }
+        lengths[doc] = length;
+
+        String[] tagNames = content.getTags() == null ? new String[0] : content.getTags().stream()
+                .filter(Objects::nonNull)
+                .map(OrgSearchIndex::normalizeTag)
+                .filter(tag -> !tag.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+        docTags[doc] = tagNames;
+        boolean binned = content.getStatus() == ContentStatus.DELETED;
+        for (String name : tagNames) {
+            Tag tag = tags.computeIfAbsent(name, key -> new Tag());
+            tag.postings.add(doc << TF_BITS);
+            if (!binned) {
+                tag.count++;
+            }
+        }
+        live.set(doc);
+        docsByContentId.put(content.getId(), doc);
+        liveCount++;
+        liveLength += length;
+    }
+
+    private void removeLocked(String contentId) {
+        Integer doc = docsByContentId.remove(contentId);
+        if (doc == null) {
+            return;
+        }
+        live.clear(doc);
+        liveCount--;
+        liveLength -= lengths[doc];
+        if (statuses[doc] != (byte) ContentStatus.DELETED.ordinal()) {
+            for (String name : docTags[doc]) {
+                tags.get(name).count--;
+            }
+        }
+        contentIds[doc] = null;
+        docTags[doc] = null;
+        if (docCount >= MIN_COMPACT_DOCS && docCount - liveCount > liveCount) {
+            compactLocked();
+        }
+    }
+
+    /**
+     * Renumbers live documents densely and drops dead postings.
+     */
+    private void compactLocked() {
+        int[] renumbered = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (live.get(doc)) {
+                renumbered[doc] = next;
+                contentIds[next] = contentIds[doc];
+                statuses[next] = statuses[doc];
+                types[next] = types[doc];
+                lengths[next] = lengths[doc];
+                docTags[next] = docTags[doc];
+                docsByContentId.put(contentIds[next], next);
+                next++;
+            } else {
+                renumbered[doc] = -1;
+            }
+        }
+        Arrays.fill(contentIds, next, docCount, null);
+        Arrays.fill(docTags, next, docCount, null);
+        live.clear();
+        live.set(0, next);
+        docCount = next;
+
+        postings.values().removeIf(list -> !list.renumber(renumbered));
+        tags.values().removeIf(tag -> !tag.postings.renumber(renumbered));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > contentIds.length) {
+            int grown = Math.min(MAX_DOCS, Math.max(capacity, contentIds.length * 2));
+            contentIds = Arrays.copyOf(contentIds, grown);
+            statuses = Arrays.copyOf(statuses, grown);
+            types = Arrays.copyOf(types, grown);
+            lengths = Arrays.copyOf(lengths, grown);
+            docTags = Arrays.copyOf(docTags, grown);
+        }
+    }
+
+    private static Map<String, Integer> similarityTerms(Content content) {
+        Map<String, Integer> terms = new HashMap<>();
+        SearchTokenizer.tokenize(content.getTitle(), term -> terms.merge(term, TITLE_WEIGHT, Integer::sum));
+        if (content.getTags() != null) {
+            content.getTags().forEach(tag -> SearchTokenizer.tokenize(tag, term -> terms.merge(term, TAG_WEIGHT, Integer::sum)));
+        }
+        SearchTokenizer.tokenize(content.getDescription(), term -> terms.merge(term, TEXT_WEIGHT, Integer::sum));
+        return terms;
+    }
+
+    private static Map<String, Integer> terms(Content content) {
+        Map<String, Integer> terms = similarityTerms(content);
+        SearchTokenizer.tokenize(content.getBody(), term -> terms.merge(term, TEXT_WEIGHT, Integer::sum));
+        return terms;
+    }
+
+    private static final class SimilarityScratch {
+
+        private float[] textScores = new float[0];
+        private int[] sharedTags = new int[0];
+        private final BitSet candidates = new BitSet();
+
+        SimilarityScratch ensureCapacity(int docCount) {
+            if (textScores.length < docCount) {
+                int capacity = Math.max(docCount, textScores.length * 2);
+                textScores = new float[capacity];
+                sharedTags = new int[capacity];
+            }
+            return this;
+        }
+
+        /** Zeroes only the entries the last query touched, which are exactly its candidates. */
+        void clear() {
+            for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                textScores[doc] = 0;
+                sharedTags[doc] = 0;
+            }
+            candidates.clear();
+        }
+    }
+
+    private static final class Postings {
+
+        private int[] entries = new int[4];
+        private int size;
+
+        void add(int entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size + (size >> 1) + 1);
+            }
+            entries[size++] = entry;
+        }
+
+        /**
+         * Rewrites document numbers after compaction, dropping postings of dead documents.
+         * @return false if no postings are left
+         */
+        boolean renumber(int[] renumbered) {
+            int kept = 0;
+            for (int p = 0; p < size; p++) {
+                int doc = renumbered[entries[p] >>> TF_BITS];
+                if (doc >= 0) {
+                    entries[kept++] = doc << TF_BITS | (entries[p] & MAX_TF);
+                }
+            }
+            size = kept;
+            entries = Arrays.copyOf(entries, kept);
+            return kept > 0;
+        }
+
+        /**
+         * @return The first position at or after {@code from} whose document number is at least {@code doc}
+         */
+        int seek(int doc, int from) {
+            // Gallop ahead, then binary search the last step
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && entries[high] >>> TF_BITS < doc) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size);
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (entries[middle] >>> TF_BITS < doc) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class Tag {
+
+        private final Postings postings = new Postings();
+        /** Live content outside the bin carrying this tag. */
+        private int count;
+    }
+}
@@ -0,0 +1,15 @@
+package com.smartcms.smartcontent.search;
+
+import java.util.List;
+
+/**
+ * One page of search results.
+ * @param total      Number of matching content items across all pages
+ * @param contentIds IDs of the items on the requested page, best match first
+ */
+public record SearchHits(long total, List<String> contentIds) {
+
+    public static SearchHits empty() {
+        return new SearchHits(0, List.of());
+    }
+}
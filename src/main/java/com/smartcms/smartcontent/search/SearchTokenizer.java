@@ -0,0 +1,48 @@
+package com.smartcms.smartcontent.search;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Splits text into lower-case terms on anything that is not a letter or digit, dropping
+ * single characters and common English stop words. Used for both documents and queries.
+ */
+final class SearchTokenizer {
+
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "in", "is", "it", "its",
+            "of", "on", "or", "that", "the", "this", "to", "was", "were", "will", "with");
+
+    private SearchTokenizer() {
+    }
+
+    static void tokenize(String text, Consumer<String> terms) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                emit(text, start, i, terms);
+                start = -1;
+            }
+        }
+    }
+
+    private static void emit(String text, int start, int end, Consumer<String> terms) {
+        if (end - start < 2 || end - start > MAX_TERM_LENGTH) {
+            return;
+        }
+        String term = text.substring(start, end).toLowerCase(Locale.ROOT);
+        if (!STOP_WORDS.contains(term)) {
+            terms.accept(term);
+        }
+    }
+}
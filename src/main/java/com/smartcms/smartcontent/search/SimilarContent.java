@@ -0,0 +1,7 @@
+package com.smartcms.smartcontent.search;
+
+/**
+ * A content item similar to another one, with a similarity score between 0 and 1.
+ */
+public record SimilarContent(String contentId, double score) {
+}
@@ -0,0 +1,7 @@
+package com.smartcms.smartcontent.search;
+
+/**
+ * A tag and the number of live content items outside the bin that carry it.
+ */
+public record TagCount(String tag, int count) {
+}
@@ -0,0 +1,11 @@
+package com.smartcms.smartcontent.search;
+
+/**
+ * How a multi-tag filter combines its tags.
+ */
+public enum TagMatch {
+    /** Content must carry every tag. */
+    ALL,
+    /** Content must carry at least one of the tags. */
+    ANY
+}
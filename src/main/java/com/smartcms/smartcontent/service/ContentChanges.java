@@ -0,0 +1,80 @@
+package com.smartcms.smartcontent.service;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.MetaData;
+import com.smartcms.smartcontent.dto.ContentRequest;
+import com.smartcms.smartcontent.dto.ContentUpdateRequest;
+import com.smartcms.smartcontent.model.RollbackField;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Request checks and field copies of {@link ContentServiceImpl} that need no repository.
+ */
+final class ContentChanges {
+
+    private ContentChanges() {
+    }
+
+    static String summarize(ContentUpdateRequest request, Content existingContent) {
+        List<String> changedFields = new ArrayList<>();
+
+        if (request.getTitle() != null && !request.getTitle().equals(existingContent.getTitle())) {
+            changedFields.add("Title");
+        }
+        if (request.getDescription() != null && !request.getDescription().equals(existingContent.getDescription())) {
+            changedFields.add("Description");
+        }
+        if (request.getBody() != null && !request.getBody().equals(existingContent.getBody())) {
+            changedFields.add("Body");
+        }
+        if (request.getTags() != null && !request.getTags().equals(existingContent.getTags())) {
+            changedFields.add("Tags");
+        }
+        if (request.getMeta() != null && !request.getMeta().equals(existingContent.getMeta())) {
+            changedFields.add("Meta");
+        }
+        if (request.getMediaReferences() != null && !request.getMediaReferences().equals(existingContent.getMediaReferences())) {
+            changedFields.add("Media References");
+        }
+        return changedFields.isEmpty() ? "No changes made" : "Updated " + String.join(", ", changedFields);
+    }
+
+    static void validate(ContentRequest request) {
+        List<String> errors = new ArrayList<>();
+
+        if (request.getTitle() == null || request.getTitle().trim().isEmpty()) {
+            errors.add("Title cannot be empty");
+        }
+        if (request.getDescription() == null || request.getDescription().trim().isEmpty()) {
+            errors.add("Description cannot be empty");
+        }
+        if (request.getBody() == null || request.getBody().trim().isEmpty()) {
+            errors.add("Content body cannot be empty");
+        }
+        if (request.getContentType() == null) {
+            errors.add("Content type is required");
+        }
+
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join(", ", errors));
+        }
+    }
+
+    static void applyRollback(Content currentContent, Content snapshot, Set<RollbackField> fieldsToRollback) {
+        for (RollbackField field : fieldsToRollback) {
+            switch (field) {
+                case TITLE -> currentContent.setTitle(snapshot.getTitle());
+                case DESCRIPTION -> currentContent.setDescription(snapshot.getDescription());
+                case BODY -> currentContent.setBody(snapshot.getBody());
+                case TAGS -> currentContent.setTags(snapshot.getTags() != null ? snapshot.getTags() : List.of());
+                case MEDIA -> currentContent.setMediaReferences(snapshot.getMediaReferences() != null ? snapshot.getMediaReferences() : List.of());
+                case CONTENT_TYPE -> currentContent.setContentType(snapshot.getContentType());
+                case META -> currentContent.setMeta(snapshot.getMeta() != null ? snapshot.getMeta() : new MetaData());
+                case STATUS -> currentContent.setStatus(snapshot.getStatus());
+            }
+        }
+    }
+}
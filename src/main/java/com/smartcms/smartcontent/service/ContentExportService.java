@@ -0,0 +1,91 @@
+package com.smartcms.smartcontent.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import com.smartcms.smartcontent.utility.ContentFields;
+import io.micrometer.common.util.StringUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Streams an org's content as newline-delimited JSON from a single Mongo cursor.
+ * <p>
+ * Documents are serialized one at a time straight into the response stream, so heap use
+ * does not grow with the size of the org. Backpressure comes from the blocking writes:
+ * the next cursor batch is only fetched once the client has consumed the previous one.
+ */
+@Slf4j
+@Service
+public class ContentExportService {
+
+    private final ContentRepository contentRepository;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public ContentExportService(ContentRepository contentRepository,
+                                ObjectMapper objectMapper,
+                                @Value("${smartcontent.export.batch-size:500}") int batchSize) {
+        this.contentRepository = contentRepository;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Writes every matching content item of the org to {@code out}, one JSON object per line.
+     * @param status        Only export content in this status (all statuses if null)
+     * @param updatedAfter  Only export content updated at or after this instant (if not null)
+     * @param updatedBefore Only export content updated before this instant (if not null)
+     * @param fields        Fields to export (see {@link ContentFields#parse}), or null for full documents
+     * @return The number of exported items
+     */
+    public long exportOrgContent(String orgId, ContentStatus status, Instant updatedAfter, Instant updatedBefore,
+                                 Set<String> fields, OutputStream out) throws IOException {
+        validateExport(orgId, updatedAfter, updatedBefore);
+
+        long exported = 0;
+        long start = System.nanoTime();
+        try (Stream<Content> contents = contentRepository.streamByOrgId(orgId, status, updatedAfter, updatedBefore,
+                fields, batchSize);
+             JsonGenerator generator = objectMapper.createGenerator(out)) {
+            // The servlet container owns the response stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            Iterator<Content> iterator = contents.iterator();
+            while (iterator.hasNext()) {
+                Content content = iterator.next();
+                generator.writeObject(fields != null ? ContentFields.select(content, fields) : content);
+                generator.writeRaw('\n');
+                if (++exported % batchSize == 0) {
+                    // Push each cursor batch to the client rather than holding it in the buffers
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        log.info("Exported {} content items for org {} in {} ms", exported, orgId, (System.nanoTime() - start) / 1_000_000);
+        return exported;
+    }
+
+    /**
+     * Checks export arguments up front, so bad requests fail before the response is committed.
+     */
+    public void validateExport(String orgId, Instant updatedAfter, Instant updatedBefore) {
+        if (StringUtils.isBlank(orgId)) {
+            throw new IllegalArgumentException("Org ID cannot be blank");
+        }
+        if (updatedAfter != null && updatedBefore != null && !updatedAfter.isBefore(updatedBefore)) {
+            throw new IllegalArgumentException("updatedAfter must be before updatedBefore");
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.smartcms.smartcontent.service;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcommon.model.ContentType;
+import com.smartcms.smartcontent.model.PaginatedResponse;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import com.smartcms.smartcontent.search.ContentSearchIndex;
+import com.smartcms.smartcontent.search.SearchHits;
+import com.smartcms.smartcontent.search.TagCount;
+import com.smartcms.smartcontent.search.TagMatch;
+import com.smartcms.smartcontent.utility.ContentFields;
+import io.micrometer.common.util.StringUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search and tag facets over an org's content, backed by the in-process {@link ContentSearchIndex}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContentSearchService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_RESULT_WINDOW = 10_000;
+
+    private final ContentSearchIndex contentSearchIndex;
+    private final ContentRepository contentRepository;
+
+    /**
+     * Searches title, description, body and tags for content containing every query term, best match first.
+     * Hits are re-read from MongoDB, so results always reflect the stored documents; like other lists, they
+     * leave out the body.
+     * @param contentType Only return this content type (if not null)
+     * @param status      Only return this status; when null, content in the bin is excluded
+     */
+    public PaginatedResponse<Content> searchContent(String orgId, String query, ContentType contentType,
+                                                    ContentStatus status, int page, int size) {
+        validatePage(orgId, page, size);
+        if (StringUtils.isBlank(query)) {
+            throw new IllegalArgumentException("Search query cannot be blank");
+        }
+
+        SearchHits hits = contentSearchIndex.search(orgId, query, contentType, status, page * size, size);
+        log.debug("Search '{}' in org {} matched {} items", query, orgId, hits.total());
+        return toPage(hits, page, size);
+    }
+
+    /**
+     * Lists the org's content tagged with all ({@link TagMatch#ALL}) or any of the given tags, ignoring case,
+     * most recently written first. Content in the bin is excluded.
+     */
+    public PaginatedResponse<Content> getContentByTags(String orgId, List<String> tags, TagMatch match, int page, int size) {
+        validatePage(orgId, page, size);
+        if (tags == null || tags.stream().allMatch(StringUtils::isBlank)) {
+            throw new IllegalArgumentException("At least one tag is required");
+        }
+        SearchHits hits = contentSearchIndex.findByTags(orgId, tags, match == TagMatch.ALL, page * size, size);
+        return toPage(hits, page, size);
+    }
+
+    public List<TagCount> getTopTags(String orgId, int limit) {
+        validateTagLimit(orgId, limit);
+        return contentSearchIndex.topTags(orgId, limit);
+    }
+
+    /**
+     * Suggests the org's most used tags starting with {@code prefix}, ignoring case.
+     */
+    public List<TagCount> suggestTags(String orgId, String prefix, int limit) {
+        validateTagLimit(orgId, limit);
+        if (StringUtils.isBlank(prefix)) {
+            throw new IllegalArgumentException("Tag prefix cannot be blank");
+        }
+        return contentSearchIndex.suggestTags(orgId, prefix, limit);
+    }
+
+    /**
+     * Rebuilds the org's search index from MongoDB.
+     * @return The number of indexed content items
+     */
+    public long reindex(String orgId) {
+        if (StringUtils.isBlank(orgId)) {
+            throw new IllegalArgumentException("Org ID cannot be blank");
+        }
+        return contentSearchIndex.rebuild(orgId);
+    }
+
+    private PaginatedResponse<Content> toPage(SearchHits hits, int page, int size) {
+        Map<String, Content> found = contentRepository.findProjectedByIdIn(hits.contentIds(), ContentFields.LIST_FIELDS).stream()
+                .collect(Collectors.toMap(Content::getId, Function.identity()));
+        List<Content> content = hits.contentIds().stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        int totalPages = (int) Math.ceil((double) hits.total() / size);
+        return new PaginatedResponse<>(content, page, size, hits.total(), totalPages, page + 1 >= totalPages);
+    }
+
+    private static void validatePage(String orgId, int page, int size) {
+        if (StringUtils.isBlank(orgId)) {
+            throw new IllegalArgumentException("Org ID cannot be blank");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must be at least 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        if ((long) (page + 1) * size > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Cannot page beyond the first " + MAX_RESULT_WINDOW + " results");
+        }
+    }
+
+    private static void validateTagLimit(String orgId, int limit) {
+        if (StringUtils.isBlank(orgId)) {
+            throw new IllegalArgumentException("Org ID cannot be blank");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+}
@@ -14,9 +14,15 @@ public interface ContentService {
     // Content CRUD Operations
     Content createContent(ContentRequest request, String userId, String orgId);
     Content getContentById(String id);
+    Content getContentById(String id, Set<String> fields);
+    ContentBatchResponse<Content> getContentByIds(List<String> ids, Set<String> fields);
+    String getContentETag(String id);
     PaginatedResponse<Content> getOrgContent(String orgId, int page, int size, String sortBy);
+    PaginatedResponse<Content> getOrgContent(String orgId, int page, int size, String sortBy, Set<String> fields);
     Content updateContent(String contentId, ContentUpdateRequest request, String updatedBy);
+    Content updateContent(String contentId, ContentUpdateRequest request, String updatedBy, String ifMatch);
     PaginatedResponse<Content> getContentByStatus(String orgId, ContentStatus status, int page, int size);
+    PaginatedResponse<Content> getContentByStatus(String orgId, ContentStatus status, int page, int size, Set<String> fields);
 
     // Content Status Management
     Content updateStatus(String contentId, ContentStatus newStatus, String updatedBy, String note);
@@ -28,6 +34,7 @@ public interface ContentService {
     Content restoreContent(String id, String restoredBy);
     void permanentDeleteExpiredContent();
     PaginatedResponse<Content> getBinContent(String orgId, int page, int size);
+    PaginatedResponse<Content> getBinContent(String orgId, int page, int size, Set<String> fields);
     void deleteContent(String id);
 
     // Version Control
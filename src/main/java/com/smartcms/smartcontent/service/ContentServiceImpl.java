@@ -3,20 +3,26 @@ package com.smartcms.smartcontent.service;
 import com.smartcms.smartcommon.exception.ResourceNotFoundException;
 import com.smartcms.smartcommon.exception.ServiceLayerException;
 import com.smartcms.smartcommon.model.*;
-import com.smartcms.smartcontent.client.SmartMediaClient;
+import com.smartcms.smartcontent.dto.ContentBatchResponse;
 import com.smartcms.smartcontent.dto.ContentRequest;
 import com.smartcms.smartcontent.dto.ContentUpdateRequest;
 import com.smartcms.smartcontent.dto.ContentVersionDto;
 import com.smartcms.smartcontent.dto.SlugValidationResponse;
+import com.smartcms.smartcontent.exception.ClientException;
 import com.smartcms.smartcontent.exception.InvalidScheduleTimeException;
 import com.smartcms.smartcontent.model.*;
 import com.smartcms.smartcontent.repository.ContentHistoryRepository;
 import com.smartcms.smartcontent.repository.ContentRepository;
 import com.smartcms.smartcontent.repository.ContentStatusAuditRepository;
+import com.smartcms.smartcontent.search.ContentSearchIndex;
+import com.smartcms.smartcontent.utility.AISlugResolver;
+import com.smartcms.smartcontent.utility.ContentETags;
+import com.smartcms.smartcontent.utility.ContentFields;
 import com.smartcms.smartcontent.utility.SlugGenerator;
 import io.micrometer.common.util.StringUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -29,6 +35,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -41,7 +48,12 @@ public class ContentServiceImpl implements ContentService {
     private final ContentRepository contentRepository;
     private final ContentHistoryRepository contentHistoryRepository;
     private final ContentStatusAuditRepository contentStatusAuditRepository;
-    private final SmartMediaClient mediaClient;
+    private final MediaDeletionOutboxService mediaDeletionOutbox;
+    private final AISlugResolver aiSlugResolver;
+    private final ContentSearchIndex contentSearchIndex;
+
+    @Value("${smartcontent.batch.max-ids:100}")
+    private int maxBatchSize;
 
     // Status transition validation rules
     private static final Map<ContentStatus, Set<ContentStatus>> ALLOWED_TRANSITIONS = Map.of(
@@ -55,13 +67,18 @@ public class ContentServiceImpl implements ContentService {
             ContentStatus.DELETED, Set.of() // No further transitions
     );
     public Content createContent(ContentRequest request, String userId, String orgId) {
-        validateRequest(request);
+        ContentChanges.validate(request);
         log.debug("Creating content for user {} in org {}", userId, orgId);
 
         String slug = slugGenerator.generateSlug(request.getTitle());
 
-        if (slug.isEmpty()) {
-            slug = slugGenerator.generateSlugWithAI(request.getDescription());
+        // Don't block creation on SmartAI: save with a provisional slug and swap it in later
+        boolean provisionalSlug = slug.isEmpty();
+        CompletableFuture<String> aiSlug = null;
+        if (provisionalSlug) {
+            slug = slugGenerator.generateProvisionalSlug();
+            // Start the SmartAI call now so it overlaps the insert below
+            aiSlug = aiSlugResolver.resolve(request.getDescription());
         }
 //        while (contentRepository.existsByOrgDetailsOrgIdAndSlug(orgId, slug)) {
 //            slug = slugGenerator.generateUniqueSlug(slug);
@@ -86,34 +103,114 @@ public class ContentServiceImpl implements ContentService {
                 .aiInsights(request.getAiInsights())// Setting organization details
                 .build();
 
-        return contentRepository.save(content);
+        Content savedContent = contentRepository.save(content);
+        if (provisionalSlug) {
+            applyAISlugWhenReady(savedContent.getId(), slug, aiSlug);
+        }
+        return savedContent;
     }
 
     public Content getContentById(String id) {
+        return getContentById(id, null);
+    }
+
+    /**
+     * @param fields Fields to read from the database (see {@link ContentFields#parse}), or null for the full document
+     */
+    public Content getContentById(String id, Set<String> fields) {
         if (StringUtils.isBlank(id)) {
             throw new IllegalArgumentException("Content ID cannot be blank");
         }
-        log.debug("Fetching content by id: {}", id);
-        return getExistingContent(id);
+        log.debug("Fetching content by id: {} (fields: {})", id, fields);
+        if (fields == null) {
+            return getExistingContent(id);
+        }
+        return contentRepository.findProjectedById(id, fields)
+                .orElseThrow(() -> new ResourceNotFoundException("Content not found with id: " + id));
+    }
+
+    /**
+     * Resolves a batch of content items with a single $in query. Items never include their body, which only
+     * single-item reads return.
+     * @param ids    IDs to resolve; duplicates are ignored
+     * @param fields Fields to read (see {@link ContentFields#parseForList}), or null for every field but the body
+     * @return Found items in request order, and the IDs that were not found
+     */
+    public ContentBatchResponse<Content> getContentByIds(List<String> ids, Set<String> fields) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one content ID is required");
+        }
+        Set<String> requested = new LinkedHashSet<>(ids);
+        if (requested.stream().anyMatch(StringUtils::isBlank)) {
+            throw new IllegalArgumentException("Content ID cannot be blank");
+        }
+        if (requested.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " content IDs can be requested at once");
+        }
+
+        List<Content> found = fields == null
+                ? contentRepository.findProjectedByIdIn(requested, ContentFields.LIST_FIELDS)
+                : contentRepository.findProjectedByIdIn(requested, fields);
+        Map<String, Content> byId = found.stream().collect(Collectors.toMap(Content::getId, content -> content));
+
+        List<Content> items = new ArrayList<>(byId.size());
+        List<String> missing = new ArrayList<>();
+        for (String id : requested) {
+            Content content = byId.get(id);
+            if (content != null) {
+                items.add(content);
+            } else {
+                missing.add(id);
+            }
+        }
+        log.debug("Resolved {} of {} requested content items", items.size(), requested.size());
+        return new ContentBatchResponse<>(items, missing);
+    }
+
+    /**
+     * Resolves the current ETag of a content item from a version-only projection,
+     * so conditional requests can be answered without loading the document.
+     */
+    public String getContentETag(String id) {
+        if (StringUtils.isBlank(id)) {
+            throw new IllegalArgumentException("Content ID cannot be blank");
+        }
+        return contentRepository.findVersionById(id)
+                .map(version -> ContentETags.of(id, version.getVersion(), version.getUpdatedAt()))
+                .orElseThrow(() -> new ResourceNotFoundException("Content not found with id: " + id));
     }
 
     public PaginatedResponse<Content> getOrgContent(String orgId, int page, int size, String sortBy) {
+        return getOrgContent(orgId, page, size, sortBy, null);
+    }
+
+    public PaginatedResponse<Content> getOrgContent(String orgId, int page, int size, String sortBy, Set<String> fields) {
 
         log.debug("Fetching org content for orgId: {}, page: {}, size: {}, sortBy: {}", orgId, page, size, sortBy);
         Pageable pageable = PageRequest.of(page, size, Sort.by("updatedAt").descending());
-        Page<Content> pageResult = contentRepository.findByOrgIdAndStatusNot(orgId, ContentStatus.DELETED, pageable);
+        Page<Content> pageResult = fields == null
+                ? contentRepository.findByOrgIdAndStatusNot(orgId, ContentStatus.DELETED, pageable)
+                : contentRepository.findProjectedByOrgIdAndStatusNot(orgId, ContentStatus.DELETED, pageable, fields);
 
         log.debug("Found {} org items for orgId: {}", pageResult.getNumberOfElements(), orgId);
         return buildPaginatedResponse(pageResult);
     }
 
     public Content updateContent(String contentId, ContentUpdateRequest request, String updatedBy) {
+        return updateContent(contentId, request, updatedBy, null);
+    }
+
+    public Content updateContent(String contentId, ContentUpdateRequest request, String updatedBy, String ifMatch) {
         // Step 1: Fetch existing content
         Content existingContent = getExistingContent(contentId);
+        if (ifMatch != null && !ContentETags.matchesIfMatch(ifMatch, ContentETags.of(existingContent))) {
+            throw new ClientException("Content has been modified since it was last fetched",
+                    HttpStatus.PRECONDITION_FAILED);
+        }
 
         // Step 2: Save history before updating
         UserDetails updatedByUser = new UserDetails(updatedBy);
-        String changeSummary = generateSummary(request, existingContent);
+        String changeSummary = ContentChanges.summarize(request, existingContent);
 
         saveContentHistory(existingContent, updatedByUser, changeSummary);
 
@@ -133,9 +230,16 @@ public class ContentServiceImpl implements ContentService {
     }
 
     public PaginatedResponse<Content> getContentByStatus(String orgId, ContentStatus status, int page, int size) {
+        return getContentByStatus(orgId, status, page, size, null);
+    }
+
+    public PaginatedResponse<Content> getContentByStatus(String orgId, ContentStatus status, int page, int size,
+                                                         Set<String> fields) {
         log.debug("Fetching content by status for orgId: {}, status: {}, page: {}, size: {}", orgId, status, page, size);
         Pageable pageable = PageRequest.of(page, size, Sort.by("updatedAt").descending());
-        Page<Content> pageResult = contentRepository.findByOrgIdAndStatus(orgId, status, pageable);
+        Page<Content> pageResult = fields == null
+                ? contentRepository.findByOrgIdAndStatus(orgId, status, pageable)
+                : contentRepository.findProjectedByOrgIdAndStatus(orgId, status, pageable, fields);
 
         if (pageResult.isEmpty()) {
             throw new ResourceNotFoundException("No content found for org: " + orgId + " with status: " + status);
@@ -194,23 +298,51 @@ public class ContentServiceImpl implements ContentService {
         List<Content> missedItems = contentRepository.findByStatusAndScheduledPublishAtBefore(ContentStatus.SCHEDULED, safetyWindow);
 
         if (!currentBatch.isEmpty() || !missedItems.isEmpty()) {
-            Stream.concat(currentBatch.stream(), missedItems.stream())
-                    .forEach(content -> publishContent(content, content.getScheduledPublishAt()));
+            publishScheduledContent(Stream.concat(currentBatch.stream(), missedItems.stream()).toList());
 
             log.info("Published {} current and {} missed scheduled items",
                     currentBatch.size(), missedItems.size());
         }
     }
 
-    private void publishContent(Content content, Instant publishTime) {
-        ContentStatusAudit statusAudit = createStatusAudit(content, ContentStatus.PUBLISHED, "scheduled@system", "Published content");
+    /**
+     * Publishes a batch with one update and one audit insert, however many items are due.
+     */
+    private void publishScheduledContent(List<Content> dueContent) {
+        List<String> ids = dueContent.stream().map(Content::getId).toList();
+        // Stored dates keep milliseconds, so the items this run published can be told apart by their update time
+        Instant publishedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        long published = contentRepository.updateStatusIfUnchanged(ids, ContentStatus.SCHEDULED,
+                ContentStatus.PUBLISHED, publishedAt);
+
+        List<Content> publishedContent = dueContent;
+        if (published < ids.size()) {
+            // Some items changed status since they were read, possibly published by another run or by hand;
+            // audit only the ones this run published
+            Set<String> publishedIds = contentRepository.findProjectedByIdIn(ids, Set.of("id", "status", "updatedAt"))
+                    .stream()
+                    .filter(content -> content.getStatus() == ContentStatus.PUBLISHED
+                            && publishedAt.equals(content.getUpdatedAt()))
+                    .map(Content::getId)
+                    .collect(Collectors.toSet());
+            publishedContent = dueContent.stream()
+                    .filter(content -> publishedIds.contains(content.getId()))
+                    .toList();
+            log.warn("Skipped {} scheduled items whose status changed before publishing",
+                    ids.size() - publishedContent.size());
+        }
+        contentStatusAuditRepository.saveAll(publishedContent.stream()
+                .map(content -> createStatusAudit(content, ContentStatus.PUBLISHED, "scheduled@system", "Published content"))
+                .toList());
+        publishedContent.forEach(content -> log.warn("Published content {} (original schedule: {})",
+                content.getId(), content.getScheduledPublishAt()));
 
-        content.setStatus(ContentStatus.PUBLISHED);
-        content.setUpdatedAt(Instant.now());
-        contentRepository.save(content);
-        contentStatusAuditRepository.save(statusAudit);
-        log.warn("Published content {} (original schedule: {})",
-                content.getId(), content.getScheduledPublishAt());
+        // The bulk update raises no save events, so the search index is told about the new status here
+        try {
+            contentSearchIndex.reindex(publishedContent.stream().map(Content::getId).toList());
+        } catch (RuntimeException e) {
+            log.warn("Failed to reindex published content; search is stale until the next catch-up", e);
+        }
     }
 
     private ContentStatusAudit createStatusAudit(Content content, ContentStatus newStatus, String updatedBy, String note) {
@@ -273,19 +405,23 @@ public class ContentServiceImpl implements ContentService {
         }
         log.info("Purged {} expired bin items", expiredContent.size());
 
-        for (Content content : expiredContent) {
-            deleteAssociatedMedia(content);
-        }
-
+        // Record media first so it is never leaked; SmartMedia is called by the outbox drainer
+        mediaDeletionOutbox.enqueue(expiredContent);
         contentRepository.deleteAll(expiredContent);
         log.info("Permanently deleted {} expired content items", expiredContent.size());
     }
 
     public PaginatedResponse<Content> getBinContent(String orgId, int page, int size) {
+        return getBinContent(orgId, page, size, null);
+    }
+
+    public PaginatedResponse<Content> getBinContent(String orgId, int page, int size, Set<String> fields) {
         log.debug("Fetching bin content for orgId: {}, page: {}, size: {}", orgId, page, size);
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("deletedAt").descending());
-        Page<Content> pageResult = contentRepository.findByOrgIdAndStatus(orgId, ContentStatus.DELETED, pageable);
+        Page<Content> pageResult = fields == null
+                ? contentRepository.findByOrgIdAndStatus(orgId, ContentStatus.DELETED, pageable)
+                : contentRepository.findProjectedByOrgIdAndStatus(orgId, ContentStatus.DELETED, pageable, fields);
 
         log.debug("Found {} bin items for orgId: {}", pageResult.getNumberOfElements(), orgId);
         return buildPaginatedResponse(pageResult);
@@ -298,7 +434,7 @@ public class ContentServiceImpl implements ContentService {
         }
 
         try {
-            deleteAssociatedMedia(content);
+            mediaDeletionOutbox.enqueue(List.of(content));
             contentRepository.delete(content);
             log.info("Permanently deleted content {}", id);
         } catch (Exception e) {
@@ -349,17 +485,17 @@ public class ContentServiceImpl implements ContentService {
                 fieldsToRollback = EnumSet.allOf(RollbackField.class);
             }
 
-            // Step 2: Save the current content in history before rollback
-            saveContentHistory(currentContent, new UserDetails(rolledBackBy), "Before rollback to version " + version);
-
-            // Step 3: Fetch the historical version
+            // Step 2: Fetch the historical version, so a missing version fails before anything is written
             ContentHistory historyEntry = contentHistoryRepository.findByContentSnapshotIdAndContentSnapshotVersion(contentId, version)
                     .orElseThrow(() -> new ResourceNotFoundException("Content history not found for version: " + version));
 
             Content snapshot = historyEntry.getContentSnapshot();
             log.debug("Fetched historical version: {}", version);
 
-            applyRollbackFields(currentContent, snapshot, fieldsToRollback);
+            // Step 3: Save the current content in history before rollback
+            saveContentHistory(currentContent, new UserDetails(rolledBackBy), "Before rollback to version " + version);
+
+            ContentChanges.applyRollback(currentContent, snapshot, fieldsToRollback);
 
             currentContent.setUpdatedAt(Instant.now());
             currentContent.setVersion(currentContent.getVersion() + 1); // Increment version
@@ -413,19 +549,16 @@ public class ContentServiceImpl implements ContentService {
         return contentStatusAuditRepository.findByContentId(contentId);
     }
 
-    private void deleteAssociatedMedia(Content content) {
-        // Extract media IDs from content
-        List<String> mediaIds = content.getMediaReferences()
-                .stream()
-                .map(MediaReference::getMediaId)
-                .collect(Collectors.toList());
-
-        try {
-            mediaClient.bulkDeleteMedia(mediaIds); // Efficient batch deletion
-        } catch (Exception e) {
-            log.warn("Failed to delete some media for content {}. Proceeding anyway. Error: {}",
-                    content.getId(), e.getMessage());
-        }
+    private void applyAISlugWhenReady(String contentId, String provisionalSlug, CompletableFuture<String> aiSlugFuture) {
+        aiSlugFuture.whenComplete((aiSlug, error) -> {
+            if (error != null || StringUtils.isBlank(aiSlug)) {
+                log.info("Keeping provisional slug {} for content {}", provisionalSlug, contentId);
+                return;
+            }
+            // Only replace the slug if nobody has changed it in the meantime
+            long updated = contentRepository.updateSlugIfUnchanged(contentId, provisionalSlug, aiSlug, Instant.now());
+            log.debug("Applied AI slug {} to content {} (updated: {})", aiSlug, contentId, updated);
+        });
     }
 
     private Content getExistingContent(String contentId) {
@@ -452,51 +585,6 @@ public class ContentServiceImpl implements ContentService {
         contentHistoryRepository.save(history);
     }
 
-    private String generateSummary(ContentUpdateRequest request, Content existingContent) {
-        List<String> changedFields = new ArrayList<>();
-
-        if (request.getTitle() != null && !request.getTitle().equals(existingContent.getTitle())) {
-            changedFields.add("Title");
-        }
-        if (request.getDescription() != null && !request.getDescription().equals(existingContent.getDescription())) {
-            changedFields.add("Description");
-        }
-        if (request.getBody() != null && !request.getBody().equals(existingContent.getBody())) {
-            changedFields.add("Body");
-        }
-        if (request.getTags() != null && !request.getTags().equals(existingContent.getTags())) {
-            changedFields.add("Tags");
-        }
-        if (request.getMeta() != null && !request.getMeta().equals(existingContent.getMeta())) {
-            changedFields.add("Meta");
-        }
-        if (request.getMediaReferences() != null && !request.getMediaReferences().equals(existingContent.getMediaReferences())) {
-            changedFields.add("Media References");
-        }
-        return changedFields.isEmpty() ? "No changes made" : "Updated " + String.join(", ", changedFields);
-    }
-
-    private void validateRequest(ContentRequest request) {
-        List<String> errors = new ArrayList<>();
-
-        if (request.getTitle() == null || request.getTitle().trim().isEmpty()) {
-            errors.add("Title cannot be empty");
-        }
-        if (request.getDescription() == null || request.getDescription().trim().isEmpty()) {
-            errors.add("Description cannot be empty");
-        }
-        if (request.getBody() == null || request.getBody().trim().isEmpty()) {
-            errors.add("Content body cannot be empty");
-        }
-        if (request.getContentType() == null) {
-            errors.add("Content type is required");
-        }
-
-        if (!errors.isEmpty()) {
-            throw new IllegalArgumentException(String.join(", ", errors));
-        }
-    }
-
     private void validateRollbackInputs(String contentId, int version, String rolledBy) {
         if (StringUtils.isBlank(contentId)) {
             throw new IllegalArgumentException("Content ID cannot be blank");
@@ -509,21 +597,6 @@ public class ContentServiceImpl implements ContentService {
         }
     }
 
-    private void applyRollbackFields(Content currentContent, Content snapshot, Set<RollbackField> fieldsToRollback) {
-        for (RollbackField field : fieldsToRollback) {
-            switch (field) {
-                case TITLE -> currentContent.setTitle(snapshot.getTitle());
-                case DESCRIPTION -> currentContent.setDescription(snapshot.getDescription());
-                case BODY -> currentContent.setBody(snapshot.getBody());
-                case TAGS -> currentContent.setTags(snapshot.getTags() != null ? snapshot.getTags() : List.of());
-                case MEDIA -> currentContent.setMediaReferences(snapshot.getMediaReferences() != null ? snapshot.getMediaReferences() : List.of());
-                case CONTENT_TYPE -> currentContent.setContentType(snapshot.getContentType());
-                case META -> currentContent.setMeta(snapshot.getMeta() != null ? snapshot.getMeta() : new MetaData());
-                case STATUS -> currentContent.setStatus(snapshot.getStatus());
-            }
-        }
-    }
-
     private <T> PaginatedResponse<T> buildPaginatedResponse(Page<T> page) {
         return new PaginatedResponse<>(
                 page.getContent(),
@@ -0,0 +1,256 @@
+package com.smartcms.smartcontent.service;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.MediaReference;
+import com.smartcms.smartcontent.client.SmartMediaClient;
+import com.smartcms.smartcontent.model.MediaDeletionOutbox;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import com.smartcms.smartcontent.repository.MediaDeletionOutboxRepository;
+import com.smartcms.smartcontent.resilience.ResilienceProperties;
+import com.smartcms.smartcontent.resilience.RetryPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * Durable outbox for media that must be deleted from SmartMedia once its content is hard-deleted.
+ * <p>
+ * Entries are written before the content is deleted, so a crash can never leak media. The drainer
+ * only deletes media for content that is confirmed gone; entries whose content still exists after
+ * {@code orphanAfter} (the content delete failed) are discarded. Media IDs from many entries are
+ * combined into bulk calls that run concurrently through the non-blocking media client; failing
+ * batches are retried per entry with exponential backoff and entries that exhaust their attempts are
+ * parked as {@link MediaDeletionOutbox.Status#POISON}. Bulk deletes are idempotent, so overlapping
+ * drains on several instances are harmless. Drains run on their own {@code mediaOutboxScheduler}.
+ */
+@Slf4j
+@Service
+public class MediaDeletionOutboxService {
+
+    private final MediaDeletionOutboxRepository outboxRepository;
+    private final ContentRepository contentRepository;
+    private final SmartMediaClient mediaClient;
+    private final int batchSize;
+    private final int maxIdsPerCall;
+    private final int maxAttempts;
+    private final Duration orphanAfter;
+    private final RetryPolicy backoffPolicy;
+
+    private final Counter enqueued;
+    private final Counter deleted;
+    private final Counter failed;
+    private final Counter poisoned;
+
+    public MediaDeletionOutboxService(MediaDeletionOutboxRepository outboxRepository,
+                                      ContentRepository contentRepository,
+                                      SmartMediaClient mediaClient,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${smartmedia.outbox.batch-size:100}") int batchSize,
+                                      @Value("${smartmedia.outbox.max-ids-per-call:200}") int maxIdsPerCall,
+                                      @Value("${smartmedia.outbox.max-attempts:10}") int maxAttempts,
+                                      @Value("${smartmedia.outbox.initial-backoff:30s}") Duration initialBackoff,
+                                      @Value("${smartmedia.outbox.max-backoff:1h}") Duration maxBackoff,
+                                      @Value("${smartmedia.outbox.orphan-after:1h}") Duration orphanAfter) {
+        this.outboxRepository = outboxRepository;
+        this.contentRepository = contentRepository;
+        this.mediaClient = mediaClient;
+        this.batchSize = batchSize;
+        this.maxIdsPerCall = maxIdsPerCall;
+        this.maxAttempts = maxAttempts;
+        this.orphanAfter = orphanAfter;
+
+        ResilienceProperties.Retry backoff = new ResilienceProperties.Retry();
+        backoff.setMaxAttempts(maxAttempts);
+        backoff.setInitialBackoff(initialBackoff);
+        backoff.setMaxBackoff(maxBackoff);
+        this.backoffPolicy = new RetryPolicy(backoff);
+
+        this.enqueued = meterRegistry.counter("smartcontent.media.outbox.enqueued");
+        this.deleted = meterRegistry.counter("smartcontent.media.outbox.deleted");
+        this.failed = meterRegistry.counter("smartcontent.media.outbox.failed");
+        this.poisoned = meterRegistry.counter("smartcontent.media.outbox.poisoned");
+    }
+
+    /**
+     * Records the media of the given content for deletion with a single insert.
+     * Must be called before the content itself is deleted.
+     */
+    public void enqueue(Collection<Content> contents) {
+        Instant now = Instant.now();
+        List<MediaDeletionOutbox> entries = contents.stream()
+                .filter(content -> content.getMediaReferences() != null && !content.getMediaReferences().isEmpty())
+                .map(content -> MediaDeletionOutbox.builder()
+                        .contentId(content.getId())
+                        .mediaIds(content.getMediaReferences().stream()
+                                .map(MediaReference::getMediaId)
+                                .filter(Objects::nonNull)
+                                .distinct()
+                                .collect(Collectors.toList()))
+                        .status(MediaDeletionOutbox.Status.PENDING)
+                        .attempts(0)
+                        .nextAttemptAt(now)
+                        .createdAt(now)
+                        .build())
+                .filter(entry -> !entry.getMediaIds().isEmpty())
+                .collect(Collectors.toList());
+
+        if (entries.isEmpty()) {
+            return;
+        }
+        outboxRepository.insert(entries);
+        enqueued.increment(entries.size());
+        log.debug("Enqueued media deletion for {} content items", entries.size());
+    }
+
+    @Scheduled(fixedDelayString = "${smartmedia.outbox.drain-interval-ms:30000}", scheduler = "mediaOutboxScheduler")
+    public void drain() {
+        Instant now = Instant.now();
+        List<MediaDeletionOutbox> due = outboxRepository.findByStatusAndNextAttemptAtLessThanEqual(
+                MediaDeletionOutbox.Status.PENDING, now, PageRequest.of(0, batchSize, Sort.by("nextAttemptAt")));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Set<String> stillPresent = contentRepository.findIdsByIdIn(
+                        due.stream().map(MediaDeletionOutbox::getContentId).collect(Collectors.toSet()))
+                .stream()
+                .map(Content::getId)
+                .collect(Collectors.toSet());
+
+        List<MediaDeletionOutbox> ready = new ArrayList<>();
+        List<MediaDeletionOutbox> orphaned = new ArrayList<>();
+        List<MediaDeletionOutbox> waiting = new ArrayList<>();
+        for (MediaDeletionOutbox entry : due) {
+            if (!stillPresent.contains(entry.getContentId())) {
+                ready.add(entry);
+            } else if (entry.getCreatedAt().isBefore(now.minus(orphanAfter))) {
+                orphaned.add(entry);
+            } else {
+                entry.setNextAttemptAt(now.plus(backoffPolicy.backoff(1)));
+                waiting.add(entry);
+            }
+        }
+
+        // Fire all bulk calls first so they overlap each other and the orphan cleanup below
+        List<List<MediaDeletionOutbox>> batches = partition(ready);
+        List<CompletableFuture<String>> calls = batches.stream().map(this::bulkDeleteAsync).collect(Collectors.toList());
+
+        if (!orphaned.isEmpty()) {
+            log.warn("Discarding {} media deletion entries whose content was never deleted", orphaned.size());
+            outboxRepository.deleteAll(orphaned);
+        }
+
+        List<MediaDeletionOutbox> done = new ArrayList<>();
+        List<MediaDeletionOutbox> retry = new ArrayList<>(waiting);
+        for (int i = 0; i < batches.size(); i++) {
+            List<MediaDeletionOutbox> batch = batches.get(i);
+            String error = calls.get(i).join();
+            if (error == null) {
+                done.addAll(batch);
+            } else if (batch.size() == 1) {
+                retry.add(recordFailure(batch.getFirst(), error, now));
+            } else {
+                // Isolate the failing entries so one bad media ID doesn't hold back the rest
+                List<CompletableFuture<String>> entryCalls = batch.stream()
+                        .map(entry -> bulkDeleteAsync(List.of(entry)))
+                        .collect(Collectors.toList());
+                for (int j = 0; j < batch.size(); j++) {
+                    String entryError = entryCalls.get(j).join();
+                    if (entryError == null) {
+                        done.add(batch.get(j));
+                    } else {
+                        retry.add(recordFailure(batch.get(j), entryError, now));
+                    }
+                }
+            }
+        }
+
+        if (!done.isEmpty()) {
+            outboxRepository.deleteAll(done);
+        }
+        if (!retry.isEmpty()) {
+            outboxRepository.saveAll(retry);
+        }
+        log.info("Media outbox drained: {} deleted, {} to retry, {} orphaned", done.size(), retry.size(), orphaned.size());
+    }
+
+    /**
+     * Packs whole entries into batches of at most {@code maxIdsPerCall} media IDs.
+     * An entry larger than the limit forms a batch of its own.
+     */
+    private List<List<MediaDeletionOutbox>> partition(List<MediaDeletionOutbox> entries) {
+        List<List<MediaDeletionOutbox>> batches = new ArrayList<>();
+        List<MediaDeletionOutbox> current = new ArrayList<>();
+        int currentIds = 0;
+        for (MediaDeletionOutbox entry : entries) {
+            int ids = entry.getMediaIds().size();
+            if (!current.isEmpty() && currentIds + ids > maxIdsPerCall) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentIds = 0;
+            }
+            current.add(entry);
+            currentIds += ids;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    /**
+     * @return a future holding null on success, otherwise the failure message; it never completes exceptionally
+     */
+    private CompletableFuture<String> bulkDeleteAsync(List<MediaDeletionOutbox> batch) {
+        List<String> mediaIds = batch.stream()
+                .flatMap(entry -> entry.getMediaIds().stream())
+                .distinct()
+                .collect(Collectors.toList());
+        CompletableFuture<?>[] calls;
+        try {
+            calls = new CompletableFuture<?>[(mediaIds.size() + maxIdsPerCall - 1) / maxIdsPerCall];
+            for (int from = 0, call = 0; from < mediaIds.size(); from += maxIdsPerCall, call++) {
+                calls[call] = mediaClient.bulkDeleteMediaAsync(
+                        List.copyOf(mediaIds.subList(from, Math.min(from + maxIdsPerCall, mediaIds.size()))));
+            }
+        } catch (Exception e) {
+            calls = new CompletableFuture<?>[]{CompletableFuture.failedFuture(e)};
+        }
+        return CompletableFuture.allOf(calls).handle((ignored, error) -> {
+            if (error == null) {
+                deleted.increment(mediaIds.size());
+                return null;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            log.debug("Bulk media deletion of {} IDs failed: {}", mediaIds.size(), cause.getMessage());
+            return String.valueOf(cause.getCause() != null ? cause.getCause().getMessage() : cause.getMessage());
+        });
+    }
+
+    private MediaDeletionOutbox recordFailure(MediaDeletionOutbox entry, String error, Instant now) {
+        failed.increment();
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setLastError(error);
+        if (entry.getAttempts() >= maxAttempts) {
+            entry.setStatus(MediaDeletionOutbox.Status.POISON);
+            poisoned.increment();
+            log.error("Media deletion for content {} failed {} times, parking as poison: {}",
+                    entry.getContentId(), entry.getAttempts(), entry.getMediaIds());
+        } else {
+            entry.setNextAttemptAt(now.plus(backoffPolicy.backoff(entry.getAttempts())));
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,210 @@
+package com.smartcms.smartcontent.service;
+
+import com.smartcms.smartcommon.exception.ResourceNotFoundException;
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcommon.model.UserDetails;
+import com.smartcms.smartcontent.dto.RelatedContentRequest;
+import com.smartcms.smartcontent.model.RelatedContent;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import com.smartcms.smartcontent.repository.RelatedContentRepository;
+import com.smartcms.smartcontent.search.ContentSearchIndex;
+import com.smartcms.smartcontent.utility.ContentFields;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Related content: links added by users plus the most similar items by title, description, tags and body.
+ * Similar items are computed from the {@link ContentSearchIndex} whenever content is written and stored
+ * per item, so a lookup is a read by id rather than a similarity query. Recomputes are coalesced per item:
+ * writes made while one is queued only replace the version it will use.
+ */
+@Slf4j
+@Service
+public class RelatedContentService {
+
+    private static final int MAX_LIMIT = 50;
+    /** Fields similarity is computed from, besides those identifying the item. */
+    private static final Set<String> SIMILARITY_FIELDS = Set.of("id", "title", "description", "tags", "status",
+            "orgDetails");
+
+    private final ContentSearchIndex contentSearchIndex;
+    private final RelatedContentRepository relatedContentRepository;
+    private final ContentRepository contentRepository;
+    private final ExecutorService executor;
+    private final int maxNeighbors;
+    /** Latest written version of each item whose recompute is queued. */
+    private final ConcurrentMap<String, Content> pendingRecomputes = new ConcurrentHashMap<>();
+
+    public RelatedContentService(ContentSearchIndex contentSearchIndex,
+                                 RelatedContentRepository relatedContentRepository,
+                                 ContentRepository contentRepository,
+                                 @Qualifier("contentEventExecutor") ExecutorService executor,
+                                 @Value("${smartcontent.related.neighbors:10}") int maxNeighbors) {
+        this.contentSearchIndex = contentSearchIndex;
+        this.relatedContentRepository = relatedContentRepository;
+        this.contentRepository = contentRepository;
+        this.executor = executor;
+        this.maxNeighbors = maxNeighbors;
+    }
+
+    /**
+     * Lists the content related to an item: manual links in the order they were added, then the most
+     * similar items. Items that were deleted or moved to the bin since are skipped. Until the similar items
+     * of an item have been computed, only its manual links are listed and the computation is scheduled.
+     */
+    public List<Content> getRelatedContent(String contentId, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        RelatedContent related = relatedContentRepository.findById(contentId).orElse(null);
+        boolean computed = related != null && related.getComputedAt() != null;
+        if (!computed) {
+            // Written before related content existed, or its recompute is still queued
+            Content content = contentRepository.findProjectedById(contentId, SIMILARITY_FIELDS)
+                    .orElseThrow(() -> new ResourceNotFoundException("Content not found with id: " + contentId));
+            scheduleRecompute(content);
+        }
+
+        Set<String> ids = new LinkedHashSet<>();
+        if (related != null && related.getManual() != null) {
+            related.getManual().forEach(link -> ids.add(link.getContentId()));
+        }
+        if (computed && related.getComputed() != null) {
+            related.getComputed().forEach(neighbor -> ids.add(neighbor.getContentId()));
+        }
+        ids.remove(contentId);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Content> byId = contentRepository.findProjectedByIdIn(ids, ContentFields.LIST_FIELDS).stream()
+                .collect(Collectors.toMap(Content::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(content -> content != null && content.getStatus() != ContentStatus.DELETED)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Links {@code request.relatedContentId} to a content item; both must belong to the same org.
+     * @return {@code false} if the items were already linked
+     */
+    public boolean addRelatedContent(String contentId, RelatedContentRequest request, String linkedBy) {
+        String relatedId = request.getRelatedContentId();
+        if (contentId.equals(relatedId)) {
+            throw new IllegalArgumentException("Content cannot be related to itself");
+        }
+        Content content = contentRepository.findById(contentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Content not found with id: " + contentId));
+        Content relatedContent = contentRepository.findById(relatedId)
+                .orElseThrow(() -> new ResourceNotFoundException("Content not found with id: " + relatedId));
+        String orgId = orgId(content);
+        if (!Objects.equals(orgId, orgId(relatedContent))) {
+            throw new IllegalArgumentException("Related content must belong to the same organization");
+        }
+
+        boolean linked = relatedContentRepository.findById(contentId)
+                .map(RelatedContent::getManual)
+                .map(links -> links.stream().anyMatch(link -> relatedId.equals(link.getContentId())))
+                .orElse(false);
+        if (!linked) {
+            relatedContentRepository.addManualLink(contentId, orgId,
+                    new RelatedContent.Link(relatedId, new UserDetails(linkedBy), Instant.now()));
+        }
+        return !linked;
+    }
+
+    /**
+     * Recomputes the related content of a written item in the background, once for any number of writes
+     * made before the recompute starts.
+     */
+    public void scheduleRecompute(Content content) {
+        String contentId = content.getId();
+        if (pendingRecomputes.put(contentId, content) != null) {
+            return;
+        }
+        executor.execute(() -> {
+            Content latest = pendingRecomputes.remove(contentId);
+            try {
+                recompute(latest);
+            } catch (RuntimeException e) {
+                log.warn("Failed to recompute related content of {}", contentId, e);
+            }
+        });
+    }
+
+    /**
+     * Removes a deleted item's related content and its entries in other items' lists in the background.
+     */
+    public void scheduleRemove(String contentId) {
+        executor.execute(() -> {
+            try {
+                remove(contentId);
+            } catch (RuntimeException e) {
+                log.warn("Failed to remove related content of {}", contentId, e);
+            }
+        });
+    }
+
+    /**
+     * Stores the items most similar to {@code content} and offers it to each of them in turn, so their lists
+     * pick up new and changed content without being recomputed themselves.
+     */
+    RelatedContent recompute(Content content) {
+        String orgId = orgId(content);
+        List<String> previous = relatedContentRepository.findById(content.getId())
+                .map(RelatedContent::getComputed)
+                .map(neighbors -> neighbors.stream().map(RelatedContent.Neighbor::getContentId).toList())
+                .orElse(List.of());
+
+        List<RelatedContent.Neighbor> neighbors = content.getStatus() == ContentStatus.DELETED || orgId == null
+                ? List.of()
+                : contentSearchIndex.similar(orgId, content, maxNeighbors).stream()
+                        .map(similar -> new RelatedContent.Neighbor(similar.contentId(), similar.score()))
+                        .toList();
+        Instant now = Instant.now();
+        relatedContentRepository.saveComputed(content.getId(), orgId, neighbors, now);
+
+        Set<String> current = neighbors.stream().map(RelatedContent.Neighbor::getContentId).collect(Collectors.toSet());
+        List<String> dropped = previous.stream().filter(id -> !current.contains(id)).toList();
+        if (!dropped.isEmpty()) {
+            relatedContentRepository.removeNeighbor(dropped, content.getId());
+        }
+        relatedContentRepository.offerToNeighbors(content.getId(), neighbors, maxNeighbors);
+        log.debug("Recomputed {} related items of {}", neighbors.size(), content.getId());
+
+        RelatedContent related = relatedContentRepository.findById(content.getId()).orElse(null);
+        return related != null ? related : RelatedContent.builder()
+                .id(content.getId()).orgId(orgId).computed(neighbors).computedAt(now).build();
+    }
+
+    void remove(String contentId) {
+        relatedContentRepository.findById(contentId).ifPresent(related -> {
+            if (related.getComputed() != null && !related.getComputed().isEmpty()) {
+                relatedContentRepository.removeNeighbor(
+                        related.getComputed().stream().map(RelatedContent.Neighbor::getContentId).toList(), contentId);
+            }
+            relatedContentRepository.deleteById(contentId);
+        });
+    }
+
+    private static String orgId(Content content) {
+        return content.getOrgDetails() == null ? null : content.getOrgDetails().getOrgId();
+    }
+}
@@ -0,0 +1,34 @@
+package com.smartcms.smartcontent.service;
+
+import com.smartcms.smartcommon.model.Content;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes related content whenever content is saved or deleted.
+ * Runs after {@link com.smartcms.smartcontent.search.ContentSearchIndexer}, so the index already holds the write.
+ */
+@Component
+@RequiredArgsConstructor
+public class RelatedContentUpdater extends AbstractMongoEventListener<Content> {
+
+    private final RelatedContentService relatedContentService;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Content> event) {
+        relatedContentService.scheduleRecompute(event.getSource());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Content> event) {
+        // The id query is mapped before the event, so the id is usually an ObjectId
+        Object id = event.getSource().get("_id");
+        if (id instanceof String || id instanceof ObjectId) {
+            relatedContentService.scheduleRemove(id.toString());
+        }
+    }
+}
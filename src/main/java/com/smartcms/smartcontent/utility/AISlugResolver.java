@@ -0,0 +1,125 @@
+package com.smartcms.smartcontent.utility;
+
+import com.smartcms.smartcontent.client.SmartAIClient;
+import io.micrometer.common.util.StringUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.*;
+
+/**
+ * Resolves AI-generated slugs without blocking the request thread.
+ * Identical concurrent inputs share a single SmartAI call, and successful results are
+ * kept in a bounded TTL cache keyed by the input hash.
+ */
+@Slf4j
+@Component
+public class AISlugResolver {
+
+    private static final String LATENCY_METRIC = "smartcontent.ai.slug.latency";
+
+    private final SmartAIClient smartAIClient;
+    private final MeterRegistry meterRegistry;
+    private final Duration timeout;
+    private final TtlCache<String, String> cache;
+    private final ConcurrentMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final Counter cacheHits;
+    private final Counter coalesced;
+
+    public AISlugResolver(SmartAIClient smartAIClient,
+                          MeterRegistry meterRegistry,
+                          @Value("${smartai.slug.timeout:3s}") Duration timeout,
+                          @Value("${smartai.slug.cache.ttl:10m}") Duration cacheTtl,
+                          @Value("${smartai.slug.cache.max-size:1000}") int cacheMaxSize) {
+        this.smartAIClient = smartAIClient;
+        this.meterRegistry = meterRegistry;
+        this.timeout = timeout;
+        this.cache = new TtlCache<>(cacheMaxSize, cacheTtl);
+        this.cacheHits = meterRegistry.counter("smartcontent.ai.slug.cache.hits");
+        this.coalesced = meterRegistry.counter("smartcontent.ai.slug.coalesced");
+        meterRegistry.gauge("smartcontent.ai.slug.inflight", inFlight, ConcurrentMap::size);
+    }
+
+    /**
+     * Generate a slug for the given input asynchronously.
+     * The returned future completes exceptionally if the AI call fails or exceeds the configured timeout.
+     * @param input The description or content to use for slug generation
+     * @return A future holding the AI-generated slug
+     */
+    public CompletableFuture<String> resolve(String input) {
+        String key = hash(input);
+
+        String cached = cache.get(key);
+        if (cached != null) {
+            cacheHits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy();
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            // Timing out the call future also aborts the HTTP exchange, so no thread is left waiting on SmartAI
+            smartAIClient.generateSlugAsync(input, timeout)
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((slug, error) -> complete(key, created, sample, slug, error));
+        } catch (RuntimeException e) {
+            complete(key, created, sample, null, e);
+        }
+        return created.copy();
+    }
+
+    private void complete(String key, CompletableFuture<String> future, Timer.Sample sample,
+                          String slug, Throwable error) {
+        inFlight.remove(key, future);
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        sample.stop(meterRegistry.timer(LATENCY_METRIC, "outcome", outcome(cause)));
+
+        if (cause != null) {
+            log.warn("AI slug generation failed: {}", cause.toString());
+            future.completeExceptionally(cause);
+            return;
+        }
+        if (StringUtils.isNotBlank(slug)) {
+            cache.put(key, slug);
+        }
+        future.complete(slug);
+    }
+
+    private static String outcome(Throwable cause) {
+        if (cause == null) {
+            return "success";
+        }
+        if (cause instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return "rejected";
+        }
+        return "error";
+    }
+
+    static String hash(String input) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(String.valueOf(input).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.smartcms.smartcontent.utility;
+
+import com.smartcms.smartcommon.model.Content;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Strong entity tags for content, derived from id, version and updatedAt.
+ * Every write to a content document bumps at least one of version or updatedAt,
+ * so the tag changes whenever the representation does.
+ */
+public final class ContentETags {
+
+    private ContentETags() {
+    }
+
+    public static String of(Content content) {
+        return of(content.getId(), content.getVersion(), content.getUpdatedAt());
+    }
+
+    public static String of(String id, int version, Instant updatedAt) {
+        String source = id + ":" + version + ":" + (updatedAt != null ? updatedAt.toEpochMilli() : 0);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Checks an If-None-Match header, which uses weak comparison (RFC 9110 13.1.2).
+     */
+    public static boolean matchesIfNoneMatch(String header, String eTag) {
+        return matches(header, eTag, true);
+    }
+
+    /**
+     * Checks an If-Match header, which uses strong comparison (RFC 9110 13.1.1).
+     */
+    public static boolean matchesIfMatch(String header, String eTag) {
+        return matches(header, eTag, false);
+    }
+
+    private static boolean matches(String header, String eTag, boolean weakComparison) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                if (!weakComparison) {
+                    continue;
+                }
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,86 @@
+package com.smartcms.smartcontent.utility;
+
+import com.smartcms.smartcommon.model.Content;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Parses and applies sparse fieldsets ({@code fields=title,slug,status}) for content responses.
+ */
+public final class ContentFields {
+
+    private static final String ID = "id";
+    private static final String BODY = "body";
+
+    private static final Set<String> KNOWN_FIELDS = Arrays.stream(Content.class.getDeclaredFields())
+            .filter(field -> !Modifier.isStatic(field.getModifiers()))
+            .map(Field::getName)
+            .collect(Collectors.toUnmodifiableSet());
+
+    /**
+     * Every field except the body: what result lists read, so that large bodies are never loaded in bulk.
+     */
+    public static final Set<String> LIST_FIELDS = KNOWN_FIELDS.stream()
+            .filter(field -> !field.equals(BODY))
+            .collect(Collectors.toUnmodifiableSet());
+
+    private ContentFields() {
+    }
+
+    /**
+     * @param fields Comma-separated Content property names
+     * @return The requested fields in request order, always including {@code id}
+     * @throws IllegalArgumentException if the list is empty or names an unknown field
+     */
+    public static Set<String> parse(String fields) {
+        Set<String> parsed = new LinkedHashSet<>();
+        parsed.add(ID);
+        List<String> unknown = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (KNOWN_FIELDS.contains(name)) {
+                parsed.add(name);
+            } else {
+                unknown.add(name);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown fields: " + String.join(", ", unknown));
+        }
+        if (parsed.size() == 1 && !fields.contains(ID)) {
+            throw new IllegalArgumentException("At least one field must be requested");
+        }
+        return Collections.unmodifiableSet(parsed);
+    }
+
+    /**
+     * Like {@link #parse}, for list and batch results, which never include the body: reading it for many items at
+     * once could load megabytes of externalized bodies per request.
+     * @throws IllegalArgumentException also if the body is requested
+     */
+    public static Set<String> parseForList(String fields) {
+        Set<String> parsed = parse(fields);
+        if (parsed.contains(BODY)) {
+            throw new IllegalArgumentException("The body is only returned by single-item reads");
+        }
+        return parsed;
+    }
+
+    /**
+     * Copies only the requested properties of a (projected) content item, so nothing else is serialized.
+     */
+    public static Map<String, Object> select(Content content, Set<String> fields) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(content);
+        Map<String, Object> selected = new LinkedHashMap<>();
+        fields.forEach(field -> selected.put(field, wrapper.getPropertyValue(field)));
+        return selected;
+    }
+}
@@ -0,0 +1,159 @@
+package com.smartcms.smartcontent.utility;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of pre-serialized (and optionally pre-gzipped) JSON for PUBLISHED content.
+ * <p>
+ * Entries are keyed by content id and only served while their ETag (id, version, updatedAt)
+ * still matches the stored document, so a write on another instance can never be served stale.
+ * Local writes also evict entries eagerly through {@link PublishedContentCacheEvictor}.
+ * <p>
+ * Besides the entry count, the cache is bounded by the bytes it holds ({@code max-bytes}), and documents whose
+ * JSON exceeds {@code max-entry-size} are serialized for the response but never cached.
+ */
+@Component
+public class PublishedContentCache {
+
+    private final ObjectMapper objectMapper;
+    private final boolean gzipEnabled;
+    private final int gzipMinSize;
+    private final long maxEntrySize;
+    private final TtlCache<String, Entry> cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public PublishedContentCache(ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${smartcontent.published-cache.ttl:10m}") Duration ttl,
+                                 @Value("${smartcontent.published-cache.max-size:1000}") int maxSize,
+                                 @Value("${smartcontent.published-cache.max-bytes:64MB}") DataSize maxBytes,
+                                 @Value("${smartcontent.published-cache.max-entry-size:1MB}") DataSize maxEntrySize,
+                                 @Value("${smartcontent.published-cache.gzip:true}") boolean gzipEnabled,
+                                 @Value("${smartcontent.published-cache.gzip-min-size:1024}") int gzipMinSize) {
+        this.objectMapper = objectMapper;
+        this.gzipEnabled = gzipEnabled;
+        this.gzipMinSize = gzipMinSize;
+        this.maxEntrySize = maxEntrySize.toBytes();
+        this.cache = new TtlCache<>(maxSize, maxBytes.toBytes(), Entry::size, ttl);
+        this.hits = meterRegistry.counter("smartcontent.published.cache.hits");
+        this.misses = meterRegistry.counter("smartcontent.published.cache.misses");
+        meterRegistry.gauge("smartcontent.published.cache.size", cache, TtlCache::size);
+        meterRegistry.gauge("smartcontent.published.cache.bytes", cache, TtlCache::weight);
+    }
+
+    /**
+     * Checks for an entry of any version, without validating it. Counts a miss if there is none, since the caller
+     * then loads the document.
+     */
+    public boolean contains(String id) {
+        if (cache.get(id) != null) {
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * @return The cached representation if it was built from the document version with the given ETag, else null
+     */
+    public Entry get(String id, String eTag) {
+        Entry entry = cache.get(id);
+        if (entry != null && entry.getETag().equals(eTag)) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Serializes and caches published content, unless its JSON is larger than the maximum entry size.
+     * @return The serialized representation, or null if the content is not published
+     */
+    public Entry putIfPublished(Content content) {
+        if (content.getStatus() != ContentStatus.PUBLISHED) {
+            return null;
+        }
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(content);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize content " + content.getId(), e);
+        }
+        byte[] gzip = gzipEnabled && json.length >= gzipMinSize ? gzip(json) : null;
+        Entry entry = new Entry(ContentETags.of(content), json, gzip);
+        if (json.length <= maxEntrySize) {
+            cache.put(content.getId(), entry);
+        } else {
+            cache.invalidate(content.getId());
+        }
+        return entry;
+    }
+
+    public void evict(String id) {
+        cache.invalidate(id);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Checks whether an Accept-Encoding header allows a gzip-encoded response.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = parts.length > 1 && parts[1].trim().matches("q\\s*=\\s*0(\\.0*)?");
+            return !refused;
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final String eTag;
+        private final byte[] json;
+        /** Gzipped JSON, or null when compression is disabled or the document is small. */
+        private final byte[] gzip;
+
+        long size() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.smartcms.smartcontent.utility;
+
+import com.smartcms.smartcommon.model.Content;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts {@link PublishedContentCache} entries whenever a content document is saved or deleted.
+ * Query-based updates do not raise these events; they are covered by the cache's ETag check.
+ */
+@Component
+@RequiredArgsConstructor
+public class PublishedContentCacheEvictor extends AbstractMongoEventListener<Content> {
+
+    private final PublishedContentCache publishedContentCache;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Content> event) {
+        publishedContentCache.evict(event.getSource().getId());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Content> event) {
+        Document source = event.getSource();
+        // The id query is mapped before the event, so the id is usually an ObjectId
+        Object id = source.get("_id");
+        if (id instanceof String || id instanceof ObjectId) {
+            publishedContentCache.evict(id.toString());
+        } else {
+            // Bulk deletes by query carry no single id
+            publishedContentCache.clear();
+        }
+    }
+}
@@ -84,12 +84,20 @@ public class SlugGenerator {
 
         // Fallback: If AI-generated slug is empty, use a default slug
         if (aiGeneratedSlug == null || aiGeneratedSlug.isEmpty()) {
-            aiGeneratedSlug = "untitled-" + System.currentTimeMillis();
+            aiGeneratedSlug = generateProvisionalSlug();
         }
 
         return aiGeneratedSlug;
     }
 
+    /**
+     * Generate a placeholder slug used until an AI-generated slug is available
+     * @return A timestamp-based provisional slug
+     */
+    public String generateProvisionalSlug() {
+        return "untitled-" + System.currentTimeMillis();
+    }
+
     /**
      * Generate a unique slug for published content
      * @param title The content title
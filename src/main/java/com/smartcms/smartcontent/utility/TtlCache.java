@@ -0,0 +1,156 @@
+package com.smartcms.smartcontent.utility;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Small bounded, access-ordered cache whose entries expire after a fixed time-to-live.
+ * Intended for modest in-process caches where pulling in a cache library is not warranted.
+ * Besides the entry count, the cache can be bounded by a total weight, such as the size in bytes of its values:
+ * least recently used entries are evicted until both bounds hold.
+ * <p>
+ * Guarded by a {@link ReentrantLock} rather than {@code synchronized}: on Java 21 a virtual thread
+ * contending for a monitor pins its carrier thread, and these caches sit on hot request paths.
+ */
+public class TtlCache<K, V> {
+
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final Map<K, Entry<V>> entries;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long weight;
+
+    public TtlCache(int maxSize, Duration ttl) {
+        this(maxSize, Long.MAX_VALUE, value -> 0, ttl);
+    }
+
+    /**
+     * @param maxWeight Upper bound on the summed weight of the cached values
+     * @param weigher   Weight of a value; values heavier than {@code maxWeight} are not cached
+     */
+    public TtlCache(int maxSize, long maxWeight, ToLongFunction<V> weigher, Duration ttl) {
+        this(maxSize, maxWeight, weigher, ttl, System::nanoTime);
+    }
+
+    TtlCache(int maxSize, Duration ttl, LongSupplier ticker) {
+        this(maxSize, Long.MAX_VALUE, value -> 0, ttl, ticker);
+    }
+
+    TtlCache(int maxSize, long maxWeight, ToLongFunction<V> weigher, Duration ttl, LongSupplier ticker) {
+        if (maxSize <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                weight -= eldest.getValue().weight();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return the cached value, or null if absent or expired
+     */
+    public V get(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (ticker.getAsLong() - entry.expiresAt() >= 0) {
+                remove(key);
+                return null;
+            }
+            return entry.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(K key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        lock.lock();
+        try {
+            if (valueWeight > maxWeight) {
+                // Never cached, but must not leave an older value behind
+                remove(key);
+                return;
+            }
+            Entry<V> previous = entries.put(key, new Entry<>(value, ticker.getAsLong() + ttlNanos, valueWeight));
+            weight += valueWeight - (previous != null ? previous.weight() : 0);
+            Iterator<Entry<V>> eldest = entries.values().iterator();
+            while (weight > maxWeight) {
+                weight -= eldest.next().weight();
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            weight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The summed weight of the cached values, including expired ones not yet removed
+     */
+    public long weight() {
+        lock.lock();
+        try {
+            return weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt, long weight) {
+    }
+}
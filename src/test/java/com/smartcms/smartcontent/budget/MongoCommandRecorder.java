@@ -0,0 +1,141 @@
+package com.smartcms.smartcontent.budget;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.smartcms.smartcontent.repository.MongoCommandMetrics;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Records the MongoDB commands sent on the wire, grouped by the scope entered on the thread that sent them: the
+ * test method for {@link QueryBudget}s, or the endpoint being called in load tests. This counts what the driver
+ * actually sends, including the queries Spring Data derives, splits or adds.
+ * Import {@link Config} into the test context to register it with the MongoDB client.
+ * <p>
+ * Commands sent outside a scope, such as by async event listeners or the driver's own monitoring, are recorded
+ * under {@link #BACKGROUND}.
+ */
+public class MongoCommandRecorder implements CommandListener {
+
+    public static final String BACKGROUND = "background";
+
+    private static final Set<String> READS = Set.of("find", "getMore", "aggregate", "count", "distinct");
+    private static final Set<String> WRITES = Set.of("insert", "update", "delete", "findAndModify");
+
+    private final ThreadLocal<String> scope = new ThreadLocal<>();
+    private final ThreadLocal<Boolean> paused = ThreadLocal.withInitial(() -> false);
+    /** Per scope, the number of commands by {@code command collection}. */
+    private final Map<String, Map<String, LongAdder>> commands = new ConcurrentHashMap<>();
+
+    /**
+     * Records the current thread's commands under {@code scope} until {@link #exitScope()}.
+     */
+    public void enterScope(String scope) {
+        this.scope.set(scope);
+    }
+
+    public void exitScope() {
+        scope.remove();
+    }
+
+    /**
+     * Runs test setup or assertions whose commands should not be recorded.
+     */
+    public <T> T unrecorded(Supplier<T> action) {
+        paused.set(true);
+        try {
+            return action.get();
+        } finally {
+            paused.remove();
+        }
+    }
+
+    /**
+     * @return Commands recorded in {@code scope}, as {@code command collection}, with their counts
+     */
+    public Map<String, Long> counts(String scope) {
+        Map<String, Long> counts = new TreeMap<>();
+        commands.getOrDefault(scope, Map.of()).forEach((command, count) -> counts.put(command, count.sum()));
+        return counts;
+    }
+
+    /**
+     * @return Reads recorded in {@code scope}, once per command sent
+     */
+    public List<String> reads(String scope) {
+        return list(scope, command -> READS.contains(name(command)));
+    }
+
+    /**
+     * @return Writes recorded in {@code scope}, once per command sent
+     */
+    public List<String> writes(String scope) {
+        return list(scope, command -> WRITES.contains(name(command)));
+    }
+
+    public void reset() {
+        commands.clear();
+    }
+
+    public void reset(String scope) {
+        commands.remove(scope);
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        // Synchronous commands start on the thread that sends them
+        if (paused.get()) {
+            return;
+        }
+        String current = scope.get();
+        commands.computeIfAbsent(current != null ? current : BACKGROUND, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(describe(event), key -> new LongAdder())
+                .increment();
+    }
+
+    private List<String> list(String scope, Predicate<String> filter) {
+        List<String> list = new ArrayList<>();
+        counts(scope).forEach((command, count) -> {
+            if (filter.test(command)) {
+                list.addAll(Collections.nCopies(count.intValue(), command));
+            }
+        });
+        return list;
+    }
+
+    private static String name(String command) {
+        int space = command.indexOf(' ');
+        return space < 0 ? command : command.substring(0, space);
+    }
+
+    private static String describe(CommandStartedEvent event) {
+        String command = event.getCommandName();
+        return command + " " + MongoCommandMetrics.collection(command, event.getCommand());
+    }
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        MongoCommandRecorder mongoCommandRecorder() {
+            return new MongoCommandRecorder();
+        }
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer mongoCommandRecorderCustomizer(MongoCommandRecorder recorder) {
+            return settings -> settings.addCommandListener(recorder);
+        }
+    }
+}
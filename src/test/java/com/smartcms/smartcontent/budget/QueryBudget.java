@@ -0,0 +1,43 @@
+package com.smartcms.smartcontent.budget;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails a test if the test method makes more MongoDB reads or writes, outbound calls or service calls than
+ * budgeted, so N+1 patterns break the build instead of showing up in production.
+ * <p>
+ * Calls on the test's mock fields are classified by {@link QueryCounter}; calls made in {@code @BeforeEach}
+ * and stubbing do not count. Mocked repositories only show which methods were called, so Spring tests against
+ * the embedded MongoDB also import {@link MongoCommandRecorder.Config}, and their reads and writes are the
+ * commands actually sent.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    int UNCHECKED = -1;
+
+    int reads() default 0;
+
+    int writes() default 0;
+
+    int outbound() default 0;
+
+    /** Calls on other mocks, such as the services behind a controller; unchecked unless set. */
+    int serviceCalls() default UNCHECKED;
+
+    /**
+     * Marks a mock field whose calls go out over HTTP but whose type is not an HTTP client, e.g. a resolver
+     * wrapping one.
+     */
+    @Target(ElementType.FIELD)
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Outbound {
+    }
+}
@@ -0,0 +1,97 @@
+package com.smartcms.smartcontent.budget;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.junit.platform.commons.support.HierarchyTraversalMode;
+import org.junit.platform.commons.support.ReflectionSupport;
+import org.mockito.Mockito;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks {@link QueryBudget}s: counts calls on the test instance's mock fields while the test method runs,
+ * and in Spring tests with a {@link MongoCommandRecorder}, the MongoDB commands sent by the test thread.
+ */
+class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) throws IllegalAccessException {
+        Object testInstance = context.getRequiredTestInstance();
+        QueryCounter counter = QueryCounter.start();
+        List<Field> fields = ReflectionSupport.findFields(testInstance.getClass(), field -> true,
+                HierarchyTraversalMode.TOP_DOWN);
+        for (Field field : fields) {
+            field.setAccessible(true);
+            Object value = field.get(testInstance);
+            if (value == null || !Mockito.mockingDetails(value).isMock()) {
+                continue;
+            }
+            if (field.isAnnotationPresent(QueryBudget.Outbound.class)) {
+                counter.withOutbound(value);
+            } else {
+                counter.with(value);
+            }
+        }
+        context.getStore(NAMESPACE).put(context.getUniqueId(), counter);
+
+        MongoCommandRecorder recorder = commandRecorder(context);
+        if (recorder != null) {
+            recorder.reset(context.getUniqueId());
+            recorder.enterScope(context.getUniqueId());
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryCounter counter = context.getStore(NAMESPACE).remove(context.getUniqueId(), QueryCounter.class);
+        MongoCommandRecorder recorder = commandRecorder(context);
+        if (recorder != null) {
+            recorder.exitScope();
+        }
+        if (counter == null || context.getExecutionException().isPresent()) {
+            return;
+        }
+        QueryBudget budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), QueryBudget.class).orElseThrow();
+
+        QueryCounter.Calls calls = counter.calls();
+        if (recorder != null) {
+            calls.reads().addAll(recorder.reads(context.getUniqueId()));
+            calls.writes().addAll(recorder.writes(context.getUniqueId()));
+            recorder.reset(context.getUniqueId());
+        }
+        List<String> exceeded = new ArrayList<>();
+        check(exceeded, "reads", budget.reads(), calls.reads());
+        check(exceeded, "writes", budget.writes(), calls.writes());
+        check(exceeded, "outbound calls", budget.outbound(), calls.outbound());
+        check(exceeded, "service calls", budget.serviceCalls(), calls.serviceCalls());
+        if (!exceeded.isEmpty()) {
+            throw new AssertionFailedError("Query budget exceeded: " + String.join("; ", exceeded));
+        }
+    }
+
+    private static MongoCommandRecorder commandRecorder(ExtensionContext context) {
+        boolean springTest = AnnotationSupport.findRepeatableAnnotations(context.getRequiredTestClass(), ExtendWith.class)
+                .stream()
+                .flatMap(extendWith -> Arrays.stream(extendWith.value()))
+                .anyMatch(SpringExtension.class::equals);
+        return springTest
+                ? SpringExtension.getApplicationContext(context).getBeanProvider(MongoCommandRecorder.class).getIfAvailable()
+                : null;
+    }
+
+    private static void check(List<String> exceeded, String kind, int budget, List<String> calls) {
+        if (budget != QueryBudget.UNCHECKED && calls.size() > budget) {
+            exceeded.add(calls.size() + " " + kind + " (budget " + budget + "): " + calls);
+        }
+    }
+}
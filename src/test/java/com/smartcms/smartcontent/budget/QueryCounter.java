@@ -0,0 +1,113 @@
+package com.smartcms.smartcontent.budget;
+
+import com.smartcms.smartcontent.client.ApiInvoker;
+import org.mockito.Mockito;
+import org.mockito.invocation.Invocation;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.repository.Repository;
+import org.springframework.web.client.RestOperations;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Counts the calls made on Mockito mocks from the time it is started:
+ * <ul>
+ *     <li>Each call on a Spring Data repository or {@link MongoOperations} counts as one MongoDB command, a read
+ *     if the method name starts with a query verb ({@code find}, {@code exists}, ...) and a write otherwise</li>
+ *     <li>Calls on the HTTP clients (the client package, {@link RestOperations}, {@link HttpClient}) and on mocks
+ *     started with {@link #withOutbound} are outbound calls</li>
+ *     <li>Calls on any other mock, such as the services behind a controller, are service calls</li>
+ * </ul>
+ */
+public final class QueryCounter {
+
+    private static final List<String> READ_PREFIXES = List.of(
+            "find", "read", "get", "query", "search", "stream", "count", "exists", "aggregate");
+    /** MongoOperations methods that look like reads but modify documents. */
+    private static final List<String> WRITE_PREFIXES = List.of(
+            "findAndModify", "findAndRemove", "findAndReplace", "findAllAndRemove");
+    private static final Set<Class<?>> MONGO_TYPES = Set.of(Repository.class, MongoOperations.class);
+    private static final Set<Class<?>> HTTP_TYPES = Set.of(RestOperations.class, HttpClient.class);
+
+    /** Tracked mocks, and whether all their calls are outbound. */
+    private final Map<Object, Boolean> tracked = new IdentityHashMap<>();
+    private final Map<Object, Integer> baseline = new IdentityHashMap<>();
+
+    private QueryCounter() {
+    }
+
+    public static QueryCounter start(Object... mocks) {
+        return new QueryCounter().with(mocks);
+    }
+
+    /**
+     * Also counts calls on the given mocks, from now on.
+     */
+    public QueryCounter with(Object... mocks) {
+        for (Object mock : mocks) {
+            track(mock, false);
+        }
+        return this;
+    }
+
+    /**
+     * Also counts every call on the given mocks as an outbound call, for wrappers outside the client package.
+     */
+    public QueryCounter withOutbound(Object... mocks) {
+        for (Object mock : mocks) {
+            track(mock, true);
+        }
+        return this;
+    }
+
+    /**
+     * @return Calls made since the counter was started, as {@code Type.method}
+     */
+    public Calls calls() {
+        Calls calls = new Calls(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        tracked.forEach((mock, markedOutbound) -> {
+            Class<?> type = Mockito.mockingDetails(mock).getMockCreationSettings().getTypeToMock();
+            List<Invocation> invocations = new ArrayList<>(Mockito.mockingDetails(mock).getInvocations());
+            for (Invocation invocation : invocations.subList(baseline.get(mock), invocations.size())) {
+                if (invocation.getMethod().getDeclaringClass() == Object.class) {
+                    continue;
+                }
+                String method = invocation.getMethod().getName();
+                String call = type.getSimpleName() + "." + method;
+                if (markedOutbound || isHttpClient(type)) {
+                    calls.outbound().add(call);
+                } else if (MONGO_TYPES.stream().anyMatch(mongoType -> mongoType.isAssignableFrom(type))) {
+                    (isRead(method) ? calls.reads() : calls.writes()).add(call);
+                } else {
+                    calls.serviceCalls().add(call);
+                }
+            }
+        });
+        return calls;
+    }
+
+    private void track(Object mock, boolean markedOutbound) {
+        if (!Mockito.mockingDetails(mock).isMock()) {
+            throw new IllegalArgumentException("Not a mock: " + mock);
+        }
+        tracked.merge(mock, markedOutbound, Boolean::logicalOr);
+        baseline.putIfAbsent(mock, Mockito.mockingDetails(mock).getInvocations().size());
+    }
+
+    private static boolean isRead(String method) {
+        return WRITE_PREFIXES.stream().noneMatch(method::startsWith) && READ_PREFIXES.stream().anyMatch(method::startsWith);
+    }
+
+    private static boolean isHttpClient(Class<?> type) {
+        return type.getPackageName().equals(ApiInvoker.class.getPackageName())
+                || HTTP_TYPES.stream().anyMatch(httpType -> httpType.isAssignableFrom(type));
+    }
+
+    public record Calls(List<String> reads, List<String> writes, List<String> outbound, List<String> serviceCalls) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.smartcms.smartcontent.budget;
+
+import com.smartcms.smartcontent.client.SmartMediaClient;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import com.smartcms.smartcontent.service.ContentServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QueryCounterTest {
+
+    @Test
+    @DisplayName("Should classify mock calls as reads, writes, outbound and service calls, ignoring stubbing")
+    void testClassification() {
+        ContentRepository contentRepository = mock(ContentRepository.class);
+        MongoOperations mongoOperations = mock(MongoOperations.class);
+        SmartMediaClient mediaClient = mock(SmartMediaClient.class);
+        ContentServiceImpl contentService = mock(ContentServiceImpl.class);
+        contentRepository.findById("before");
+
+        QueryCounter counter = QueryCounter.start(contentRepository, mongoOperations, mediaClient, contentService);
+        when(contentRepository.existsById("c1")).thenReturn(true);
+        contentRepository.findById("c1");
+        contentRepository.existsById("c1");
+        contentRepository.save(null);
+        mongoOperations.findAndModify(null, null, Object.class);
+        mediaClient.toString();
+        contentService.getContentById("c1");
+        QueryCounter.Calls calls = counter.calls();
+
+        assertEquals(List.of("ContentRepository.findById", "ContentRepository.existsById"), calls.reads());
+        assertEquals(List.of("ContentRepository.save", "MongoOperations.findAndModify"), calls.writes().stream().sorted().toList());
+        assertEquals(List.of(), calls.outbound());
+        assertEquals(List.of("ContentServiceImpl.getContentById"), calls.serviceCalls());
+    }
+}
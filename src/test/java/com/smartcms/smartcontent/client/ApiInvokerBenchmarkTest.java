@@ -0,0 +1,67 @@
+package com.smartcms.smartcontent.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares fan-out throughput of the previous fixed pool of 10 platform threads against the
+ * virtual-thread executor for 1,000 concurrent blocking downstream calls of 100 ms each.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class ApiInvokerBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiInvokerBenchmarkTest.class);
+
+    private static final int CALLS = 1_000;
+    private static final long CALL_LATENCY_MS = 100;
+
+    @Test
+    @DisplayName("Virtual threads should outperform a fixed platform pool for slow downstream calls")
+    void benchmarkFanOutThroughput() {
+        double platform = measureThroughput(Executors.newFixedThreadPool(10));
+        double virtual = measureThroughput(ApiInvoker.newVirtualThreadExecutor());
+
+        log.info(String.format("ApiInvoker fan-out of %d x %d ms calls: "
+                        + "fixed(10) = %.0f calls/s, virtual = %.0f calls/s (%.1fx)",
+                CALLS, CALL_LATENCY_MS, platform, virtual, virtual / platform));
+        assertTrue(virtual > platform * 10, "virtual threads should be at least 10x faster");
+    }
+
+    private double measureThroughput(ExecutorService executor) {
+        ApiInvoker apiInvoker = ApiInvoker.builder()
+                .baseUrl("http://localhost")
+                .executorService(executor)
+                .build();
+        try {
+            Supplier<String> slowCall = () -> {
+                try {
+                    Thread.sleep(CALL_LATENCY_MS); // Stands in for a blocking HTTP round trip
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "ok";
+            };
+            List<Supplier<String>> tasks = Collections.nCopies(CALLS, slowCall);
+
+            long start = System.nanoTime();
+            apiInvoker.fanOut(tasks, Duration.ofMinutes(1), ApiInvoker.FanOutMode.FAIL_FAST);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            return CALLS / seconds;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
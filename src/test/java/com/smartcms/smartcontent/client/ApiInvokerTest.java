@@ -0,0 +1,235 @@
+package com.smartcms.smartcontent.client;
+
+import com.smartcms.smartcontent.exception.ApiException;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.HttpExchange;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiInvokerTest {
+
+    private ApiInvoker apiInvoker;
+
+    @BeforeEach
+    void setUp() {
+        apiInvoker = ApiInvoker.builder()
+                .baseUrl("http://localhost")
+                .timeout(Duration.ofSeconds(1))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        apiInvoker.destroy();
+    }
+
+    @Test
+    @DisplayName("Should record outbound calls by downstream, normalized path and status class")
+    void testExecute_RecordsCallMetrics() throws IOException {
+        HttpServer server = stubServer();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ApiInvoker invoker = instrumentedInvoker(server, meterRegistry);
+        try {
+            ApiInvoker.ApiRequest request = ApiInvoker.ApiRequest.builder()
+                    .path("/items/65a1b2c3d4e5f6a7b8c9d0e1")
+                    .method(HttpMethod.POST)
+                    .body("{}")
+                    .build();
+            assertEquals("ok", invoker.execute(request, String.class));
+            assertThrows(ApiException.class, () -> invoker.execute(request.withBody("fail"), String.class));
+
+            assertEquals(2, meterRegistry.get(OutboundCallMetrics.CALLS_METRIC)
+                    .tags("downstream", "stub", "method", "POST", "uri", "/items/{id}").timers().stream()
+                    .mapToLong(timer -> timer.count()).sum());
+            assertEquals(1.0, meterRegistry.get(OutboundCallMetrics.RESPONSES_METRIC)
+                    .tags("uri", "/items/{id}", "status_class", "2xx").counter().count());
+            assertEquals(1.0, meterRegistry.get(OutboundCallMetrics.RESPONSES_METRIC)
+                    .tags("uri", "/items/{id}", "status_class", "5xx").counter().count());
+            assertEquals(0.0, meterRegistry.get(OutboundCallMetrics.INFLIGHT_METRIC)
+                    .tags("uri", "/items/{id}").gauge().value());
+        } finally {
+            invoker.destroy();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should record proxy client calls under their declared URI template")
+    void testCreateClient_RecordsUriTemplate() throws IOException {
+        HttpServer server = stubServer();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ApiInvoker invoker = instrumentedInvoker(server, meterRegistry);
+        try {
+            ItemClient client = invoker.createClient(ItemClient.class);
+
+            assertEquals("ok", client.getItem("readable-item-name"));
+
+            assertEquals(1, meterRegistry.get(OutboundCallMetrics.CALLS_METRIC)
+                    .tags("downstream", "stub", "method", "GET", "uri", "/items/{itemId}", "status", "200")
+                    .timer().count());
+        } finally {
+            invoker.destroy();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should collapse ID-like path segments")
+    void testNormalize_CollapsesIds() {
+        assertEquals("/api/content/{id}/versions/{id}",
+                OutboundCallMetrics.normalize("/api/content/65a1b2c3d4e5f6a7b8c9d0e1/versions/3"));
+        assertEquals("/api/media/{id}",
+                OutboundCallMetrics.normalize("/api/media/123e4567-e89b-12d3-a456-426614174000"));
+        assertEquals("/api/content/slug/my-first-post", OutboundCallMetrics.normalize("/api/content/slug/my-first-post"));
+    }
+
+    @Test
+    @DisplayName("Should fetch two tasks in parallel")
+    void testFetchParallel_Success() {
+        ApiInvoker.Pair<String, Integer> result = apiInvoker.fetchParallel(() -> "first", () -> 2);
+
+        assertEquals("first", result.getFirst());
+        assertEquals(2, result.getSecond());
+    }
+
+    @Test
+    @DisplayName("Should return fan-out results in task order")
+    void testFanOut_PreservesOrder() {
+        List<Supplier<Integer>> tasks = List.of(
+                () -> sleepThen(150, 1),
+                () -> sleepThen(10, 2),
+                () -> sleepThen(80, 3));
+
+        ApiInvoker.FanOutResult<Integer> result =
+                apiInvoker.fanOut(tasks, Duration.ofSeconds(1), ApiInvoker.FanOutMode.FAIL_FAST);
+
+        assertTrue(result.isComplete());
+        assertEquals(List.of(1, 2, 3), result.getResults());
+    }
+
+    @Test
+    @DisplayName("Should fail fast and cancel stragglers when a task fails")
+    void testFanOut_FailFastCancelsStragglers() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        List<Supplier<String>> tasks = List.of(
+                () -> {
+                    // Fail only once the straggler is running, otherwise it is cancelled before it starts
+                    awaitQuietly(started);
+                    throw new IllegalStateException("downstream down");
+                },
+                () -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(5000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return "late";
+                });
+
+        ApiException exception = assertThrows(ApiException.class,
+                () -> apiInvoker.fanOut(tasks, Duration.ofSeconds(2), ApiInvoker.FanOutMode.FAIL_FAST));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getStatus());
+        assertTrue(exception.getMessage().contains("downstream down"));
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "straggler should be interrupted");
+    }
+
+    @Test
+    @DisplayName("Should throw REQUEST_TIMEOUT when fail-fast deadline passes")
+    void testFanOut_FailFastDeadline() {
+        List<Supplier<String>> tasks = List.of(() -> sleepThen(2000, "slow"));
+
+        ApiException exception = assertThrows(ApiException.class,
+                () -> apiInvoker.fanOut(tasks, Duration.ofMillis(100), ApiInvoker.FanOutMode.FAIL_FAST));
+
+        assertEquals(HttpStatus.REQUEST_TIMEOUT, exception.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should collect partial results when some tasks fail or time out")
+    void testFanOut_CollectPartial() {
+        List<Supplier<String>> tasks = List.of(
+                () -> "ok",
+                () -> {
+                    throw new IllegalStateException("boom");
+                },
+                () -> sleepThen(2000, "slow"));
+
+        ApiInvoker.FanOutResult<String> result =
+                apiInvoker.fanOut(tasks, Duration.ofMillis(200), ApiInvoker.FanOutMode.COLLECT_PARTIAL);
+
+        assertFalse(result.isComplete());
+        assertEquals("ok", result.getResults().get(0));
+        assertNull(result.getResults().get(1));
+        assertNull(result.getResults().get(2));
+        assertInstanceOf(IllegalStateException.class, result.getFailures().get(1));
+        assertInstanceOf(TimeoutException.class, result.getFailures().get(2));
+    }
+
+    private static <T> T sleepThen(long millis, T value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static HttpServer stubServer() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items", exchange -> {
+            boolean fail = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).contains("fail");
+            byte[] body = (fail ? "error" : "ok").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(fail ? 500 : 200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private static ApiInvoker instrumentedInvoker(HttpServer server, SimpleMeterRegistry meterRegistry) {
+        return ApiInvoker.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .name("stub")
+                .meterRegistry(meterRegistry)
+                .slowCallThreshold(Duration.ofMillis(1))
+                .build();
+    }
+
+    @HttpExchange("/items")
+    interface ItemClient {
+        @GetExchange("/{itemId}")
+        String getItem(@PathVariable String itemId);
+    }
+}
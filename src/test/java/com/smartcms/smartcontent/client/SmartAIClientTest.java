@@ -0,0 +1,132 @@
+package com.smartcms.smartcontent.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcms.smartcontent.config.HttpClientProperties;
+import com.smartcms.smartcontent.resilience.ResilienceProperties;
+import com.smartcms.smartcontent.resilience.ResilientExecutor;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the non-blocking SmartAI client against a local stub server.
+ */
+class SmartAIClientTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private volatile long responseDelayMillis;
+    private final CountDownLatch requestReceived = new CountDownLatch(1);
+
+    private SimpleMeterRegistry meterRegistry;
+    private SmartAIClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/api/smartai/generate-slug", exchange -> {
+            requestReceived.countDown();
+            try {
+                Thread.sleep(responseDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "ai-generated-slug".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        client = newClient("http://localhost:" + server.getAddress().getPort(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should generate slug asynchronously")
+    void testGenerateSlugAsync_Success() throws Exception {
+        CompletableFuture<String> slug = client.generateSlugAsync("Some description", Duration.ofSeconds(2));
+
+        assertEquals("ai-generated-slug", slug.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should fail with HTTP timeout when the deadline is exceeded")
+    void testGenerateSlugAsync_DeadlineExceeded() {
+        responseDelayMillis = 1000;
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> client.generateSlugAsync("Some description", Duration.ofMillis(100)).get(2, TimeUnit.SECONDS));
+
+        assertInstanceOf(HttpTimeoutException.class, exception.getCause());
+    }
+
+    @Test
+    @DisplayName("Should release the bulkhead permit when the caller cancels")
+    void testGenerateSlugAsync_Cancellation() throws Exception {
+        responseDelayMillis = 2000;
+        double permits = bulkheadAvailable();
+
+        CompletableFuture<String> slug = client.generateSlugAsync("Some description", Duration.ofSeconds(5));
+        assertTrue(requestReceived.await(1, TimeUnit.SECONDS));
+        assertEquals(permits - 1, bulkheadAvailable());
+
+        slug.cancel(true);
+
+        assertTrue(slug.isCancelled());
+        assertEquals(permits, bulkheadAvailable());
+    }
+
+    @Test
+    @DisplayName("Should keep the disabled-service slug when SmartAI is switched off")
+    void testGenerateSlugAsync_Disabled() throws Exception {
+        ReflectionTestUtils.setField(client, "enabled", false);
+
+        assertEquals(SmartAIClient.AI_UNAVAILABLE_SLUG,
+                client.generateSlugAsync("Some description").get(1, TimeUnit.SECONDS));
+        assertEquals(1, requestReceived.getCount());
+    }
+
+    private double bulkheadAvailable() {
+        return meterRegistry.get("smartcontent.resilience.bulkhead.available").gauge().value();
+    }
+
+    static SmartAIClient newClient(String baseUrl, SimpleMeterRegistry meterRegistry) {
+        ResilienceProperties resilienceProperties = new ResilienceProperties();
+        resilienceProperties.getRetry().setMaxAttempts(1);
+        HttpClientProperties httpClientProperties = new HttpClientProperties();
+
+        SmartAIClient client = new SmartAIClient(
+                new RestTemplate(),
+                new ResilientExecutor("smartai", resilienceProperties, meterRegistry),
+                HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build(),
+                new ObjectMapper(),
+                httpClientProperties);
+        ReflectionTestUtils.setField(client, "smartAIBaseUrl", baseUrl);
+        ReflectionTestUtils.setField(client, "enabled", true);
+        return client;
+    }
+}
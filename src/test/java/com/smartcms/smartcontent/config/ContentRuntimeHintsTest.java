@@ -0,0 +1,157 @@
+package com.smartcms.smartcontent.config;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcontent.SmartContentApplication;
+import com.smartcms.smartcontent.model.RelatedContent;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.interceptor.TransactionalProxy;
+import org.springframework.util.ClassUtils;
+
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new ContentRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("Should be imported by the application")
+    void testImported() {
+        ImportRuntimeHints imported = SmartContentApplication.class.getAnnotation(ImportRuntimeHints.class);
+        assertNotNull(imported);
+        assertArrayEquals(new Class<?>[]{ContentRuntimeHints.class}, imported.value());
+    }
+
+    @Test
+    @DisplayName("Should list every DTO, document and repository")
+    void testComplete() throws Exception {
+        Set<Class<?>> dtos = scan("com.smartcms.smartcontent.dto", (reader, factory) -> true);
+        assertTrue(ContentRuntimeHints.JSON_TYPES.containsAll(dtos), () -> "Missing DTOs: " + missing(dtos,
+                ContentRuntimeHints.JSON_TYPES));
+
+        Set<Class<?>> documents = scan("com.smartcms.smartcontent.model", new AnnotationTypeFilter(Document.class));
+        assertTrue(ContentRuntimeHints.DOCUMENTS.containsAll(documents), () -> "Missing documents: "
+                + missing(documents, ContentRuntimeHints.DOCUMENTS));
+        // Embedded types are mapped like documents
+        for (Class<?> document : ContentRuntimeHints.DOCUMENTS) {
+            for (Class<?> embedded : applicationTypes(document)) {
+                assertTrue(embedded.isEnum() || ContentRuntimeHints.DOCUMENTS.contains(embedded),
+                        () -> "Missing embedded type " + embedded.getName() + " of " + document.getName());
+            }
+        }
+
+        Set<Class<?>> repositories = scan("com.smartcms.smartcontent.repository",
+                new AssignableTypeFilter(Repository.class));
+        assertEquals(Set.copyOf(ContentRuntimeHints.REPOSITORIES), repositories);
+    }
+
+    @Test
+    @DisplayName("Should register the properties of the JSON types for binding, down to nested types")
+    void testJsonTypes() throws Exception {
+        for (Class<?> type : ContentRuntimeHints.JSON_TYPES) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(type).test(hints), type::getName);
+            if (type.isEnum() || type.isRecord()) {
+                continue;
+            }
+            for (PropertyDescriptor property : Introspector.getBeanInfo(type, Object.class).getPropertyDescriptors()) {
+                if (property.getReadMethod() != null) {
+                    assertTrue(RuntimeHintsPredicates.reflection().onMethod(property.getReadMethod()).test(hints),
+                            () -> type.getSimpleName() + "." + property.getReadMethod().getName());
+                }
+                if (property.getWriteMethod() != null) {
+                    assertTrue(RuntimeHintsPredicates.reflection().onMethod(property.getWriteMethod()).test(hints),
+                            () -> type.getSimpleName() + "." + property.getWriteMethod().getName());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should register document fields, constructors and accessors for mapping and sparse fieldsets")
+    void testDocuments() throws Exception {
+        for (Field field : Content.class.getDeclaredFields()) {
+            assertTrue(RuntimeHintsPredicates.reflection().onField(field).test(hints), field::getName);
+        }
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(Content.class.getDeclaredConstructor())
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Content.class, "getTitle").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onField(RelatedContent.Neighbor.class, "score").test(hints));
+    }
+
+    @Test
+    @DisplayName("Should register the repository proxies as created with the method metrics advice")
+    void testRepositories() {
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(ContentRepository.class, Repository.class,
+                TransactionalProxy.class, SpringProxy.class, Advised.class, DecoratingProxy.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ContentRepository.class,
+                "findByStatusAndScheduledPublishAtBetween").test(hints));
+    }
+
+    private static Set<Class<?>> scan(String basePackage, TypeFilter filter) throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                // Interfaces and enums as well as classes; Lombok builders are not bound
+                return !beanDefinition.getMetadata().getClassName().endsWith("Builder");
+            }
+        };
+        scanner.addIncludeFilter(filter);
+        List<Class<?>> types = new ArrayList<>();
+        for (var candidate : scanner.findCandidateComponents(basePackage)) {
+            types.add(ClassUtils.forName(candidate.getBeanClassName(), ContentRuntimeHintsTest.class.getClassLoader()));
+        }
+        return Set.copyOf(types);
+    }
+
+    /**
+     * @return Types of the application and smart-common among the field types of the given type, including
+     * the element types of collections
+     */
+    private static Set<Class<?>> applicationTypes(Class<?> type) {
+        return Stream.of(type.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(ResolvableType::forField)
+                .flatMap(fieldType -> Stream.concat(Stream.of(fieldType), Stream.of(fieldType.getGenerics())))
+                .map(ResolvableType::resolve)
+                .filter(resolved -> resolved != null && resolved.getName().startsWith("com.smartcms."))
+                .collect(Collectors.toSet());
+    }
+
+    private static String missing(Set<Class<?>> expected, List<Class<?>> listed) {
+        return expected.stream()
+                .filter(type -> !listed.contains(type))
+                .map(Class::getName)
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,47 @@
+package com.smartcms.smartcontent.config;
+
+import com.smartcms.smartcontent.profiling.ProfilingEndpoint;
+import com.smartcms.smartcontent.profiling.ProfilingSummaryRecorder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProfilingConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class))
+            .withUserConfiguration(ProfilingConfig.class);
+
+    @Test
+    @DisplayName("Should not sample while the profiling endpoint is unavailable")
+    void testNoRecorderWithoutEndpoint() {
+        contextRunner.run(context -> {
+            assertThat(context).doesNotHaveBean(ProfilingEndpoint.class);
+            assertThat(context).doesNotHaveBean(ProfilingSummaryRecorder.class);
+        });
+        contextRunner.withPropertyValues("management.endpoint.profiling.enabled=true")
+                .run(context -> assertThat(context).doesNotHaveBean(ProfilingSummaryRecorder.class));
+    }
+
+    @Test
+    @DisplayName("Should sample for the summary once the endpoint is enabled and exposed, unless turned off")
+    void testRecorderWithEndpoint() {
+        ApplicationContextRunner withEndpoint = contextRunner.withPropertyValues(
+                "management.endpoint.profiling.enabled=true",
+                "management.endpoints.web.exposure.include=profiling");
+
+        withEndpoint.run(context -> {
+            assertThat(context).hasSingleBean(ProfilingEndpoint.class);
+            assertThat(context).hasSingleBean(ProfilingSummaryRecorder.class);
+        });
+        withEndpoint.withPropertyValues("smartcontent.profiling.summary.enabled=false")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(ProfilingEndpoint.class);
+                    assertThat(context).doesNotHaveBean(ProfilingSummaryRecorder.class);
+                });
+    }
+}
@@ -0,0 +1,142 @@
+package com.smartcms.smartcontent.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RestTemplateConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class,
+                    RestTemplateAutoConfiguration.class))
+            .withUserConfiguration(RestTemplateConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    @Test
+    @DisplayName("Should bind each downstream's settings separately and keep defaults for the rest")
+    void testBinding() {
+        contextRunner.withPropertyValues(
+                        "smartmedia.http.connect-timeout=300ms",
+                        "smartmedia.http.read-timeout=700ms",
+                        "smartmedia.http.max-connections=7",
+                        "smartmedia.http.max-connections-per-route=3",
+                        "smartai.http.read-timeout=9s",
+                        "smartai.http.keep-alive=1m")
+                .run(context -> {
+                    HttpClientProperties media = context.getBean("mediaHttpClientProperties", HttpClientProperties.class);
+                    assertThat(media.getConnectTimeout()).isEqualTo(Duration.ofMillis(300));
+                    assertThat(media.getReadTimeout()).isEqualTo(Duration.ofMillis(700));
+                    assertThat(media.getMaxConnections()).isEqualTo(7);
+                    assertThat(media.getMaxConnectionsPerRoute()).isEqualTo(3);
+                    assertThat(media.getKeepAlive()).isEqualTo(Duration.ofSeconds(30));
+
+                    HttpClientProperties ai = context.getBean("aiHttpClientProperties", HttpClientProperties.class);
+                    assertThat(ai.getConnectTimeout()).isEqualTo(Duration.ofSeconds(2));
+                    assertThat(ai.getReadTimeout()).isEqualTo(Duration.ofSeconds(9));
+                    assertThat(ai.getKeepAlive()).isEqualTo(Duration.ofMinutes(1));
+                    assertThat(ai.getMaxConnections()).isEqualTo(50);
+                });
+    }
+
+    @Test
+    @DisplayName("Should size each downstream's connection pool from its own settings")
+    void testPoolSizes() {
+        contextRunner.withPropertyValues(
+                        "smartmedia.http.max-connections=7",
+                        "smartmedia.http.max-connections-per-route=3",
+                        "smartai.http.max-connections=11",
+                        "smartai.http.max-connections-per-route=5")
+                .run(context -> {
+                    MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+                    assertThat(poolGauge(meterRegistry, "total.max", "smartmedia")).isEqualTo(7);
+                    assertThat(poolGauge(meterRegistry, "route.max.default", "smartmedia")).isEqualTo(3);
+                    assertThat(poolGauge(meterRegistry, "total.max", "smartai")).isEqualTo(11);
+                    assertThat(poolGauge(meterRegistry, "route.max.default", "smartai")).isEqualTo(5);
+                });
+    }
+
+    @Test
+    @DisplayName("Should give up on a response after the downstream's read timeout")
+    void testReadTimeout() throws IOException {
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            // Accepts the connection but never answers
+            Thread.ofVirtual().start(() -> {
+                try (Socket ignored = server.accept()) {
+                    Thread.sleep(Duration.ofSeconds(10));
+                } catch (IOException | InterruptedException e) {
+                    // Test finished
+                }
+            });
+            contextRunner.withPropertyValues("smartmedia.http.read-timeout=200ms")
+                    .run(context -> {
+                        RestTemplate restTemplate = context.getBean("mediaRestTemplate", RestTemplate.class);
+                        long start = System.nanoTime();
+                        assertThatThrownBy(() -> restTemplate.getForObject(url(server), String.class))
+                                .isInstanceOf(ResourceAccessException.class)
+                                .hasRootCauseInstanceOf(SocketTimeoutException.class);
+                        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+                    });
+        }
+    }
+
+    @Test
+    @DisplayName("Should give up on connecting after the downstream's connect timeout")
+    void testConnectTimeout() throws IOException {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            // Never accepting with a full backlog: further connection attempts are left unanswered
+            List<Socket> backlog = new ArrayList<>();
+            try {
+                for (int i = 0; i < 3; i++) {
+                    Socket socket = new Socket();
+                    try {
+                        socket.connect(server.getLocalSocketAddress(), 200);
+                    } catch (SocketTimeoutException e) {
+                        // Backlog already full
+                    }
+                    backlog.add(socket);
+                }
+                contextRunner.withPropertyValues("smartmedia.http.connect-timeout=200ms")
+                        .run(context -> {
+                            RestTemplate restTemplate = context.getBean("mediaRestTemplate", RestTemplate.class);
+                            long start = System.nanoTime();
+                            assertThatThrownBy(() -> restTemplate.getForObject(url(server), String.class))
+                                    .isInstanceOf(ResourceAccessException.class)
+                                    .hasCauseInstanceOf(ConnectTimeoutException.class);
+                            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+                        });
+            } finally {
+                for (Socket socket : backlog) {
+                    socket.close();
+                }
+            }
+        }
+    }
+
+    private static double poolGauge(MeterRegistry meterRegistry, String name, String client) {
+        return meterRegistry.get("httpcomponents.httpclient.pool." + name).tag("httpclient", client).gauge().value();
+    }
+
+    private static String url(ServerSocket server) {
+        return "http://localhost:" + server.getLocalPort() + "/";
+    }
+}
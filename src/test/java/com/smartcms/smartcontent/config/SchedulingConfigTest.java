@@ -0,0 +1,55 @@
+package com.smartcms.smartcontent.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchedulingConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TaskSchedulingAutoConfiguration.class))
+            .withUserConfiguration(SchedulingConfig.class)
+            .withBean(Jobs.class);
+
+    @Test
+    @DisplayName("Should run the outbox drainer on its own scheduler, apart from the other jobs")
+    void testSeparateSchedulers() {
+        contextRunner.run(context -> assertSchedulerThreads(context.getBean(Jobs.class)));
+    }
+
+    @Test
+    @DisplayName("Should keep the schedulers separate with virtual threads")
+    void testSeparateSchedulersWithVirtualThreads() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> assertSchedulerThreads(context.getBean(Jobs.class)));
+    }
+
+    private static void assertSchedulerThreads(Jobs jobs) throws Exception {
+        assertThat(jobs.defaultThread.get(5, TimeUnit.SECONDS)).startsWith("scheduling-");
+        assertThat(jobs.outboxThread.get(5, TimeUnit.SECONDS)).startsWith("media-outbox-");
+    }
+
+    static class Jobs {
+
+        final CompletableFuture<String> defaultThread = new CompletableFuture<>();
+        final CompletableFuture<String> outboxThread = new CompletableFuture<>();
+
+        @Scheduled(fixedDelay = 60000)
+        void job() {
+            defaultThread.complete(Thread.currentThread().getName());
+        }
+
+        @Scheduled(fixedDelay = 60000, scheduler = "mediaOutboxScheduler")
+        void drain() {
+            outboxThread.complete(Thread.currentThread().getName());
+        }
+    }
+}
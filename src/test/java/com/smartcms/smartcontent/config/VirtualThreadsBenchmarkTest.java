@@ -0,0 +1,237 @@
+package com.smartcms.smartcontent.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcontent.resilience.CircuitBreaker;
+import com.smartcms.smartcontent.resilience.ResilienceProperties;
+import com.smartcms.smartcontent.utility.ContentETags;
+import com.smartcms.smartcontent.utility.PublishedContentCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.consumer.RecordingStream;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatVirtualThreadsWebServerFactoryCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.util.unit.DataSize;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares request handling on Tomcat's default pool of 200 platform threads against virtual threads
+ * ({@code spring.threads.virtual.enabled=true}) with 2,000 concurrent keep-alive clients.
+ * Each request takes the published-content read path: a version lookup and downstream wait (simulated
+ * as 200 ms of blocking), a circuit breaker permit and a published-content cache hit. A JFR stream counts
+ * {@code jdk.VirtualThreadPinned} events during the virtual-thread run.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class VirtualThreadsBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsBenchmarkTest.class);
+
+    private static final int CLIENTS = 2_000;
+    private static final long BLOCKING_MS = 200;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(10);
+    private static final String CONTENT_ID = "content1";
+
+    @Test
+    @DisplayName("Virtual threads should beat the platform pool on throughput and p99 latency at 2,000 clients")
+    void benchmarkRequestHandling() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        log.info(String.format("%d clients, %d ms blocking per request:", CLIENTS, BLOCKING_MS));
+        log.info(String.format("  platform(200): %.0f req/s, p50 = %d ms, p99 = %d ms",
+                platform.throughput(), platform.p50Millis(), platform.p99Millis()));
+        log.info(String.format("  virtual:       %.0f req/s, p50 = %d ms, p99 = %d ms, pinned events = %d",
+                virtual.throughput(), virtual.p50Millis(), virtual.p99Millis(), virtual.pinnedEvents()));
+
+        assertEquals(0, platform.errors() + virtual.errors(), "all requests should succeed");
+        assertTrue(virtual.throughput() > platform.throughput() * 1.5, "virtual threads should raise throughput");
+        assertTrue(virtual.p99Millis() < platform.p99Millis(), "virtual threads should lower p99 latency");
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        factory.addConnectorCustomizers(connector -> {
+            AbstractHttp11Protocol<?> protocol = (AbstractHttp11Protocol<?>) connector.getProtocolHandler();
+            protocol.setMaxKeepAliveRequests(-1);
+            protocol.setAcceptCount(CLIENTS);
+        });
+        if (virtualThreads) {
+            new TomcatVirtualThreadsWebServerFactoryCustomizer().customize(factory);
+        }
+        WebServer server = factory.getWebServer(context ->
+                context.addServlet("content", new PublishedContentServlet()).addMapping("/content/*"));
+        server.start();
+
+        AtomicLong pinned = new AtomicLong();
+        try (RecordingStream recording = new RecordingStream();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.incrementAndGet());
+            recording.startAsync();
+
+            long warmupEnd = System.nanoTime() + WARMUP.toNanos();
+            long measureEnd = warmupEnd + MEASUREMENT.toNanos();
+            AtomicInteger errors = new AtomicInteger();
+            List<Future<long[]>> latencies = new ArrayList<>(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                latencies.add(clients.submit(() -> runClient(server.getPort(), warmupEnd, measureEnd, errors)));
+            }
+            long[] all = latencies.stream().map(VirtualThreadsBenchmarkTest::join).flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(all.length / (MEASUREMENT.toNanos() / 1e9), percentile(all, 0.50), percentile(all, 0.99),
+                    errors.get(), pinned.get());
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * One keep-alive client issuing requests back to back; returns the latencies (ns) recorded after the warmup.
+     */
+    private static long[] runClient(int port, long warmupEnd, long measureEnd, AtomicInteger errors) {
+        long[] latencies = new long[256];
+        int count = 0;
+        byte[] request = ("GET /content/" + CONTENT_ID + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            long now;
+            while ((now = System.nanoTime()) < measureEnd) {
+                out.write(request);
+                out.flush();
+                if (readResponse(in) != 200) {
+                    errors.incrementAndGet();
+                }
+                if (now >= warmupEnd) {
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - now;
+                }
+            }
+        } catch (IOException e) {
+            errors.incrementAndGet();
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static int readResponse(InputStream in) throws IOException {
+        String statusLine = readLine(in);
+        int contentLength = 0;
+        for (String header = readLine(in); !header.isEmpty(); header = readLine(in)) {
+            if (header.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                contentLength = Integer.parseInt(header.substring(15).trim());
+            }
+        }
+        in.readNBytes(contentLength);
+        return Integer.parseInt(statusLine.split(" ")[1]);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c == -1) {
+                throw new EOFException("Connection closed");
+            }
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+
+    private static long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    /**
+     * Stands in for GET /api/v1/content/{id} on published content.
+     */
+    private static class PublishedContentServlet extends HttpServlet {
+
+        private final PublishedContentCache cache = new PublishedContentCache(
+                new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry(),
+                Duration.ofMinutes(10), 1000, DataSize.ofMegabytes(64), DataSize.ofMegabytes(1), true, 1024);
+        private final CircuitBreaker circuitBreaker = new CircuitBreaker("mongo", new ResilienceProperties.CircuitBreaker());
+        private final String eTag;
+
+        PublishedContentServlet() {
+            Content content = Content.builder()
+                    .id(CONTENT_ID)
+                    .title("Published")
+                    .body("x".repeat(4096))
+                    .status(ContentStatus.PUBLISHED)
+                    .version(1)
+                    .updatedAt(Instant.parse("2024-01-01T00:00:00Z"))
+                    .build();
+            eTag = ContentETags.of(content);
+            cache.putIfPublished(content);
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+            if (permit == null) {
+                response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                return;
+            }
+            try {
+                Thread.sleep(BLOCKING_MS); // Mongo version lookup and downstream round trips
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            permit.onSuccess();
+
+            PublishedContentCache.Entry entry = cache.get(CONTENT_ID, eTag);
+            response.setContentType("application/json");
+            response.setContentLength(entry.getJson().length);
+            response.getOutputStream().write(entry.getJson());
+        }
+    }
+
+    private record Result(double throughput, long p50Nanos, long p99Nanos, int errors, long pinnedEvents) {
+
+        long p50Millis() {
+            return TimeUnit.NANOSECONDS.toMillis(p50Nanos);
+        }
+
+        long p99Millis() {
+            return TimeUnit.NANOSECONDS.toMillis(p99Nanos);
+        }
+    }
+}
@@ -5,11 +5,20 @@ import com.smartcms.smartcommon.model.Content;
 import com.smartcms.smartcommon.model.ContentStatus;
 import com.smartcms.smartcommon.model.ContentType;
 import com.smartcms.smartcommon.model.UserDetails;
+import com.smartcms.smartcontent.budget.QueryBudget;
 import com.smartcms.smartcontent.dto.*;
+import com.smartcms.smartcontent.exception.GlobalExceptionHandler;
 import com.smartcms.smartcontent.model.ContentStatusAudit;
 import com.smartcms.smartcontent.model.PaginatedResponse;
 import com.smartcms.smartcontent.model.RollbackField;
+import com.smartcms.smartcontent.search.TagCount;
+import com.smartcms.smartcontent.search.TagMatch;
+import com.smartcms.smartcontent.service.ContentExportService;
+import com.smartcms.smartcontent.service.ContentSearchService;
 import com.smartcms.smartcontent.service.ContentServiceImpl;
+import com.smartcms.smartcontent.service.RelatedContentService;
+import com.smartcms.smartcontent.utility.ContentETags;
+import com.smartcms.smartcontent.utility.PublishedContentCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,8 +28,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -38,6 +50,18 @@ class ContentControllerTest {
     @Mock
     private ContentServiceImpl contentService;
 
+    @Mock
+    private ContentExportService contentExportService;
+
+    @Mock
+    private PublishedContentCache publishedContentCache;
+
+    @Mock
+    private ContentSearchService contentSearchService;
+
+    @Mock
+    private RelatedContentService relatedContentService;
+
     @InjectMocks
     private ContentController contentController;
 
@@ -87,6 +111,7 @@ class ContentControllerTest {
 
     @Test
     @DisplayName("Should create content successfully")
+    @QueryBudget(serviceCalls = 1)
     void testCreateContent() throws Exception {
         when(contentService.createContent(any(ContentRequest.class), eq(USER_ID), eq(ORG_ID)))
                 .thenReturn(testContent);
@@ -104,20 +129,252 @@ class ContentControllerTest {
     }
 
     @Test
-    @DisplayName("Should get content by ID")
+    @DisplayName("Should get content by ID with a single read and no version lookup when nothing is cached")
+    @QueryBudget(serviceCalls = 3)
     void testGetContentById() throws Exception {
         when(contentService.getContentById(CONTENT_ID)).thenReturn(testContent);
 
         mockMvc.perform(get("/api/v1/content/{contentId}", CONTENT_ID))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ContentETags.of(testContent)))
                 .andExpect(jsonPath("$.id", is(CONTENT_ID)))
                 .andExpect(jsonPath("$.title", is("Test Title")));
 
         verify(contentService).getContentById(CONTENT_ID);
+        verify(contentService, never()).getContentETag(any());
+        verify(publishedContentCache).putIfPublished(testContent);
+    }
+
+    @Test
+    @DisplayName("Should write cached published content bytes without loading the document")
+    @QueryBudget(serviceCalls = 6)
+    void testGetContentById_CachedPublished() throws Exception {
+        String eTag = ContentETags.of(testContent);
+        byte[] json = "{\"id\":\"content789\",\"title\":\"Test Title\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] gzip = {31, -117, 8, 0};
+        when(publishedContentCache.contains(CONTENT_ID)).thenReturn(true);
+        when(contentService.getContentETag(CONTENT_ID)).thenReturn(eTag);
+        when(publishedContentCache.get(CONTENT_ID, eTag)).thenReturn(new PublishedContentCache.Entry(eTag, json, gzip));
+
+        mockMvc.perform(get("/api/v1/content/{contentId}", CONTENT_ID))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(jsonPath("$.title", is("Test Title")));
+
+        mockMvc.perform(get("/api/v1/content/{contentId}", CONTENT_ID)
+                        .header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(content().bytes(gzip));
+
+        verify(contentService, never()).getContentById(any());
+    }
+
+    @Test
+    @DisplayName("Should return 304 without loading content when ETag matches")
+    @QueryBudget(serviceCalls = 1)
+    void testGetContentById_NotModified() throws Exception {
+        String eTag = ContentETags.of(testContent);
+        when(contentService.getContentETag(CONTENT_ID)).thenReturn(eTag);
+
+        mockMvc.perform(get("/api/v1/content/{contentId}", CONTENT_ID)
+                        .header("If-None-Match", "W/" + eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+
+        verify(contentService, never()).getContentById(any());
+    }
+
+    @Test
+    @DisplayName("Should return full content when ETag is stale")
+    @QueryBudget(serviceCalls = 4)
+    void testGetContentById_StaleETag() throws Exception {
+        when(contentService.getContentETag(CONTENT_ID)).thenReturn(ContentETags.of(testContent));
+        when(contentService.getContentById(CONTENT_ID)).thenReturn(testContent);
+
+        mockMvc.perform(get("/api/v1/content/{contentId}", CONTENT_ID)
+                        .header("If-None-Match", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(CONTENT_ID)));
+    }
+
+    @Test
+    @DisplayName("Should return only requested fields for content by ID")
+    @QueryBudget(serviceCalls = 1)
+    void testGetContentById_SparseFields() throws Exception {
+        Content projected = Content.builder().id(CONTENT_ID).title("Test Title").slug("test-title").build();
+        when(contentService.getContentById(CONTENT_ID, Set.of("id", "title", "slug"))).thenReturn(projected);
+
+        mockMvc.perform(get("/api/v1/content/{contentId}", CONTENT_ID).param("fields", "title,slug"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(CONTENT_ID)))
+                .andExpect(jsonPath("$.title", is("Test Title")))
+                .andExpect(jsonPath("$.slug", is("test-title")))
+                .andExpect(jsonPath("$.body").doesNotExist())
+                .andExpect(jsonPath("$.version").doesNotExist());
+
+        verify(contentService, never()).getContentById(CONTENT_ID);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown field names")
+    @QueryBudget(serviceCalls = 0)
+    void testGetContentById_UnknownField() throws Exception {
+        MockMvc mockMvcWithAdvice = MockMvcBuilders.standaloneSetup(contentController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        mockMvcWithAdvice.perform(get("/api/v1/content/{contentId}", CONTENT_ID).param("fields", "title,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown fields: password"));
+
+        verifyNoInteractions(contentService);
+    }
+
+    @Test
+    @DisplayName("Should list organization content with sparse fields")
+    @QueryBudget(serviceCalls = 1)
+    void testListOrgContent_SparseFields() throws Exception {
+        Content projected = Content.builder().id(CONTENT_ID).status(ContentStatus.DRAFT).build();
+        when(contentService.getOrgContent(eq(ORG_ID), eq(0), eq(20), isNull(), eq(Set.of("id", "status"))))
+                .thenReturn(new PaginatedResponse<>(List.of(projected), 0, 20, 1, 1, true));
+
+        mockMvc.perform(get("/api/v1/content/org")
+                        .header("X-Org-Id", ORG_ID)
+                        .param("fields", "status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(CONTENT_ID)))
+                .andExpect(jsonPath("$.content[0].status", is("DRAFT")))
+                .andExpect(jsonPath("$.content[0].title").doesNotExist())
+                .andExpect(jsonPath("$.totalElements", is(1)));
+    }
+
+    @Test
+    @DisplayName("Should search organization content with filters")
+    @QueryBudget(serviceCalls = 1)
+    void testSearchContent() throws Exception {
+        when(contentSearchService.searchContent(ORG_ID, "test title", ContentType.ARTICLE, ContentStatus.DRAFT, 1, 10))
+                .thenReturn(new PaginatedResponse<>(List.of(testContent), 1, 10, 11, 2, true));
+
+        mockMvc.perform(get("/api/v1/content/search")
+                        .header("X-Org-Id", ORG_ID)
+                        .param("query", "test title")
+                        .param("contentType", "ARTICLE")
+                        .param("status", "DRAFT")
+                        .param("page", "1")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(CONTENT_ID)))
+                .andExpect(jsonPath("$.totalElements", is(11)));
+    }
+
+    @Test
+    @DisplayName("Should list top tags and content matching any of the given tags")
+    @QueryBudget(serviceCalls = 2)
+    void testTags() throws Exception {
+        when(contentSearchService.getTopTags(ORG_ID, 5)).thenReturn(List.of(new TagCount("tag1", 3), new TagCount("tag2", 1)));
+        when(contentSearchService.getContentByTags(ORG_ID, List.of("tag1", "tag2"), TagMatch.ANY, 0, 20))
+                .thenReturn(new PaginatedResponse<>(List.of(testContent), 0, 20, 1, 1, true));
+
+        mockMvc.perform(get("/api/v1/content/tags/top").header("X-Org-Id", ORG_ID).param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].tag", is("tag1")))
+                .andExpect(jsonPath("$[0].count", is(3)));
+
+        mockMvc.perform(get("/api/v1/content/tags")
+                        .header("X-Org-Id", ORG_ID)
+                        .param("tags", "tag1,tag2")
+                        .param("match", "ANY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(CONTENT_ID)));
+    }
+
+    @Test
+    @DisplayName("Should link related content once and list it")
+    @QueryBudget(serviceCalls = 3)
+    void testRelatedContent() throws Exception {
+        when(relatedContentService.addRelatedContent(eq(CONTENT_ID), any(RelatedContentRequest.class), eq(USER_ID)))
+                .thenReturn(true, false);
+        when(relatedContentService.getRelatedContent(CONTENT_ID, 5)).thenReturn(List.of(testContent));
+        String body = objectMapper.writeValueAsString(new RelatedContentRequest("other123"));
+
+        mockMvc.perform(post("/api/v1/content/{contentId}/related", CONTENT_ID)
+                        .header("X-User-Id", USER_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/v1/content/{contentId}/related", CONTENT_ID)
+                        .header("X-User-Id", USER_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/content/{contentId}/related", CONTENT_ID).param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(CONTENT_ID)));
+    }
+
+    @Test
+    @DisplayName("Should stream organization content as NDJSON")
+    @QueryBudget(serviceCalls = 2)
+    void testExportOrgContent() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(5);
+            out.write("{\"id\":\"content789\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(contentExportService).exportOrgContent(eq(ORG_ID), eq(ContentStatus.PUBLISHED), isNull(), isNull(),
+                eq(Set.of("id", "title")), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/content/export")
+                        .header("X-Org-Id", ORG_ID)
+                        .param("status", "PUBLISHED")
+                        .param("fields", "title"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":\"content789\"}\n"));
+        verify(contentExportService).validateExport(ORG_ID, null, null);
+    }
+
+    @Test
+    @DisplayName("Should resolve a batch of content IDs")
+    @QueryBudget(serviceCalls = 1)
+    void testGetContentByIds() throws Exception {
+        when(contentService.getContentByIds(List.of(CONTENT_ID, "missing1"), null))
+                .thenReturn(new ContentBatchResponse<>(List.of(testContent), List.of("missing1")));
+
+        mockMvc.perform(get("/api/v1/content/batch").param("ids", CONTENT_ID + ",missing1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(CONTENT_ID)))
+                .andExpect(jsonPath("$.missing[0]", is("missing1")));
+    }
+
+    @Test
+    @DisplayName("Should reject the body as a batch field")
+    @QueryBudget(serviceCalls = 0)
+    void testGetContentByIds_BodyField() throws Exception {
+        MockMvc mockMvcWithAdvice = MockMvcBuilders.standaloneSetup(contentController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        mockMvcWithAdvice.perform(get("/api/v1/content/batch").param("ids", CONTENT_ID).param("fields", "title,body"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(contentService);
     }
 
     @Test
     @DisplayName("Should list organization content")
+    @QueryBudget(serviceCalls = 1)
     void testListOrgContent() throws Exception {
         List<Content> contentList = List.of(testContent);
         PaginatedResponse<Content> paginatedResponse = new PaginatedResponse<>(
@@ -141,6 +398,7 @@ class ContentControllerTest {
 
     @Test
     @DisplayName("Should update content")
+    @QueryBudget(serviceCalls = 1)
     void testUpdateContent() throws Exception {
         Content updatedContent = Content.builder()
                 .id(CONTENT_ID)
@@ -150,7 +408,7 @@ class ContentControllerTest {
                 .version(2)
                 .build();
 
-        when(contentService.updateContent(eq(CONTENT_ID), any(ContentUpdateRequest.class), eq(USER_ID)))
+        when(contentService.updateContent(eq(CONTENT_ID), any(ContentUpdateRequest.class), eq(USER_ID), isNull()))
                 .thenReturn(updatedContent);
 
         mockMvc.perform(patch("/api/v1/content/{contentId}", CONTENT_ID)
@@ -159,13 +417,33 @@ class ContentControllerTest {
                         .content(objectMapper.writeValueAsString(updateRequest)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.title", is("Updated Title")))
-                .andExpect(jsonPath("$.version", is(2)));
+                .andExpect(jsonPath("$.version", is(2)))
+                .andExpect(header().string("ETag", ContentETags.of(updatedContent)));
+
+        verify(contentService).updateContent(eq(CONTENT_ID), any(ContentUpdateRequest.class), eq(USER_ID), isNull());
+    }
+
+    @Test
+    @DisplayName("Should pass If-Match to the service on update")
+    @QueryBudget(serviceCalls = 1)
+    void testUpdateContent_IfMatch() throws Exception {
+        String eTag = ContentETags.of(testContent);
+        when(contentService.updateContent(eq(CONTENT_ID), any(ContentUpdateRequest.class), eq(USER_ID), eq(eTag)))
+                .thenReturn(testContent);
+
+        mockMvc.perform(patch("/api/v1/content/{contentId}", CONTENT_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-User-Id", USER_ID)
+                        .header("If-Match", eTag)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isOk());
 
-        verify(contentService).updateContent(eq(CONTENT_ID), any(ContentUpdateRequest.class), eq(USER_ID));
+        verify(contentService).updateContent(eq(CONTENT_ID), any(ContentUpdateRequest.class), eq(USER_ID), eq(eTag));
     }
 
     @Test
     @DisplayName("Should list content by status")
+    @QueryBudget(serviceCalls = 1)
     void testListContentByStatus() throws Exception {
         List<Content> contentList = List.of(testContent);
         PaginatedResponse<Content> paginatedResponse = new PaginatedResponse<>(
@@ -189,6 +467,7 @@ class ContentControllerTest {
 
     @Test
     @DisplayName("Should update content status")
+    @QueryBudget(serviceCalls = 1)
     void testUpdateContentStatus() throws Exception {
         ContentStatusUpdateRequest statusUpdateRequest = new ContentStatusUpdateRequest(
                 ContentStatus.PUBLISHED, "Ready for publication"
@@ -217,6 +496,7 @@ class ContentControllerTest {
 
     @Test
     @DisplayName("Should schedule content publishing")
+    @QueryBudget(serviceCalls = 1)
     void testScheduleContent() throws Exception {
         Instant publishTime = Instant.now().plus(1, ChronoUnit.DAYS);
 
@@ -241,6 +521,7 @@ class ContentControllerTest {
 
     @Test
     @DisplayName("Should rollback content to previous version")
+    @QueryBudget(serviceCalls = 1)
     void testRollbackContent() throws Exception {
         Set<RollbackField> fieldsToRollback = Set.of(RollbackField.TITLE, RollbackField.BODY);
 
@@ -267,6 +548,7 @@ class ContentControllerTest {
 
     @Test
     @DisplayName("Should list content versions")
+    @QueryBudget(serviceCalls = 1)
     void testListContentVersions() throws Exception {
         List<ContentVersionDto> versions = List.of(
                 new ContentVersionDto(1, USER_ID, Instant.now().minus(2, ChronoUnit.DAYS), "Initial version"),
@@ -286,6 +568,7 @@ class ContentControllerTest {
 
     @Test
     @DisplayName("Should list bin content")
+    @QueryBudget(serviceCalls = 1)
     void testListBinContent() throws Exception {
         Content deletedContent = Content.builder()
                 .id(CONTENT_ID)
@@ -314,6 +597,7 @@ class ContentControllerTest {
 
     @Test
     @DisplayName("Should move content to bin")
+    @QueryBudget(serviceCalls = 1)
     void testMoveToBin() throws Exception {
         doNothing().when(contentService).moveToBin(CONTENT_ID, USER_ID);
 
@@ -326,6 +610,7 @@ class ContentControllerTest {
 
     @Test
     @DisplayName("Should restore content from bin")
+    @QueryBudget(serviceCalls = 1)
     void testRestoreContent() throws Exception {
         Content restoredContent = Content.builder()
                 .id(CONTENT_ID)
@@ -345,6 +630,7 @@ class ContentControllerTest {
 
     @Test
     @DisplayName("Should permanently delete content")
+    @QueryBudget(serviceCalls = 1)
     void testDeleteContent() throws Exception {
         doNothing().when(contentService).deleteContent(CONTENT_ID);
 
@@ -357,6 +643,7 @@ class ContentControllerTest {
 
     @Test
     @DisplayName("Should update content slug")
+    @QueryBudget(serviceCalls = 1)
     void testUpdateSlug() throws Exception {
         Content contentWithNewSlug = Content.builder()
                 .id(CONTENT_ID)
@@ -378,6 +665,7 @@ class ContentControllerTest {
 
     @Test
     @DisplayName("Should validate slug")
+    @QueryBudget(serviceCalls = 1)
     void testValidateSlug() throws Exception {
         SlugValidationResponse validationResponse = new SlugValidationResponse(true, List.of());
 
@@ -396,6 +684,7 @@ class ContentControllerTest {
 
     @Test
     @DisplayName("Should generate unique slug")
+    @QueryBudget(serviceCalls = 1)
     void testGenerateSlug() throws Exception {
         when(contentService.generateUniqueSlug(eq(CONTENT_ID), eq(ORG_ID)))
                 .thenReturn("generated-unique-slug");
@@ -410,6 +699,7 @@ class ContentControllerTest {
 
     @Test
     @DisplayName("Should get content status audit")
+    @QueryBudget(serviceCalls = 1)
     void testGetContentStatusAudit() throws Exception {
         List<ContentStatusAudit> auditList = List.of(
                 new ContentStatusAudit("audit-id-1", CONTENT_ID, ContentStatus.DRAFT, ContentStatus.APPROVED, new UserDetails(USER_ID), Instant.now(), "Content approved"),
@@ -0,0 +1,329 @@
+package com.smartcms.smartcontent.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcommon.model.ContentType;
+import com.smartcms.smartcontent.budget.MongoCommandRecorder;
+import com.smartcms.smartcontent.dto.ContentRequest;
+import com.smartcms.smartcontent.dto.ContentStatusUpdateRequest;
+import com.smartcms.smartcontent.dto.ContentUpdateRequest;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test of the content API: boots the application on a random port against an in-process
+ * MongoDB stand-in (mongo-java-server) and drives a mix of create, get, list, update, status and schedule
+ * calls at a fixed arrival rate with {@link OpenLoadGenerator}. Reports p50, p99 and p99.9 latency and
+ * MongoDB commands per request for each endpoint.
+ * <p>
+ * Run with {@code ./gradlew benchmark --tests '*ContentApiLoad*'}; settings are read from system properties:
+ * <ul>
+ *     <li>{@code load.rate} - requests per second (default 200)</li>
+ *     <li>{@code load.warmup}, {@code load.duration} - ISO-8601 durations (default PT10S, PT30S)</li>
+ *     <li>{@code load.mix} - operation weights (default create:10,get:50,list:15,update:15,status:7,schedule:3)</li>
+ *     <li>{@code load.seed-items} - content created before the run (default 1000)</li>
+ *     <li>{@code load.body-bytes} - body size of created and updated content (default 4096)</li>
+ *     <li>{@code load.mongo-uri} - use this MongoDB instead of the stand-in, for storage-inclusive numbers</li>
+ * </ul>
+ * Rate limiting is disabled so the endpoints themselves are measured.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "smartcontent.rate-limit.enabled=false",
+        "management.tracing.enabled=false"
+})
+@Import(MongoCommandRecorder.Config.class)
+class ContentApiLoadBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentApiLoadBenchmarkTest.class);
+
+    private static final String ORG_ID = "load-org";
+    private static final String USER_ID = "load-user";
+    private static final String OPERATION_HEADER = "X-Load-Operation";
+
+    private static MongoServer mongoServer;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MongoCommandRecorder mongoCommands;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final List<String> contentIds = Collections.synchronizedList(new ArrayList<>());
+    private final Queue<String> drafts = new ConcurrentLinkedQueue<>();
+    private final Queue<String> inReview = new ConcurrentLinkedQueue<>();
+    private final Queue<String> approved = new ConcurrentLinkedQueue<>();
+    private String body;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        String uri = System.getProperty("load.mongo-uri");
+        if (uri == null) {
+            mongoServer = new MongoServer(new MemoryBackend());
+            InetSocketAddress address = mongoServer.bind();
+            uri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/smartcms-load";
+        }
+        String mongoUri = uri;
+        registry.add("spring.data.mongodb.uri", () -> mongoUri);
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongoServer != null) {
+            mongoServer.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Content API should serve the configured mix at the target rate without errors")
+    void benchmarkContentApi() throws Exception {
+        double rate = Double.parseDouble(System.getProperty("load.rate", "200"));
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+        Map<String, Integer> mix = parseMix(System.getProperty("load.mix", "create:10,get:50,list:15,update:15,status:7,schedule:3"));
+        int seedItems = Integer.getInteger("load.seed-items", 1000);
+        body = "<p>" + "lorem ipsum dolor sit amet ".repeat(Integer.getInteger("load.body-bytes", 4096) / 27) + "</p>";
+
+        seed(seedItems);
+        OpenLoadGenerator generator = new OpenLoadGenerator(operations(), mix);
+        generator.run(rate, warmup, 1);
+        mongoCommands.reset();
+        OpenLoadGenerator.Report report = generator.run(rate, duration, 2);
+
+        print(report, rate, duration);
+        report.stats().forEach((name, stats) -> {
+            if (stats.firstError() != null) {
+                log.info(String.format("  first %s error: %s", name, stats.firstError()));
+            }
+        });
+        assertEquals(0, report.errors(), "all requests should succeed");
+        assertTrue(report.throughput() > rate * 0.9, "the generator should keep up with the target rate");
+    }
+
+    private Map<String, OpenLoadGenerator.Operation> operations() {
+        Map<String, OpenLoadGenerator.Operation> operations = new LinkedHashMap<>();
+        operations.put("create", this::create);
+        operations.put("get", () -> {
+            send("get", get("/" + randomContentId()));
+            return OpenLoadGenerator.Outcome.OK;
+        });
+        operations.put("list", () -> {
+            send("list", get("/org?page=" + ThreadLocalRandom.current().nextInt(5) + "&size=20"));
+            return OpenLoadGenerator.Outcome.OK;
+        });
+        operations.put("update", () -> {
+            ContentUpdateRequest update = ContentUpdateRequest.builder()
+                    .title("Updated " + ThreadLocalRandom.current().nextInt(1_000_000))
+                    .body(body)
+                    .build();
+            send("update", json("PATCH", "/" + randomContentId(), update));
+            return OpenLoadGenerator.Outcome.OK;
+        });
+        operations.put("status", this::advanceStatus);
+        operations.put("schedule", () -> {
+            String contentId = approved.poll();
+            if (contentId == null) {
+                return OpenLoadGenerator.Outcome.SKIPPED;
+            }
+            Instant publishTime = Instant.now().plus(Duration.ofDays(1));
+            send("schedule", json("PATCH", "/" + contentId + "/schedule?publishTime=" + publishTime, null));
+            return OpenLoadGenerator.Outcome.OK;
+        });
+        return operations;
+    }
+
+    private OpenLoadGenerator.Outcome create() throws IOException, InterruptedException {
+        ContentRequest request = ContentRequest.builder()
+                .title("Load test article " + ThreadLocalRandom.current().nextInt(1_000_000))
+                .description("Created by the load test")
+                .body(body)
+                .tags(List.of("load", "benchmark"))
+                .contentType(ContentType.ARTICLE)
+                .build();
+        String contentId = objectMapper.readTree(send("create", json("POST", "/create", request))).get("id").asText();
+        contentIds.add(contentId);
+        drafts.add(contentId);
+        return OpenLoadGenerator.Outcome.OK;
+    }
+
+    /**
+     * Moves content one step along draft, under review, approved; approved content is then scheduled.
+     */
+    private OpenLoadGenerator.Outcome advanceStatus() throws IOException, InterruptedException {
+        String contentId = inReview.poll();
+        if (contentId != null) {
+            send("status", json("PATCH", "/" + contentId + "/status", new ContentStatusUpdateRequest(ContentStatus.APPROVED, null)));
+            approved.add(contentId);
+            return OpenLoadGenerator.Outcome.OK;
+        }
+        contentId = drafts.poll();
+        if (contentId == null) {
+            return OpenLoadGenerator.Outcome.SKIPPED;
+        }
+        send("status", json("PATCH", "/" + contentId + "/status", new ContentStatusUpdateRequest(ContentStatus.UNDER_REVIEW, null)));
+        inReview.add(contentId);
+        return OpenLoadGenerator.Outcome.OK;
+    }
+
+    private void seed(int items) throws Exception {
+        Semaphore concurrency = new Semaphore(32);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < items; i++) {
+                concurrency.acquire();
+                executor.execute(() -> {
+                    try {
+                        create();
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Seeding failed", e);
+                    } finally {
+                        concurrency.release();
+                    }
+                });
+            }
+        }
+        // Approve a third of the seeded content, so schedule calls have content to start from
+        for (int i = 0; i < items * 2 / 3; i++) {
+            advanceStatus();
+        }
+    }
+
+    private String randomContentId() {
+        return contentIds.get(ThreadLocalRandom.current().nextInt(contentIds.size()));
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return request(path).GET();
+    }
+
+    private HttpRequest.Builder json(String method, String path, Object requestBody) throws IOException {
+        HttpRequest.BodyPublisher publisher = requestBody == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(requestBody));
+        return request(path).header("Content-Type", "application/json").method(method, publisher);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/content" + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("X-Org-Id", ORG_ID)
+                .header("X-User-Id", USER_ID);
+    }
+
+    private String send(String operation, HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request.header(OPERATION_HEADER, operation).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(operation + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private void print(OpenLoadGenerator.Report report, double rate, Duration duration) {
+        log.info(String.format("Open-model load at %.0f req/s for %s: %.0f req/s achieved",
+                rate, duration, report.throughput()));
+        log.info(String.format("  %-9s %7s %6s %7s %9s %9s %9s %9s  %s", "endpoint", "count", "errors", "skipped",
+                "p50 ms", "p99 ms", "p99.9 ms", "max ms", "mongo commands/request"));
+        report.stats().forEach((name, stats) -> log.info(String.format("  %-9s %7d %6d %7d %9.2f %9.2f %9.2f %9.2f  %s",
+                name, stats.count(), stats.errors(), stats.skipped(), stats.percentileMillis(50),
+                stats.percentileMillis(99), stats.percentileMillis(99.9), stats.maxMillis(),
+                perRequest(mongoCommands.counts(name), stats.count() + stats.errors()))));
+        log.info(String.format("  background mongo commands: %s",
+                mongoCommands.counts(MongoCommandRecorder.BACKGROUND)));
+    }
+
+    private static String perRequest(Map<String, Long> commands, long requests) {
+        if (requests == 0) {
+            return "-";
+        }
+        return commands.entrySet().stream()
+                .map(command -> String.format("%s=%.2f", command.getKey(), (double) command.getValue() / requests))
+                .collect(Collectors.joining(" "));
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(parts[0], Integer.parseInt(parts[1]));
+        }
+        return weights;
+    }
+
+    @TestConfiguration
+    static class LoadOperationScope {
+
+        /**
+         * Attributes the MongoDB commands of each request to the operation named by the load generator.
+         */
+        @Bean
+        OncePerRequestFilter loadOperationScope(MongoCommandRecorder mongoCommands) {
+            return new OncePerRequestFilter() {
+                @Override
+                protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                                FilterChain filterChain) throws ServletException, IOException {
+                    String operation = request.getHeader(OPERATION_HEADER);
+                    if (operation == null) {
+                        filterChain.doFilter(request, response);
+                        return;
+                    }
+                    mongoCommands.enterScope(operation);
+                    try {
+                        filterChain.doFilter(request, response);
+                    } finally {
+                        mongoCommands.exitScope();
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.smartcms.smartcontent.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: operations start at a fixed arrival rate whether or not earlier ones have finished,
+ * each on its own virtual thread. Latency is measured from the time an operation was due to start,
+ * so a slow server shows up as queueing delay instead of a lower request rate (no coordinated omission).
+ */
+class OpenLoadGenerator {
+
+    enum Outcome {
+        OK,
+        ERROR,
+        /** Nothing to do, e.g. no content in the required status; not recorded. */
+        SKIPPED
+    }
+
+    @FunctionalInterface
+    interface Operation {
+        Outcome call() throws Exception;
+    }
+
+    private final Map<String, Operation> operations;
+    private final String[] schedule;
+
+    /**
+     * @param mix Weight of each operation, keyed by the names in {@code operations}
+     */
+    OpenLoadGenerator(Map<String, Operation> operations, Map<String, Integer> mix) {
+        this.operations = operations;
+        List<String> slots = new ArrayList<>();
+        mix.forEach((name, weight) -> {
+            if (!operations.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown operation in mix: " + name);
+            }
+            for (int i = 0; i < weight; i++) {
+                slots.add(name);
+            }
+        });
+        this.schedule = slots.toArray(String[]::new);
+    }
+
+    Report run(double ratePerSecond, Duration duration, long seed) throws InterruptedException {
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        operations.keySet().forEach(name -> stats.put(name, new Stats()));
+        SplittableRandom random = new SplittableRandom(seed);
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long requests = (long) (ratePerSecond * duration.toNanos() / TimeUnit.SECONDS.toNanos(1));
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long due = start + (long) (i * intervalNanos);
+                for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                    LockSupport.parkNanos(wait);
+                }
+                String name = schedule[random.nextInt(schedule.length)];
+                Operation operation = operations.get(name);
+                Stats operationStats = stats.get(name);
+                executor.execute(() -> operationStats.record(operation, due));
+            }
+        }
+        return new Report(stats, requests, System.nanoTime() - start);
+    }
+
+    static final class Stats {
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final AtomicReference<String> firstError = new AtomicReference<>();
+
+        private void record(Operation operation, long dueNanos) {
+            Outcome outcome;
+            try {
+                outcome = operation.call();
+            } catch (Exception e) {
+                firstError.compareAndSet(null, e.toString());
+                outcome = Outcome.ERROR;
+            }
+            switch (outcome) {
+                case OK -> latencies.recordValue(System.nanoTime() - dueNanos);
+                case ERROR -> errors.increment();
+                case SKIPPED -> skipped.increment();
+            }
+        }
+
+        long count() {
+            return latencies.getTotalCount();
+        }
+
+        long errors() {
+            return errors.sum();
+        }
+
+        long skipped() {
+            return skipped.sum();
+        }
+
+        String firstError() {
+            return firstError.get();
+        }
+
+        double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1e6;
+        }
+
+        double maxMillis() {
+            return latencies.getMaxValue() / 1e6;
+        }
+    }
+
+    record Report(Map<String, Stats> stats, long requests, long elapsedNanos) {
+
+        double throughput() {
+            return requests * 1e9 / elapsedNanos;
+        }
+
+        long errors() {
+            return stats.values().stream().mapToLong(Stats::errors).sum();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.smartcms.smartcontent.nativeimage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcms.smartcommon.model.AIInsights;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcommon.model.ContentType;
+import com.smartcms.smartcommon.model.MetaData;
+import com.smartcms.smartcontent.dto.ContentRequest;
+import com.smartcms.smartcontent.dto.ContentStatusUpdateRequest;
+import com.smartcms.smartcontent.dto.ContentUpdateRequest;
+import com.smartcms.smartcontent.dto.RelatedContentRequest;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the native executable against an in-process MongoDB stand-in (mongo-java-server) and exercises the paths
+ * that depend on reflection: JSON binding of the DTOs and the smart-common model, Spring Data mapping of every
+ * document, derived repository queries, sparse fieldsets, the published content cache and the NDJSON export.
+ * A missing hint shows up as a failed request, with the executable's log in the failure message.
+ * <p>
+ * Run with {@code ./gradlew nativeApplicationTest -Pnative}, which builds the executable and passes its path in
+ * {@code native.executable}.
+ */
+@Tag("native")
+class NativeApplicationTest {
+
+    private static final String USER_ID = "native-user";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(1);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private static final HttpClient httpClient = HttpClient.newHttpClient();
+    private static MongoServer mongoServer;
+    private static Process application;
+    private static Path log;
+    private static int port;
+
+    private final String orgId = "native-org-" + UUID.randomUUID();
+
+    @BeforeAll
+    static void startApplication() throws Exception {
+        String executable = System.getProperty("native.executable");
+        assumeTrue(executable != null && Files.isExecutable(Path.of(executable)),
+                "native.executable is not set; run ./gradlew nativeApplicationTest -Pnative");
+
+        mongoServer = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = mongoServer.bind();
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        log = Files.createTempFile("smart-content-native-", ".log");
+        String mongoUri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/smartcms-native";
+        application = new ProcessBuilder(executable, "--server.port=" + port, "--spring.data.mongodb.uri=" + mongoUri)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            assertTrue(application.isAlive(), () -> "The executable exited:\n" + log());
+            try {
+                if (send(HttpRequest.newBuilder(uri("/actuator/health")).GET()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(50);
+        }
+        fail("The executable did not become healthy within " + STARTUP_TIMEOUT + ":\n" + log());
+    }
+
+    @AfterAll
+    static void stopApplication() throws InterruptedException {
+        if (application != null) {
+            application.destroy();
+            if (!application.waitFor(30, TimeUnit.SECONDS)) {
+                application.destroyForcibly();
+            }
+        }
+        if (mongoServer != null) {
+            mongoServer.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should create and read content with its nested model")
+    void testCreateAndGet() throws Exception {
+        JsonNode created = create("Native image article", List.of("native", "graalvm"));
+        assertEquals("DRAFT", created.get("status").asText());
+        assertEquals(USER_ID, created.at("/author/name").asText());
+        assertEquals("Native title", created.at("/meta/metaTitle").asText());
+        assertEquals("informative", created.at("/aiInsights/tone").asText());
+
+        HttpResponse<String> response = expect(200, content("/" + created.get("id").asText()).GET());
+        assertTrue(response.headers().firstValue("ETag").isPresent());
+        assertEquals("Native image article", json(response).get("title").asText());
+    }
+
+    @Test
+    @DisplayName("Should return only the requested fields")
+    void testSparseFieldsets() throws Exception {
+        String id = create("Sparse fields", List.of("fields")).get("id").asText();
+
+        JsonNode selected = json(expect(200, content("/" + id + "?fields=title,status").GET()));
+        List<String> names = new ArrayList<>();
+        selected.fieldNames().forEachRemaining(names::add);
+        assertEquals(List.of("id", "title", "status"), names);
+
+        JsonNode page = json(expect(200, content("/org?fields=title").GET()));
+        assertEquals("Sparse fields", page.at("/content/0/title").asText());
+    }
+
+    @Test
+    @DisplayName("Should keep versions, roll back and audit status changes")
+    void testHistoryAndAudit() throws Exception {
+        JsonNode created = create("Original title", List.of("history"));
+        String id = created.get("id").asText();
+
+        ContentUpdateRequest update = ContentUpdateRequest.builder().title("Updated title").build();
+        assertEquals("Updated title", json(expect(200, body("PATCH", "/" + id, update))).get("title").asText());
+        JsonNode versions = json(expect(200, content("/" + id + "/versions").GET()));
+        assertEquals(created.get("version").asInt(), versions.get(0).get("version").asInt());
+
+        JsonNode rolledBack = json(expect(200, body("POST",
+                "/" + id + "/rollback?version=" + created.get("version").asInt(), Set.of("TITLE"))));
+        assertEquals("Original title", rolledBack.get("title").asText());
+
+        expect(200, body("PATCH", "/" + id + "/status",
+                new ContentStatusUpdateRequest(ContentStatus.UNDER_REVIEW, "Ready")));
+        JsonNode audit = json(expect(200, content("/audit/" + id).GET()));
+        assertEquals("UNDER_REVIEW", audit.get(0).get("newStatus").asText());
+    }
+
+    @Test
+    @DisplayName("Should list, search, export and relate content")
+    void testQueries() throws Exception {
+        String first = create("Searchable native content", List.of("search", "native")).get("id").asText();
+        String second = create("Another native item", List.of("native")).get("id").asText();
+
+        assertEquals(2, json(expect(200, content("/org").GET())).get("totalElements").asInt());
+        assertEquals(first, json(expect(200, content("/search?query=searchable").GET())).at("/content/0/id").asText());
+        assertEquals("native", json(expect(200, content("/tags/top").GET())).get(0).get("tag").asText());
+
+        String export = expect(200, content("/export").GET()).body();
+        assertEquals(2, export.lines().map(this::json).filter(line -> line.has("id")).count(), export);
+
+        expect(201, body("POST", "/" + first + "/related", new RelatedContentRequest(second)));
+        assertEquals(second, json(expect(200, content("/" + first + "/related").GET())).get(0).get("id").asText());
+    }
+
+    private JsonNode create(String title, List<String> tags) throws Exception {
+        ContentRequest request = ContentRequest.builder()
+                .title(title)
+                .description("Created against the native executable")
+                .body("<p>" + title + "</p>")
+                .tags(tags)
+                .contentType(ContentType.ARTICLE)
+                .meta(MetaData.builder().metaTitle("Native title").build())
+                .aiInsights(AIInsights.builder().tone("informative").build())
+                .build();
+        return json(expect(201, body("POST", "/create", request)));
+    }
+
+    private HttpResponse<String> expect(int status, HttpRequest.Builder request) throws Exception {
+        HttpResponse<String> response = send(request);
+        assertEquals(status, response.statusCode(), () -> response.body() + "\n" + log());
+        return response;
+    }
+
+    private HttpRequest.Builder body(String method, String path, Object requestBody) throws IOException {
+        return content(path).header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(requestBody)));
+    }
+
+    private HttpRequest.Builder content(String path) {
+        return HttpRequest.newBuilder(uri("/api/v1/content" + path))
+                .header("X-Org-Id", orgId)
+                .header("X-User-Id", USER_ID);
+    }
+
+    private JsonNode json(HttpResponse<String> response) {
+        return json(response.body());
+    }
+
+    private JsonNode json(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Not JSON: " + body, e);
+        }
+    }
+
+    private static URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String log() {
+        try {
+            List<String> lines = Files.readAllLines(log);
+            return String.join("\n", lines.subList(Math.max(0, lines.size() - 40), lines.size()));
+        } catch (IOException e) {
+            return "(log unavailable: " + e + ")";
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.smartcms.smartcontent.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfilingEndpointTest {
+
+    private final AtomicBoolean busy = new AtomicBoolean(true);
+    private ProfilingSummaryRecorder summaryRecorder;
+    private volatile long sink;
+
+    @AfterEach
+    void tearDown() {
+        busy.set(false);
+        if (summaryRecorder != null) {
+            summaryRecorder.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should record the chosen profile for the requested duration, one recording at a time")
+    void testRecord() throws Exception {
+        ProfilingEndpoint endpoint = new ProfilingEndpoint(new ProfilingProperties(), null);
+        Thread.ofPlatform().daemon().start(this::burn);
+
+        CompletableFuture<WebEndpointResponse<Resource>> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return endpoint.record("cpu", Duration.ofSeconds(2));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(500);
+        assertEquals(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS,
+                endpoint.record("locks", Duration.ofSeconds(1)).getStatus());
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST,
+                endpoint.record("cpu", Duration.ofHours(1)).getStatus());
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, endpoint.record("wall", null).getStatus());
+
+        WebEndpointResponse<Resource> response = first.get(30, TimeUnit.SECONDS);
+        assertEquals(WebEndpointResponse.STATUS_OK, response.getStatus());
+        Path recordingFile = response.getBody().getFile().toPath();
+        Path copy = Files.createTempFile("profiling-test-", ".jfr");
+        try (InputStream in = response.getBody().getInputStream()) {
+            Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+        assertFalse(Files.exists(recordingFile));
+        try {
+            boolean sampled = RecordingFile.readAllEvents(copy).stream()
+                    .filter(event -> event.getEventType().getName().equals("jdk.ExecutionSample"))
+                    .map(RecordedEvent::getStackTrace)
+                    .anyMatch(stackTrace -> stackTrace.getFrames().stream()
+                            .anyMatch(frame -> frame.getMethod().getName().equals("burn")));
+            assertTrue(sampled);
+        } finally {
+            Files.delete(copy);
+        }
+    }
+
+    @Test
+    @DisplayName("Should summarize the hottest methods and allocation sites")
+    void testSummary() throws Exception {
+        ProfilingProperties.Summary properties = new ProfilingProperties.Summary();
+        properties.setSamplePeriod(Duration.ofMillis(10));
+        summaryRecorder = new ProfilingSummaryRecorder(properties);
+        summaryRecorder.start();
+        Thread.ofPlatform().daemon().start(this::burn);
+        Thread.ofPlatform().daemon().start(this::allocate);
+        ProfilingEndpoint endpoint = new ProfilingEndpoint(new ProfilingProperties(), summaryRecorder);
+
+        ProfilingSummary summary = null;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (System.nanoTime() < deadline) {
+            summary = endpoint.summary(50).getBody();
+            if (contains(summary.hotMethods(), "ProfilingEndpointTest.burn")
+                    && contains(summary.allocationSites(), "ProfilingEndpointTest.allocate")) {
+                break;
+            }
+            Thread.sleep(200);
+        }
+
+        assertNotNull(summary);
+        assertTrue(contains(summary.hotMethods(), "ProfilingEndpointTest.burn"), summary.toString());
+        assertTrue(contains(summary.allocationSites(), "ProfilingEndpointTest.allocate"), summary.toString());
+        assertTrue(summary.methodSamples() > 0 && summary.allocatedBytes() > 0);
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND,
+                new ProfilingEndpoint(new ProfilingProperties(), null).summary(null).getStatus());
+    }
+
+    private static boolean contains(List<ProfilingSummary.Entry> entries, String name) {
+        return entries.stream().anyMatch(entry -> entry.name().contains(name));
+    }
+
+    private void burn() {
+        long x = 0;
+        while (busy.get()) {
+            for (int i = 0; i < 1_000_000; i++) {
+                x = x * 31 + i;
+            }
+            sink = x;
+        }
+    }
+
+    private void allocate() {
+        while (busy.get()) {
+            byte[] bytes = new byte[64 * 1024];
+            sink += bytes.length;
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.smartcms.smartcontent.ratelimit;
+
+import com.smartcms.smartcontent.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrgRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new RateLimitProperties();
+        properties.getDefaults().put(EndpointClass.WRITE, new RateLimitProperties.Limit(2, 3));
+    }
+
+    @Test
+    @DisplayName("Should allow a burst, then throttle each org separately until tokens refill")
+    void testTokenBuckets() {
+        OrgRateLimiter limiter = limiter();
+
+        for (int i = 0; i < 3; i++) {
+            admit(limiter, "org1", EndpointClass.WRITE);
+        }
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquire("org1", EndpointClass.WRITE));
+        assertEquals(429, e.getStatus().value());
+        assertEquals(1, e.getRetryAfterSeconds());
+        admit(limiter, "org2", EndpointClass.WRITE);
+        admit(limiter, "org1", EndpointClass.READ);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        admit(limiter, "org1", EndpointClass.WRITE);
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire("org1", EndpointClass.WRITE));
+
+        assertEquals(4, meterRegistry.get("smartcontent.ratelimit.requests")
+                .tags("org", "org1", "class", "write", "outcome", "admitted").counter().count());
+        assertEquals(2, meterRegistry.get("smartcontent.ratelimit.requests")
+                .tags("org", "org1", "class", "write", "outcome", "throttled").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should apply per-org overrides, and skip buckets for unlimited classes and requests without a key")
+    void testOverridesAndUnlimited() {
+        properties.getOrgs().put("big", Map.of(EndpointClass.WRITE, new RateLimitProperties.Limit(100, 10)));
+        properties.getDefaults().put(EndpointClass.BULK, new RateLimitProperties.Limit(0, 0));
+        OrgRateLimiter limiter = limiter();
+
+        for (int i = 0; i < 10; i++) {
+            admit(limiter, "big", EndpointClass.WRITE);
+            admit(limiter, "org1", EndpointClass.BULK);
+            admit(limiter, null, EndpointClass.WRITE);
+        }
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire("big", EndpointClass.WRITE));
+    }
+
+    @Test
+    @DisplayName("Should limit callers without an org by user or address, each on its own bucket")
+    void testCallersWithoutOrg() {
+        OrgRateLimiter limiter = limiter();
+
+        for (int i = 0; i < 3; i++) {
+            admit(limiter, OrgRateLimiter.userKey("user1"), EndpointClass.WRITE);
+            admit(limiter, OrgRateLimiter.addressKey("10.0.0.1"), EndpointClass.WRITE);
+        }
+        assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquire(OrgRateLimiter.userKey("user1"), EndpointClass.WRITE));
+        assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquire(OrgRateLimiter.addressKey("10.0.0.1"), EndpointClass.WRITE));
+        admit(limiter, OrgRateLimiter.userKey("user2"), EndpointClass.WRITE);
+
+        assertEquals(4, meterRegistry.get("smartcontent.ratelimit.requests")
+                .tags("org", "user", "outcome", "admitted").counter().count());
+        assertEquals(1, meterRegistry.get("smartcontent.ratelimit.requests")
+                .tags("org", "ip", "outcome", "throttled").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should share default buckets among new callers while too many are tracked, until idle ones are dropped")
+    void testIdleBucketsAreDropped() {
+        properties.setMaxTrackedOrgs(2);
+        properties.setIdleSweepInterval(Duration.ofMinutes(1));
+        OrgRateLimiter limiter = limiter();
+
+        admit(limiter, "org1", EndpointClass.WRITE);
+        admit(limiter, "org2", EndpointClass.WRITE);
+        // org3 and org4 draw on the same overflow buckets
+        admit(limiter, "org3", EndpointClass.WRITE);
+        admit(limiter, "org3", EndpointClass.WRITE);
+        admit(limiter, "org4", EndpointClass.WRITE);
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire("org4", EndpointClass.WRITE));
+
+        // Once org1 and org2 have refilled, the next sweep forgets them and org4 gets buckets of its own
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        for (int i = 0; i < 3; i++) {
+            admit(limiter, "org4", EndpointClass.WRITE);
+        }
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire("org4", EndpointClass.WRITE));
+        admit(limiter, "org5", EndpointClass.WRITE);
+    }
+
+    @Test
+    @DisplayName("Should tag only a bounded number of orgs by ID, besides configured ones")
+    void testOrgTagsAreCapped() {
+        properties.setMetricsMaxOrgs(2);
+        properties.getWeights().put("vip", 2);
+        OrgRateLimiter limiter = limiter();
+
+        for (String org : List.of("org1", "org2", "org3", "org4", "vip")) {
+            admit(limiter, org, EndpointClass.READ);
+        }
+
+        assertEquals(1, meterRegistry.get("smartcontent.ratelimit.requests").tags("org", "org2").counter().count());
+        assertEquals(2, meterRegistry.get("smartcontent.ratelimit.requests").tags("org", "other").counter().count());
+        assertEquals(1, meterRegistry.get("smartcontent.ratelimit.requests").tags("org", "vip").counter().count());
+        assertEquals(4, meterRegistry.find("smartcontent.ratelimit.requests").counters().size());
+    }
+
+    @Test
+    @DisplayName("Should admit streams against their own pool without taking request slots")
+    void testStreams() {
+        properties.getAdmission().setMaxConcurrentRequests(1);
+        properties.getAdmission().setMaxConcurrentStreams(1);
+        properties.getAdmission().setMaxWait(Duration.ofMillis(10));
+        OrgRateLimiter limiter = limiter();
+
+        limiter.acquireStream("org1", EndpointClass.BULK);
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquireStream("org2", EndpointClass.BULK));
+        admit(limiter, "org2", EndpointClass.READ);
+        assertEquals(1, meterRegistry.get("smartcontent.ratelimit.streams").gauge().value());
+
+        limiter.releaseStream();
+        limiter.acquireStream("org2", EndpointClass.BULK);
+        limiter.releaseStream();
+        assertEquals(1, meterRegistry.get("smartcontent.ratelimit.requests")
+                .tags("org", "org2", "class", "bulk", "outcome", "overloaded").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should admit queued requests in weighted fair order when saturated")
+    void testFairAdmission() throws Exception {
+        properties.getAdmission().setMaxConcurrentRequests(1);
+        properties.getAdmission().setMaxWait(Duration.ofSeconds(10));
+        properties.getWeights().put("heavy", 2);
+        properties.getDefaults().clear();
+        OrgRateLimiter limiter = limiter();
+        List<String> admitted = Collections.synchronizedList(new ArrayList<>());
+
+        limiter.acquire("holder", EndpointClass.READ);
+        List<Thread> threads = new ArrayList<>();
+        // A bulk script queues first; the other orgs still get served in between
+        for (String org : List.of("bulk", "bulk", "bulk", "bulk", "light", "heavy", "heavy")) {
+            int queued = threads.size();
+            threads.add(Thread.ofVirtual().start(() -> {
+                limiter.acquire(org, EndpointClass.READ);
+                admitted.add(org);
+                limiter.release();
+            }));
+            while (meterRegistry.get("smartcontent.ratelimit.queued").gauge().value() <= queued) {
+                Thread.onSpinWait();
+            }
+        }
+        limiter.release();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        assertEquals(List.of("bulk", "light", "heavy", "heavy", "bulk", "bulk", "bulk"), admitted);
+        assertEquals(0, meterRegistry.get("smartcontent.ratelimit.inflight").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should reject requests that queue longer than the max wait")
+    void testAdmissionTimeout() {
+        properties.getAdmission().setMaxConcurrentRequests(1);
+        properties.getAdmission().setMaxWait(Duration.ofMillis(20));
+        OrgRateLimiter limiter = limiter();
+
+        limiter.acquire("org1", EndpointClass.READ);
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquire("org2", EndpointClass.READ));
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertEquals(0, meterRegistry.get("smartcontent.ratelimit.queued").gauge().value());
+
+        limiter.release();
+        admit(limiter, "org2", EndpointClass.READ);
+        assertEquals(1, meterRegistry.get("smartcontent.ratelimit.requests")
+                .tags("org", "org2", "outcome", "overloaded").counter().count());
+    }
+
+    private OrgRateLimiter limiter() {
+        return new OrgRateLimiter(properties, meterRegistry, clock::get);
+    }
+
+    private static void admit(OrgRateLimiter limiter, String orgId, EndpointClass endpointClass) {
+        limiter.acquire(orgId, endpointClass);
+        limiter.release();
+    }
+}
@@ -0,0 +1,136 @@
+package com.smartcms.smartcontent.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcontent.controller.ContentController;
+import com.smartcms.smartcontent.dto.ContentUpdateRequest;
+import com.smartcms.smartcontent.exception.GlobalExceptionHandler;
+import com.smartcms.smartcontent.service.ContentExportService;
+import com.smartcms.smartcontent.service.ContentSearchService;
+import com.smartcms.smartcontent.service.ContentServiceImpl;
+import com.smartcms.smartcontent.service.RelatedContentService;
+import com.smartcms.smartcontent.utility.PublishedContentCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitInterceptorTest {
+
+    @Mock
+    private ContentServiceImpl contentService;
+
+    @Mock
+    private ContentExportService contentExportService;
+
+    @Mock
+    private PublishedContentCache publishedContentCache;
+
+    @Mock
+    private ContentSearchService contentSearchService;
+
+    @Mock
+    private RelatedContentService relatedContentService;
+
+    @InjectMocks
+    private ContentController contentController;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new RateLimitProperties();
+        properties.getDefaults().put(EndpointClass.WRITE, new RateLimitProperties.Limit(0.001, 3));
+    }
+
+    @Test
+    @DisplayName("Should throttle updates from a user that sends no org")
+    void testUpdateWithoutOrgIsThrottled() throws Exception {
+        Content updated = Content.builder().id("content1").status(ContentStatus.DRAFT).version(2).build();
+        when(contentService.updateContent(eq("content1"), any(ContentUpdateRequest.class), anyString(), isNull()))
+                .thenReturn(updated);
+        MockMvc mockMvc = mockMvc();
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(update("user1")).andExpect(status().isOk());
+        }
+        mockMvc.perform(update("user1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+        mockMvc.perform(update("user2")).andExpect(status().isOk());
+
+        assertEquals(1, meterRegistry.get("smartcontent.ratelimit.requests")
+                .tags("org", "user", "class", "write", "outcome", "throttled").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should admit exports against their own limit without taking request slots")
+    void testExportsUseStreamSlots() throws Exception {
+        properties.getAdmission().setMaxConcurrentRequests(1);
+        properties.getAdmission().setMaxConcurrentStreams(1);
+        properties.getAdmission().setMaxWait(Duration.ofMillis(10));
+        when(contentService.getContentById("content1"))
+                .thenReturn(Content.builder().id("content1").status(ContentStatus.DRAFT).version(1).build());
+        MockMvc mockMvc = mockMvc();
+
+        MvcResult export = mockMvc.perform(export())
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(1, meterRegistry.get("smartcontent.ratelimit.streams").gauge().value());
+
+        // The only request slot is still free, while a second export has to wait for the first
+        mockMvc.perform(get("/api/v1/content/{contentId}", "content1").header("X-Org-Id", "org1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(export()).andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+        assertEquals(0, meterRegistry.get("smartcontent.ratelimit.streams").gauge().value());
+        assertEquals(0, meterRegistry.get("smartcontent.ratelimit.inflight").gauge().value());
+        mockMvc.perform(export()).andExpect(request().asyncStarted());
+    }
+
+    private MockMvc mockMvc() {
+        return MockMvcBuilders.standaloneSetup(contentController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .addInterceptors(new RateLimitInterceptor(new OrgRateLimiter(properties, meterRegistry)))
+                .build();
+    }
+
+    private static MockHttpServletRequestBuilder update(String userId) throws Exception {
+        ContentUpdateRequest request = ContentUpdateRequest.builder()
+                .title("Updated Title")
+                .body("Updated Body Content")
+                .tags(List.of("tag"))
+                .build();
+        return patch("/api/v1/content/{contentId}", "content1")
+                .header("X-User-Id", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(request));
+    }
+
+    private static MockHttpServletRequestBuilder export() {
+        return get("/api/v1/content/export").header("X-Org-Id", "org1");
+    }
+}
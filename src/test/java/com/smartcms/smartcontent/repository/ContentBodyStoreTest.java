@@ -0,0 +1,246 @@
+package com.smartcms.smartcontent.repository;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcommon.model.OrgDetails;
+import com.smartcms.smartcontent.model.ContentHistory;
+import com.smartcms.smartcontent.utility.ContentFields;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataMongoTest(properties = "smartcontent.body-storage.threshold=1KB")
+@Import({ContentBodyStore.class, ContentBodyCallbacks.ContentCallback.class, ContentBodyCallbacks.HistoryCallback.class,
+        ContentBodyStoreTest.Metrics.class})
+class ContentBodyStoreTest {
+
+    private static MongoServer mongoServer;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        mongoServer = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = mongoServer.bind();
+        registry.add("spring.data.mongodb.uri",
+                () -> "mongodb://" + address.getHostString() + ":" + address.getPort() + "/smartcms-bodies");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongoServer.shutdownNow();
+    }
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private ContentHistoryRepository contentHistoryRepository;
+
+    @Autowired
+    private ContentBodyStore contentBodyStore;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final String orgId = "body-org-" + UUID.randomUUID();
+    private final String largeBody = "<p>" + "Large body paragraph. ".repeat(100) + "</p>";
+
+    @BeforeEach
+    void setUp() {
+        contentRepository.deleteAll();
+        contentHistoryRepository.deleteAll();
+        mongoTemplate.dropCollection("content_bodies.files");
+        mongoTemplate.dropCollection("content_bodies.chunks");
+    }
+
+    @Test
+    void save_shouldKeepLargeBodyOutOfTheDocument() {
+        Content saved = contentRepository.save(content("Large", largeBody));
+
+        Document stored = storedDocument(saved.getId());
+        assertThat(stored).doesNotContainKey("body");
+        assertThat(stored.getString("bodyRef")).hasSize(64);
+        assertThat(saved.getBody()).isEqualTo(largeBody);
+        assertThat(contentRepository.findById(saved.getId())).get()
+                .extracting(Content::getBody).isEqualTo(largeBody);
+    }
+
+    @Test
+    void save_shouldKeepSmallBodyInline() {
+        Content saved = contentRepository.save(content("Small", "<p>Small body</p>"));
+
+        Document stored = storedDocument(saved.getId());
+        assertThat(stored.getString("body")).isEqualTo("<p>Small body</p>");
+        assertThat(stored).doesNotContainKey("bodyRef");
+        assertThat(files()).isZero();
+    }
+
+    @Test
+    void listsAndBatches_shouldOmitEveryBody() {
+        String large = contentRepository.save(content("Large", largeBody)).getId();
+        String small = contentRepository.save(content("Small", "<p>Small body</p>")).getId();
+        double reads = bodyReads();
+
+        List<Content> page = contentRepository.findByOrgIdAndStatus(orgId, ContentStatus.DRAFT, PageRequest.of(0, 10))
+                .getContent();
+        assertThat(page).extracting(Content::getTitle, Content::getBody)
+                .containsExactlyInAnyOrder(tuple("Large", null), tuple("Small", null));
+        assertThat(contentRepository.findProjectedByIdIn(Set.of(large, small), ContentFields.LIST_FIELDS))
+                .extracting(Content::getTitle, Content::getBody)
+                .containsExactlyInAnyOrder(tuple("Large", null), tuple("Small", null));
+        assertThat(bodyReads()).isEqualTo(reads);
+    }
+
+    @Test
+    void findProjectedById_shouldReadLargeBodyOnlyWhenRequested() {
+        String id = contentRepository.save(content("Large", largeBody)).getId();
+
+        assertThat(contentRepository.findProjectedById(id, Set.of("title", "body"))).get()
+                .extracting(Content::getBody).isEqualTo(largeBody);
+        assertThat(contentRepository.findProjectedById(id, Set.of("title"))).get()
+                .extracting(Content::getBody).isNull();
+    }
+
+    @Test
+    void history_shouldStoreSharedBodyOnce() {
+        Content saved = contentRepository.save(content("Large", largeBody));
+        contentHistoryRepository.save(history(saved));
+        saved.setVersion(2);
+        contentHistoryRepository.save(history(saved));
+
+        assertThat(files()).isEqualTo(1);
+        assertThat(contentHistoryRepository.findByContentSnapshotIdAndContentSnapshotVersion(saved.getId(), 2)).get()
+                .extracting(history -> history.getContentSnapshot().getBody()).isEqualTo(largeBody);
+        assertThat(contentHistoryRepository.findByContentSnapshotId(saved.getId()))
+                .hasSize(2)
+                .allSatisfy(history -> assertThat(history.getContentSnapshot().getBody()).isNull());
+    }
+
+    @Test
+    void deleteUnreferenced_shouldDeleteBodiesOfPurgedContent() {
+        Content saved = contentRepository.save(content("Large", largeBody));
+        contentRepository.save(content("Other", largeBody.replace("Large", "Other")));
+        contentRepository.delete(saved);
+
+        assertThat(contentBodyStore.deleteUnreferenced(Instant.now().plusSeconds(1))).isEqualTo(1);
+        assertThat(files()).isEqualTo(1);
+        assertThat(mongoTemplate.getCollection("content_bodies.chunks").countDocuments()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteUnreferenced_shouldDeleteOverwrittenBodiesOnlyOnceNoSnapshotKeepsThem() {
+        Content saved = contentRepository.save(content("Large", largeBody));
+        saved.setBody("<p>Small body</p>");
+        contentRepository.save(saved);
+        assertThat(contentBodyStore.deleteUnreferenced(Instant.now().plusSeconds(1))).isEqualTo(1);
+        assertThat(files()).isZero();
+
+        saved.setBody(largeBody);
+        contentHistoryRepository.save(history(contentRepository.save(saved)));
+        saved.setBody("<p>Small body</p>");
+        contentRepository.save(saved);
+        assertThat(contentBodyStore.deleteUnreferenced(Instant.now().plusSeconds(1))).isZero();
+        assertThat(contentHistoryRepository.findByContentSnapshotIdAndContentSnapshotVersion(saved.getId(), 1)).get()
+                .extracting(history -> history.getContentSnapshot().getBody()).isEqualTo(largeBody);
+    }
+
+    @Test
+    void deleteUnreferenced_shouldKeepBodiesStoredOrReusedSinceTheCutoff() {
+        Content saved = contentRepository.save(content("Large", largeBody));
+        contentRepository.delete(saved);
+        assertThat(contentBodyStore.deleteUnreferenced(Instant.now().minus(Duration.ofHours(1)))).isZero();
+
+        // Reusing an old stored body marks it, as when a write is about to reference it again
+        mongoTemplate.getCollection("content_bodies.files").updateMany(new Document(),
+                new Document("$set", new Document("uploadDate", Date.from(Instant.now().minus(Duration.ofHours(2))))));
+        contentBodyStore.store(largeBody.getBytes(StandardCharsets.UTF_8));
+        assertThat(contentBodyStore.deleteUnreferenced(Instant.now().minus(Duration.ofHours(1)))).isZero();
+        assertThat(contentBodyStore.deleteUnreferenced(Instant.now().plusSeconds(1))).isEqualTo(1);
+        assertThat(files()).isZero();
+    }
+
+    @Test
+    void createIndexes_shouldIndexBodyReferencesSparsely() {
+        contentBodyStore.createIndexes();
+
+        assertThat(mongoTemplate.getCollection(mongoTemplate.getCollectionName(Content.class)).listIndexes())
+                .anySatisfy(index -> {
+                    assertThat(index.get("key", Document.class)).containsOnlyKeys("bodyRef");
+                    assertThat(index.getBoolean("sparse")).isTrue();
+                });
+        assertThat(mongoTemplate.getCollection(mongoTemplate.getCollectionName(ContentHistory.class)).listIndexes())
+                .anySatisfy(index -> {
+                    assertThat(index.get("key", Document.class)).containsOnlyKeys("contentSnapshot.bodyRef");
+                    assertThat(index.getBoolean("sparse")).isTrue();
+                });
+    }
+
+    private Document storedDocument(String id) {
+        // The id is mapped to the stored ObjectId
+        return mongoTemplate.findById(id, Document.class, mongoTemplate.getCollectionName(Content.class));
+    }
+
+    private long files() {
+        return mongoTemplate.getCollection("content_bodies.files").countDocuments();
+    }
+
+    private double bodyReads() {
+        return meterRegistry.get("smartcontent.body.reads").counter().count();
+    }
+
+    private Content content(String title, String body) {
+        Content content = new Content();
+        content.setTitle(title);
+        content.setBody(body);
+        content.setVersion(1);
+        content.setStatus(ContentStatus.DRAFT);
+        content.setOrgDetails(new OrgDetails(orgId));
+        content.setCreatedAt(Instant.now());
+        content.setUpdatedAt(Instant.now());
+        return content;
+    }
+
+    private static ContentHistory history(Content snapshot) {
+        ContentHistory history = new ContentHistory();
+        history.setContentSnapshot(snapshot);
+        history.setCreatedAt(Instant.now());
+        return history;
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -22,6 +22,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -222,6 +223,34 @@ public class ContentRepositoryTest {
                 .doesNotContain(ContentStatus.DELETED);
     }
 
+    @Test
+    void findProjectedById() {
+        // When
+        Optional<Content> projected = contentRepository.findProjectedById(publishedContent.getId(), Set.of("id", "title"));
+
+        // Then
+        assertThat(projected).isPresent();
+        assertThat(projected.get().getTitle()).isEqualTo("Published Content");
+        assertThat(projected.get().getSlug()).isNull();
+        assertThat(projected.get().getOrgDetails()).isNull();
+    }
+
+    @Test
+    void findProjectedByOrgIdAndStatusNot() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 2);
+
+        // When
+        Page<Content> projected = contentRepository.findProjectedByOrgIdAndStatusNot(
+                orgId, ContentStatus.DELETED, pageable, Set.of("id", "status"));
+
+        // Then
+        assertThat(projected.getTotalElements()).isEqualTo(3);
+        assertThat(projected.getContent()).hasSize(2);
+        assertThat(projected.getContent()).extracting("title").containsOnlyNulls();
+        assertThat(projected.getContent()).extracting("status").doesNotContain(ContentStatus.DELETED);
+    }
+
     @Test
     void notExistsBySlugAndOrgDetails_OrgIdAndStatus() {
         // Given
@@ -0,0 +1,133 @@
+package com.smartcms.smartcontent.repository;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MongoCommandMetricsTest {
+
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private SimpleMeterRegistry meterRegistry;
+    private MongoCommandProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new MongoCommandProperties();
+    }
+
+    @Test
+    @DisplayName("Should replace filter values with placeholders, keeping fields and operators")
+    void testFilterShape() {
+        BsonDocument find = BsonDocument.parse("""
+                {"find": "content", "filter": {"orgId": "org1", "status": {"$in": ["DRAFT", "REVIEW"]},
+                 "$or": [{"title": "Hello"}, {"tags": {"$all": ["a", "b"]}}]}, "sort": {"updatedAt": -1}}""");
+        BsonDocument aggregate = BsonDocument.parse("""
+                {"aggregate": "content", "pipeline": [{"$match": {"orgId": "org1"}}, {"$group": {"_id": "$status"}}]}""");
+        BsonDocument update = BsonDocument.parse("""
+                {"update": "content", "updates": [{"q": {"_id": "c1", "version": 3}, "u": {"$set": {"title": "x"}}}]}""");
+
+        assertEquals("content", MongoCommandMetrics.collection("find", find));
+        assertEquals(BsonDocument.parse("""
+                {"orgId": "?", "status": {"$in": "?"}, "$or": [{"title": "?"}, {"tags": {"$all": "?"}}]}"""),
+                MongoCommandMetrics.filterShape("find", find));
+        assertEquals(BsonDocument.parse("{\"pipeline\": [{\"$match\": {\"orgId\": \"?\"}}, {\"$group\": \"?\"}]}"),
+                MongoCommandMetrics.filterShape("aggregate", aggregate));
+        assertEquals(BsonDocument.parse("{\"_id\": \"?\", \"version\": \"?\"}"),
+                MongoCommandMetrics.filterShape("update", update));
+        assertNull(MongoCommandMetrics.filterShape("hello", BsonDocument.parse("{\"hello\": 1}")));
+    }
+
+    @Test
+    @DisplayName("Should time commands and count documents by collection and repository method")
+    void testCommandMetrics() throws Throwable {
+        MongoCommandMetrics metrics = new MongoCommandMetrics(meterRegistry, properties, null);
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(ContentRepository.class.getMethod("findById", Object.class));
+        when(invocation.proceed()).thenAnswer(call -> {
+            metrics.commandStarted(started(1, "find", "{\"find\": \"content\", \"filter\": {\"_id\": \"c1\"}}"));
+            return null;
+        });
+
+        MongoCommandMetrics.repositoryMethodInterceptor("ContentRepository").invoke(invocation);
+        metrics.commandSucceeded(succeeded(1, "find", "{\"cursor\": {\"firstBatch\": [{}, {}], \"id\": 0}, \"ok\": 1}", 5));
+        metrics.commandStarted(started(2, "update", "{\"update\": \"content\", \"updates\": [{\"q\": {\"_id\": \"c1\"}}]}"));
+        metrics.commandFailed(new CommandFailedEvent(null, 1, 2, CONNECTION, "smartcms", "update",
+                TimeUnit.MILLISECONDS.toNanos(3), new IllegalStateException("boom")));
+
+        assertEquals(1, meterRegistry.get(MongoCommandMetrics.COMMANDS_METRIC).tags("command", "find",
+                "collection", "content", "repository", "ContentRepository.findById", "status", "success").timer().count());
+        assertEquals(2, meterRegistry.get(MongoCommandMetrics.DOCUMENTS_METRIC).tags("command", "find",
+                "repository", "ContentRepository.findById").summary().totalAmount());
+        assertEquals(1, meterRegistry.get(MongoCommandMetrics.COMMANDS_METRIC).tags("command", "update",
+                "repository", MongoCommandMetrics.NO_REPOSITORY, "status", "failed").timer().count());
+        assertNull(meterRegistry.find(MongoCommandMetrics.DOCUMENTS_METRIC).tags("command", "update").summary());
+    }
+
+    @Test
+    @DisplayName("Should explain slow reads and count collection scans and in-memory sorts in the winning plan")
+    void testSlowQueryExplain() throws Exception {
+        properties.setSlowThreshold(Duration.ofMillis(100));
+        properties.getExplain().setEnabled(true);
+        properties.getExplain().setSampleRate(1);
+        MongoClient mongoClient = mock(MongoClient.class);
+        MongoDatabase database = mock(MongoDatabase.class);
+        when(mongoClient.getDatabase("smartcms")).thenReturn(database);
+        when(database.runCommand(any())).thenReturn(Document.parse("""
+                {"queryPlanner": {"winningPlan": {"stage": "SORT", "inputStage": {"stage": "COLLSCAN"}},
+                 "rejectedPlans": [{"stage": "FETCH", "inputStage": {"stage": "IXSCAN"}}]}, "ok": 1}"""));
+        SlowQueryExplainer explainer = new SlowQueryExplainer(() -> mongoClient, properties.getExplain(), meterRegistry);
+        MongoCommandMetrics metrics = new MongoCommandMetrics(meterRegistry, properties, explainer);
+
+        metrics.commandStarted(started(1, "find", "{\"find\": \"content\", \"filter\": {\"orgId\": \"org1\"}}"));
+        metrics.commandSucceeded(succeeded(1, "find", "{\"cursor\": {\"firstBatch\": [], \"id\": 0}, \"ok\": 1}", 5));
+        metrics.commandStarted(started(2, "find", "{\"find\": \"content\", \"filter\": {\"orgId\": \"org1\"}, "
+                + "\"lsid\": {\"id\": 1}, \"$db\": \"smartcms\"}"));
+        metrics.commandSucceeded(succeeded(2, "find", "{\"cursor\": {\"firstBatch\": [], \"id\": 0}, \"ok\": 1}", 150));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.find("smartcontent.mongo.plan.issues").counters().size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        List<String> stages = meterRegistry.find("smartcontent.mongo.plan.issues").tags("collection", "content")
+                .counters().stream().map(counter -> counter.getId().getTag("stage")).sorted().toList();
+        assertEquals(List.of("COLLSCAN", "SORT"), stages);
+        assertEquals(1, meterRegistry.find("smartcontent.mongo.plan.issues").counters().stream()
+                .mapToDouble(Counter::count).max().orElse(0));
+        verify(database).runCommand(BsonDocument.parse("""
+                {"explain": {"find": "content", "filter": {"orgId": "org1"}}, "verbosity": "queryPlanner"}"""));
+    }
+
+    private static CommandStartedEvent started(int requestId, String command, String json) {
+        return new CommandStartedEvent(null, 1, requestId, CONNECTION, "smartcms", command, BsonDocument.parse(json));
+    }
+
+    private static CommandSucceededEvent succeeded(int requestId, String command, String response, long millis) {
+        return new CommandSucceededEvent(null, 1, requestId, CONNECTION, "smartcms", command,
+                BsonDocument.parse(response), TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
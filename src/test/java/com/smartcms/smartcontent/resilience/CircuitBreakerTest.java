@@ -0,0 +1,187 @@
+package com.smartcms.smartcontent.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        ResilienceProperties.CircuitBreaker properties = new ResilienceProperties.CircuitBreaker();
+        properties.setWindowSize(10);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setOpenDuration(Duration.ofSeconds(10));
+        properties.setHalfOpenCalls(2);
+        circuitBreaker = new CircuitBreaker("test", properties, clock::get);
+    }
+
+    @Test
+    @DisplayName("Should stay closed until the minimum number of calls is recorded")
+    void testStaysClosedBelowMinimumCalls() {
+        recordFailures(3);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertNotNull(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should open when failure rate reaches the threshold and reject calls")
+    void testOpensOnFailureRate() {
+        recordSuccesses(2);
+        recordFailures(2);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertNull(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should only count the most recent calls in the sliding window")
+    void testSlidingWindowEvictsOldOutcomes() {
+        recordFailures(3);
+        recordSuccesses(10);
+
+        assertEquals(0f, circuitBreaker.getFailureRate());
+        recordFailures(4);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        recordFailures(1);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should allow limited trial calls when half-open and close after they succeed")
+    void testHalfOpenClosesAfterSuccessfulTrials() {
+        recordFailures(4);
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        CircuitBreaker.Permit first = circuitBreaker.tryAcquire();
+        CircuitBreaker.Permit second = circuitBreaker.tryAcquire();
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(circuitBreaker.tryAcquire());
+
+        first.onSuccess();
+        second.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(0f, circuitBreaker.getFailureRate());
+    }
+
+    @Test
+    @DisplayName("Should reopen when a half-open trial call fails")
+    void testHalfOpenReopensOnFailure() {
+        recordFailures(4);
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        circuitBreaker.tryAcquire().onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertNull(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should ignore outcomes of calls admitted before the breaker opened")
+    void testStaleOutcomesIgnored() {
+        CircuitBreaker.Permit slowSuccess = circuitBreaker.tryAcquire();
+        CircuitBreaker.Permit slowFailure = circuitBreaker.tryAcquire();
+        recordFailures(4);
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        CircuitBreaker.Permit trial = circuitBreaker.tryAcquire();
+        assertNotNull(trial);
+        // Completing late, while half-open: neither a trial success nor a reason to reopen
+        slowSuccess.onSuccess();
+        slowFailure.onFailure();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        // Nor did they free trial slots: one of the two is still available
+        assertNotNull(circuitBreaker.tryAcquire());
+        assertNull(circuitBreaker.tryAcquire());
+
+        trial.onSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should ignore outcomes of trial calls admitted before the breaker reopened")
+    void testStaleTrialOutcomesIgnored() {
+        recordFailures(4);
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        CircuitBreaker.Permit failedTrial = circuitBreaker.tryAcquire();
+        CircuitBreaker.Permit slowTrial = circuitBreaker.tryAcquire();
+        failedTrial.onFailure();
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        CircuitBreaker.Permit first = circuitBreaker.tryAcquire();
+        slowTrial.onSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        first.onSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.tryAcquire().onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should attribute outcomes correctly when calls race the breaker opening")
+    void testConcurrentOutcomesAcrossTransitions() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // Calls admitted while closed, then the breaker trips and goes half-open before they complete
+            List<CircuitBreaker.Permit> slowCalls = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                slowCalls.add(circuitBreaker.tryAcquire());
+            }
+            recordFailures(4);
+            clock.addAndGet(Duration.ofSeconds(10).toNanos());
+            CircuitBreaker.Permit trial = circuitBreaker.tryAcquire();
+
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> completions = new ArrayList<>();
+            for (CircuitBreaker.Permit permit : slowCalls) {
+                completions.add(executor.submit(() -> {
+                    start.await();
+                    permit.onSuccess();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> completion : completions) {
+                completion.get();
+            }
+
+            assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+            trial.onFailure();
+            assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void recordFailures(int count) {
+        for (int i = 0; i < count; i++) {
+            circuitBreaker.tryAcquire().onFailure();
+        }
+    }
+
+    private void recordSuccesses(int count) {
+        for (int i = 0; i < count; i++) {
+            circuitBreaker.tryAcquire().onSuccess();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.smartcms.smartcontent.resilience;
+
+import com.smartcms.smartcontent.exception.CallNotPermittedException;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the resilience layer against a local stub server.
+ */
+class ResilientExecutorTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger failuresBeforeSuccess = new AtomicInteger();
+    private volatile int failureStatus = 503;
+    private volatile CountDownLatch slowRelease = new CountDownLatch(0);
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private SimpleMeterRegistry meterRegistry;
+    private ResilienceProperties properties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/media", exchange -> {
+            hits.incrementAndGet();
+            try {
+                slowRelease.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int status = failuresBeforeSuccess.getAndDecrement() > 0 ? failureStatus : 200;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ResilienceProperties();
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(5));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(20));
+        properties.getCircuitBreaker().setMinimumCalls(4);
+        properties.getCircuitBreaker().setWindowSize(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should retry idempotent calls on server errors with backoff")
+    void testRetriesIdempotentCalls() {
+        failuresBeforeSuccess.set(2);
+        ResilientExecutor executor = new ResilientExecutor("smartmedia", properties, meterRegistry);
+
+        executor.execute(this::callStub, true);
+
+        assertEquals(3, hits.get());
+        assertEquals(2.0, meterRegistry.counter("smartcontent.resilience.retries", "downstream", "smartmedia").count());
+    }
+
+    @Test
+    @DisplayName("Should not retry non-idempotent calls")
+    void testDoesNotRetryNonIdempotentCalls() {
+        failuresBeforeSuccess.set(1);
+        ResilientExecutor executor = new ResilientExecutor("smartmedia", properties, meterRegistry);
+
+        assertThrows(HttpServerErrorException.class, () -> executor.execute(this::callStub, false));
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    @DisplayName("Should neither retry nor trip the breaker on client errors")
+    void testClientErrorsAreNotFailures() {
+        failureStatus = 404;
+        failuresBeforeSuccess.set(10);
+        ResilientExecutor executor = new ResilientExecutor("smartmedia", properties, meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(HttpClientErrorException.class, () -> executor.execute(this::callStub, true));
+        }
+
+        assertEquals(5, hits.get());
+        assertEquals(CircuitBreaker.State.CLOSED, executor.getCircuitBreaker().getState());
+    }
+
+    @Test
+    @DisplayName("Should open the breaker and stop calling a failing downstream")
+    void testCircuitBreakerOpensAndRejects() {
+        failuresBeforeSuccess.set(100);
+        properties.getRetry().setMaxAttempts(1);
+        ResilientExecutor executor = new ResilientExecutor("smartmedia", properties, meterRegistry);
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpServerErrorException.class, () -> executor.execute(this::callStub, true));
+        }
+        assertThrows(CallNotPermittedException.class, () -> executor.execute(this::callStub, true));
+
+        assertEquals(4, hits.get());
+        assertEquals(1.0, meterRegistry.get("smartcontent.resilience.circuitbreaker.state")
+                .tag("downstream", "smartmedia").gauge().value());
+        assertEquals(1.0, meterRegistry.counter("smartcontent.resilience.rejections",
+                "downstream", "smartmedia", "reason", "circuit_open").count());
+    }
+
+    @Test
+    @DisplayName("Should reject calls beyond the bulkhead limit")
+    void testBulkheadRejectsExcessConcurrentCalls() throws Exception {
+        properties.getBulkhead().setMaxConcurrentCalls(2);
+        ResilientExecutor executor = new ResilientExecutor("smartmedia", properties, meterRegistry);
+        slowRelease = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<?> first = callers.submit(() -> executor.execute(this::callStub, false));
+            Future<?> second = callers.submit(() -> executor.execute(this::callStub, false));
+            while (executor.getBulkhead().getAvailablePermits() > 0) {
+                Thread.sleep(5);
+            }
+
+            assertThrows(CallNotPermittedException.class, () -> executor.execute(this::callStub, false));
+
+            slowRelease.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(2, hits.get());
+        assertEquals(1.0, meterRegistry.counter("smartcontent.resilience.rejections",
+                "downstream", "smartmedia", "reason", "bulkhead_full").count());
+    }
+
+    private Void callStub() {
+        return restTemplate.postForObject(baseUrl + "/media", null, Void.class);
+    }
+}
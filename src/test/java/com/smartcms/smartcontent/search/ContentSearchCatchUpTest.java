@@ -0,0 +1,158 @@
+package com.smartcms.smartcontent.search;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcommon.model.OrgDetails;
+import com.smartcms.smartcontent.model.ContentTombstone;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import com.smartcms.smartcontent.repository.ContentTombstoneRepository;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two index instances over one database, as in a multi-replica deployment: the context's index sees writes as they
+ * are made, the other one only through its catch-up polls.
+ */
+@DataMongoTest(properties = {
+        "smartcontent.search.rebuild-on-startup=false",
+        "smartcontent.search.catch-up-enabled=false"
+})
+@Import({ContentSearchIndex.class, ContentSearchIndexer.class, ContentSearchCatchUpTest.Metrics.class})
+class ContentSearchCatchUpTest {
+
+    private static MongoServer mongoServer;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        mongoServer = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = mongoServer.bind();
+        registry.add("spring.data.mongodb.uri",
+                () -> "mongodb://" + address.getHostString() + ":" + address.getPort() + "/smartcms-search");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongoServer.shutdownNow();
+    }
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private ContentTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private ContentSearchIndex writingIndex;
+
+    private ContentSearchIndex otherIndex;
+    private final String orgId = "search-org-" + UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        contentRepository.deleteAll();
+        tombstoneRepository.deleteAll();
+        otherIndex = new ContentSearchIndex(contentRepository, tombstoneRepository, new SimpleMeterRegistry(),
+                100, false, true, Duration.ofSeconds(5), Duration.ofDays(1));
+    }
+
+    @Test
+    void catchUp_shouldIndexWritesMadeThroughAnotherInstance() {
+        String existing = contentRepository.save(content("Annual report")).getId();
+        otherIndex.rebuildAll();
+
+        Content created = contentRepository.save(content("Quarterly report"));
+        assertThat(search(writingIndex, "quarterly")).containsExactly(created.getId());
+        assertThat(search(otherIndex, "quarterly")).isEmpty();
+
+        otherIndex.catchUp();
+        assertThat(search(otherIndex, "quarterly")).containsExactly(created.getId());
+        assertThat(search(otherIndex, "report")).containsExactlyInAnyOrder(existing, created.getId());
+
+        created.setTitle("Monthly report");
+        created.setBody("<p>Monthly report</p>");
+        created.setUpdatedAt(Instant.now());
+        contentRepository.save(created);
+        otherIndex.catchUp();
+        assertThat(search(otherIndex, "monthly")).containsExactly(created.getId());
+        assertThat(search(otherIndex, "quarterly")).isEmpty();
+    }
+
+    @Test
+    void catchUp_shouldRemoveContentDeletedThroughAnotherInstance() {
+        Content content = contentRepository.save(content("Obsolete notice"));
+        otherIndex.rebuildAll();
+        assertThat(search(otherIndex, "obsolete")).containsExactly(content.getId());
+
+        contentRepository.delete(content);
+        assertThat(tombstoneRepository.findById(content.getId())).isPresent();
+        assertThat(search(writingIndex, "obsolete")).isEmpty();
+
+        otherIndex.catchUp();
+        assertThat(search(otherIndex, "obsolete")).isEmpty();
+    }
+
+    @Test
+    void catchUp_shouldRebuildOrgsNewToTheInstance() {
+        otherIndex.rebuildAll();
+        Content content = contentRepository.save(content("First post"));
+
+        otherIndex.catchUp();
+        assertThat(search(otherIndex, "first")).containsExactly(content.getId());
+    }
+
+    @Test
+    void pruneTombstones_shouldKeepOnlyRecentDeletions() {
+        Content content = contentRepository.save(content("Short lived"));
+        contentRepository.delete(content);
+        tombstoneRepository.save(new ContentTombstone("old",
+                Instant.now().minus(Duration.ofDays(2))));
+
+        otherIndex.pruneTombstones();
+        assertThat(tombstoneRepository.findAll()).extracting("id").containsExactly(content.getId());
+    }
+
+    private List<String> search(ContentSearchIndex index, String query) {
+        return index.search(orgId, query, null, null, 0, 10).contentIds();
+    }
+
+    private Content content(String title) {
+        Content content = new Content();
+        content.setTitle(title);
+        content.setBody("<p>" + title + "</p>");
+        content.setVersion(1);
+        content.setStatus(ContentStatus.DRAFT);
+        content.setOrgDetails(new OrgDetails(orgId));
+        content.setCreatedAt(Instant.now());
+        content.setUpdatedAt(Instant.now());
+        return content;
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.smartcms.smartcontent.search;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcommon.model.ContentType;
+import com.smartcms.smartcommon.model.OrgDetails;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import com.smartcms.smartcontent.repository.ContentTombstoneRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures indexing throughput and query latency of the search index for one org with 1,000,000
+ * documents, whose words follow a Zipf distribution over a 50,000-word vocabulary.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class ContentSearchIndexBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentSearchIndexBenchmarkTest.class);
+
+    private static final int DOCUMENTS = 1_000_000;
+    private static final int VOCABULARY = 50_000;
+    private static final int QUERIES = 200;
+    private static final String ORG_ID = "org1";
+
+    private final Random random = new Random(42);
+    private final double[] cumulative = zipf(VOCABULARY);
+
+    @Test
+    @DisplayName("Search queries over 1M documents should stay within a few milliseconds")
+    void benchmarkQueryLatency() {
+        ContentSearchIndex index = new ContentSearchIndex(mock(ContentRepository.class), mock(ContentTombstoneRepository.class),
+                new SimpleMeterRegistry(), 1000, false, false, Duration.ofSeconds(5), Duration.ofDays(1));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < DOCUMENTS; i++) {
+            index.index(Content.builder()
+                    .id(String.format("%024x", i))
+                    .title(words(6))
+                    .description(words(12))
+                    .body(words(40))
+                    .tags(List.of(word(), word()))
+                    .contentType(ContentType.values()[i % ContentType.values().length])
+                    .status(i % 10 == 0 ? ContentStatus.DRAFT : ContentStatus.PUBLISHED)
+                    .orgDetails(new OrgDetails(ORG_ID))
+                    .build());
+        }
+        double indexSeconds = (System.nanoTime() - start) / 1e9;
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        long heapMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        log.info(String.format("Indexed %,d documents in %.1f s (%.0f docs/s), heap in use %d MB",
+                DOCUMENTS, indexSeconds, DOCUMENTS / indexSeconds, heapMb));
+
+        long[] rare = measure(index, i -> term(10_000 + i), null, null);
+        long[] common = measure(index, i -> term(1 + i % 20), null, null);
+        long[] twoTerms = measure(index, i -> term(1 + i % 20) + " " + term(200 + i), null, null);
+        long[] filtered = measure(index, i -> term(1 + i % 20), ContentType.BLOG, ContentStatus.DRAFT);
+        long[] deepPage = measure(index, i -> term(50 + i), null, null, 1000);
+
+        report("rare term", rare);
+        report("common term", common);
+        report("common AND mid term", twoTerms);
+        report("common term, type+status filter", filtered);
+        report("mid term, page 50", deepPage);
+
+        assertTrue(percentile(twoTerms, 0.99) < TimeUnit.MILLISECONDS.toNanos(100),
+                "two-term queries should stay under 100 ms at p99");
+    }
+
+    private long[] measure(ContentSearchIndex index, Function<Integer, String> query, ContentType type,
+                           ContentStatus status) {
+        return measure(index, query, type, status, 0);
+    }
+
+    private long[] measure(ContentSearchIndex index, Function<Integer, String> query, ContentType type,
+                           ContentStatus status, int offset) {
+        for (int i = 0; i < QUERIES / 4; i++) {
+            index.search(ORG_ID, query.apply(i), type, status, offset, 20);
+        }
+        long[] latencies = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String q = query.apply(i);
+            long start = System.nanoTime();
+            index.search(ORG_ID, q, type, status, offset, 20);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void report(String name, long[] latencies) {
+        log.info(String.format("  %-32s p50 = %6.2f ms, p99 = %6.2f ms", name,
+                percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private String words(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(word()).append(' ');
+        }
+        return text.toString();
+    }
+
+    private String word() {
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+        return term((rank < 0 ? -rank - 1 : rank) + 1);
+    }
+
+    /**
+     * @return The word of the given frequency rank (1 is the most frequent)
+     */
+    private static String term(int rank) {
+        return "w" + rank;
+    }
+
+    private static double[] zipf(int size) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1.0 / rank;
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+}
@@ -0,0 +1,188 @@
+package com.smartcms.smartcontent.search;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcommon.model.ContentType;
+import com.smartcms.smartcommon.model.OrgDetails;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import com.smartcms.smartcontent.repository.ContentTombstoneRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ContentSearchIndexTest {
+
+    private static final String ORG_ID = "org1";
+
+    private ContentRepository contentRepository;
+    private ContentSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        contentRepository = mock(ContentRepository.class);
+        index = new ContentSearchIndex(contentRepository, mock(ContentTombstoneRepository.class), new SimpleMeterRegistry(),
+                100, false, false, Duration.ofSeconds(5), Duration.ofDays(1));
+    }
+
+    @Test
+    @DisplayName("Should rank title matches above body matches and require every query term")
+    void testSearch_RankingAndConjunction() {
+        index.index(content("body", "Gardening notes", "Tips on growing tomatoes in spring", ContentStatus.PUBLISHED));
+        index.index(content("title", "Growing Tomatoes", "A short guide", ContentStatus.PUBLISHED));
+        index.index(content("partial", "Tomatoes", "Sauce recipes", ContentStatus.PUBLISHED));
+
+        SearchHits hits = index.search(ORG_ID, "growing TOMATOES", null, null, 0, 10);
+
+        assertEquals(2, hits.total());
+        assertEquals(List.of("title", "body"), hits.contentIds());
+        assertEquals(SearchHits.empty(), index.search(ORG_ID, "tomatoes cucumbers", null, null, 0, 10));
+        assertEquals(SearchHits.empty(), index.search("otherOrg", "tomatoes", null, null, 0, 10));
+    }
+
+    @Test
+    @DisplayName("Should filter by type and status and exclude binned content by default")
+    void testSearch_Filters() {
+        index.index(content("published", "Release notes", "", ContentStatus.PUBLISHED));
+        index.index(content("draft", "Release plan", "", ContentStatus.DRAFT));
+        index.index(content("binned", "Release archive", "", ContentStatus.DELETED));
+        Content page = content("page", "Release page", "", ContentStatus.PUBLISHED);
+        page.setContentType(ContentType.PAGE);
+        index.index(page);
+
+        assertEquals(3, index.search(ORG_ID, "release", null, null, 0, 10).total());
+        assertEquals(List.of("draft"), index.search(ORG_ID, "release", null, ContentStatus.DRAFT, 0, 10).contentIds());
+        assertEquals(List.of("binned"), index.search(ORG_ID, "release", null, ContentStatus.DELETED, 0, 10).contentIds());
+        assertEquals(List.of("page"), index.search(ORG_ID, "release", ContentType.PAGE, ContentStatus.PUBLISHED, 0, 10).contentIds());
+    }
+
+    @Test
+    @DisplayName("Should reflect updates and removals, including after compaction")
+    void testIndex_UpdatesRemovalsAndCompaction() {
+        IntStream.range(0, 2000).forEach(i -> index.index(content("c" + i, "Common title " + i, "", ContentStatus.DRAFT)));
+        index.index(content("c1", "Renamed", "", ContentStatus.DRAFT));
+        IntStream.range(2, 1800).forEach(i -> index.remove("c" + i));
+
+        assertEquals(List.of("c1"), index.search(ORG_ID, "renamed", null, null, 0, 10).contentIds());
+        SearchHits common = index.search(ORG_ID, "common", null, null, 0, 5);
+        assertEquals(201, common.total());
+        assertEquals(5, common.contentIds().size());
+        assertEquals(List.of("c1999"), index.search(ORG_ID, "1999", null, null, 0, 10).contentIds());
+        assertEquals(0, index.search(ORG_ID, "common", null, null, 400, 10).contentIds().size());
+    }
+
+    @Test
+    @DisplayName("Should rebuild an org from MongoDB and keep writes made during the rebuild")
+    void testRebuild_ReplaysConcurrentWrites() {
+        index.index(content("stale", "Obsolete entry", "", ContentStatus.DRAFT));
+        when(contentRepository.streamByOrgId(eq(ORG_ID), isNull(), isNull(), isNull(), eq(ContentSearchIndex.INDEXED_FIELDS), eq(100)))
+                .thenAnswer(invocation -> Stream.of(
+                        content("a", "Alpha article", "", ContentStatus.PUBLISHED),
+                        content("b", "Beta article", "", ContentStatus.PUBLISHED)
+                ).peek(content -> {
+                    if (content.getId().equals("b")) {
+                        // Written while the rebuild is streaming
+                        index.index(content("c", "Gamma article", "", ContentStatus.PUBLISHED));
+                        index.remove("a");
+                    }
+                }));
+
+        assertEquals(2, index.rebuild(ORG_ID));
+
+        assertEquals(List.of("b", "c"), index.search(ORG_ID, "article", null, null, 0, 10).contentIds().stream().sorted().toList());
+        assertEquals(0, index.search(ORG_ID, "obsolete", null, null, 0, 10).total());
+    }
+
+    @Test
+    @DisplayName("Should keep tag counts current as content is retagged, binned and removed")
+    void testTopTags_Counts() {
+        index.index(tagged("a", ContentStatus.PUBLISHED, "Java", "Spring"));
+        index.index(tagged("b", ContentStatus.DRAFT, "java", " spring ", "Mongo"));
+        index.index(tagged("c", ContentStatus.PUBLISHED, "JAVA"));
+        index.index(tagged("b", ContentStatus.DRAFT, "java", "mongo"));
+        index.index(tagged("c", ContentStatus.DELETED, "java"));
+
+        assertEquals(List.of(new TagCount("java", 2), new TagCount("mongo", 1), new TagCount("spring", 1)),
+                index.topTags(ORG_ID, 10));
+        assertEquals(List.of(new TagCount("java", 2)), index.topTags(ORG_ID, 1));
+
+        index.remove("a");
+        assertEquals(List.of(new TagCount("java", 1), new TagCount("mongo", 1)), index.topTags(ORG_ID, 10));
+        assertEquals(List.of(), index.topTags("otherOrg", 10));
+    }
+
+    @Test
+    @DisplayName("Should suggest tags by prefix and filter content by all or any tags")
+    void testTags_SuggestAndFilter() {
+        index.index(tagged("a", ContentStatus.PUBLISHED, "gardening", "tomatoes"));
+        index.index(tagged("b", ContentStatus.PUBLISHED, "gardening", "roses"));
+        index.index(tagged("c", ContentStatus.PUBLISHED, "garlic", "tomatoes"));
+        index.index(tagged("d", ContentStatus.DELETED, "gardening", "tomatoes"));
+
+        assertEquals(List.of(new TagCount("gardening", 2), new TagCount("garlic", 1)), index.suggestTags(ORG_ID, "GAR", 10));
+        assertEquals(List.of(), index.suggestTags(ORG_ID, "x", 10));
+
+        assertEquals(List.of("a"), index.findByTags(ORG_ID, List.of("Gardening", "tomatoes"), true, 0, 10).contentIds());
+        SearchHits any = index.findByTags(ORG_ID, List.of("roses", "tomatoes", "unknown"), false, 0, 2);
+        assertEquals(3, any.total());
+        assertEquals(List.of("c", "b"), any.contentIds());
+        assertEquals(List.of("a"), index.findByTags(ORG_ID, List.of("roses", "tomatoes"), false, 2, 2).contentIds());
+        assertEquals(0, index.findByTags(ORG_ID, List.of("roses", "unknown"), true, 0, 10).total());
+    }
+
+    @Test
+    @DisplayName("Should rank similar content by shared terms and tags, excluding itself, binned and removed content")
+    void testSimilar() {
+        Content source = tagged("src", ContentStatus.PUBLISHED, "gardening", "tomatoes");
+        source.setTitle("Growing tomatoes");
+        index.index(source);
+        Content close = tagged("close", ContentStatus.PUBLISHED, "gardening", "tomatoes");
+        close.setTitle("Tomatoes for beginners");
+        index.index(close);
+        Content tagOnly = tagged("tagOnly", ContentStatus.DRAFT, "gardening");
+        tagOnly.setTitle("Pruning roses");
+        index.index(tagOnly);
+        Content binned = tagged("binned", ContentStatus.DELETED, "gardening", "tomatoes");
+        binned.setTitle("Growing tomatoes");
+        index.index(binned);
+        index.index(content("unrelated", "Quarterly report", "", ContentStatus.PUBLISHED));
+
+        List<SimilarContent> similar = index.similar(ORG_ID, source, 10);
+
+        assertEquals(List.of("close", "tagOnly"), similar.stream().map(SimilarContent::contentId).toList());
+        assertTrue(similar.get(0).score() > similar.get(1).score());
+        assertEquals(1, index.similar(ORG_ID, source, 1).size());
+        assertEquals(List.of(), index.similar("otherOrg", source, 10));
+        // Scores are accumulated in per-thread arrays, which must start from zero on every call
+        assertEquals(similar, index.similar(ORG_ID, source, 10));
+        index.remove("close");
+        assertEquals(List.of("tagOnly"), index.similar(ORG_ID, source, 10).stream().map(SimilarContent::contentId).toList());
+    }
+
+    private static Content tagged(String id, ContentStatus status, String... tags) {
+        Content content = content(id, "Title " + id, "", status);
+        content.setTags(List.of(tags));
+        return content;
+    }
+
+    private static Content content(String id, String title, String body, ContentStatus status) {
+        return Content.builder()
+                .id(id)
+                .title(title)
+                .body(body)
+                .tags(List.of())
+                .contentType(ContentType.ARTICLE)
+                .status(status)
+                .orgDetails(new OrgDetails(ORG_ID))
+                .build();
+    }
+}
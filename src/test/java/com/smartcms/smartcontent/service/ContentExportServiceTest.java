@@ -0,0 +1,110 @@
+package com.smartcms.smartcontent.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContentExportServiceTest {
+
+    private static final String ORG_ID = "org123";
+
+    @Mock
+    private ContentRepository contentRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private ContentExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ContentExportService(contentRepository, objectMapper, 2);
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line and close the cursor")
+    void testExport_WritesNdjson() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(contentRepository.streamByOrgId(eq(ORG_ID), isNull(), isNull(), isNull(), isNull(), eq(2)))
+                .thenReturn(Stream.of(content("c1"), content("c2"), content("c3")).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = exportService.exportOrgContent(ORG_ID, null, null, null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, exported);
+        assertEquals(4, lines.length);
+        assertEquals("", lines[3]);
+        assertEquals("c2", objectMapper.readTree(lines[1]).get("id").asText());
+        assertEquals("Title c3", objectMapper.readTree(lines[2]).get("title").asText());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    @DisplayName("Should pass filters to the cursor and export only requested fields")
+    void testExport_FiltersAndFields() throws IOException {
+        Instant after = Instant.parse("2024-01-01T00:00:00Z");
+        Instant before = Instant.parse("2024-02-01T00:00:00Z");
+        Set<String> fields = Set.of("id", "title");
+        when(contentRepository.streamByOrgId(ORG_ID, ContentStatus.PUBLISHED, after, before, fields, 2))
+                .thenReturn(Stream.of(content("c1")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportOrgContent(ORG_ID, ContentStatus.PUBLISHED, after, before, fields, out);
+
+        JsonNode line = objectMapper.readTree(out.toString(StandardCharsets.UTF_8).trim());
+        assertEquals(Set.of("id", "title"), Set.copyOf(fieldNames(line)));
+    }
+
+    @Test
+    @DisplayName("Should reject an empty updatedAt range before touching the database")
+    void testValidateExport_InvalidRange() {
+        Instant now = Instant.now();
+
+        assertThrows(IllegalArgumentException.class, () -> exportService.validateExport(ORG_ID, now, now));
+        verify(contentRepository, never()).streamByOrgId(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    static Content content(String id) {
+        return Content.builder()
+                .id(id)
+                .title("Title " + id)
+                .slug("title-" + id)
+                .body("Body of " + id)
+                .status(ContentStatus.PUBLISHED)
+                .version(1)
+                .createdAt(Instant.parse("2024-01-15T10:00:00Z"))
+                .updatedAt(Instant.parse("2024-01-15T10:00:00Z"))
+                .build();
+    }
+}
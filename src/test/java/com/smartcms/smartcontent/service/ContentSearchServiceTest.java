@@ -0,0 +1,60 @@
+package com.smartcms.smartcontent.service;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcontent.model.PaginatedResponse;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import com.smartcms.smartcontent.search.ContentSearchIndex;
+import com.smartcms.smartcontent.search.SearchHits;
+import com.smartcms.smartcontent.utility.ContentFields;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContentSearchServiceTest {
+
+    @Mock
+    private ContentSearchIndex contentSearchIndex;
+
+    @Mock
+    private ContentRepository contentRepository;
+
+    @InjectMocks
+    private ContentSearchService contentSearchService;
+
+    @Test
+    @DisplayName("Should return hits in rank order without their bodies and drop items no longer in the database")
+    void testSearchContent_RankOrder() {
+        when(contentSearchIndex.search("org1", "query", null, null, 20, 10))
+                .thenReturn(new SearchHits(23, List.of("c3", "gone", "c1")));
+        when(contentRepository.findProjectedByIdIn(List.of("c3", "gone", "c1"), ContentFields.LIST_FIELDS))
+                .thenReturn(List.of(Content.builder().id("c1").build(), Content.builder().id("c3").build()));
+
+        PaginatedResponse<Content> response = contentSearchService.searchContent("org1", "query", null, null, 2, 10);
+
+        assertEquals(List.of("c3", "c1"), response.getContent().stream().map(Content::getId).toList());
+        assertEquals(23, response.getTotalElements());
+        assertEquals(3, response.getTotalPages());
+        assertTrue(response.isLast());
+        assertFalse(ContentFields.LIST_FIELDS.contains("body"));
+        verify(contentRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Should reject blank queries and out-of-range pages")
+    void testSearchContent_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> contentSearchService.searchContent("org1", " ", null, null, 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> contentSearchService.searchContent("org1", "q", null, null, 0, 101));
+        assertThrows(IllegalArgumentException.class, () -> contentSearchService.searchContent("org1", "q", null, null, 500, 100));
+        verify(contentSearchIndex, never()).search(any(), any(), any(), any(), anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,134 @@
+package com.smartcms.smartcontent.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentType;
+import com.smartcms.smartcontent.client.SmartAIClient;
+import com.smartcms.smartcontent.config.HttpClientProperties;
+import com.smartcms.smartcontent.dto.ContentRequest;
+import com.smartcms.smartcontent.repository.ContentHistoryRepository;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import com.smartcms.smartcontent.repository.ContentStatusAuditRepository;
+import com.smartcms.smartcontent.resilience.ResilienceProperties;
+import com.smartcms.smartcontent.resilience.ResilientExecutor;
+import com.smartcms.smartcontent.search.ContentSearchIndex;
+import com.smartcms.smartcontent.utility.AISlugResolver;
+import com.smartcms.smartcontent.utility.SlugGenerator;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies that content creation overlaps the SmartAI slug call with the Mongo insert,
+ * using a stub SmartAI server and a repository whose save takes as long as the AI call.
+ */
+class ContentServiceImplOverlapTest {
+
+    private static final long LATENCY_MILLIS = 300;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ContentRepository contentRepository;
+    private ContentServiceImpl contentService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/api/smartai/generate-slug", exchange -> {
+            sleep(LATENCY_MILLIS);
+            byte[] body = "ai-generated-slug".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SmartAIClient smartAIClient = new SmartAIClient(
+                new RestTemplate(),
+                new ResilientExecutor("smartai", new ResilienceProperties(), meterRegistry),
+                HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build(),
+                new ObjectMapper(),
+                new HttpClientProperties());
+        ReflectionTestUtils.setField(smartAIClient, "smartAIBaseUrl", "http://localhost:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(smartAIClient, "enabled", true);
+        AISlugResolver aiSlugResolver = new AISlugResolver(smartAIClient, meterRegistry,
+                Duration.ofSeconds(2), Duration.ofMinutes(5), 100);
+
+        SlugGenerator slugGenerator = mock(SlugGenerator.class);
+        when(slugGenerator.generateSlug(anyString())).thenReturn("");
+        when(slugGenerator.generateProvisionalSlug()).thenReturn("untitled-1");
+
+        contentRepository = mock(ContentRepository.class);
+        contentService = new ContentServiceImpl(slugGenerator, contentRepository,
+                mock(ContentHistoryRepository.class), mock(ContentStatusAuditRepository.class),
+                mock(MediaDeletionOutboxService.class), aiSlugResolver, mock(ContentSearchIndex.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should overlap the SmartAI call with the content insert")
+    void testCreateContent_OverlapsAICallWithInsert() throws Exception {
+        when(contentRepository.save(any(Content.class))).thenAnswer(invocation -> {
+            sleep(LATENCY_MILLIS);
+            Content saved = invocation.getArgument(0);
+            saved.setId("content123");
+            return saved;
+        });
+        CompletableFuture<Long> slugApplied = new CompletableFuture<>();
+        when(contentRepository.updateSlugIfUnchanged(eq("content123"), eq("untitled-1"), eq("ai-generated-slug"), any()))
+                .thenAnswer(invocation -> {
+                    slugApplied.complete(System.nanoTime());
+                    return 1L;
+                });
+
+        long start = System.nanoTime();
+        contentService.createContent(ContentRequest.builder()
+                .title("Test Title")
+                .description("Test Description")
+                .body("Test Body Content")
+                .contentType(ContentType.ARTICLE)
+                .build(), "user123", "org123");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(slugApplied.get(2, TimeUnit.SECONDS) - start);
+
+        // Run back to back the insert and the AI call would take at least twice the latency
+        assertTrue(elapsedMillis < LATENCY_MILLIS * 2 - LATENCY_MILLIS / 3,
+                "Expected overlapped latency but took " + elapsedMillis + " ms");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,21 +3,29 @@ package com.smartcms.smartcontent.service;
 import com.smartcms.smartcommon.exception.ResourceNotFoundException;
 import com.smartcms.smartcommon.exception.ServiceLayerException;
 import com.smartcms.smartcommon.model.*;
+import com.smartcms.smartcontent.budget.QueryBudget;
+import com.smartcms.smartcontent.dto.ContentBatchResponse;
 import com.smartcms.smartcontent.dto.ContentRequest;
 import com.smartcms.smartcontent.dto.ContentUpdateRequest;
 
 import com.smartcms.smartcontent.dto.ContentVersionDto;
 import com.smartcms.smartcontent.dto.SlugValidationResponse;
+import com.smartcms.smartcontent.exception.ClientException;
 import com.smartcms.smartcontent.model.*;
 import com.smartcms.smartcontent.repository.ContentHistoryRepository;
 import com.smartcms.smartcontent.repository.ContentRepository;
 import com.smartcms.smartcontent.repository.ContentStatusAuditRepository;
+import com.smartcms.smartcontent.search.ContentSearchIndex;
+import com.smartcms.smartcontent.utility.AISlugResolver;
+import com.smartcms.smartcontent.utility.ContentETags;
+import com.smartcms.smartcontent.utility.ContentFields;
 import com.smartcms.smartcontent.utility.SlugGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -25,15 +33,19 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,6 +63,16 @@ class ContentServiceImplTest {
     @Mock
     private SlugGenerator slugGenerator;
 
+    @Mock
+    @QueryBudget.Outbound
+    private AISlugResolver aiSlugResolver;
+
+    @Mock
+    private MediaDeletionOutboxService mediaDeletionOutbox;
+
+    @Mock
+    private ContentSearchIndex contentSearchIndex;
+
     @InjectMocks
     private ContentServiceImpl contentServiceImpl;
 
@@ -145,6 +167,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should successfully create content")
+    @QueryBudget(writes = 1)
     void testCreateContent_Success() {
         when(slugGenerator.generateSlug(anyString())).thenReturn("test-title");
         when(contentRepository.save(any(Content.class))).thenReturn(content);
@@ -161,8 +184,46 @@ class ContentServiceImplTest {
         verify(slugGenerator, times(1)).generateSlug(anyString());
     }
 
+    @Test
+    @DisplayName("Should create content with provisional slug and apply AI slug when ready")
+    @QueryBudget(writes = 2, outbound = 1)
+    void testCreateContent_ProvisionalSlugReplacedByAISlug() {
+        when(slugGenerator.generateSlug(anyString())).thenReturn("");
+        when(slugGenerator.generateProvisionalSlug()).thenReturn("untitled-1");
+        when(contentRepository.save(any(Content.class))).thenAnswer(invocation -> {
+            Content saved = invocation.getArgument(0);
+            saved.setId(CONTENT_ID);
+            return saved;
+        });
+        when(aiSlugResolver.resolve(contentRequest.getDescription()))
+                .thenReturn(CompletableFuture.completedFuture("ai-slug"));
+
+        Content createdContent = contentServiceImpl.createContent(contentRequest, USER_ID, ORG_ID);
+
+        assertEquals("untitled-1", createdContent.getSlug());
+        verify(slugGenerator, never()).generateSlugWithAI(anyString());
+        verify(contentRepository).updateSlugIfUnchanged(eq(CONTENT_ID), eq("untitled-1"), eq("ai-slug"), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should keep provisional slug when AI slug generation fails")
+    @QueryBudget(writes = 1, outbound = 1)
+    void testCreateContent_AISlugFailureKeepsProvisionalSlug() {
+        when(slugGenerator.generateSlug(anyString())).thenReturn("");
+        when(slugGenerator.generateProvisionalSlug()).thenReturn("untitled-1");
+        when(contentRepository.save(any(Content.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(aiSlugResolver.resolve(anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("AI down")));
+
+        Content createdContent = contentServiceImpl.createContent(contentRequest, USER_ID, ORG_ID);
+
+        assertEquals("untitled-1", createdContent.getSlug());
+        verify(contentRepository, never()).updateSlugIfUnchanged(any(), any(), any(), any());
+    }
+
     @Test
     @DisplayName("Should throw exception when title and body is empty")
+    @QueryBudget
     void testCreateContent_ValidationFailure() {
         contentRequest.setTitle(null);
         contentRequest.setBody(null);
@@ -178,6 +239,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should get content by ID successfully")
+    @QueryBudget(reads = 1)
     void testGetContentById_Success() {
         // Mock repository
         when(contentRepository.findById(CONTENT_ID)).thenReturn(Optional.of(content));
@@ -191,6 +253,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should throw exception when content not found")
+    @QueryBudget(reads = 1)
     void testGetContentById_NotFound() {
         when(contentRepository.findById(CONTENT_ID)).thenReturn(Optional.empty());
 
@@ -203,6 +266,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should get content by organization")
+    @QueryBudget(reads = 1)
     void testGetOrgContent_Success() {
         Page<Content> page = new PageImpl<>(List.of(content));
         when(contentRepository.findByOrgIdAndStatusNot(eq(ORG_ID), eq(ContentStatus.DELETED), any(Pageable.class)))
@@ -218,6 +282,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should get empty list when no content found for organization")
+    @QueryBudget(reads = 1)
     void testGetOrgContent_Empty() {
         Page<Content> page = new PageImpl<>(Collections.emptyList());
         when(contentRepository.findByOrgIdAndStatusNot(eq(ORG_ID), eq(ContentStatus.DELETED), any(Pageable.class)))
@@ -234,6 +299,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should update content successfully")
+    @QueryBudget(reads = 1, writes = 2)
     void testUpdateContent_Success() {
         when(contentRepository.findById(CONTENT_ID)).thenReturn(Optional.of(content));
         when(contentRepository.save(any(Content.class))).thenReturn(content);
@@ -253,8 +319,114 @@ class ContentServiceImplTest {
         verify(contentHistoryRepository, times(1)).save(any(ContentHistory.class));
     }
 
+    @Test
+    @DisplayName("Should reject update when If-Match does not match current ETag")
+    @QueryBudget(reads = 1)
+    void testUpdateContent_IfMatchConflict() {
+        when(contentRepository.findById(CONTENT_ID)).thenReturn(Optional.of(content));
+
+        ClientException exception = assertThrows(ClientException.class,
+                () -> contentServiceImpl.updateContent(CONTENT_ID, contentUpdateRequest, USER_ID, "\"outdated\""));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatus());
+        verify(contentRepository, never()).save(any(Content.class));
+        verify(contentHistoryRepository, never()).save(any(ContentHistory.class));
+    }
+
+    @Test
+    @DisplayName("Should update when If-Match matches current ETag")
+    @QueryBudget(reads = 1, writes = 2)
+    void testUpdateContent_IfMatchSuccess() {
+        when(contentRepository.findById(CONTENT_ID)).thenReturn(Optional.of(content));
+        when(contentRepository.save(any(Content.class))).thenReturn(content);
+
+        Content updatedContent = contentServiceImpl.updateContent(CONTENT_ID, contentUpdateRequest, USER_ID,
+                ContentETags.of(content));
+
+        assertEquals("Updated Title", updatedContent.getTitle());
+    }
+
+    @Test
+    @DisplayName("Should read only requested fields when a fieldset is given")
+    @QueryBudget(reads = 1)
+    void testGetContentById_WithFields() {
+        Set<String> fields = Set.of("id", "title");
+        when(contentRepository.findProjectedById(CONTENT_ID, fields)).thenReturn(Optional.of(content));
+
+        assertEquals(content, contentServiceImpl.getContentById(CONTENT_ID, fields));
+        verify(contentRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should page org content through the projected query when a fieldset is given")
+    @QueryBudget(reads = 1)
+    void testGetOrgContent_WithFields() {
+        Set<String> fields = Set.of("id", "status");
+        when(contentRepository.findProjectedByOrgIdAndStatusNot(eq(ORG_ID), eq(ContentStatus.DELETED), any(Pageable.class), eq(fields)))
+                .thenReturn(new PageImpl<>(List.of(content)));
+
+        PaginatedResponse<Content> response = contentServiceImpl.getOrgContent(ORG_ID, 0, 20, null, fields);
+
+        assertEquals(1, response.getContent().size());
+        verify(contentRepository, never()).findByOrgIdAndStatusNot(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should resolve a batch of IDs in request order and report missing IDs")
+    @QueryBudget(reads = 1)
+    void testGetContentByIds_PreservesOrder() {
+        ReflectionTestUtils.setField(contentServiceImpl, "maxBatchSize", 5);
+        Content first = Content.builder().id("c1").build();
+        Content second = Content.builder().id("c2").build();
+        when(contentRepository.findProjectedByIdIn(any(), eq(ContentFields.LIST_FIELDS)))
+                .thenReturn(List.of(first, second));
+
+        ContentBatchResponse<Content> batch = contentServiceImpl.getContentByIds(List.of("c2", "gone", "c1", "c2"), null);
+
+        assertEquals(List.of(second, first), batch.getItems());
+        assertEquals(List.of("gone"), batch.getMissing());
+        verify(contentRepository, times(1)).findProjectedByIdIn(Set.of("c2", "gone", "c1"), ContentFields.LIST_FIELDS);
+        verify(contentRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Should use the projected $in query when a fieldset is given")
+    @QueryBudget(reads = 1)
+    void testGetContentByIds_WithFields() {
+        ReflectionTestUtils.setField(contentServiceImpl, "maxBatchSize", 5);
+        Set<String> fields = Set.of("id", "title");
+        when(contentRepository.findProjectedByIdIn(any(), eq(fields))).thenReturn(List.of(content));
+
+        ContentBatchResponse<Content> batch = contentServiceImpl.getContentByIds(List.of(CONTENT_ID), fields);
+
+        assertEquals(List.of(content), batch.getItems());
+        verify(contentRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Should reject batches larger than the configured maximum")
+    @QueryBudget
+    void testGetContentByIds_TooMany() {
+        ReflectionTestUtils.setField(contentServiceImpl, "maxBatchSize", 2);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> contentServiceImpl.getContentByIds(List.of("c1", "c2", "c3"), null));
+        verifyNoInteractions(contentRepository);
+    }
+
+    @Test
+    @DisplayName("Should resolve ETag from version-only projection")
+    @QueryBudget(reads = 1)
+    void testGetContentETag() {
+        when(contentRepository.findVersionById(CONTENT_ID)).thenReturn(Optional.of(content));
+
+        assertEquals(ContentETags.of(content), contentServiceImpl.getContentETag(CONTENT_ID));
+        verify(contentRepository, never()).findById(any());
+    }
+
     @Test
     @DisplayName("Should throw exception when updating non-existent content")
+    @QueryBudget(reads = 1)
     void testUpdateContent_NotFound() {
         when(contentRepository.findById(CONTENT_ID)).thenReturn(Optional.empty());
 
@@ -267,6 +439,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should return content by status")
+    @QueryBudget(reads = 1)
     void testGetContentByStatus_Success() {
         Page<Content> page = new PageImpl<>(List.of(content));
         when(contentRepository.findByOrgIdAndStatus(eq(ORG_ID), eq(ContentStatus.DRAFT), any(Pageable.class)))
@@ -285,6 +458,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should update content status successfully")
+    @QueryBudget(reads = 1, writes = 2)
     void testUpdateContentStatus_Success() {
         when(contentRepository.findById(CONTENT_ID)).thenReturn(Optional.of(content));
         when(contentRepository.save(any(Content.class))).thenReturn(content);
@@ -300,6 +474,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should throw exception when updating status for non-existent content")
+    @QueryBudget(reads = 1)
     void testUpdateContentStatus_NotFound() {
         when(contentRepository.findById(CONTENT_ID)).thenReturn(Optional.empty());
 
@@ -314,6 +489,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should throw exception when updating status to invalid transition")
+    @QueryBudget(reads = 1)
     void testUpdateContentStatus_InvalidTransition() {
         when(contentRepository.findById(CONTENT_ID)).thenReturn(Optional.of(content));
 
@@ -328,6 +504,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should schedule content publishing")
+    @QueryBudget(reads = 1, writes = 2)
     void testSchedulePublishing_Success() {
         content.setStatus(ContentStatus.APPROVED);
         when(contentRepository.findById(CONTENT_ID)).thenReturn(Optional.of(content));
@@ -343,7 +520,8 @@ class ContentServiceImplTest {
     }
 
     @Test
-    @DisplayName("Should publish both current and missed scheduled content")
+    @DisplayName("Should publish both current and missed scheduled content with one update and one audit insert")
+    @QueryBudget(reads = 2, writes = 2)
     void testProcessScheduledContent_PublishesContent() {
         Instant now = Instant.now();
         Content current = new Content();
@@ -360,21 +538,81 @@ class ContentServiceImplTest {
                 .thenReturn(List.of(current));
         when(contentRepository.findByStatusAndScheduledPublishAtBefore(eq(ContentStatus.SCHEDULED), any()))
                 .thenReturn(List.of(missed));
+        when(contentRepository.updateStatusIfUnchanged(eq(List.of("content1", "content2")), eq(ContentStatus.SCHEDULED),
+                eq(ContentStatus.PUBLISHED), any())).thenReturn(2L);
 
+        contentServiceImpl.processScheduledContent();
+
+        verify(contentRepository, never()).save(any());
+        verify(contentStatusAuditRepository).saveAll(argThat((List<ContentStatusAudit> audits) ->
+                audits.stream().map(ContentStatusAudit::getContentId).toList().equals(List.of("content1", "content2"))
+                        && audits.stream().allMatch(audit -> audit.getOldStatus() == ContentStatus.SCHEDULED
+                        && audit.getNewStatus() == ContentStatus.PUBLISHED)));
+        verify(contentSearchIndex).reindex(List.of("content1", "content2"));
+    }
+
+    @Test
+    @DisplayName("Should audit only the scheduled content whose status did not change before publishing")
+    @QueryBudget(reads = 3, writes = 2)
+    void testProcessScheduledContent_SkipsChangedContent() {
+        Content due = new Content();
+        due.setId("content1");
+        due.setStatus(ContentStatus.SCHEDULED);
+        Content archived = new Content();
+        archived.setId("content2");
+        archived.setStatus(ContentStatus.SCHEDULED);
+        when(contentRepository.findByStatusAndScheduledPublishAtBetween(eq(ContentStatus.SCHEDULED), any(), any()))
+                .thenReturn(List.of(due, archived));
+        when(contentRepository.findByStatusAndScheduledPublishAtBefore(eq(ContentStatus.SCHEDULED), any()))
+                .thenReturn(List.of());
+        ArgumentCaptor<Instant> publishedAt = ArgumentCaptor.forClass(Instant.class);
+        when(contentRepository.updateStatusIfUnchanged(any(), any(), any(), publishedAt.capture())).thenReturn(1L);
+        when(contentRepository.findProjectedByIdIn(List.of("content1", "content2"), Set.of("id", "status", "updatedAt")))
+                .thenAnswer(invocation -> List.of(
+                        Content.builder().id("content1").status(ContentStatus.PUBLISHED)
+                                .updatedAt(publishedAt.getValue()).build(),
+                        Content.builder().id("content2").status(ContentStatus.ARCHIVED)
+                                .updatedAt(publishedAt.getValue().minusSeconds(1)).build()));
 
         contentServiceImpl.processScheduledContent();
 
-        verify(contentRepository, times(1)).save(argThat(content ->
-                content.getId().equals("content1") && content.getStatus() == ContentStatus.PUBLISHED));
+        verify(contentStatusAuditRepository).saveAll(argThat((List<ContentStatusAudit> audits) ->
+                audits.stream().map(ContentStatusAudit::getContentId).toList().equals(List.of("content1"))));
+    }
 
-        verify(contentRepository, times(1)).save(argThat(content ->
-                content.getId().equals("content2") && content.getStatus() == ContentStatus.PUBLISHED));
+    @Test
+    @DisplayName("Should not audit scheduled content that another run or user already published")
+    @QueryBudget(reads = 3, writes = 2)
+    void testProcessScheduledContent_SkipsContentPublishedElsewhere() {
+        Content due = new Content();
+        due.setId("content1");
+        due.setStatus(ContentStatus.SCHEDULED);
+        Content publishedElsewhere = new Content();
+        publishedElsewhere.setId("content2");
+        publishedElsewhere.setStatus(ContentStatus.SCHEDULED);
+        when(contentRepository.findByStatusAndScheduledPublishAtBetween(eq(ContentStatus.SCHEDULED), any(), any()))
+                .thenReturn(List.of(due, publishedElsewhere));
+        when(contentRepository.findByStatusAndScheduledPublishAtBefore(eq(ContentStatus.SCHEDULED), any()))
+                .thenReturn(List.of());
+        ArgumentCaptor<Instant> publishedAt = ArgumentCaptor.forClass(Instant.class);
+        when(contentRepository.updateStatusIfUnchanged(any(), any(), any(), publishedAt.capture())).thenReturn(1L);
+        when(contentRepository.findProjectedByIdIn(List.of("content1", "content2"), Set.of("id", "status", "updatedAt")))
+                .thenAnswer(invocation -> List.of(
+                        Content.builder().id("content1").status(ContentStatus.PUBLISHED)
+                                .updatedAt(publishedAt.getValue()).build(),
+                        Content.builder().id("content2").status(ContentStatus.PUBLISHED)
+                                .updatedAt(publishedAt.getValue().minusMillis(1)).build()));
 
-        verify(contentStatusAuditRepository, times(2)).save(any(ContentStatusAudit.class));
+        contentServiceImpl.processScheduledContent();
+
+        verify(contentStatusAuditRepository).saveAll(argThat((List<ContentStatusAudit> audits) ->
+                audits.stream().map(ContentStatusAudit::getContentId).toList().equals(List.of("content1"))));
+        verify(contentSearchIndex).reindex(List.of("content1"));
     }
 
     @Test
     @DisplayName("Should not publish anything when no scheduled content found")
+    @QueryBudget(reads = 2)
     void testProcessScheduledContent_NoContent() {
         when(contentRepository.findByStatusAndScheduledPublishAtBetween(any(), any(), any()))
                 .thenReturn(Collections.emptyList());
@@ -384,13 +622,14 @@ class ContentServiceImplTest {
 
         contentServiceImpl.processScheduledContent();
 
-        verify(contentRepository, never()).save(any());
-        verify(contentStatusAuditRepository, never()).save(any());
+        verify(contentRepository, never()).updateStatusIfUnchanged(any(), any(), any(), any());
+        verify(contentStatusAuditRepository, never()).saveAll(any());
     }
 
 
     @Test
     @DisplayName("Should move content to bin")
+    @QueryBudget(reads = 1, writes = 1)
     void testMoveToBin_Success() {
         // Mock repository
         when(contentRepository.findById(CONTENT_ID)).thenReturn(Optional.of(content));
@@ -406,6 +645,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should throw exception when moving already deleted content to bin")
+    @QueryBudget(reads = 1)
     void testDeleteContent_AlreadyDeleted() {
         content.setStatus(ContentStatus.DELETED);
         when(contentRepository.findById(CONTENT_ID)).thenReturn(Optional.of(content));
@@ -420,6 +660,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should restore content from bin successfully")
+    @QueryBudget(reads = 1, writes = 1)
     void testRestoreContent_Success() {
         content.setStatus(ContentStatus.DELETED);
         // Mock repository
@@ -438,6 +679,7 @@ class ContentServiceImplTest {
     // Todo: Need improve the test case when deleteAssociatedMedia is ready
     @Test
     @DisplayName("Should permanently delete expired DELETED content older than 15 days")
+    @QueryBudget(reads = 1, writes = 1, serviceCalls = 1)
     void testPermanentDeleteExpiredContent_SuccessfulPurge() {
         // Arrange
         Instant now = Instant.now();
@@ -452,11 +694,13 @@ class ContentServiceImplTest {
         contentServiceImpl.permanentDeleteExpiredContent();
 
         verify(contentRepository, times(1)).findByStatusAndDeletedAtBefore(eq(ContentStatus.DELETED), any());
+        verify(mediaDeletionOutbox, times(1)).enqueue(expiredContentList);
         verify(contentRepository, times(1)).deleteAll(expiredContentList);
     }
 
     @Test
     @DisplayName("Should return bin content")
+    @QueryBudget(reads = 1)
     void testGetBinContent_Success() {
         content.setStatus(ContentStatus.DELETED);
         Page<Content> page = new PageImpl<>(List.of(content));
@@ -472,19 +716,23 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should permanently delete content when status is DELETED")
+    @QueryBudget(reads = 1, writes = 1, serviceCalls = 1)
     void testDeleteContent_WhenStatusIsDeleted_ShouldDeleteSuccessfully() {
         content.setStatus(ContentStatus.DELETED);
 
         when(contentRepository.findById(content.getId())).thenReturn(Optional.of(content));
         contentServiceImpl.deleteContent(content.getId());
 
-        verify(contentRepository).delete(content);
+        InOrder inOrder = inOrder(mediaDeletionOutbox, contentRepository);
+        inOrder.verify(mediaDeletionOutbox).enqueue(List.of(content));
+        inOrder.verify(contentRepository).delete(content);
         verify(contentRepository).findById(content.getId());
     }
 
 
     @Test
     @DisplayName("Should throw IllegalStateException if content status is not DELETED")
+    @QueryBudget(reads = 1, serviceCalls = 0)
     void testDeleteContent_WhenStatusNotDeleted_ShouldThrow() {
         when(contentRepository.findById(content.getId())).thenReturn(Optional.of(content));
 
@@ -498,6 +746,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should return list of content versions for given contentId")
+    @QueryBudget(reads = 1)
     void testGetContentVersions_Success() {
         content.setVersion(2);
         ContentHistory history1 = new ContentHistory();
@@ -519,6 +768,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should throw exception when no content versions found")
+    @QueryBudget(reads = 1)
     void testGetContentVersions_ThrowsExceptionWhenEmpty() {
         // Arrange
         String contentId = "nonexistent";
@@ -535,6 +785,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should rollback content to a previous version")
+    @QueryBudget(reads = 2, writes = 2)
     void testRollbackContent_Success() {
         content.setVersion(2);
 
@@ -556,6 +807,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should throw exception when rolling back non-existent version")
+    @QueryBudget(reads = 2)
     void testRollbackContent_VersionNotFound() {
         content.setVersion(2); // ensure rollback is allowed
 
@@ -567,11 +819,14 @@ class ContentServiceImplTest {
                 () -> contentServiceImpl.rollbackContent(CONTENT_ID, 1, USER_ID, EnumSet.of(RollbackField.TITLE)));
 
         assertEquals("Content history not found for version: 1", exception.getMessage());
+        verify(contentHistoryRepository, never()).save(any(ContentHistory.class));
+        verify(contentRepository, never()).save(any(Content.class));
     }
 
 
     @Test
     @DisplayName("Should update content slug successfully")
+    @QueryBudget(reads = 1, writes = 2)
     void testUpdateSlug_Success() {
         when(contentRepository.findById(CONTENT_ID)).thenReturn(Optional.of(content));
         when(contentRepository.save(any(Content.class))).thenReturn(content);
@@ -588,6 +843,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should throw exception when updating slug for non-existent content")
+    @QueryBudget(reads = 1)
     void testUpdateSlug_NotFound() {
         when(contentRepository.findById(CONTENT_ID)).thenReturn(Optional.empty());
 
@@ -599,6 +855,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should generate base slug when available")
+    @QueryBudget(reads = 1)
     void testGenerateUniqueSlug_BaseSlugAvailable() {
         content.setTitle("Best SEO Practices");
         content.setDescription("Learn the best SEO practices for 2025");
@@ -616,6 +873,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should return true when slug is available")
+    @QueryBudget
     void testValidateSlug_WhenAvailable() {
         String slug = "available-slug";
 
@@ -628,6 +886,7 @@ class ContentServiceImplTest {
     }
 
     @DisplayName("Should return false with suggestions when slug is taken")
+    @QueryBudget
     @Test
     void testValidateSlug_WhenNotAvailable() {
         String slug = "taken-slug";
@@ -644,6 +903,7 @@ class ContentServiceImplTest {
 
     @Test
     @DisplayName("Should return list of content status audits for given contentId")
+    @QueryBudget(reads = 1)
     void testGetStatusAuditForContent_Success() {
         ContentStatusAudit audit = new ContentStatusAudit();
         audit.setContentId(CONTENT_ID);
@@ -0,0 +1,220 @@
+package com.smartcms.smartcontent.service;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcommon.model.OrgDetails;
+import com.smartcms.smartcontent.budget.MongoCommandRecorder;
+import com.smartcms.smartcontent.budget.QueryBudget;
+import com.smartcms.smartcontent.dto.ContentBatchResponse;
+import com.smartcms.smartcontent.dto.ContentUpdateRequest;
+import com.smartcms.smartcontent.model.ContentHistory;
+import com.smartcms.smartcontent.model.PaginatedResponse;
+import com.smartcms.smartcontent.model.RollbackField;
+import com.smartcms.smartcontent.repository.ContentHistoryRepository;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import com.smartcms.smartcontent.repository.ContentStatusAuditRepository;
+import com.smartcms.smartcontent.search.ContentSearchIndex;
+import com.smartcms.smartcontent.utility.AISlugResolver;
+import com.smartcms.smartcontent.utility.SlugGenerator;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query budgets of {@link ContentServiceImpl} counted on the wire, against the embedded MongoDB: every command the
+ * repositories send counts, whether Spring Data derives, splits or adds it. Budgets hold regardless of how many
+ * items a call touches.
+ */
+@DataMongoTest(properties = {
+        "smartcontent.search.rebuild-on-startup=false",
+        "smartcontent.search.catch-up-enabled=false"
+})
+@Import({ContentServiceImpl.class, ContentSearchIndex.class, MongoCommandRecorder.Config.class,
+        ContentServiceQueryBudgetTest.Metrics.class})
+class ContentServiceQueryBudgetTest {
+
+    private static MongoServer mongoServer;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        mongoServer = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = mongoServer.bind();
+        registry.add("spring.data.mongodb.uri",
+                () -> "mongodb://" + address.getHostString() + ":" + address.getPort() + "/smartcms-budget");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongoServer.shutdownNow();
+    }
+
+    @MockBean
+    private SlugGenerator slugGenerator;
+
+    @MockBean
+    private MediaDeletionOutboxService mediaDeletionOutbox;
+
+    @MockBean
+    private AISlugResolver aiSlugResolver;
+
+    @Autowired
+    private ContentServiceImpl contentService;
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private ContentHistoryRepository contentHistoryRepository;
+
+    @Autowired
+    private ContentStatusAuditRepository contentStatusAuditRepository;
+
+    @Autowired
+    private MongoCommandRecorder commandRecorder;
+
+    @Autowired
+    private ContentSearchIndex contentSearchIndex;
+
+    private final String orgId = "budget-org-" + UUID.randomUUID();
+    private List<String> ids;
+
+    @BeforeEach
+    void setUp() {
+        contentRepository.deleteAll();
+        contentHistoryRepository.deleteAll();
+        contentStatusAuditRepository.deleteAll();
+        ids = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            ids.add(contentRepository.save(content("Item " + i, ContentStatus.DRAFT)).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Should read one document with one find")
+    @QueryBudget(reads = 1)
+    void testGetContentById() {
+        assertThat(contentService.getContentById(ids.get(0)).getTitle()).isEqualTo("Item 0");
+    }
+
+    @Test
+    @DisplayName("Should resolve a batch of IDs with one find")
+    @QueryBudget(reads = 1)
+    void testGetContentByIds() {
+        ContentBatchResponse<Content> response = contentService.getContentByIds(ids.subList(0, 20), null);
+
+        assertThat(response.getItems()).hasSize(20);
+    }
+
+    @Test
+    @DisplayName("Should page org content with one find and one count")
+    @QueryBudget(reads = 2)
+    void testGetOrgContent() {
+        PaginatedResponse<Content> page = contentService.getOrgContent(orgId, 0, 10, null);
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(25);
+    }
+
+    @Test
+    @DisplayName("Should update content with one read, one history insert and one save")
+    @QueryBudget(reads = 1, writes = 2)
+    void testUpdateContent() {
+        ContentUpdateRequest request = ContentUpdateRequest.builder().title("Renamed").build();
+
+        assertThat(contentService.updateContent(ids.get(0), request, "user1").getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should roll back with two reads, one history insert and one save")
+    @QueryBudget(reads = 2, writes = 2)
+    void testRollbackContent() {
+        commandRecorder.unrecorded(() -> {
+            Content snapshot = content("Item 0", ContentStatus.DRAFT);
+            snapshot.setId(ids.get(0));
+            contentHistoryRepository.save(ContentHistory.builder()
+                    .contentSnapshot(snapshot)
+                    .createdAt(Instant.now())
+                    .build());
+            Content current = contentRepository.findById(ids.get(0)).orElseThrow();
+            current.setTitle("Renamed");
+            current.setVersion(2);
+            return contentRepository.save(current);
+        });
+
+        Content rolledBack = contentService.rollbackContent(ids.get(0), 1, "user1", Set.of(RollbackField.TITLE));
+
+        assertThat(rolledBack.getTitle()).isEqualTo("Item 0");
+    }
+
+    @Test
+    @DisplayName("Should publish any number of due items with two finds, one update, one audit insert and one reindex find")
+    @QueryBudget(reads = 3, writes = 2)
+    void testProcessScheduledContent() {
+        Instant now = Instant.now();
+        List<String> due = commandRecorder.unrecorded(() -> IntStream.range(0, 10)
+                .mapToObj(i -> {
+                    Content content = content("Scheduled " + i, ContentStatus.SCHEDULED);
+                    // Half are current, half were missed by earlier runs
+                    content.setScheduledPublishAt(now.minus(i % 2 == 0 ? 5 : 30, ChronoUnit.MINUTES));
+                    return contentRepository.save(content).getId();
+                })
+                .toList());
+
+        contentService.processScheduledContent();
+
+        commandRecorder.unrecorded(() -> {
+            assertThat(contentRepository.findAllById(due))
+                    .hasSize(10)
+                    .allSatisfy(content -> assertThat(content.getStatus()).isEqualTo(ContentStatus.PUBLISHED));
+            return assertThat(contentStatusAuditRepository.findAll()).hasSize(10);
+        });
+        assertThat(contentSearchIndex.search(orgId, "scheduled", null, ContentStatus.PUBLISHED, 0, 20).contentIds())
+                .containsExactlyInAnyOrderElementsOf(due);
+    }
+
+    private Content content(String title, ContentStatus status) {
+        Content content = new Content();
+        content.setTitle(title);
+        content.setDescription("Description of " + title);
+        content.setBody("<p>" + title + "</p>");
+        content.setVersion(1);
+        content.setStatus(status);
+        content.setOrgDetails(new OrgDetails(orgId));
+        content.setCreatedAt(Instant.now());
+        content.setUpdatedAt(Instant.now());
+        return content;
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
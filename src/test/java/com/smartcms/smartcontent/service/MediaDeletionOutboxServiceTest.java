@@ -0,0 +1,162 @@
+package com.smartcms.smartcontent.service;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.MediaReference;
+import com.smartcms.smartcontent.client.SmartMediaClient;
+import com.smartcms.smartcontent.model.MediaDeletionOutbox;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import com.smartcms.smartcontent.repository.MediaDeletionOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MediaDeletionOutboxServiceTest {
+
+    @Mock
+    private MediaDeletionOutboxRepository outboxRepository;
+
+    @Mock
+    private ContentRepository contentRepository;
+
+    @Mock
+    private SmartMediaClient mediaClient;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MediaDeletionOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxService = new MediaDeletionOutboxService(outboxRepository, contentRepository, mediaClient, meterRegistry,
+                100, 3, 2, Duration.ofSeconds(30), Duration.ofHours(1), Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("Should enqueue media IDs of all content with one insert")
+    void testEnqueue_SingleInsert() {
+        Content withMedia = content("c1", "m1", "m2");
+        Content withoutMedia = Content.builder().id("c2").mediaReferences(List.of()).build();
+
+        outboxService.enqueue(List.of(withMedia, withoutMedia));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MediaDeletionOutbox>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository, times(1)).insert(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(List.of("m1", "m2"), captor.getValue().getFirst().getMediaIds());
+        assertEquals(MediaDeletionOutbox.Status.PENDING, captor.getValue().getFirst().getStatus());
+        verifyNoInteractions(mediaClient);
+    }
+
+    @Test
+    @DisplayName("Should batch media IDs across entries into bulk calls")
+    void testDrain_BatchesAcrossEntries() {
+        MediaDeletionOutbox first = entry("c1", "m1");
+        MediaDeletionOutbox second = entry("c2", "m2", "m3");
+        MediaDeletionOutbox third = entry("c3", "m4", "m5");
+        givenDue(first, second, third);
+
+        outboxService.drain();
+
+        verify(mediaClient).bulkDeleteMediaAsync(List.of("m1", "m2", "m3"));
+        verify(mediaClient).bulkDeleteMediaAsync(List.of("m4", "m5"));
+        verify(outboxRepository).deleteAll(List.of(first, second, third));
+        assertEquals(5.0, meterRegistry.counter("smartcontent.media.outbox.deleted").count());
+    }
+
+    @Test
+    @DisplayName("Should isolate failing entries and back them off")
+    void testDrain_IsolatesFailures() {
+        MediaDeletionOutbox good = entry("c1", "m1");
+        MediaDeletionOutbox bad = entry("c2", "bad");
+        givenDue(good, bad);
+        when(mediaClient.bulkDeleteMediaAsync(argThat(ids -> ids.contains("bad"))))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Bulk media deletion failed: 500")));
+
+        outboxService.drain();
+
+        verify(outboxRepository).deleteAll(List.of(good));
+        verify(outboxRepository).saveAll(List.of(bad));
+        assertEquals(1, bad.getAttempts());
+        assertEquals(MediaDeletionOutbox.Status.PENDING, bad.getStatus());
+        assertNotNull(bad.getLastError());
+    }
+
+    @Test
+    @DisplayName("Should park entries as poison after max attempts")
+    void testDrain_MarksPoison() {
+        MediaDeletionOutbox bad = entry("c1", "bad");
+        bad.setAttempts(1);
+        givenDue(bad);
+        when(mediaClient.bulkDeleteMediaAsync(anyList()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("boom")));
+
+        outboxService.drain();
+
+        assertEquals(MediaDeletionOutbox.Status.POISON, bad.getStatus());
+        assertEquals(1.0, meterRegistry.counter("smartcontent.media.outbox.poisoned").count());
+    }
+
+    @Test
+    @DisplayName("Should not delete media while the content still exists")
+    void testDrain_SkipsContentStillPresent() {
+        MediaDeletionOutbox recent = entry("c1", "m1");
+        MediaDeletionOutbox orphan = entry("c2", "m2");
+        orphan.setCreatedAt(Instant.now().minus(2, ChronoUnit.HOURS));
+        when(outboxRepository.findByStatusAndNextAttemptAtLessThanEqual(eq(MediaDeletionOutbox.Status.PENDING), any(), any()))
+                .thenReturn(List.of(recent, orphan));
+        when(contentRepository.findIdsByIdIn(anyCollection()))
+                .thenReturn(List.of(Content.builder().id("c1").build(), Content.builder().id("c2").build()));
+
+        outboxService.drain();
+
+        verifyNoInteractions(mediaClient);
+        verify(outboxRepository).deleteAll(List.of(orphan));
+        verify(outboxRepository).saveAll(List.of(recent));
+    }
+
+    private void givenDue(MediaDeletionOutbox... entries) {
+        when(outboxRepository.findByStatusAndNextAttemptAtLessThanEqual(eq(MediaDeletionOutbox.Status.PENDING), any(), any()))
+                .thenReturn(List.of(entries));
+        when(contentRepository.findIdsByIdIn(anyCollection())).thenReturn(List.of());
+        lenient().when(mediaClient.bulkDeleteMediaAsync(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    private static MediaDeletionOutbox entry(String contentId, String... mediaIds) {
+        return MediaDeletionOutbox.builder()
+                .id("outbox-" + contentId)
+                .contentId(contentId)
+                .mediaIds(List.of(mediaIds))
+                .status(MediaDeletionOutbox.Status.PENDING)
+                .nextAttemptAt(Instant.now())
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    private static Content content(String id, String... mediaIds) {
+        List<MediaReference> references = new ArrayList<>();
+        for (String mediaId : mediaIds) {
+            MediaReference reference = new MediaReference();
+            reference.setMediaId(mediaId);
+            references.add(reference);
+        }
+        return Content.builder().id(id).mediaReferences(references).build();
+    }
+}
@@ -0,0 +1,163 @@
+package com.smartcms.smartcontent.service;
+
+import com.smartcms.smartcommon.exception.ResourceNotFoundException;
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcommon.model.OrgDetails;
+import com.smartcms.smartcontent.dto.RelatedContentRequest;
+import com.smartcms.smartcontent.model.RelatedContent;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import com.smartcms.smartcontent.repository.RelatedContentRepository;
+import com.smartcms.smartcontent.search.ContentSearchIndex;
+import com.smartcms.smartcontent.search.SimilarContent;
+import com.smartcms.smartcontent.utility.ContentFields;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RelatedContentServiceTest {
+
+    @Mock
+    private ContentSearchIndex contentSearchIndex;
+
+    @Mock
+    private RelatedContentRepository relatedContentRepository;
+
+    @Mock
+    private ContentRepository contentRepository;
+
+    @Mock
+    private ExecutorService executor;
+
+    private RelatedContentService relatedContentService;
+
+    @BeforeEach
+    void setUp() {
+        relatedContentService = new RelatedContentService(
+                contentSearchIndex, relatedContentRepository, contentRepository, executor, 3);
+    }
+
+    @Test
+    @DisplayName("Should list manual links first, then computed neighbors, skipping duplicates and binned content")
+    void testGetRelatedContent_Order() {
+        RelatedContent related = RelatedContent.builder()
+                .id("c1")
+                .manual(List.of(new RelatedContent.Link("c4", null, Instant.now())))
+                .computed(List.of(new RelatedContent.Neighbor("c2", 0.9), new RelatedContent.Neighbor("c4", 0.8),
+                        new RelatedContent.Neighbor("binned", 0.7), new RelatedContent.Neighbor("gone", 0.6),
+                        new RelatedContent.Neighbor("c3", 0.5)))
+                .computedAt(Instant.now())
+                .build();
+        when(relatedContentRepository.findById("c1")).thenReturn(Optional.of(related));
+        when(contentRepository.findProjectedByIdIn(any(), eq(ContentFields.LIST_FIELDS))).thenReturn(List.of(
+                content("c3", ContentStatus.PUBLISHED), content("c2", ContentStatus.DRAFT),
+                content("binned", ContentStatus.DELETED), content("c4", ContentStatus.PUBLISHED)));
+
+        List<Content> result = relatedContentService.getRelatedContent("c1", 3);
+
+        assertEquals(List.of("c4", "c2", "c3"), result.stream().map(Content::getId).toList());
+        verifyNoInteractions(contentSearchIndex);
+        assertThrows(IllegalArgumentException.class, () -> relatedContentService.getRelatedContent("c1", 51));
+    }
+
+    @Test
+    @DisplayName("Should list only manual links and schedule the recompute when similar items were never computed")
+    void testGetRelatedContent_NotComputed() {
+        Content content = content("c1", ContentStatus.PUBLISHED);
+        RelatedContent related = RelatedContent.builder()
+                .id("c1")
+                .manual(List.of(new RelatedContent.Link("c4", null, Instant.now())))
+                .build();
+        when(relatedContentRepository.findById("c1")).thenReturn(Optional.of(related));
+        when(contentRepository.findProjectedById(eq("c1"), any())).thenReturn(Optional.of(content));
+        when(contentRepository.findProjectedByIdIn(any(), eq(ContentFields.LIST_FIELDS))).thenReturn(List.of(content("c4", ContentStatus.PUBLISHED)));
+
+        List<Content> result = relatedContentService.getRelatedContent("c1", 10);
+
+        assertEquals(List.of("c4"), result.stream().map(Content::getId).toList());
+        verify(executor).execute(any());
+        verifyNoInteractions(contentSearchIndex);
+        verify(relatedContentRepository, never()).saveComputed(any(), any(), any(), any());
+
+        when(relatedContentRepository.findById("missing")).thenReturn(Optional.empty());
+        assertThrows(ResourceNotFoundException.class, () -> relatedContentService.getRelatedContent("missing", 10));
+    }
+
+    @Test
+    @DisplayName("Should recompute once, from the latest version, for writes made while a recompute is queued")
+    void testScheduleRecompute_Coalesces() {
+        Content first = content("c1", ContentStatus.DRAFT);
+        Content latest = content("c1", ContentStatus.PUBLISHED);
+        relatedContentService.scheduleRecompute(first);
+        relatedContentService.scheduleRecompute(latest);
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).execute(task.capture());
+        task.getValue().run();
+        verify(contentSearchIndex).similar("org1", latest, 3);
+        verify(contentSearchIndex, never()).similar("org1", first, 3);
+
+        relatedContentService.scheduleRecompute(first);
+        verify(executor, times(2)).execute(any());
+    }
+
+    @Test
+    @DisplayName("Should store neighbors, offer the item back to them and drop it from former neighbors")
+    void testRecompute() {
+        Content content = content("c1", ContentStatus.PUBLISHED);
+        when(relatedContentRepository.findById("c1")).thenReturn(Optional.of(RelatedContent.builder()
+                .id("c1").computed(List.of(new RelatedContent.Neighbor("old", 0.4))).build()));
+        when(contentSearchIndex.similar("org1", content, 3))
+                .thenReturn(List.of(new SimilarContent("c2", 0.9), new SimilarContent("c3", 0.5)));
+
+        relatedContentService.recompute(content);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RelatedContent.Neighbor>> neighbors = ArgumentCaptor.forClass(List.class);
+        verify(relatedContentRepository).saveComputed(eq("c1"), eq("org1"), neighbors.capture(), any());
+        assertEquals(List.of("c2", "c3"), neighbors.getValue().stream().map(RelatedContent.Neighbor::getContentId).toList());
+        assertEquals(List.of(0.9, 0.5), neighbors.getValue().stream().map(RelatedContent.Neighbor::getScore).toList());
+        verify(relatedContentRepository).removeNeighbor(List.of("old"), "c1");
+        verify(relatedContentRepository).offerToNeighbors("c1", neighbors.getValue(), 3);
+    }
+
+    @Test
+    @DisplayName("Should link content of the same org once and reject self links and other orgs")
+    void testAddRelatedContent() {
+        Content other = content("c3", ContentStatus.PUBLISHED);
+        other.setOrgDetails(new OrgDetails("org2"));
+        when(contentRepository.findById("c1")).thenReturn(Optional.of(content("c1", ContentStatus.PUBLISHED)));
+        when(contentRepository.findById("c2")).thenReturn(Optional.of(content("c2", ContentStatus.PUBLISHED)));
+        when(contentRepository.findById("c3")).thenReturn(Optional.of(other));
+        when(relatedContentRepository.findById("c1")).thenReturn(Optional.empty());
+
+        assertTrue(relatedContentService.addRelatedContent("c1", new RelatedContentRequest("c2"), "user1"));
+        verify(relatedContentRepository).addManualLink(eq("c1"), eq("org1"),
+                argThat(link -> link.getContentId().equals("c2") && link.getLinkedBy().getName().equals("user1")));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> relatedContentService.addRelatedContent("c1", new RelatedContentRequest("c1"), "user1"));
+        assertThrows(IllegalArgumentException.class,
+                () -> relatedContentService.addRelatedContent("c1", new RelatedContentRequest("c3"), "user1"));
+        assertThrows(ResourceNotFoundException.class,
+                () -> relatedContentService.addRelatedContent("c1", new RelatedContentRequest("missing"), "user1"));
+    }
+
+    private static Content content(String id, ContentStatus status) {
+        return Content.builder().id(id).status(status).orgDetails(new OrgDetails("org1")).build();
+    }
+}
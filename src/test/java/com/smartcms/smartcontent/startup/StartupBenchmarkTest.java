@@ -0,0 +1,326 @@
+package com.smartcms.smartcontent.startup;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Startup benchmark: launches the packaged application in separate processes, the way the images run it, and
+ * measures the time from process start to the first successful request against an in-process MongoDB
+ * stand-in (mongo-java-server), and the resident set size of the process at that point. Launch modes:
+ * <ul>
+ *     <li>{@code jar} - {@code java -jar}, as the default Dockerfile image runs it; the baseline</li>
+ *     <li>{@code unpacked} - the jar unpacked onto a plain class path</li>
+ *     <li>{@code cds} - unpacked, with a class data sharing archive recorded in a training run</li>
+ *     <li>{@code aot} - unpacked, with the ahead-of-time processed application context</li>
+ *     <li>{@code aot-cds} - both, as the Dockerfile's startup-optimized image runs it</li>
+ *     <li>{@code native} - the GraalVM native executable</li>
+ * </ul>
+ * Build the jar with {@code ./gradlew bootJar -Paot}, and the executable with {@code ./gradlew nativeCompile -Pnative}
+ * if the native image should be compared too, then run {@code ./gradlew benchmark --tests '*StartupBenchmark*'};
+ * settings are read from system properties:
+ * <ul>
+ *     <li>{@code startup.jar} - the jar to launch (default build/libs/smart-content.jar)</li>
+ *     <li>{@code startup.native} - the native executable (default build/native/nativeCompile/smart-content)</li>
+ *     <li>{@code startup.modes} - launch modes to compare (default jar,unpacked,cds,aot,aot-cds, and native if
+ *     the executable exists)</li>
+ *     <li>{@code startup.runs} - launches of each mode, interleaved between modes (default 5)</li>
+ *     <li>{@code startup.path} - the request that has to succeed (default /actuator/health)</li>
+ *     <li>{@code startup.timeout} - ISO-8601 duration a launch may take (default PT2M)</li>
+ * </ul>
+ */
+@Tag("benchmark")
+class StartupBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupBenchmarkTest.class);
+
+    private static final String MAIN_CLASS = "com.smartcms.smartcontent.SmartContentApplication";
+    private static final String CLASSES = "BOOT-INF/classes/";
+    private static final String AOT_INITIALIZER =
+            CLASSES + "com/smartcms/smartcontent/SmartContentApplication__ApplicationContextInitializer.class";
+
+    @TempDir
+    private Path workDir;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private MongoServer mongoServer;
+    private String mongoUri;
+    private Path unpacked;
+
+    private record Launch(Duration startup, long rssKilobytes) {
+    }
+
+    @BeforeEach
+    void startMongo() {
+        mongoServer = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = mongoServer.bind();
+        mongoUri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/smartcms-startup";
+    }
+
+    @AfterEach
+    void stopMongo() {
+        mongoServer.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Every launch mode should serve its first request; reports the time it took")
+    void benchmarkStartup() throws Exception {
+        Path jar = Path.of(System.getProperty("startup.jar", "build/libs/smart-content.jar"));
+        Path executable = Path.of(System.getProperty("startup.native", "build/native/nativeCompile/smart-content"));
+        String defaultModes = "jar,unpacked,cds,aot,aot-cds" + (Files.isExecutable(executable) ? ",native" : "");
+        List<String> modes = List.of(System.getProperty("startup.modes", defaultModes).split(","));
+        int runs = Integer.getInteger("startup.runs", 5);
+        String path = System.getProperty("startup.path", "/actuator/health");
+        Duration timeout = Duration.parse(System.getProperty("startup.timeout", "PT2M"));
+        if (modes.contains("native")) {
+            assumeTrue(Files.isExecutable(executable),
+                    () -> executable + " not found; build it with ./gradlew nativeCompile -Pnative");
+        }
+        if (modes.stream().anyMatch(mode -> !mode.equals("native"))) {
+            assumeTrue(Files.isRegularFile(jar), () -> jar + " not found; build it with ./gradlew bootJar -Paot");
+            try (JarFile jarFile = new JarFile(jar.toFile())) {
+                assumeTrue(jarFile.getEntry(AOT_INITIALIZER) != null
+                                || modes.stream().noneMatch(mode -> mode.startsWith("aot")),
+                        () -> jar + " has no ahead-of-time processed context; build it with ./gradlew bootJar -Paot");
+            }
+        }
+
+        Map<String, List<String>> commands = new LinkedHashMap<>();
+        for (String mode : modes) {
+            commands.put(mode, mode.equals("native")
+                    ? List.of(executable.toAbsolutePath().toString())
+                    : command(mode, jar, timeout));
+        }
+        Map<String, List<Launch>> launches = new LinkedHashMap<>();
+        for (int run = 1; run <= runs; run++) {
+            // Interleaved, so that drift in the machine's speed affects every mode alike
+            for (Map.Entry<String, List<String>> command : commands.entrySet()) {
+                Launch launch = launch(command.getKey() + "-" + run, command.getValue(), path, timeout);
+                launches.computeIfAbsent(command.getKey(), mode -> new ArrayList<>()).add(launch);
+            }
+        }
+
+        print(launches, path, runs);
+    }
+
+    /**
+     * @return The command that launches the application in the given mode, after any training run it needs
+     */
+    private List<String> command(String mode, Path jar, Duration timeout) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.equals("jar")) {
+            command.addAll(List.of("-jar", jar.toAbsolutePath().toString()));
+            return command;
+        }
+        List<String> options = switch (mode) {
+            case "unpacked", "cds" -> List.of();
+            case "aot", "aot-cds" -> List.of("-Dspring.aot.enabled=true");
+            default -> throw new IllegalArgumentException("Unknown startup mode: " + mode);
+        };
+        List<String> classPath = List.of("-cp", classPath(jar), MAIN_CLASS);
+        if (mode.endsWith("cds")) {
+            Path archive = workDir.resolve(mode + ".jsa");
+            train(mode, archive, options, classPath, timeout);
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.addAll(options);
+        command.addAll(classPath);
+        return command;
+    }
+
+    /**
+     * Unpacks the jar like the Dockerfile does: dependencies as plain jars and the application classes packed
+     * into a jar of their own, since class data sharing does not archive classes loaded from directories.
+     */
+    private String classPath(Path jar) throws IOException {
+        if (unpacked == null) {
+            unpacked = Files.createDirectory(workDir.resolve("unpacked"));
+            Path application = unpacked.resolve("application.jar");
+            try (JarFile jarFile = new JarFile(jar.toFile());
+                 JarOutputStream applicationJar = new JarOutputStream(Files.newOutputStream(application))) {
+                for (JarEntry entry : jarFile.stream().toList()) {
+                    String name = entry.getName();
+                    if (name.startsWith(CLASSES) && name.length() > CLASSES.length()) {
+                        // Directory entries too, which classpath scanning relies on
+                        applicationJar.putNextEntry(new JarEntry(name.substring(CLASSES.length())));
+                        if (!entry.isDirectory()) {
+                            try (InputStream in = jarFile.getInputStream(entry)) {
+                                in.transferTo(applicationJar);
+                            }
+                        }
+                        applicationJar.closeEntry();
+                    } else if (!entry.isDirectory() && !name.startsWith(CLASSES)) {
+                        try (InputStream in = jarFile.getInputStream(entry)) {
+                            Path target = unpacked.resolve(name);
+                            Files.createDirectories(target.getParent());
+                            Files.copy(in, target);
+                        }
+                    }
+                }
+            }
+        }
+        try (Stream<String> index = Files.lines(unpacked.resolve("BOOT-INF/classpath.idx"))) {
+            return Stream.concat(Stream.of("application.jar"),
+                            index.map(line -> line.substring(line.indexOf('"') + 1, line.lastIndexOf('"'))))
+                    .map(entry -> unpacked.resolve(entry).toString())
+                    .collect(Collectors.joining(":"));
+        }
+    }
+
+    /**
+     * Starts the application context, exits once it is refreshed and archives the classes it loaded.
+     */
+    private void train(String mode, Path archive, List<String> options, List<String> classPath, Duration timeout)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-XX:ArchiveClassesAtExit=" + archive);
+        command.add("-Dspring.context.exit=onRefresh");
+        command.addAll(options);
+        command.addAll(classPath);
+        command.add("--spring.data.mongodb.uri=" + mongoUri);
+        Path log = workDir.resolve(mode + "-training.log");
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly();
+            fail(mode + " training run did not finish within " + timeout + ":\n" + tail(log));
+        }
+        assertTrue(process.exitValue() == 0 && Files.exists(archive),
+                () -> mode + " training run failed:\n" + tail(log));
+    }
+
+    /**
+     * @return Time from starting the process to the first successful response to {@code path}, and the resident
+     * set size of the process right after it
+     */
+    private Launch launch(String name, List<String> command, String path, Duration timeout)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        arguments.add("--spring.data.mongodb.uri=" + mongoUri);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        Path log = workDir.resolve(name + ".log");
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(arguments).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    fail(name + " exited with " + process.exitValue() + ":\n" + tail(log));
+                }
+                try {
+                    if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        Duration startup = Duration.ofNanos(System.nanoTime() - start);
+                        return new Launch(startup, rssKilobytes(process));
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            return fail(name + " did not serve " + path + " within " + timeout + ":\n" + tail(log));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * @return VmRSS of the process in kilobytes, or -1 where /proc is not available
+     */
+    private static long rssKilobytes(Process process) {
+        try (Stream<String> status = Files.lines(Path.of("/proc", String.valueOf(process.pid()), "status"))) {
+            return status.filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst()
+                    .orElse(-1L);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String tail(Path log) {
+        try {
+            List<String> lines = Files.readAllLines(log);
+            return String.join("\n", lines.subList(Math.max(0, lines.size() - 30), lines.size()));
+        } catch (IOException e) {
+            return "(log unavailable: " + e + ")";
+        }
+    }
+
+    private static void print(Map<String, List<Launch>> launches, String path, int runs) {
+        log.info(String.format("Time to first successful GET %s and resident set size then, %d run(s) per mode",
+                path, runs));
+        log.info(String.format("%-10s %8s %8s %8s %9s %8s %9s",
+                "mode", "median", "min", "max", "vs jar", "RSS MB", "vs jar"));
+        List<Launch> baseline = launches.get("jar");
+        launches.forEach((mode, samples) -> {
+            List<Long> millis = samples.stream().map(launch -> launch.startup().toMillis()).sorted().toList();
+            long startup = median(samples, launch -> launch.startup().toMillis());
+            long rss = median(samples, Launch::rssKilobytes);
+            log.info(String.format("%-10s %8d %8d %8d %9s %8s %9s", mode, startup, millis.get(0),
+                    millis.get(millis.size() - 1),
+                    baseline == null ? "-" : relative(startup, median(baseline, launch -> launch.startup().toMillis())),
+                    rss < 0 ? "-" : String.valueOf(rss / 1024),
+                    baseline == null || rss < 0 ? "-" : relative(rss, median(baseline, Launch::rssKilobytes))));
+        });
+    }
+
+    private static String relative(long value, long baseline) {
+        return String.format("%+.1f%%", 100.0 * (value - baseline) / baseline);
+    }
+
+    private static long median(List<Launch> launches, ToLongFunction<Launch> metric) {
+        long[] values = launches.stream().mapToLong(metric).sorted().toArray();
+        return values[values.length / 2];
+    }
+}
@@ -0,0 +1,91 @@
+package com.smartcms.smartcontent.utility;
+
+import com.smartcms.smartcontent.client.SmartAIClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AISlugResolverTest {
+
+    @Mock
+    private SmartAIClient smartAIClient;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AISlugResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        resolver = new AISlugResolver(smartAIClient, meterRegistry,
+                Duration.ofMillis(200), Duration.ofMinutes(5), 100);
+    }
+
+    @Test
+    @DisplayName("Should coalesce identical concurrent requests into one AI call")
+    void testResolve_DeduplicatesConcurrentRequests() throws Exception {
+        CompletableFuture<String> call = new CompletableFuture<>();
+        when(smartAIClient.generateSlugAsync(eq("same input"), any())).thenReturn(call);
+
+        CompletableFuture<String> first = resolver.resolve("same input");
+        CompletableFuture<String> second = resolver.resolve("same input");
+        call.complete("ai-slug");
+
+        assertEquals("ai-slug", first.get(1, TimeUnit.SECONDS));
+        assertEquals("ai-slug", second.get(1, TimeUnit.SECONDS));
+        verify(smartAIClient, times(1)).generateSlugAsync(eq("same input"), any());
+        assertEquals(1.0, meterRegistry.counter("smartcontent.ai.slug.coalesced").count());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated inputs from the result cache")
+    void testResolve_CachesResults() throws Exception {
+        when(smartAIClient.generateSlugAsync(eq("cached input"), any()))
+                .thenReturn(CompletableFuture.completedFuture("cached-slug"));
+
+        assertEquals("cached-slug", resolver.resolve("cached input").get(1, TimeUnit.SECONDS));
+        assertEquals("cached-slug", resolver.resolve("cached input").get(1, TimeUnit.SECONDS));
+
+        verify(smartAIClient, times(1)).generateSlugAsync(eq("cached input"), any());
+        assertEquals(1.0, meterRegistry.counter("smartcontent.ai.slug.cache.hits").count());
+    }
+
+    @Test
+    @DisplayName("Should fail with timeout and abort the call when AI service is slow")
+    void testResolve_TimesOut() {
+        CompletableFuture<String> call = new CompletableFuture<>();
+        when(smartAIClient.generateSlugAsync(eq("slow input"), any())).thenReturn(call);
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> resolver.resolve("slow input").get(2, TimeUnit.SECONDS));
+
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+        assertTrue(call.isDone());
+        assertEquals(1, meterRegistry.timer("smartcontent.ai.slug.latency", "outcome", "timeout").count());
+    }
+
+    @Test
+    @DisplayName("Should not cache failed AI calls")
+    void testResolve_DoesNotCacheFailures() throws Exception {
+        when(smartAIClient.generateSlugAsync(eq("flaky input"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Error calling SmartAI API")))
+                .thenReturn(CompletableFuture.completedFuture("recovered-slug"));
+
+        assertThrows(ExecutionException.class, () -> resolver.resolve("flaky input").get(1, TimeUnit.SECONDS));
+        assertEquals("recovered-slug", resolver.resolve("flaky input").get(1, TimeUnit.SECONDS));
+
+        verify(smartAIClient, times(2)).generateSlugAsync(eq("flaky input"), any());
+    }
+}
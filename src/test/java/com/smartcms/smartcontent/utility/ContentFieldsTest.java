@@ -0,0 +1,61 @@
+package com.smartcms.smartcontent.utility;
+
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentFieldsTest {
+
+    @Test
+    @DisplayName("Should parse requested fields in order and always include id")
+    void testParse_ValidFields() {
+        Set<String> fields = ContentFields.parse(" title, slug ,status,,title");
+
+        assertEquals(List.of("id", "title", "slug", "status"), List.copyOf(fields));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown field names")
+    void testParse_UnknownFields() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ContentFields.parse("title,secret,orgDetails.orgId"));
+
+        assertEquals("Unknown fields: secret, orgDetails.orgId", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should reject an empty fieldset")
+    void testParse_Empty() {
+        assertThrows(IllegalArgumentException.class, () -> ContentFields.parse(" , "));
+    }
+
+    @Test
+    @DisplayName("Should reject the body for list and batch reads")
+    void testParseForList() {
+        assertEquals(List.of("id", "title"), List.copyOf(ContentFields.parseForList("title")));
+        assertThrows(IllegalArgumentException.class, () -> ContentFields.parseForList("title,body"));
+        assertFalse(ContentFields.LIST_FIELDS.contains("body"));
+    }
+
+    @Test
+    @DisplayName("Should select only the requested properties")
+    void testSelect() {
+        Content content = Content.builder()
+                .id("content123")
+                .title("Title")
+                .body("A long body")
+                .status(ContentStatus.PUBLISHED)
+                .build();
+
+        Map<String, Object> selected = ContentFields.select(content, ContentFields.parse("title,status"));
+
+        assertEquals(Map.of("id", "content123", "title", "Title", "status", ContentStatus.PUBLISHED), selected);
+    }
+}
@@ -0,0 +1,124 @@
+package com.smartcms.smartcontent.utility;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import com.smartcms.smartcommon.model.OrgDetails;
+import com.smartcms.smartcontent.repository.ContentRepository;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.unit.DataSize;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import({PublishedContentCacheEvictor.class, PublishedContentCacheEvictorTest.Cache.class})
+class PublishedContentCacheEvictorTest {
+
+    private static MongoServer mongoServer;
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        mongoServer = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = mongoServer.bind();
+        registry.add("spring.data.mongodb.uri",
+                () -> "mongodb://" + address.getHostString() + ":" + address.getPort() + "/smartcms-cache");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongoServer.shutdownNow();
+    }
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private PublishedContentCache publishedContentCache;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private Content deleted;
+    private Content kept;
+
+    @BeforeEach
+    void setUp() {
+        contentRepository.deleteAll();
+        deleted = contentRepository.save(content("Deleted"));
+        kept = contentRepository.save(content("Kept"));
+        publishedContentCache.putIfPublished(deleted);
+        publishedContentCache.putIfPublished(kept);
+    }
+
+    @Test
+    @DisplayName("Should evict only the deleted item when content is deleted by id")
+    void testDeleteEvictsOnlyThatItem() {
+        contentRepository.delete(deleted);
+
+        assertThat(publishedContentCache.contains(deleted.getId())).isFalse();
+        assertThat(publishedContentCache.contains(kept.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should evict only the saved item when content is saved")
+    void testSaveEvictsOnlyThatItem() {
+        kept.setTitle("Renamed");
+        contentRepository.save(kept);
+
+        assertThat(publishedContentCache.contains(kept.getId())).isFalse();
+        assertThat(publishedContentCache.contains(deleted.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should clear the cache when content is deleted by query")
+    void testDeleteByQueryClears() {
+        mongoTemplate.remove(Query.query(Criteria.where("status").is(ContentStatus.PUBLISHED)), Content.class);
+
+        assertThat(publishedContentCache.contains(deleted.getId())).isFalse();
+        assertThat(publishedContentCache.contains(kept.getId())).isFalse();
+    }
+
+    private static Content content(String title) {
+        Content content = new Content();
+        content.setTitle(title);
+        content.setBody("<p>" + title + "</p>");
+        content.setVersion(1);
+        content.setStatus(ContentStatus.PUBLISHED);
+        content.setOrgDetails(new OrgDetails("cache-org"));
+        content.setCreatedAt(Instant.now());
+        content.setUpdatedAt(Instant.now());
+        return content;
+    }
+
+    @TestConfiguration
+    static class Cache {
+
+        @Bean
+        PublishedContentCache publishedContentCache() {
+            return new PublishedContentCache(new ObjectMapper().registerModule(new JavaTimeModule()),
+                    new SimpleMeterRegistry(), Duration.ofMinutes(10), 100,
+                    DataSize.ofMegabytes(1), DataSize.ofMegabytes(1), true, 1024);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.smartcms.smartcontent.utility;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.smartcms.smartcommon.model.Content;
+import com.smartcms.smartcommon.model.ContentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublishedContentCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private SimpleMeterRegistry meterRegistry;
+    private PublishedContentCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new PublishedContentCache(objectMapper, meterRegistry, Duration.ofMinutes(10), 100,
+                DataSize.ofMegabytes(1), DataSize.ofMegabytes(1), true, 1024);
+    }
+
+    @Test
+    @DisplayName("Should cache published content as JSON and gzip bytes keyed by its ETag")
+    void testPutIfPublished_CachesJsonAndGzip() throws IOException {
+        Content content = content(ContentStatus.PUBLISHED, "x".repeat(4096));
+
+        PublishedContentCache.Entry entry = cache.putIfPublished(content);
+
+        assertEquals(ContentETags.of(content), entry.getETag());
+        assertEquals("x".repeat(4096), objectMapper.readValue(entry.getJson(), Content.class).getBody());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(entry.getGzip()))) {
+            assertArrayEquals(entry.getJson(), gzip.readAllBytes());
+        }
+        assertSame(entry, cache.get("content1", ContentETags.of(content)));
+        assertEquals(1.0, meterRegistry.get("smartcontent.published.cache.hits").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should skip gzip for small documents and never cache unpublished content")
+    void testPutIfPublished_SmallAndUnpublished() {
+        PublishedContentCache.Entry entry = cache.putIfPublished(content(ContentStatus.PUBLISHED, "short"));
+        assertNotNull(entry.getJson());
+        assertNull(entry.getGzip());
+
+        cache.evict("content1");
+        assertNull(cache.putIfPublished(content(ContentStatus.DRAFT, "short")));
+        assertEquals(0.0, meterRegistry.get("smartcontent.published.cache.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should miss when the stored ETag is stale or the entry was evicted")
+    void testGet_StaleOrEvicted() {
+        Content content = content(ContentStatus.PUBLISHED, "body");
+        cache.putIfPublished(content);
+
+        assertNull(cache.get("content1", ContentETags.of("content1", 2, content.getUpdatedAt())));
+        cache.evict("content1");
+        assertNull(cache.get("content1", ContentETags.of(content)));
+        assertEquals(2.0, meterRegistry.get("smartcontent.published.cache.misses").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should report an entry of any version and count a miss when there is none")
+    void testContains() {
+        Content content = content(ContentStatus.PUBLISHED, "body");
+        assertFalse(cache.contains("content1"));
+        cache.putIfPublished(content);
+
+        assertTrue(cache.contains("content1"));
+        assertEquals(1.0, meterRegistry.get("smartcontent.published.cache.misses").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should serve but not cache documents larger than the maximum entry size")
+    void testPutIfPublished_LargerThanMaxEntrySize() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new PublishedContentCache(objectMapper, meterRegistry, Duration.ofMinutes(10), 100,
+                DataSize.ofMegabytes(1), DataSize.ofKilobytes(4), true, 1024);
+        cache.putIfPublished(content(ContentStatus.PUBLISHED, "small"));
+
+        Content large = content(ContentStatus.PUBLISHED, "x".repeat(8192));
+        PublishedContentCache.Entry entry = cache.putIfPublished(large);
+
+        assertEquals(ContentETags.of(large), entry.getETag());
+        assertNotNull(entry.getGzip());
+        // The smaller, older version must not be left behind either
+        assertFalse(cache.contains("content1"));
+        assertEquals(0.0, meterRegistry.get("smartcontent.published.cache.bytes").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entries to stay within the byte budget")
+    void testPutIfPublished_BoundedByBytes() {
+        int entrySize = cache.putIfPublished(content(ContentStatus.PUBLISHED, "body")).getJson().length;
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new PublishedContentCache(objectMapper, meterRegistry, Duration.ofMinutes(10), 100,
+                DataSize.ofBytes(entrySize * 5L / 2), DataSize.ofBytes(entrySize), false, 1024);
+        for (int i = 1; i <= 5; i++) {
+            Content content = content(ContentStatus.PUBLISHED, "body");
+            content.setId("content" + i);
+            cache.putIfPublished(content);
+        }
+
+        assertEquals(2.0 * entrySize, meterRegistry.get("smartcontent.published.cache.bytes").gauge().value());
+        assertEquals(2.0, meterRegistry.get("smartcontent.published.cache.size").gauge().value());
+        assertFalse(cache.contains("content3"));
+        assertTrue(cache.contains("content4"));
+        assertTrue(cache.contains("content5"));
+    }
+
+    @Test
+    @DisplayName("Should negotiate gzip from Accept-Encoding")
+    void testAcceptsGzip() {
+        assertTrue(PublishedContentCache.acceptsGzip("gzip, deflate, br"));
+        assertTrue(PublishedContentCache.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(PublishedContentCache.acceptsGzip("*"));
+        assertFalse(PublishedContentCache.acceptsGzip("gzip;q=0"));
+        assertFalse(PublishedContentCache.acceptsGzip("identity"));
+        assertFalse(PublishedContentCache.acceptsGzip(null));
+    }
+
+    private static Content content(ContentStatus status, String body) {
+        return Content.builder()
+                .id("content1")
+                .title("Title")
+                .body(body)
+                .status(status)
+                .version(1)
+                .updatedAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .build();
+    }
+}